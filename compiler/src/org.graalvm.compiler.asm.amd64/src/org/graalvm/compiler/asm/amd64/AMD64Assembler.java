@@ -806,6 +806,8 @@ public class AMD64Assembler extends Assembler {
         public static final AMD64RMOp POPCNT = new AMD64RMOp("POPCNT", 0xF3, P_0F, 0xB8, CPUFeature.POPCNT);
         public static final AMD64RMOp TZCNT  = new AMD64RMOp("TZCNT",  0xF3, P_0F, 0xBC, CPUFeature.BMI1);
         public static final AMD64RMOp LZCNT  = new AMD64RMOp("LZCNT",  0xF3, P_0F, 0xBD, CPUFeature.LZCNT);
+        public static final AMD64RMOp CRC32  = new AMD64RMOp("CRC32",  0xF2, P_0F38, 0xF1, OpAssertion.DwordOrLargerAssertion, CPUFeature.SSE4_2);
+        public static final AMD64RMOp CRC32B = new AMD64RMOp("CRC32B", 0xF2, P_0F38, 0xF0, false, true, OpAssertion.DwordOrLargerAssertion, CPUFeature.SSE4_2);
         public static final AMD64RMOp MOVZXB = new AMD64RMOp("MOVZXB",       P_0F, 0xB6, false, true, OpAssertion.WordOrLargerAssertion);
         public static final AMD64RMOp MOVZX  = new AMD64RMOp("MOVZX",        P_0F, 0xB7, OpAssertion.DwordOrLargerAssertion);
         public static final AMD64RMOp MOVSXB = new AMD64RMOp("MOVSXB",       P_0F, 0xBE, false, true, OpAssertion.WordOrLargerAssertion);
@@ -857,6 +859,10 @@ public class AMD64Assembler extends Assembler {
             super(opcode, prefix1, prefix2, op, assertion, feature);
         }
 
+        protected AMD64RMOp(String opcode, int prefix1, int prefix2, int op, boolean dstIsByte, boolean srcIsByte, OpAssertion assertion, CPUFeature feature) {
+            super(opcode, prefix1, prefix2, op, dstIsByte, srcIsByte, assertion, feature);
+        }
+
         @Override
         public final void emit(AMD64Assembler asm, OperandSize size, Register dst, Register src) {
             assert verify(asm, size, dst, src);
@@ -2357,6 +2363,30 @@ public class AMD64Assembler extends Assembler {
         emitByte(0xC0 | encode);
     }
 
+    /**
+     * Emits {@code dst = src1 * src2 + dst} for double values with a single rounding.
+     */
+    public final void vfmadd231sd(Register dst, Register src1, Register src2) {
+        assert supports(CPUFeature.FMA);
+        assert dst.getRegisterCategory().equals(AMD64.XMM) && src1.getRegisterCategory().equals(AMD64.XMM) && src2.getRegisterCategory().equals(AMD64.XMM);
+        AMD64InstructionAttr attributes = new AMD64InstructionAttr(AvxVectorLen.AVX_128bit, /* rexVexW */ true, /* legacyMode */ false, /* noMaskReg */ false, /* usesVl */ false, target);
+        int encode = vexPrefixAndEncode(dst, src1, src2, VexSimdPrefix.VEX_SIMD_66, VexOpcode.VEX_OPCODE_0F_38, attributes);
+        emitByte(0xB9);
+        emitByte(0xC0 | encode);
+    }
+
+    /**
+     * Emits {@code dst = src1 * src2 + dst} for float values with a single rounding.
+     */
+    public final void vfmadd231ss(Register dst, Register src1, Register src2) {
+        assert supports(CPUFeature.FMA);
+        assert dst.getRegisterCategory().equals(AMD64.XMM) && src1.getRegisterCategory().equals(AMD64.XMM) && src2.getRegisterCategory().equals(AMD64.XMM);
+        AMD64InstructionAttr attributes = new AMD64InstructionAttr(AvxVectorLen.AVX_128bit, /* rexVexW */ false, /* legacyMode */ false, /* noMaskReg */ false, /* usesVl */ false, target);
+        int encode = vexPrefixAndEncode(dst, src1, src2, VexSimdPrefix.VEX_SIMD_66, VexOpcode.VEX_OPCODE_0F_38, attributes);
+        emitByte(0xB9);
+        emitByte(0xC0 | encode);
+    }
+
     public final void movswl(Register dst, AMD64Address src) {
         prefix(src, dst);
         emitByte(0x0F);
@@ -2767,6 +2797,14 @@ public class AMD64Assembler extends Assembler {
         emitByte(0xC0 | encode);
     }
 
+    public final void packuswb(Register dst, Register src) {
+        assert dst.getRegisterCategory().equals(AMD64.XMM) && src.getRegisterCategory().equals(AMD64.XMM);
+        AMD64InstructionAttr attributes = new AMD64InstructionAttr(AvxVectorLen.AVX_128bit, /* rexVexW */ false, /* legacyMode */ false, /* noMaskReg */ false, /* usesVl */ false, target);
+        int encode = simdPrefixAndEncode(dst, dst, src, VexSimdPrefix.VEX_SIMD_66, VexOpcode.VEX_OPCODE_0F, attributes);
+        emitByte(0x67);
+        emitByte(0xC0 | encode);
+    }
+
     public final void vpxor(Register dst, Register nds, Register src) {
         assert supports(CPUFeature.AVX);
         assert dst.getRegisterCategory().equals(AMD64.XMM) && src.getRegisterCategory().equals(AMD64.XMM);
@@ -2858,6 +2896,62 @@ public class AMD64Assembler extends Assembler {
         emitByte(imm8);
     }
 
+    public final void pslldq(Register dst, int imm8) {
+        assert isUByte(imm8) : "invalid value";
+        assert dst.getRegisterCategory().equals(AMD64.XMM);
+        AMD64InstructionAttr attributes = new AMD64InstructionAttr(AvxVectorLen.AVX_128bit, /* rexVexW */ false, /* legacyMode */ false, /* noMaskReg */ false, /* usesVl */ false, target);
+        // XMM7 is for /7 encoding: 66 0F 73 /7 ib
+        int encode = simdPrefixAndEncode(AMD64.xmm7, dst, dst, VexSimdPrefix.VEX_SIMD_66, VexOpcode.VEX_OPCODE_0F, attributes);
+        emitByte(0x73);
+        emitByte(0xC0 | encode);
+        emitByte(imm8);
+    }
+
+    public final void pshufb(Register dst, Register src) {
+        assert supports(CPUFeature.SSSE3);
+        assert dst.getRegisterCategory().equals(AMD64.XMM) && src.getRegisterCategory().equals(AMD64.XMM);
+        AMD64InstructionAttr attributes = new AMD64InstructionAttr(AvxVectorLen.AVX_128bit, /* rexVexW */ false, /* legacyMode */ false, /* noMaskReg */ false, /* usesVl */ false, target);
+        int encode = simdPrefixAndEncode(dst, dst, src, VexSimdPrefix.VEX_SIMD_66, VexOpcode.VEX_OPCODE_0F_38, attributes);
+        emitByte(0x00);
+        emitByte(0xC0 | encode);
+    }
+
+    public final void pclmulqdq(Register dst, Register src, int imm8) {
+        assert supports(CPUFeature.CLMUL);
+        assert isUByte(imm8) : "invalid value";
+        assert dst.getRegisterCategory().equals(AMD64.XMM) && src.getRegisterCategory().equals(AMD64.XMM);
+        AMD64InstructionAttr attributes = new AMD64InstructionAttr(AvxVectorLen.AVX_128bit, /* rexVexW */ false, /* legacyMode */ false, /* noMaskReg */ false, /* usesVl */ false, target);
+        int encode = simdPrefixAndEncode(dst, dst, src, VexSimdPrefix.VEX_SIMD_66, VexOpcode.VEX_OPCODE_0F_3A, attributes);
+        emitByte(0x44);
+        emitByte(0xC0 | encode);
+        emitByte(imm8);
+    }
+
+    public final void aesenc(Register dst, Register src) {
+        emitAESOp(0xDC, dst, src);
+    }
+
+    public final void aesenclast(Register dst, Register src) {
+        emitAESOp(0xDD, dst, src);
+    }
+
+    public final void aesdec(Register dst, Register src) {
+        emitAESOp(0xDE, dst, src);
+    }
+
+    public final void aesdeclast(Register dst, Register src) {
+        emitAESOp(0xDF, dst, src);
+    }
+
+    private void emitAESOp(int op, Register dst, Register src) {
+        assert supports(CPUFeature.AES);
+        assert dst.getRegisterCategory().equals(AMD64.XMM) && src.getRegisterCategory().equals(AMD64.XMM);
+        AMD64InstructionAttr attributes = new AMD64InstructionAttr(AvxVectorLen.AVX_128bit, /* rexVexW */ false, /* legacyMode */ false, /* noMaskReg */ false, /* usesVl */ false, target);
+        int encode = simdPrefixAndEncode(dst, dst, src, VexSimdPrefix.VEX_SIMD_66, VexOpcode.VEX_OPCODE_0F_38, attributes);
+        emitByte(op);
+        emitByte(0xC0 | encode);
+    }
+
     public final void pshufd(Register dst, Register src, int imm8) {
         assert isUByte(imm8) : "invalid value";
         assert dst.getRegisterCategory().equals(AMD64.XMM) && src.getRegisterCategory().equals(AMD64.XMM);
@@ -3586,6 +3680,15 @@ public class AMD64Assembler extends Assembler {
         emitByte(0xC0 | encode);
     }
 
+    public final void movdqu(AMD64Address dst, Register src) {
+        assert src.getRegisterCategory().equals(AMD64.XMM);
+        // swap src/dst to get correct prefix
+        AMD64InstructionAttr attributes = new AMD64InstructionAttr(AvxVectorLen.AVX_128bit, /* rexVexW */ false, /* legacyMode */ false, /* noMaskReg */ false, /* usesVl */ false, target);
+        simdPrefix(src, Register.None, dst, VexSimdPrefix.VEX_SIMD_F3, VexOpcode.VEX_OPCODE_0F, attributes);
+        emitByte(0x7F);
+        emitOperandHelper(src, dst, 0);
+    }
+
     public final void vmovdqu(Register dst, AMD64Address src) {
         assert supports(CPUFeature.AVX);
         assert dst.getRegisterCategory().equals(AMD64.XMM);
@@ -3595,6 +3698,15 @@ public class AMD64Assembler extends Assembler {
         emitOperandHelper(dst, src, 0);
     }
 
+    public final void vmovdqu(AMD64Address dst, Register src) {
+        assert supports(CPUFeature.AVX);
+        assert src.getRegisterCategory().equals(AMD64.XMM);
+        AMD64InstructionAttr attributes = new AMD64InstructionAttr(AvxVectorLen.AVX_256bit, /* rexVexW */ false, /* legacyMode */ false, /* noMaskReg */ false, /* usesVl */ false, target);
+        vexPrefix(dst, Register.None, src, VexSimdPrefix.VEX_SIMD_F3, VexOpcode.VEX_OPCODE_0F, attributes);
+        emitByte(0x7F);
+        emitOperandHelper(src, dst, 0);
+    }
+
     public final void vzeroupper() {
         assert supports(CPUFeature.AVX);
         AMD64InstructionAttr attributes = new AMD64InstructionAttr(AvxVectorLen.AVX_128bit, /* rexVexW */ false, /* legacyMode */ false, /* noMaskReg */ false, /* usesVl */ false, target);
@@ -3690,6 +3802,10 @@ public class AMD64Assembler extends Assembler {
         SUB.rmOp.emit(this, QWORD, dst, src);
     }
 
+    public final void xorq(Register dst, Register src) {
+        XOR.rmOp.emit(this, QWORD, dst, src);
+    }
+
     public final void testq(Register dst, Register src) {
         int encode = prefixqAndEncode(dst.encoding, src.encoding);
         emitByte(0x85);
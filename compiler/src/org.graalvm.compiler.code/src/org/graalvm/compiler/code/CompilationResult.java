@@ -203,6 +203,16 @@ public class CompilationResult {
      */
     private int targetCodeSize;
 
+    /**
+     * Offset of the first instruction of the cold code region or -1 if all code is hot.
+     */
+    private int coldCodeStart = -1;
+
+    /**
+     * Offset just past the last instruction of the cold code region or -1 if all code is hot.
+     */
+    private int coldCodeEnd = -1;
+
     private ArrayList<CodeAnnotation> annotations;
 
     private Assumption[] assumptions;
@@ -273,6 +283,8 @@ public class CompilationResult {
                 Objects.equals(this.customStackArea, that.customStackArea) &&
                 this.totalFrameSize == that.totalFrameSize &&
                 this.targetCodeSize == that.targetCodeSize &&
+                this.coldCodeStart == that.coldCodeStart &&
+                this.coldCodeEnd == that.coldCodeEnd &&
                 Objects.equals(this.name, that.name) &&
                 Objects.equals(this.compilationId, that.compilationId) &&
                 Objects.equals(this.annotations, that.annotations) &&
@@ -606,6 +618,40 @@ public class CompilationResult {
         return targetCodeSize;
     }
 
+    /**
+     * @return the offset of the first instruction in the region of rarely executed code at the end
+     *         of the {@linkplain #getTargetCode() target code} or -1 if there is no such region
+     */
+    public int getColdCodeStart() {
+        return coldCodeStart;
+    }
+
+    public void setColdCodeStart(int coldCodeStart) {
+        checkOpen();
+        this.coldCodeStart = coldCodeStart;
+    }
+
+    /**
+     * @return the offset just past the last instruction of the outlined cold blocks or -1 if there
+     *         is no cold region. Code emitted after the blocks, such as stubs, is not part of the
+     *         region.
+     */
+    public int getColdCodeEnd() {
+        return coldCodeEnd;
+    }
+
+    public void setColdCodeEnd(int coldCodeEnd) {
+        checkOpen();
+        this.coldCodeEnd = coldCodeEnd;
+    }
+
+    /**
+     * @return the size of the cold code region in bytes
+     */
+    public int getColdCodeSize() {
+        return coldCodeStart == -1 ? 0 : coldCodeEnd - coldCodeStart;
+    }
+
     /**
      * @return the code annotations or {@code null} if there are none
      */
@@ -706,6 +752,8 @@ public class CompilationResult {
         exceptionHandlers.clear();
         marks.clear();
         dataSection.clear();
+        coldCodeStart = -1;
+        coldCodeEnd = -1;
         if (annotations != null) {
             annotations.clear();
         }
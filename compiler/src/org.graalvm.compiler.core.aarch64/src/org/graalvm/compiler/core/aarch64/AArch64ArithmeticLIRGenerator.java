@@ -384,6 +384,14 @@ public class AArch64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implem
         return emitUnary(AArch64ArithmeticOp.SQRT, input);
     }
 
+    @Override
+    public Value emitFusedMultiplyAdd(Value a, Value b, Value c) {
+        assert a.getPlatformKind() == AArch64Kind.SINGLE || a.getPlatformKind() == AArch64Kind.DOUBLE;
+        Variable result = getLIRGen().newVariable(LIRKind.combine(a, b, c));
+        getLIRGen().append(new AArch64ArithmeticOp.TernaryOp(AArch64ArithmeticOp.FMADD, result, getLIRGen().asAllocatable(a), getLIRGen().asAllocatable(b), getLIRGen().asAllocatable(c)));
+        return result;
+    }
+
     @Override
     public Variable emitBitScanForward(Value value) {
         throw GraalError.unimplemented();
@@ -44,6 +44,8 @@ import org.graalvm.compiler.lir.aarch64.AArch64AddressValue;
 import org.graalvm.compiler.lir.aarch64.AArch64ArithmeticOp;
 import org.graalvm.compiler.lir.aarch64.AArch64ArrayCompareToOp;
 import org.graalvm.compiler.lir.aarch64.AArch64ArrayEqualsOp;
+import org.graalvm.compiler.lir.aarch64.AArch64ArrayIndexOfOp;
+import org.graalvm.compiler.lir.aarch64.AArch64BigIntegerMulAddOp;
 import org.graalvm.compiler.lir.aarch64.AArch64ByteSwapOp;
 import org.graalvm.compiler.lir.aarch64.AArch64Compare;
 import org.graalvm.compiler.lir.aarch64.AArch64ControlFlow;
@@ -51,11 +53,13 @@ import org.graalvm.compiler.lir.aarch64.AArch64ControlFlow.BranchOp;
 import org.graalvm.compiler.lir.aarch64.AArch64ControlFlow.CondMoveOp;
 import org.graalvm.compiler.lir.aarch64.AArch64ControlFlow.StrategySwitchOp;
 import org.graalvm.compiler.lir.aarch64.AArch64ControlFlow.TableSwitchOp;
+import org.graalvm.compiler.lir.aarch64.AArch64HasNegativesOp;
 import org.graalvm.compiler.lir.aarch64.AArch64Move;
 import org.graalvm.compiler.lir.aarch64.AArch64AtomicMove.AtomicReadAndAddOp;
 import org.graalvm.compiler.lir.aarch64.AArch64AtomicMove.CompareAndSwapOp;
 import org.graalvm.compiler.lir.aarch64.AArch64Move.MembarOp;
 import org.graalvm.compiler.lir.aarch64.AArch64PauseOp;
+import org.graalvm.compiler.lir.aarch64.AArch64VectorizedMismatchOp;
 import org.graalvm.compiler.lir.gen.LIRGenerationResult;
 import org.graalvm.compiler.lir.gen.LIRGenerator;
 import org.graalvm.compiler.phases.util.Providers;
@@ -457,6 +461,34 @@ public abstract class AArch64LIRGenerator extends LIRGenerator {
         return result;
     }
 
+    @Override
+    public Variable emitVectorizedMismatch(Value a, Value aOffset, Value b, Value bOffset, Value length, int log2ElementSize) {
+        Variable result = newVariable(LIRKind.value(AArch64Kind.DWORD));
+        append(new AArch64VectorizedMismatchOp(this, log2ElementSize, result, asAllocatable(a), asAllocatable(aOffset), asAllocatable(b), asAllocatable(bOffset), asAllocatable(length)));
+        return result;
+    }
+
+    @Override
+    public Variable emitHasNegatives(Value array, Value offset, Value length) {
+        Variable result = newVariable(LIRKind.value(AArch64Kind.DWORD));
+        append(new AArch64HasNegativesOp(this, result, asAllocatable(array), asAllocatable(offset), asAllocatable(length)));
+        return result;
+    }
+
+    @Override
+    public Variable emitArrayIndexOf(JavaKind kind, Value array, Value fromIndex, Value length, Value searchValue) {
+        Variable result = newVariable(LIRKind.value(AArch64Kind.DWORD));
+        append(new AArch64ArrayIndexOfOp(this, kind, result, asAllocatable(array), asAllocatable(fromIndex), asAllocatable(length), asAllocatable(searchValue)));
+        return result;
+    }
+
+    @Override
+    public Variable emitBigIntegerMulAdd(Value out, Value in, Value outIndex, Value length, Value k) {
+        Variable result = newVariable(LIRKind.value(AArch64Kind.DWORD));
+        append(new AArch64BigIntegerMulAddOp(this, result, asAllocatable(out), asAllocatable(in), asAllocatable(outIndex), asAllocatable(length), asAllocatable(k)));
+        return result;
+    }
+
     @Override
     protected JavaConstant zapValueForKind(PlatformKind kind) {
         long dead = 0xDEADDEADDEADDEADL;
@@ -99,6 +99,7 @@ import org.graalvm.compiler.lir.amd64.AMD64ArithmeticLIRGeneratorTool;
 import org.graalvm.compiler.lir.amd64.AMD64Binary;
 import org.graalvm.compiler.lir.amd64.AMD64BinaryConsumer;
 import org.graalvm.compiler.lir.amd64.AMD64ClearRegisterOp;
+import org.graalvm.compiler.lir.amd64.AMD64FusedMultiplyAddOp;
 import org.graalvm.compiler.lir.amd64.AMD64MathIntrinsicBinaryOp;
 import org.graalvm.compiler.lir.amd64.AMD64MathIntrinsicUnaryOp;
 import org.graalvm.compiler.lir.amd64.AMD64Move;
@@ -1075,6 +1076,14 @@ public class AMD64ArithmeticLIRGenerator extends ArithmeticLIRGenerator implemen
         return result;
     }
 
+    @Override
+    public Value emitFusedMultiplyAdd(Value a, Value b, Value c) {
+        assert ((AMD64) getLIRGen().target().arch).getFeatures().contains(CPUFeature.FMA);
+        Variable result = getLIRGen().newVariable(LIRKind.combine(a, b, c));
+        getLIRGen().append(new AMD64FusedMultiplyAddOp(result, getLIRGen().asAllocatable(a), getLIRGen().asAllocatable(b), getLIRGen().asAllocatable(c)));
+        return result;
+    }
+
     @Override
     public Value emitMathLog(Value input, boolean base10) {
         LIRGenerator gen = getLIRGen();
@@ -25,6 +25,7 @@ package org.graalvm.compiler.core.amd64;
 
 import static jdk.vm.ci.code.ValueUtil.asRegister;
 import static jdk.vm.ci.code.ValueUtil.isAllocatableValue;
+import static jdk.vm.ci.code.ValueUtil.isIllegal;
 import static jdk.vm.ci.code.ValueUtil.isRegister;
 import static org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64BinaryArithmetic.CMP;
 import static org.graalvm.compiler.asm.amd64.AMD64Assembler.OperandSize.DWORD;
@@ -48,6 +49,7 @@ import org.graalvm.compiler.asm.amd64.AMD64Assembler.SSEOp;
 import org.graalvm.compiler.core.common.LIRKind;
 import org.graalvm.compiler.core.common.NumUtil;
 import org.graalvm.compiler.core.common.calc.Condition;
+import org.graalvm.compiler.core.common.calc.ElementwiseBinaryOp;
 import org.graalvm.compiler.core.common.spi.ForeignCallLinkage;
 import org.graalvm.compiler.core.common.spi.LIRKindTool;
 import org.graalvm.compiler.debug.GraalError;
@@ -60,13 +62,16 @@ import org.graalvm.compiler.lir.StandardOp.JumpOp;
 import org.graalvm.compiler.lir.StandardOp.SaveRegistersOp;
 import org.graalvm.compiler.lir.SwitchStrategy;
 import org.graalvm.compiler.lir.Variable;
+import org.graalvm.compiler.lir.amd64.AMD64AESCryptBlockOp;
 import org.graalvm.compiler.lir.amd64.AMD64AddressValue;
 import org.graalvm.compiler.lir.amd64.AMD64ArithmeticLIRGeneratorTool;
 import org.graalvm.compiler.lir.amd64.AMD64ArrayCompareToOp;
 import org.graalvm.compiler.lir.amd64.AMD64ArrayEqualsOp;
+import org.graalvm.compiler.lir.amd64.AMD64BigIntegerMulAddOp;
 import org.graalvm.compiler.lir.amd64.AMD64Binary;
 import org.graalvm.compiler.lir.amd64.AMD64BinaryConsumer;
 import org.graalvm.compiler.lir.amd64.AMD64ByteSwapOp;
+import org.graalvm.compiler.lir.amd64.AMD64CRC32CUpdateBytesOp;
 import org.graalvm.compiler.lir.amd64.AMD64Call;
 import org.graalvm.compiler.lir.amd64.AMD64ControlFlow;
 import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.BranchOp;
@@ -78,15 +83,21 @@ import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.FloatCondSetOp;
 import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.ReturnOp;
 import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.StrategySwitchOp;
 import org.graalvm.compiler.lir.amd64.AMD64ControlFlow.TableSwitchOp;
+import org.graalvm.compiler.lir.amd64.AMD64GHASHProcessBlocksOp;
+import org.graalvm.compiler.lir.amd64.AMD64HasNegativesOp;
 import org.graalvm.compiler.lir.amd64.AMD64LFenceOp;
 import org.graalvm.compiler.lir.amd64.AMD64Move;
 import org.graalvm.compiler.lir.amd64.AMD64Move.CompareAndSwapOp;
 import org.graalvm.compiler.lir.amd64.AMD64Move.MembarOp;
 import org.graalvm.compiler.lir.amd64.AMD64Move.StackLeaOp;
 import org.graalvm.compiler.lir.amd64.AMD64PauseOp;
+import org.graalvm.compiler.lir.amd64.AMD64StringCompressOp;
 import org.graalvm.compiler.lir.amd64.AMD64StringIndexOfOp;
+import org.graalvm.compiler.lir.amd64.AMD64StringInflateOp;
+import org.graalvm.compiler.lir.amd64.AMD64VectorizedMismatchOp;
 import org.graalvm.compiler.lir.amd64.AMD64ZapRegistersOp;
 import org.graalvm.compiler.lir.amd64.AMD64ZapStackOp;
+import org.graalvm.compiler.lir.amd64.vector.AMD64ArrayElementwiseOp;
 import org.graalvm.compiler.lir.gen.LIRGenerationResult;
 import org.graalvm.compiler.lir.gen.LIRGenerator;
 import org.graalvm.compiler.phases.util.Providers;
@@ -545,6 +556,18 @@ public abstract class AMD64LIRGenerator extends LIRGenerator {
         return result;
     }
 
+    @Override
+    public Variable emitArrayElementwiseOp(ElementwiseBinaryOp op, JavaKind kind, Value result, Value x, Value y, Value start, Value end) {
+        Variable processedEnd = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        if (AMD64ArrayElementwiseOp.isSupported(target(), op, kind)) {
+            append(new AMD64ArrayElementwiseOp(this, op, kind, processedEnd, asAllocatable(result), asAllocatable(x), asAllocatable(y), asAllocatable(start), asAllocatable(end)));
+        } else {
+            // leave all elements to the scalar loop
+            emitMove(processedEnd, start);
+        }
+        return processedEnd;
+    }
+
     /**
      * Return a conservative estimate of the page size for use by the String.indexOf intrinsic.
      */
@@ -563,6 +586,79 @@ public abstract class AMD64LIRGenerator extends LIRGenerator {
         return result;
     }
 
+    @Override
+    public Variable emitVectorizedMismatch(Value a, Value aOffset, Value b, Value bOffset, Value length, int log2ElementSize) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        RegisterValue aOff = AMD64.rsi.asValue(aOffset.getValueKind());
+        RegisterValue bOff = AMD64.rdi.asValue(bOffset.getValueKind());
+        RegisterValue cnt = AMD64.rdx.asValue(length.getValueKind());
+        emitMove(aOff, aOffset);
+        emitMove(bOff, bOffset);
+        emitMove(cnt, length);
+        append(new AMD64VectorizedMismatchOp(this, log2ElementSize, result, asAllocatable(a), aOff, asAllocatable(b), bOff, cnt));
+        return result;
+    }
+
+    @Override
+    public Variable emitHasNegatives(Value array, Value offset, Value length) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        RegisterValue off = AMD64.rsi.asValue(offset.getValueKind());
+        RegisterValue cnt = AMD64.rdx.asValue(length.getValueKind());
+        emitMove(off, offset);
+        emitMove(cnt, length);
+        append(new AMD64HasNegativesOp(this, result, asAllocatable(array), off, cnt));
+        return result;
+    }
+
+    @Override
+    public Variable emitStringCompress(JavaKind srcKind, Value src, Value srcIndex, Value dst, Value dstIndex, Value length) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        RegisterValue srcIdx = AMD64.rsi.asValue(srcIndex.getValueKind());
+        RegisterValue dstIdx = AMD64.rdi.asValue(dstIndex.getValueKind());
+        RegisterValue cnt = AMD64.rdx.asValue(length.getValueKind());
+        emitMove(srcIdx, srcIndex);
+        emitMove(dstIdx, dstIndex);
+        emitMove(cnt, length);
+        append(new AMD64StringCompressOp(this, srcKind, result, asAllocatable(src), srcIdx, asAllocatable(dst), dstIdx, cnt));
+        return result;
+    }
+
+    @Override
+    public void emitStringInflate(JavaKind dstKind, Value src, Value srcIndex, Value dst, Value dstIndex, Value length) {
+        RegisterValue srcIdx = AMD64.rsi.asValue(srcIndex.getValueKind());
+        RegisterValue dstIdx = AMD64.rdi.asValue(dstIndex.getValueKind());
+        RegisterValue cnt = AMD64.rdx.asValue(length.getValueKind());
+        emitMove(srcIdx, srcIndex);
+        emitMove(dstIdx, dstIndex);
+        emitMove(cnt, length);
+        append(new AMD64StringInflateOp(this, dstKind, asAllocatable(src), srcIdx, asAllocatable(dst), dstIdx, cnt));
+    }
+
+    @Override
+    public Variable emitCRC32CUpdateBytes(Value crc, Value array, Value offset, Value length) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        Value arrayValue = isIllegal(array) ? array : asAllocatable(array);
+        append(new AMD64CRC32CUpdateBytesOp(this, result, asAllocatable(crc), arrayValue, asAllocatable(offset), asAllocatable(length)));
+        return result;
+    }
+
+    @Override
+    public void emitAESCryptBlock(boolean encrypt, Value in, Value inOffset, Value out, Value outOffset, Value key, Value keyLength) {
+        append(new AMD64AESCryptBlockOp(this, encrypt, asAllocatable(in), asAllocatable(inOffset), asAllocatable(out), asAllocatable(outOffset), asAllocatable(key), asAllocatable(keyLength)));
+    }
+
+    @Override
+    public void emitGHASHProcessBlocks(Value data, Value offset, Value blocks, Value state, Value subkeyH) {
+        append(new AMD64GHASHProcessBlocksOp(this, asAllocatable(data), asAllocatable(offset), asAllocatable(blocks), asAllocatable(state), asAllocatable(subkeyH)));
+    }
+
+    @Override
+    public Variable emitBigIntegerMulAdd(Value out, Value in, Value outIndex, Value length, Value k) {
+        Variable result = newVariable(LIRKind.value(AMD64Kind.DWORD));
+        append(new AMD64BigIntegerMulAddOp(this, result, asAllocatable(out), asAllocatable(in), asAllocatable(outIndex), asAllocatable(length), asAllocatable(k)));
+        return result;
+    }
+
     @Override
     public void emitReturn(JavaKind kind, Value input) {
         AllocatableValue operand = Value.ILLEGAL;
@@ -60,17 +60,31 @@ public abstract class AMD64MoveFactoryBase implements MoveFactory {
     public static final class BackupSlotProvider {
 
         private final FrameMapBuilder frameMapBuilder;
-        private EconomicMap<PlatformKind.Key, RegisterBackupPair> categorized;
+
+        /**
+         * Never modified after publication, so that it can be read without locking by a register
+         * allocator that creates spill moves concurrently.
+         */
+        private volatile EconomicMap<PlatformKind.Key, RegisterBackupPair> categorized;
 
         public BackupSlotProvider(FrameMapBuilder frameMapBuilder) {
             this.frameMapBuilder = frameMapBuilder;
         }
 
         protected RegisterBackupPair getScratchRegister(PlatformKind kind) {
+            EconomicMap<PlatformKind.Key, RegisterBackupPair> map = categorized;
+            if (map != null) {
+                RegisterBackupPair value = map.get(kind.getKey());
+                if (value != null) {
+                    return value;
+                }
+            }
+            return createScratchRegister(kind);
+        }
+
+        private synchronized RegisterBackupPair createScratchRegister(PlatformKind kind) {
             PlatformKind.Key key = kind.getKey();
-            if (categorized == null) {
-                categorized = EconomicMap.create(Equivalence.DEFAULT);
-            } else if (categorized.containsKey(key)) {
+            if (categorized != null && categorized.containsKey(key)) {
                 return categorized.get(key);
             }
 
@@ -85,7 +99,9 @@ public abstract class AMD64MoveFactoryBase implements MoveFactory {
             VirtualStackSlot backupSlot = frameMapBuilder.allocateSpillSlot(largestKind);
 
             RegisterBackupPair value = new RegisterBackupPair(scratchRegister, backupSlot);
-            categorized.put(key, value);
+            EconomicMap<PlatformKind.Key, RegisterBackupPair> map = categorized == null ? EconomicMap.create(Equivalence.DEFAULT) : EconomicMap.create(Equivalence.DEFAULT, categorized);
+            map.put(key, value);
+            categorized = map;
 
             return value;
         }
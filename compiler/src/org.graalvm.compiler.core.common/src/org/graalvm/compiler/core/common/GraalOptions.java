@@ -111,6 +111,22 @@ public final class GraalOptions {
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> PartialUnroll = new OptionKey<>(true);
 
+    @Option(help = "Replace null and bounds checks in counted loops by speculative checks before the loop.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> LoopPredication = new OptionKey<>(false);
+
+    @Option(help = "Move guards with a loop invariant condition out of loops, speculating that they are evaluated in the loop. " +
+                   "Failed speculations are tracked with the speculation log instead of deoptimization rate feedback.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> SpeculativeGuardMovement = new OptionKey<>(false);
+
+    @Option(help = "Replace simple element-wise array loops with vector code on backends that support it.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> LoopVectorization = new OptionKey<>(false);
+
+    @Option(help = "Split long running counted loops into an outer loop with a safepoint poll and an inner loop without one.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> LoopStripMining = new OptionKey<>(false);
+
+    @Option(help = "Maximum number of iterations of a strip mined inner loop between two safepoint polls.", type = OptionType.Expert)
+    public static final OptionKey<Integer> LoopStripMiningIterations = new OptionKey<>(1000);
+
     @Option(help = "", type = OptionType.Expert)
     public static final OptionKey<Float> MinimumPeelProbability = new OptionKey<>(0.35f);
 
@@ -157,6 +173,13 @@ public final class GraalOptions {
     @Option(help = "Print inlining optimizations", type = OptionType.Debug)
     public static final OptionKey<Boolean> HotSpotPrintInlining = new OptionKey<>(false);
 
+    // Code layout
+    @Option(help = "Emit rarely executed blocks in a cold region at the end of the code.", type = OptionType.Expert)
+    public static final OptionKey<Boolean> OutlineColdBlocks = new OptionKey<>(false);
+
+    @Option(help = "Blocks with a lower probability than this are emitted in the cold region (see OutlineColdBlocks).", type = OptionType.Expert)
+    public static final OptionKey<Double> ColdBlockProbability = new OptionKey<>(0.001);
+
     // Register allocator debugging
     @Option(help = "Comma separated list of registers that register allocation is limited to.", type = OptionType.Debug)
     public static final OptionKey<String> RegisterPressure = new OptionKey<>(null);
@@ -250,6 +273,12 @@ public final class GraalOptions {
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> OptFloatingReads = new OptionKey<>(true);
 
+    @Option(help = "Merge guarded floating nodes and reads with equal nodes in dominating blocks.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> OptGlobalValueNumbering = new OptionKey<>(false);
+
+    @Option(help = "Duplicate code after merges into predecessors where it can be specialized for more precise phi inputs.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> OptTailDuplication = new OptionKey<>(false);
+
     @Option(help = "", type = OptionType.Debug)
     public static final OptionKey<Boolean> OptEliminatePartiallyRedundantGuards = new OptionKey<>(true);
 
@@ -45,6 +45,10 @@ import org.graalvm.compiler.core.common.cfg.Loop;
  * backward jumps are always marked as aligned. Aligning the target of conditional jumps does not
  * bring a measurable benefit and is therefore avoided to keep the code size small.
  *
+ * Blocks that are very unlikely to be executed (e.g. deoptimization paths, exception handlers and
+ * slow paths) can be moved to a cold region at the end of the code emitting order so that they do
+ * not occupy instruction cache lines between the frequently executed blocks.
+ *
  * The linear scan register allocator order has an additional mechanism that prevents merge nodes
  * from being scheduled if there is at least one highly likely predecessor still unscheduled. This
  * increases the probability that the merge node and the corresponding predecessor are more closely
@@ -86,14 +90,49 @@ public final class ComputeBlockOrder {
      * @return sorted list of blocks
      */
     public static <T extends AbstractBlockBase<T>> AbstractBlockBase<?>[] computeCodeEmittingOrder(int blockCount, T startBlock) {
+        return computeCodeEmittingOrder(blockCount, startBlock, 0.0);
+    }
+
+    /**
+     * Computes the block order used for code emission and moves all blocks with a probability below
+     * {@code coldProbability} to the end of the order. These blocks are marked
+     * {@linkplain AbstractBlockBase#isCold() cold} and are never aligned.
+     *
+     * @return sorted list of blocks
+     */
+    public static <T extends AbstractBlockBase<T>> AbstractBlockBase<?>[] computeCodeEmittingOrder(int blockCount, T startBlock, double coldProbability) {
         List<T> order = new ArrayList<>();
         BitSet visitedBlocks = new BitSet(blockCount);
         PriorityQueue<T> worklist = initializeWorklist(startBlock, visitedBlocks);
         computeCodeEmittingOrder(order, worklist, visitedBlocks);
+        if (coldProbability > 0.0) {
+            order = moveColdBlocksToEnd(order, startBlock, coldProbability);
+        }
         assert checkOrder(order, blockCount);
         return order.toArray(new AbstractBlockBase<?>[0]);
     }
 
+    /**
+     * Stable partition of the code emitting order into frequently and rarely executed blocks. The
+     * relative order within both partitions is kept so that fall-throughs along the most likely
+     * paths are preserved.
+     */
+    private static <T extends AbstractBlockBase<T>> List<T> moveColdBlocksToEnd(List<T> order, T startBlock, double coldProbability) {
+        List<T> result = new ArrayList<>(order.size());
+        List<T> coldBlocks = new ArrayList<>();
+        for (T block : order) {
+            if (block != startBlock && block.probability() < coldProbability) {
+                block.setCold(true);
+                block.setAlign(false);
+                coldBlocks.add(block);
+            } else {
+                result.add(block);
+            }
+        }
+        result.addAll(coldBlocks);
+        return result;
+    }
+
     /**
      * Iteratively adds paths to the code emission block order.
      */
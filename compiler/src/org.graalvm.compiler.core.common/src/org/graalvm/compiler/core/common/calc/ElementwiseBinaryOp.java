@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2018, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.common.calc;
+
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Binary arithmetic operations that can be applied element by element to whole arrays.
+ */
+public enum ElementwiseBinaryOp {
+    ADD,
+    SUB,
+    MUL,
+    DIV,
+    AND,
+    OR,
+    XOR;
+
+    /**
+     * Determines if this operation is defined for arrays with elements of the given kind. Only
+     * {@code int}, {@code long}, {@code float} and {@code double} elements are supported. Integer
+     * division is not supported, neither are logical operations on floating point values. There is
+     * no packed {@code long} multiplication before AVX-512, so {@code long} multiplication is not
+     * supported either.
+     */
+    public boolean supports(JavaKind kind) {
+        switch (kind) {
+            case Int:
+                return this != DIV;
+            case Long:
+                return this != DIV && this != MUL;
+            case Float:
+            case Double:
+                return this == ADD || this == SUB || this == MUL || this == DIV;
+            default:
+                return false;
+        }
+    }
+}
@@ -37,6 +37,7 @@ public abstract class AbstractBlockBase<T extends AbstractBlockBase<T>> {
     private int maxChildDomNumber;
 
     private boolean align;
+    private boolean cold;
     private int linearScanNumber;
 
     protected AbstractBlockBase() {
@@ -147,6 +148,17 @@ public abstract class AbstractBlockBase<T extends AbstractBlockBase<T>> {
         this.align = align;
     }
 
+    /**
+     * Determines if this block is emitted in the cold region at the end of the code.
+     */
+    public boolean isCold() {
+        return cold;
+    }
+
+    public void setCold(boolean cold) {
+        this.cold = cold;
+    }
+
     public abstract boolean isExceptionEntry();
 
     public abstract Loop<T> getLoop();
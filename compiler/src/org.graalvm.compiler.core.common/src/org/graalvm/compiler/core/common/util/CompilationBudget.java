@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.common.util;
+
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.options.OptionKey;
+import org.graalvm.compiler.options.OptionType;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.serviceprovider.GraalServices;
+
+/**
+ * Utility class that tracks the time and memory spent by a compilation against a configurable
+ * budget. Unlike {@link CompilationAlarm}, an exhausted budget does not cause the compilation to
+ * bail out. Instead, phases that are not required for correctness can query the
+ * {@linkplain #current() current} budget and skip themselves, so that an expensive compilation
+ * degrades to a cheaper pipeline but still produces code.
+ */
+public final class CompilationBudget implements AutoCloseable {
+
+    public static class Options {
+        // @formatter:off
+        @Option(help = "Wall clock time in milliseconds a compilation may spend before optional " +
+                       "optimization phases are skipped (0 to disable the limit).", type = OptionType.Expert)
+        public static final OptionKey<Integer> CompilationTimeBudget = new OptionKey<>(0);
+        @Option(help = "Memory in megabytes a compilation may allocate before optional " +
+                       "optimization phases are skipped (0 to disable the limit).", type = OptionType.Expert)
+        public static final OptionKey<Integer> CompilationMemoryBudget = new OptionKey<>(0);
+        // @formatter:on
+    }
+
+    /**
+     * Thread local storage for the active compilation budget.
+     */
+    private static final ThreadLocal<CompilationBudget> currentBudget = new ThreadLocal<>();
+
+    private static final CompilationBudget UNLIMITED = new CompilationBudget(0, 0, 0, 0);
+
+    /**
+     * The {@link System#nanoTime()} at which this budget was started.
+     */
+    private final long startNanos;
+
+    /**
+     * The time in nanoseconds after which this budget is exhausted or 0 if time is not limited.
+     */
+    private final long timeLimitNanos;
+
+    /**
+     * The thread allocation counter at the point this budget was started.
+     */
+    private final long startBytes;
+
+    /**
+     * The number of bytes after which this budget is exhausted or 0 if memory is not limited.
+     */
+    private final long memoryLimitBytes;
+
+    /**
+     * Once a budget is exhausted it stays exhausted so that the set of skipped phases does not
+     * depend on how long an individual phase took.
+     */
+    private boolean exhausted;
+
+    private CompilationBudget(long startNanos, long timeLimitNanos, long startBytes, long memoryLimitBytes) {
+        this.startNanos = startNanos;
+        this.timeLimitNanos = timeLimitNanos;
+        this.startBytes = startBytes;
+        this.memoryLimitBytes = memoryLimitBytes;
+    }
+
+    /**
+     * Gets the current compilation budget. If there is no current budget, a non-null value is
+     * returned that will always return {@code false} for {@link #isExhausted()}.
+     */
+    public static CompilationBudget current() {
+        CompilationBudget budget = currentBudget.get();
+        return budget == null ? UNLIMITED : budget;
+    }
+
+    /**
+     * Determines if this budget has been exhausted, i.e., if the compilation has taken longer than
+     * {@link Options#CompilationTimeBudget} or allocated more than
+     * {@link Options#CompilationMemoryBudget}.
+     */
+    public boolean isExhausted() {
+        if (exhausted) {
+            return true;
+        }
+        if (this == UNLIMITED) {
+            return false;
+        }
+        if (timeLimitNanos != 0 && System.nanoTime() - startNanos > timeLimitNanos) {
+            exhausted = true;
+        } else if (memoryLimitBytes != 0 && GraalServices.getCurrentThreadAllocatedBytes() - startBytes > memoryLimitBytes) {
+            exhausted = true;
+        }
+        return exhausted;
+    }
+
+    /**
+     * Gets the time in nanoseconds elapsed since this budget was started.
+     */
+    public long getElapsedNanos() {
+        return this == UNLIMITED ? 0 : System.nanoTime() - startNanos;
+    }
+
+    @Override
+    public void close() {
+        if (this != UNLIMITED) {
+            currentBudget.set(null);
+        }
+    }
+
+    /**
+     * Starts tracking a budget for a compilation if there isn't already an active budget and
+     * {@link Options#CompilationTimeBudget}{@code > 0} or
+     * {@link Options#CompilationMemoryBudget}{@code > 0}. The returned value can be used in a
+     * try-with-resource statement to stop tracking once the compilation is finished.
+     *
+     * @return a {@link CompilationBudget} if there was no current budget for the calling thread
+     *         before this call otherwise {@code null}
+     */
+    public static CompilationBudget trackCompilationBudget(OptionValues options) {
+        int time = Options.CompilationTimeBudget.getValue(options);
+        int memory = GraalServices.isThreadAllocatedMemorySupported() ? Options.CompilationMemoryBudget.getValue(options) : 0;
+        if (time > 0 || memory > 0) {
+            CompilationBudget current = currentBudget.get();
+            if (current == null) {
+                long startBytes = memory > 0 ? GraalServices.getCurrentThreadAllocatedBytes() : 0;
+                current = new CompilationBudget(System.nanoTime(), time * 1_000_000L, startBytes, memory * 1024L * 1024L);
+                currentBudget.set(current);
+                return current;
+            }
+        }
+        return null;
+    }
+}
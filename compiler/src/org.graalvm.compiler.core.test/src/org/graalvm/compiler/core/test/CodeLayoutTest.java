@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test;
+
+import static org.graalvm.compiler.api.directives.GraalDirectives.SLOWPATH_PROBABILITY;
+import static org.graalvm.compiler.api.directives.GraalDirectives.injectBranchProbability;
+
+import org.graalvm.compiler.code.CompilationResult;
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests that rarely executed blocks are emitted in a cold region at the end of the code.
+ */
+public class CodeLayoutTest extends GraalCompilerTest {
+
+    static int sink;
+
+    private final OptionValues outlineColdBlocks = new OptionValues(getInitialOptions(), GraalOptions.OutlineColdBlocks, true);
+
+    public static int coldPathSnippet(int[] a, int x) {
+        int sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (injectBranchProbability(SLOWPATH_PROBABILITY, a[i] == x)) {
+                sink = i;
+                sum -= x * i;
+            } else {
+                sum += a[i];
+            }
+        }
+        return sum;
+    }
+
+    public static int hotPathSnippet(int x) {
+        return x + 1;
+    }
+
+    private CompilationResult compile(String snippet, OptionValues options) {
+        ResolvedJavaMethod method = getResolvedJavaMethod(snippet);
+        StructuredGraph graph = parseEager(method, AllowAssumptions.YES, options);
+        return compile(method, graph, options);
+    }
+
+    @Test
+    public void testColdPath() {
+        CompilationResult result = compile("coldPathSnippet", outlineColdBlocks);
+        assertTrue("expected a cold code region", result.getColdCodeStart() > 0);
+        assertTrue(result.getColdCodeStart() < result.getColdCodeEnd());
+        assertTrue(result.getColdCodeEnd() <= result.getTargetCodeSize());
+        assertDeepEquals(result.getColdCodeEnd() - result.getColdCodeStart(), result.getColdCodeSize());
+        test(outlineColdBlocks, "coldPathSnippet", new int[]{1, 2, 3, 4}, 3);
+        test(outlineColdBlocks, "coldPathSnippet", new int[]{1, 2, 3, 4}, 5);
+    }
+
+    @Test
+    public void testNoColdPath() {
+        CompilationResult result = compile("hotPathSnippet", outlineColdBlocks);
+        assertDeepEquals(-1, result.getColdCodeStart());
+        assertDeepEquals(0, result.getColdCodeSize());
+    }
+
+    @Test
+    public void testDisabled() {
+        CompilationResult result = compile("coldPathSnippet", getInitialOptions());
+        assertDeepEquals(-1, result.getColdCodeStart());
+        test("coldPathSnippet", new int[]{1, 2, 3, 4}, 3);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.compiler.core.common.util.CompilationBudget;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.options.OptionKey;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.BasePhase.PhaseOptions;
+import org.graalvm.compiler.phases.contract.PhaseCostStatistics;
+import org.graalvm.compiler.phases.contract.PhaseCostStatistics.PhaseCost;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that optional phases are skipped once the {@link CompilationBudget} is exhausted and that
+ * {@link PhaseCostStatistics} are recorded.
+ */
+public class CompilationBudgetTest extends GraalCompilerTest {
+
+    public static int snippet(int a, int b) {
+        return a * b + 42;
+    }
+
+    private static final class CountingPhase extends BasePhase<Void> {
+        private final boolean optional;
+        int executions;
+
+        CountingPhase(boolean optional) {
+            this.optional = optional;
+        }
+
+        @Override
+        protected boolean isOptional() {
+            return optional;
+        }
+
+        @Override
+        protected void run(StructuredGraph graph, Void context) {
+            executions++;
+        }
+    }
+
+    private static OptionValues options(OptionKey<?> key, Object value) {
+        EconomicMap<OptionKey<?>, Object> map = EconomicMap.create();
+        map.put(PhaseOptions.TrackPhaseCosts, true);
+        map.put(key, value);
+        return new OptionValues(getInitialOptions(), map);
+    }
+
+    private static PhaseCost lookup(String name) {
+        for (PhaseCost cost : PhaseCostStatistics.getCosts()) {
+            if (cost.getName().equals(name)) {
+                return cost;
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testSkipWhenExhausted() throws InterruptedException {
+        OptionValues options = options(CompilationBudget.Options.CompilationTimeBudget, 1);
+        StructuredGraph graph = parseEager("snippet", AllowAssumptions.YES, options);
+        CountingPhase optional = new CountingPhase(true);
+        CountingPhase required = new CountingPhase(false);
+        try (CompilationBudget budget = CompilationBudget.trackCompilationBudget(options)) {
+            Assert.assertNotNull(budget);
+            Thread.sleep(10);
+            Assert.assertTrue(budget.isExhausted());
+            optional.apply(graph, null);
+            required.apply(graph, null);
+        }
+        Assert.assertEquals("optional phase must be skipped over budget", 0, optional.executions);
+        Assert.assertEquals("required phase must run over budget", 1, required.executions);
+        Assert.assertFalse(CompilationBudget.current().isExhausted());
+    }
+
+    @Test
+    public void testUnlimited() {
+        OptionValues options = options(CompilationBudget.Options.CompilationTimeBudget, 0);
+        Assert.assertNull(CompilationBudget.trackCompilationBudget(options));
+        StructuredGraph graph = parseEager("snippet", AllowAssumptions.YES, options);
+        CountingPhase optional = new CountingPhase(true);
+        optional.apply(graph, null);
+        Assert.assertEquals(1, optional.executions);
+    }
+
+    @Test
+    public void testPhaseCosts() {
+        OptionValues options = options(CompilationBudget.Options.CompilationTimeBudget, 0);
+        StructuredGraph graph = parseEager("snippet", AllowAssumptions.YES, options);
+        CountingPhase phase = new CountingPhase(false);
+        String name = phase.contractorName();
+        PhaseCost before = lookup(name);
+        long executionsBefore = before == null ? 0 : before.getExecutions();
+        phase.apply(graph, null);
+        phase.apply(graph, null);
+        PhaseCost after = lookup(name);
+        Assert.assertNotNull(after);
+        Assert.assertEquals(executionsBefore + 2, after.getExecutions());
+        long histogramTotal = 0;
+        for (long count : after.getHistogram()) {
+            histogramTotal += count;
+        }
+        Assert.assertEquals(after.getExecutions(), histogramTotal);
+        Assert.assertTrue(PhaseCostStatistics.format().contains(name));
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test;
+
+import static org.graalvm.compiler.core.common.GraalOptions.OptGlobalValueNumbering;
+
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.memory.FloatingReadNode;
+import org.graalvm.compiler.nodes.memory.ReadNode;
+import org.graalvm.compiler.nodes.spi.LoweringTool;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.FloatingReadPhase;
+import org.graalvm.compiler.phases.common.GlobalValueNumberingPhase;
+import org.graalvm.compiler.phases.common.LoweringPhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that {@link GlobalValueNumberingPhase} merges reads that are only distinguished by their
+ * guards and that floating or fixed reads separated by a kill of their location are not merged.
+ */
+public class GlobalValueNumberingTest extends GraalCompilerTest {
+
+    private void testValueNumbered(String snippet, Object... args) {
+        test(new OptionValues(getInitialOptions(), OptGlobalValueNumbering, true), snippet, args);
+    }
+
+    public static int redundantSnippet(int[] a, int i, int c) {
+        int r = a[i];
+        if (c > 0) {
+            r += a[i];
+        }
+        return r;
+    }
+
+    public static int killedSnippet(int[] a, int i, int c) {
+        int r = a[i];
+        if (c > 0) {
+            a[i] = c;
+            r += a[i];
+        }
+        return r;
+    }
+
+    public static final class Holder {
+        public int value;
+    }
+
+    public static int fixedRedundantSnippet(Holder h) {
+        int r = h.value;
+        return r + h.value;
+    }
+
+    public static int fixedKilledByStoreSnippet(Holder h, int c) {
+        int r = h.value;
+        h.value = c;
+        return r + h.value;
+    }
+
+    public static int fixedKilledByCallSnippet(Holder h) {
+        int r = h.value;
+        sideEffect(h);
+        return r + h.value;
+    }
+
+    public static void sideEffect(Holder h) {
+        h.value++;
+    }
+
+    private void assertReadsMerged(String snippet) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES);
+        PhaseContext context = new PhaseContext(getProviders());
+        /* Convert the array accesses to reads with different floating bounds check guards. */
+        new LoweringPhase(new CanonicalizerPhase(), LoweringTool.StandardLoweringStage.HIGH_TIER).apply(graph, context);
+        new FloatingReadPhase().apply(graph);
+        int before = graph.getNodes().filter(FloatingReadNode.class).count();
+        new GlobalValueNumberingPhase().apply(graph);
+        int after = graph.getNodes().filter(FloatingReadNode.class).count();
+        Assert.assertTrue("reads must be merged: " + before + " -> " + after, after < before);
+    }
+
+    @Test
+    public void testRedundant() {
+        assertReadsMerged("redundantSnippet");
+        testValueNumbered("redundantSnippet", new int[]{1, 2, 3}, 1, 1);
+        testValueNumbered("redundantSnippet", new int[]{1, 2, 3}, 2, 0);
+        testValueNumbered("redundantSnippet", new int[]{1, 2, 3}, 3, 1);
+        testValueNumbered("redundantSnippet", null, 0, 1);
+    }
+
+    @Test
+    public void testKilled() {
+        testValueNumbered("killedSnippet", new int[]{1, 2, 3}, 1, 5);
+        testValueNumbered("killedSnippet", new int[]{1, 2, 3}, 2, 0);
+        testValueNumbered("killedSnippet", new int[]{1, 2, 3}, 3, 1);
+    }
+
+    @Test
+    public void testKilledNotMerged() {
+        StructuredGraph graph = parseEager("killedSnippet", AllowAssumptions.YES);
+        PhaseContext context = new PhaseContext(getProviders());
+        new LoweringPhase(new CanonicalizerPhase(), LoweringTool.StandardLoweringStage.HIGH_TIER).apply(graph, context);
+        new FloatingReadPhase().apply(graph);
+        int elementReads = countElementReads(graph);
+        new GlobalValueNumberingPhase().apply(graph);
+        Assert.assertEquals("element reads must not be merged across a store", elementReads, countElementReads(graph));
+    }
+
+    /**
+     * Lowers the field accesses of {@code snippet} to fixed reads and returns the number of mutable
+     * fixed reads before and after {@link GlobalValueNumberingPhase}.
+     */
+    private int[] fixedReadsBeforeAndAfter(String snippet) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES);
+        PhaseContext context = new PhaseContext(getProviders());
+        new LoweringPhase(new CanonicalizerPhase(), LoweringTool.StandardLoweringStage.HIGH_TIER).apply(graph, context);
+        int before = countMutableFixedReads(graph);
+        new GlobalValueNumberingPhase().apply(graph);
+        return new int[]{before, countMutableFixedReads(graph)};
+    }
+
+    @Test
+    public void testFixedReadsMerged() {
+        int[] counts = fixedReadsBeforeAndAfter("fixedRedundantSnippet");
+        Assert.assertEquals("fixed reads", 2, counts[0]);
+        Assert.assertEquals("fixed reads must be merged", 1, counts[1]);
+        testValueNumbered("fixedRedundantSnippet", new Holder());
+    }
+
+    @Test
+    public void testFixedReadKilledByStore() {
+        int[] counts = fixedReadsBeforeAndAfter("fixedKilledByStoreSnippet");
+        Assert.assertEquals("fixed reads", 2, counts[0]);
+        Assert.assertEquals("fixed reads must not be merged across a store", 2, counts[1]);
+        testValueNumbered("fixedKilledByStoreSnippet", new Holder(), 5);
+    }
+
+    @Test
+    public void testFixedReadKilledByCall() {
+        int[] counts = fixedReadsBeforeAndAfter("fixedKilledByCallSnippet");
+        Assert.assertEquals("fixed reads", 2, counts[0]);
+        Assert.assertEquals("fixed reads must not be merged across a call", 2, counts[1]);
+        testValueNumbered("fixedKilledByCallSnippet", new Holder());
+    }
+
+    private static int countMutableFixedReads(StructuredGraph graph) {
+        int count = 0;
+        for (ReadNode read : graph.getNodes().filter(ReadNode.class)) {
+            if (!read.getLocationIdentity().isImmutable()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int countElementReads(StructuredGraph graph) {
+        int count = 0;
+        for (FloatingReadNode read : graph.getNodes().filter(FloatingReadNode.class)) {
+            if (!read.getLocationIdentity().isImmutable()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.ReturnNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.java.StoreFieldNode;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.TailDuplicationPhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that {@link TailDuplicationPhase} specializes the code after a merge for phi inputs with
+ * more precise stamps.
+ */
+public class TailDuplicationTest extends GraalCompilerTest {
+
+    static Object sink;
+
+    public static boolean instanceOfSnippet(Object a, boolean b) {
+        Object x;
+        if (b) {
+            x = new Object();
+        } else {
+            x = a;
+        }
+        sink = x;
+        return x instanceof String;
+    }
+
+    public static int nullCheckSnippet(Object a, int n) {
+        Object x;
+        if (n > 3) {
+            x = "str";
+        } else {
+            x = a;
+        }
+        sink = x;
+        int r = x == null ? 1 : 2;
+        return r + n;
+    }
+
+    public static int noBenefitSnippet(Object a, Object b, int n) {
+        Object x;
+        if (n > 3) {
+            x = a;
+        } else {
+            x = b;
+        }
+        sink = x;
+        return x == null ? 1 : 2;
+    }
+
+    private StructuredGraph duplicate(String snippet) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES);
+        PhaseContext context = new PhaseContext(getProviders());
+        CanonicalizerPhase canonicalizer = new CanonicalizerPhase();
+        canonicalizer.apply(graph, context);
+        new TailDuplicationPhase(canonicalizer).apply(graph, context);
+        return graph;
+    }
+
+    private void testDuplicated(String snippet, Object... args) {
+        test(new OptionValues(getInitialOptions(), GraalOptions.OptTailDuplication, true), snippet, args);
+    }
+
+    private static boolean hasConstantReturn(StructuredGraph graph) {
+        for (ReturnNode ret : graph.getNodes(ReturnNode.TYPE)) {
+            if (ret.result() != null && ret.result().isConstant()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void assertUnsharedStates(StructuredGraph graph) {
+        Assert.assertEquals(2, graph.getNodes().filter(StoreFieldNode.class).count());
+        for (StoreFieldNode store : graph.getNodes().filter(StoreFieldNode.class)) {
+            FrameState state = store.stateAfter();
+            Assert.assertEquals("each copy must own its frame state", 1, state.usages().count());
+        }
+    }
+
+    @Test
+    public void testInstanceOf() {
+        StructuredGraph graph = duplicate("instanceOfSnippet");
+        Assert.assertEquals(2, graph.getNodes(ReturnNode.TYPE).count());
+        Assert.assertTrue("the duplicated type check must be folded", hasConstantReturn(graph));
+        assertUnsharedStates(graph);
+        testDuplicated("instanceOfSnippet", "a", true);
+        testDuplicated("instanceOfSnippet", "a", false);
+        testDuplicated("instanceOfSnippet", null, false);
+    }
+
+    @Test
+    public void testNullCheck() {
+        StructuredGraph graph = duplicate("nullCheckSnippet");
+        Assert.assertEquals(2, graph.getNodes(ReturnNode.TYPE).count());
+        assertUnsharedStates(graph);
+        testDuplicated("nullCheckSnippet", null, 5);
+        testDuplicated("nullCheckSnippet", null, 1);
+        testDuplicated("nullCheckSnippet", "a", 1);
+    }
+
+    @Test
+    public void testNoBenefit() {
+        StructuredGraph graph = duplicate("noBenefitSnippet");
+        Assert.assertEquals("merges without foldable usages must not be duplicated", 1, graph.getNodes(ReturnNode.TYPE).count());
+        testDuplicated("noBenefitSnippet", null, "b", 5);
+    }
+}
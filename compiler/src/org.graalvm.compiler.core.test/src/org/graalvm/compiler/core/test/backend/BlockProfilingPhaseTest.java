@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test.backend;
+
+import static org.graalvm.compiler.lir.phases.PostAllocationOptimizationStage.Options.LIRProfileBlocksLimit;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.debug.GraalError;
+import org.graalvm.compiler.lir.LIRInstruction;
+import org.graalvm.compiler.lir.StandardOp.NoOp;
+import org.graalvm.compiler.lir.StandardOp.SaveRegistersOp;
+import org.graalvm.compiler.lir.gen.DiagnosticLIRGeneratorTool;
+import org.graalvm.compiler.lir.gen.LIRGenerationResult;
+import org.graalvm.compiler.lir.phases.LIRSuites;
+import org.graalvm.compiler.lir.profiling.BlockProfile;
+import org.graalvm.compiler.lir.profiling.BlockProfile.Block;
+import org.graalvm.compiler.lir.profiling.BlockProfilingPhase;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.vm.ci.code.InstalledCode;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.code.StackSlot;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Runs the {@link BlockProfilingPhase} with counters that do not emit any code and checks the
+ * registered {@link BlockProfile}.
+ */
+public class BlockProfilingPhaseTest extends GraalCompilerTest {
+
+    /**
+     * Records the names of the counters instead of creating counter instructions, which need
+     * benchmark counters to be enabled in the VM.
+     */
+    private static final class CounterRecorder implements DiagnosticLIRGeneratorTool {
+        final List<String> names = new ArrayList<>();
+
+        @Override
+        public LIRInstruction createBenchmarkCounter(String name, String group, Value increment) {
+            Assert.assertEquals(BlockProfilingPhase.BLOCK_GROUP, group);
+            names.add(name);
+            return new NoOp(null, 0);
+        }
+
+        @Override
+        public LIRInstruction createMultiBenchmarkCounter(String[] names, String[] groups, Value[] increments) {
+            throw GraalError.shouldNotReachHere();
+        }
+
+        @Override
+        public SaveRegistersOp createZapRegisters(Register[] zappedRegisters, JavaConstant[] zapValues) {
+            throw GraalError.shouldNotReachHere();
+        }
+
+        @Override
+        public SaveRegistersOp createZapRegisters() {
+            throw GraalError.shouldNotReachHere();
+        }
+
+        @Override
+        public LIRInstruction createZapArgumentSpace(StackSlot[] zappedStack, JavaConstant[] zapValues) {
+            throw GraalError.shouldNotReachHere();
+        }
+
+        @Override
+        public LIRInstruction zapArgumentSpace() {
+            throw GraalError.shouldNotReachHere();
+        }
+    }
+
+    private final CounterRecorder recorder = new CounterRecorder();
+
+    private class RecordingBlockProfilingPhase extends BlockProfilingPhase {
+        @Override
+        protected void run(TargetDescription target, LIRGenerationResult lirGenRes, PostAllocationOptimizationContext context) {
+            super.run(target, lirGenRes, new PostAllocationOptimizationContext(recorder));
+        }
+    }
+
+    @Override
+    protected LIRSuites createLIRSuites(OptionValues opts) {
+        LIRSuites suites = super.createLIRSuites(opts);
+        suites.getPostAllocationOptimizationStage().appendPhase(new RecordingBlockProfilingPhase());
+        return suites;
+    }
+
+    @Override
+    protected InstalledCode getCode(ResolvedJavaMethod installedCodeOwner, StructuredGraph graph, boolean forceCompile, boolean installAsDefault, OptionValues options) {
+        return super.getCode(installedCodeOwner, graph, true, installAsDefault, options);
+    }
+
+    @Before
+    @After
+    public void clearProfiles() {
+        BlockProfile.clear();
+    }
+
+    public static int loopSnippet(int[] values, int limit) {
+        int sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            int v = values[i];
+            if (v > limit) {
+                sum += limit;
+            } else if (v < 0) {
+                sum -= v;
+            } else {
+                sum += v;
+            }
+        }
+        return sum;
+    }
+
+    @Test
+    public void testProfile() {
+        compile(getResolvedJavaMethod("loopSnippet"), null);
+        Assert.assertEquals(1, BlockProfile.getProfiles().size());
+        BlockProfile profile = BlockProfile.getProfiles().iterator().next();
+        List<Block> blocks = profile.getBlocks();
+
+        HashSet<String> counted = new HashSet<>();
+        Map<String, Long> counterValues = new HashMap<>();
+        for (Block block : blocks) {
+            Assert.assertEquals(block.getIndex(), blocks.indexOf(block));
+            if (block.getCounterName() != null) {
+                counted.add(block.getCounterName());
+                counterValues.put(block.getCounterName(), (long) block.getIndex());
+            } else {
+                // the count of a derived block equals the count of its predecessor
+                Block predecessor = blocks.get(block.getPredecessor());
+                Assert.assertArrayEquals(block.toString(), new int[]{block.getIndex()}, predecessor.getSuccessors());
+            }
+        }
+        Assert.assertFalse(counted.isEmpty());
+        Assert.assertEquals(counted, new HashSet<>(recorder.names));
+        Assert.assertEquals(counted.size(), recorder.names.size());
+
+        long[] counts = profile.computeCounts(counterValues::get);
+        for (Block block : blocks) {
+            Block counter = block;
+            while (counter.getCounterName() == null) {
+                counter = blocks.get(counter.getPredecessor());
+            }
+            Assert.assertEquals(block.toString(), counter.getIndex(), counts[block.getIndex()]);
+        }
+
+        test("loopSnippet", new int[]{3, -4, 10, 0, 7}, 5);
+    }
+
+    @Test
+    public void testLimit() {
+        compile(getResolvedJavaMethod("loopSnippet"), null, new OptionValues(getInitialOptions(), LIRProfileBlocksLimit, 0));
+        Assert.assertTrue(BlockProfile.getProfiles().isEmpty());
+        Assert.assertTrue(recorder.names.isEmpty());
+    }
+}
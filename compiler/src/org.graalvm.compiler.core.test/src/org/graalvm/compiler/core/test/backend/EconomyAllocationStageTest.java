@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test.backend;
+
+import static org.graalvm.compiler.lir.phases.EconomyAllocationStage.Options.EconomyFastRegisterAllocation;
+import static org.graalvm.compiler.lir.phases.EconomyAllocationStage.Options.EconomyFastRegisterAllocationThreshold;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.lir.phases.EconomyAllocationStage;
+import org.graalvm.compiler.lir.phases.LIRSuites;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+import jdk.vm.ci.code.InstalledCode;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Checks that code allocated by the fast register allocator of the {@link EconomyAllocationStage}
+ * computes the same results as the interpreter.
+ */
+public class EconomyAllocationStageTest extends GraalCompilerTest {
+
+    @Override
+    protected LIRSuites createLIRSuites(OptionValues opts) {
+        LIRSuites suites = super.createLIRSuites(opts);
+        return new LIRSuites(suites.getPreAllocationOptimizationStage(), new EconomyAllocationStage(opts), suites.getPostAllocationOptimizationStage());
+    }
+
+    @Override
+    protected InstalledCode getCode(ResolvedJavaMethod installedCodeOwner, StructuredGraph graph, boolean forceCompile, boolean installAsDefault, OptionValues options) {
+        // the allocator depends on the options, so the cached code cannot be reused
+        return super.getCode(installedCodeOwner, graph, true, installAsDefault, options);
+    }
+
+    private void testAllocators(String snippet, Object... args) {
+        OptionValues options = getInitialOptions();
+        test(new OptionValues(options, EconomyFastRegisterAllocation, true), snippet, args);
+        test(new OptionValues(options, EconomyFastRegisterAllocation, false, EconomyFastRegisterAllocationThreshold, 1), snippet, args);
+        test(new OptionValues(options, EconomyFastRegisterAllocation, false, EconomyFastRegisterAllocationThreshold, 0), snippet, args);
+    }
+
+    public static long registerPressureSnippet(long a, long b, long c, long d) {
+        long x0 = a * b;
+        long x1 = b * c;
+        long x2 = c * d;
+        long x3 = d * a;
+        long x4 = a + c;
+        long x5 = b + d;
+        long x6 = a - d;
+        long x7 = b - c;
+        long x8 = x0 ^ x1;
+        long x9 = x2 ^ x3;
+        long x10 = x4 | x5;
+        long x11 = x6 & x7;
+        long x12 = x0 * x4 + x1 * x5;
+        long x13 = x2 * x6 + x3 * x7;
+        long x14 = x8 - x9 + x10 - x11;
+        long x15 = x12 ^ x13 ^ x14;
+        return x0 + x1 + x2 + x3 + x4 + x5 + x6 + x7 + x8 + x9 + x10 + x11 + x12 + x13 + x14 + x15;
+    }
+
+    @Test
+    public void testRegisterPressure() {
+        testAllocators("registerPressureSnippet", 3L, 5L, 7L, 11L);
+        testAllocators("registerPressureSnippet", -1L, Long.MAX_VALUE, Long.MIN_VALUE, 0L);
+    }
+
+    public static double loopSnippet(int n, double[] values) {
+        double sum = 0;
+        double product = 1;
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            double v = values[i % values.length];
+            if (v > 0) {
+                sum += v;
+                count++;
+            } else {
+                product *= v;
+            }
+        }
+        return sum / Math.max(count, 1) + product;
+    }
+
+    @Test
+    public void testLoop() {
+        testAllocators("loopSnippet", 0, new double[]{1.0});
+        testAllocators("loopSnippet", 100, new double[]{1.5, -2.0, 3.25, -0.5, 0.0});
+    }
+
+    public static int exceptionSnippet(int[] array, int index, int value) {
+        int sum = value;
+        try {
+            sum += array[index];
+            array[index] = sum;
+        } catch (ArrayIndexOutOfBoundsException e) {
+            sum = -sum;
+        }
+        return sum + index;
+    }
+
+    @Test
+    public void testExceptionEdges() {
+        testAllocators("exceptionSnippet", new int[]{1, 2, 3}, 1, 10);
+        testAllocators("exceptionSnippet", new int[]{1, 2, 3}, 5, 10);
+    }
+
+    public static String callSnippet(Object a, Object b, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            sb.append(i % 2 == 0 ? a : b);
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testCalls() {
+        testAllocators("callSnippet", "foo", 42, 5);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test.backend;
+
+import static org.graalvm.compiler.core.common.GraalOptions.TraceRA;
+import static org.graalvm.compiler.lir.alloc.trace.TraceRegisterAllocationPhase.Options.TraceRAParallel;
+import static org.graalvm.compiler.lir.alloc.trace.TraceRegisterAllocationPhase.Options.TraceRAParallelMinTraces;
+
+import java.util.Arrays;
+
+import org.graalvm.compiler.code.CompilationResult;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.vm.ci.code.InstalledCode;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Checks that traces allocated in parallel compute the same results as the interpreter and that
+ * the generated code does not depend on the order in which the traces are allocated.
+ */
+public class ParallelTraceRegisterAllocationTest extends GraalCompilerTest {
+
+    private OptionValues getParallelOptions() {
+        return new OptionValues(getInitialOptions(), TraceRA, true, TraceRAParallel, true, TraceRAParallelMinTraces, 1);
+    }
+
+    @Override
+    protected InstalledCode getCode(ResolvedJavaMethod installedCodeOwner, StructuredGraph graph, boolean forceCompile, boolean installAsDefault, OptionValues options) {
+        // do not reuse code allocated by another allocator
+        return super.getCode(installedCodeOwner, graph, true, installAsDefault, options);
+    }
+
+    private void testParallel(String snippet, Object... args) {
+        test(getParallelOptions(), snippet, args);
+    }
+
+    private void testDeterministic(String snippet) {
+        ResolvedJavaMethod method = getResolvedJavaMethod(snippet);
+        CompilationResult first = compile(method, null, getParallelOptions());
+        for (int i = 0; i < 5; i++) {
+            CompilationResult other = compile(method, null, getParallelOptions());
+            Assert.assertArrayEquals(snippet, targetCode(first), targetCode(other));
+        }
+    }
+
+    private static byte[] targetCode(CompilationResult result) {
+        return Arrays.copyOf(result.getTargetCode(), result.getTargetCodeSize());
+    }
+
+    public static int switchSnippet(int key, int a, int b, int c) {
+        int result;
+        switch (key) {
+            case 0:
+                result = a * b + c;
+                break;
+            case 1:
+                result = a - b * c;
+                break;
+            case 2:
+                result = (a ^ b) + (b ^ c);
+                break;
+            case 3:
+                result = a / (b | 1) + c;
+                break;
+            case 4:
+                result = Math.max(a, b) - Math.min(b, c);
+                break;
+            case 5:
+                result = a << (b & 7) | c;
+                break;
+            default:
+                result = a + b + c;
+        }
+        if (result > a) {
+            result += b * c;
+        } else if (result < c) {
+            result -= a * b;
+        }
+        return result;
+    }
+
+    @Test
+    public void testSwitch() {
+        for (int key = -1; key < 7; key++) {
+            testParallel("switchSnippet", key, 13, -7, 42);
+        }
+        testDeterministic("switchSnippet");
+    }
+
+    public static double loopSnippet(double[] values, int n) {
+        double sum = 0;
+        double product = 1;
+        long count = 0;
+        for (int i = 0; i < n; i++) {
+            double v = values[i % values.length];
+            if (v > 1) {
+                sum += v;
+                count++;
+            } else if (v < -1) {
+                product *= v;
+            } else {
+                sum -= product;
+            }
+        }
+        return sum / Math.max(count, 1) + product;
+    }
+
+    @Test
+    public void testLoop() {
+        testParallel("loopSnippet", new double[]{1.5, -2.0, 3.25, -0.5, 0.0}, 100);
+        testDeterministic("loopSnippet");
+    }
+
+    public static String callSnippet(Object a, Object b, int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i % 3 == 0) {
+                sb.append(a);
+            } else if (i % 3 == 1) {
+                sb.append(b);
+            } else {
+                sb.append(i);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testCalls() {
+        testParallel("callSnippet", "foo", 42, 10);
+        testDeterministic("callSnippet");
+    }
+}
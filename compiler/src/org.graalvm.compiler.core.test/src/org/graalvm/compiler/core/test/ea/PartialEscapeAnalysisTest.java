@@ -247,6 +247,39 @@ public class PartialEscapeAnalysisTest extends EATestBase {
         testPartialEscapeAnalysis("testBoxLoopSnippet", 0, 0, BoxNode.class, UnboxNode.class);
     }
 
+    public static int testAllocationLoopSnippet(int n) {
+        TestObject obj = new TestObject(0, 0);
+        for (int i = 0; i < n; i++) {
+            obj = new TestObject(obj.x + i, obj.y + 1);
+        }
+        return obj.x + obj.y;
+    }
+
+    @Test
+    public void testAllocationLoop() {
+        testPartialEscapeAnalysis("testAllocationLoopSnippet", 0, 0);
+        test("testAllocationLoopSnippet", 10);
+    }
+
+    public static int testAllocationLoopIdentitySnippet(int n) {
+        TestObject first = new TestObject(0, 0);
+        TestObject obj = first;
+        int sameCount = 0;
+        for (int i = 0; i < n; i++) {
+            if (obj == first) {
+                sameCount++;
+            }
+            obj = new TestObject(obj.x + i, obj.y + 1);
+        }
+        return sameCount + obj.x;
+    }
+
+    @Test
+    public void testAllocationLoopIdentity() {
+        test("testAllocationLoopIdentitySnippet", 0);
+        test("testAllocationLoopIdentitySnippet", 10);
+    }
+
     static volatile int staticField;
     static boolean executedDeoptimizeDirective;
 
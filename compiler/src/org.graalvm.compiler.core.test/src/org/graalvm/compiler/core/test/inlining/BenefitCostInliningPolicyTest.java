@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.core.test.inlining;
+
+import static org.graalvm.compiler.java.BytecodeParserOptions.InlineDuringParsing;
+import static org.graalvm.compiler.phases.common.inlining.policy.BenefitCostInliningPolicy.Options.InliningSizeBudget;
+import static org.graalvm.compiler.phases.common.inlining.policy.BenefitCostInliningPolicy.Options.InliningSizePerBenefit;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.debug.DebugDumpScope;
+import org.graalvm.compiler.debug.TTY;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.OptimisticOptimizations;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.inlining.InliningPhase;
+import org.graalvm.compiler.phases.common.inlining.policy.BenefitCostInliningPolicy;
+import org.graalvm.compiler.phases.tiers.HighTierContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+public class BenefitCostInliningPolicyTest extends GraalCompilerTest {
+
+    public static int select(int key, int a, int b) {
+        switch (key) {
+            case 0:
+                return a * b + 17;
+            case 1:
+                return a / (b | 1) - a;
+            case 2:
+                return (a ^ b) * (a | b);
+            case 3:
+                return a % (b | 3) + b;
+            case 4:
+                return Math.max(a, b) * Math.min(a, b);
+            case 5:
+                return (a << 3) - (b >>> 2);
+            case 6:
+                return a * a - b * b;
+            default:
+                return a + b;
+        }
+    }
+
+    public static int constantArgumentSnippet(int a, int b) {
+        return select(3, a, b);
+    }
+
+    public static int variableArgumentSnippet(int key, int a, int b) {
+        return select(key, a, b);
+    }
+
+    static final class Pair {
+        final int x;
+        final int y;
+
+        Pair(int x, int y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+
+    public static int combine(Pair p, int scale) {
+        int result = p.x * scale;
+        if (result > p.y) {
+            result -= p.y * 3;
+        } else if (result < -p.y) {
+            result += p.x * p.y;
+        }
+        return result ^ (p.y << 2);
+    }
+
+    public static int allocatedArgumentSnippet(int a, int b, int scale) {
+        return combine(new Pair(a, b), scale);
+    }
+
+    @Test
+    public void testConstantArgument() {
+        OptionValues options = new OptionValues(getInitialOptions(), InliningSizePerBenefit, 20.0);
+        assertNotInlined(inline("variableArgumentSnippet", options), "benefit");
+        assertInlined(inline("constantArgumentSnippet", options));
+    }
+
+    @Test
+    public void testAllocatedArgument() {
+        // no callee is trivial, so combine must be inlined because of its benefit
+        OptionValues options = new OptionValues(getInitialOptions(), GraalOptions.TrivialInliningSize, 0, InliningSizePerBenefit, 1000.0);
+        StructuredGraph graph = inline("allocatedArgumentSnippet", options);
+        assertInlined(graph);
+        String inliningTree = graph.getInliningLog().formatAsTree(false);
+        Assert.assertFalse("Got: " + inliningTree, inliningTree.contains("trivial"));
+        boolean found = false;
+        for (String line : inliningTree.split(System.lineSeparator())) {
+            if (line.contains(".combine(") && line.contains("yes, benefit") && line.contains("allocated args=1")) {
+                found = true;
+            }
+        }
+        Assert.assertTrue("Got: " + inliningTree, found);
+    }
+
+    @Test
+    public void testSizeBudget() {
+        OptionValues options = new OptionValues(getInitialOptions(), InliningSizeBudget, 1, InliningSizePerBenefit, 1000.0);
+        assertNotInlined(inline("variableArgumentSnippet", options), "size budget exceeded");
+    }
+
+    @SuppressWarnings("try")
+    private StructuredGraph inline(String snippet, OptionValues initialOptions) {
+        OptionValues options = new OptionValues(initialOptions, InlineDuringParsing, false, GraalOptions.TraceInlining, true);
+        DebugContext debug = getDebugContext(options, null, null);
+        try (DebugContext.Scope s = debug.scope("BenefitCostInliningPolicyTest", new DebugDumpScope(snippet, true)); TTY.Filter f = new TTY.Filter()) {
+            ResolvedJavaMethod method = getResolvedJavaMethod(snippet);
+            StructuredGraph graph = parse(builder(method, AllowAssumptions.YES, debug), getEagerGraphBuilderSuite());
+            HighTierContext context = new HighTierContext(getProviders(), getDefaultGraphBuilderSuite(), OptimisticOptimizations.ALL);
+            new CanonicalizerPhase().apply(graph, context);
+            new InliningPhase(new BenefitCostInliningPolicy(null), new CanonicalizerPhase()).apply(graph, context);
+            return graph;
+        } catch (Throwable e) {
+            throw debug.handle(e);
+        }
+    }
+
+    private static void assertInlined(StructuredGraph graph) {
+        Assert.assertTrue(graph.getInliningLog().formatAsTree(false), graph.getNodes().filter(Invoke.class).isEmpty());
+    }
+
+    private static void assertNotInlined(StructuredGraph graph, String reason) {
+        String inliningTree = graph.getInliningLog().formatAsTree(false);
+        Assert.assertFalse(inliningTree, graph.getNodes().filter(Invoke.class).isEmpty());
+        Assert.assertTrue("Got: " + inliningTree, inliningTree.contains(reason));
+    }
+}
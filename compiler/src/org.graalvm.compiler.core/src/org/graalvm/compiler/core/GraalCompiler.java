@@ -22,6 +22,8 @@
  */
 package org.graalvm.compiler.core;
 
+import static org.graalvm.compiler.core.GraalCompilerOptions.PrintCodeLayout;
+
 import java.util.Collection;
 import java.util.List;
 
@@ -35,12 +37,14 @@ import org.graalvm.compiler.core.common.alloc.ComputeBlockOrder;
 import org.graalvm.compiler.core.common.alloc.RegisterAllocationConfig;
 import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
 import org.graalvm.compiler.core.common.util.CompilationAlarm;
+import org.graalvm.compiler.core.common.util.CompilationBudget;
 import org.graalvm.compiler.core.target.Backend;
 import org.graalvm.compiler.debug.CounterKey;
 import org.graalvm.compiler.debug.DebugCloseable;
 import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.debug.GraalError;
 import org.graalvm.compiler.debug.MethodFilter;
+import org.graalvm.compiler.debug.TTY;
 import org.graalvm.compiler.debug.TimerKey;
 import org.graalvm.compiler.lir.LIR;
 import org.graalvm.compiler.lir.alloc.OutOfRegistersException;
@@ -172,7 +176,8 @@ public class GraalCompiler {
     @SuppressWarnings("try")
     public static <T extends CompilationResult> T compile(Request<T> r) {
         DebugContext debug = r.graph.getDebug();
-        try (CompilationAlarm alarm = CompilationAlarm.trackCompilationPeriod(r.graph.getOptions())) {
+        try (CompilationAlarm alarm = CompilationAlarm.trackCompilationPeriod(r.graph.getOptions());
+                        CompilationBudget budget = CompilationBudget.trackCompilationBudget(r.graph.getOptions())) {
             assert !r.graph.isFrozen();
             try (DebugContext.Scope s0 = debug.scope("GraalCompiler", r.graph, r.providers.getCodeCache()); DebugCloseable a = CompilerTimer.start(debug)) {
                 emitFrontEnd(r.providers, r.backend, r.graph, r.graphBuilderSuite, r.optimisticOpts, r.profilingInfo, r.suites);
@@ -324,7 +329,8 @@ public class GraalCompiler {
             assert startBlock != null;
             assert startBlock.getPredecessorCount() == 0;
 
-            AbstractBlockBase<?>[] codeEmittingOrder = ComputeBlockOrder.computeCodeEmittingOrder(blocks.length, startBlock);
+            double coldProbability = GraalOptions.OutlineColdBlocks.getValue(graph.getOptions()) ? GraalOptions.ColdBlockProbability.getValue(graph.getOptions()) : 0.0;
+            AbstractBlockBase<?>[] codeEmittingOrder = ComputeBlockOrder.computeCodeEmittingOrder(blocks.length, startBlock, coldProbability);
             AbstractBlockBase<?>[] linearScanOrder = ComputeBlockOrder.computeLinearScanOrder(blocks.length, startBlock);
             LIR lir = new LIR(schedule.getCFG(), linearScanOrder, codeEmittingOrder, graph.getOptions(), graph.getDebug());
 
@@ -420,12 +426,24 @@ public class GraalCompiler {
 
                 DebugContext.counter("CompilationResults").increment(debug);
                 DebugContext.counter("CodeBytesEmitted").add(debug, compilationResult.getTargetCodeSize());
+                DebugContext.counter("ColdCodeBytesEmitted").add(debug, compilationResult.getColdCodeSize());
                 DebugContext.counter("InfopointsEmitted").add(debug, compilationResult.getInfopoints().size());
                 DebugContext.counter("DataPatches").add(debug, ldp.size());
                 DebugContext.counter("ExceptionHandlersEmitted").add(debug, compilationResult.getExceptionHandlers().size());
             }
 
+            if (PrintCodeLayout.getValue(debug.getOptions()) && !TTY.isSuppressed()) {
+                int coldSize = compilationResult.getColdCodeSize();
+                String name = rootMethod != null ? rootMethod.format("%H.%n(%p)") : compilationResult.getName();
+                TTY.println("%s: %d bytes hot, %d bytes cold", name, compilationResult.getTargetCodeSize() - coldSize, coldSize);
+            }
+
             debug.dump(DebugContext.BASIC_LEVEL, compilationResult, "After code generation");
         }
     }
+
+    private static int coldCodeSize(CompilationResult compilationResult) {
+        int coldCodeStart = compilationResult.getColdCodeStart();
+        return coldCodeStart == -1 ? 0 : compilationResult.getTargetCodeSize() - coldCodeStart;
+    }
 }
@@ -36,6 +36,8 @@ public class GraalCompilerOptions {
     // @formatter:off
     @Option(help = "Print an informational line to the console for each completed compilation.", type = OptionType.Debug)
     public static final OptionKey<Boolean> PrintCompilation = new OptionKey<>(false);
+    @Option(help = "Print the number of bytes in the hot and cold code regions of each compiled method.", type = OptionType.Debug)
+    public static final OptionKey<Boolean> PrintCodeLayout = new OptionKey<>(false);
     @Option(help = "Pattern for method(s) that will trigger an exception when compiled. " +
                    "This option exists to test handling compilation crashes gracefully. " +
                    "See the MethodFilter option for the pattern syntax. A ':Bailout' " +
@@ -30,6 +30,7 @@ import static org.graalvm.compiler.core.common.GraalOptions.LoopUnswitch;
 import static org.graalvm.compiler.core.common.GraalOptions.OptConvertDeoptsToGuards;
 import static org.graalvm.compiler.core.common.GraalOptions.OptLoopTransform;
 import static org.graalvm.compiler.core.common.GraalOptions.OptReadElimination;
+import static org.graalvm.compiler.core.common.GraalOptions.OptTailDuplication;
 import static org.graalvm.compiler.core.common.GraalOptions.PartialEscapeAnalysis;
 import static org.graalvm.compiler.phases.common.DeadCodeEliminationPhase.Optionality.Optional;
 
@@ -52,7 +53,9 @@ import org.graalvm.compiler.phases.common.IncrementalCanonicalizerPhase;
 import org.graalvm.compiler.phases.common.IterativeConditionalEliminationPhase;
 import org.graalvm.compiler.phases.common.LoweringPhase;
 import org.graalvm.compiler.phases.common.RemoveValueProxyPhase;
+import org.graalvm.compiler.phases.common.TailDuplicationPhase;
 import org.graalvm.compiler.phases.common.inlining.InliningPhase;
+import org.graalvm.compiler.phases.common.inlining.policy.BenefitCostInliningPolicy;
 import org.graalvm.compiler.phases.tiers.HighTierContext;
 import org.graalvm.compiler.virtual.phases.ea.EarlyReadEliminationPhase;
 import org.graalvm.compiler.virtual.phases.ea.PartialEscapePhase;
@@ -80,7 +83,11 @@ public class HighTier extends PhaseSuite<HighTierContext> {
         }
 
         if (Options.Inline.getValue(options)) {
-            appendPhase(new InliningPhase(canonicalizer));
+            if (InliningPhase.Options.BenefitCostInlining.getValue(options)) {
+                appendPhase(new InliningPhase(new BenefitCostInliningPolicy(null), canonicalizer));
+            } else {
+                appendPhase(new InliningPhase(canonicalizer));
+            }
             appendPhase(new DeadCodeEliminationPhase(Optional));
         }
 
@@ -92,6 +99,10 @@ public class HighTier extends PhaseSuite<HighTierContext> {
             appendPhase(new IterativeConditionalEliminationPhase(canonicalizer, false));
         }
 
+        if (OptTailDuplication.getValue(options)) {
+            appendPhase(new TailDuplicationPhase(canonicalizer));
+        }
+
         LoopPolicies loopPolicies = createLoopPolicies();
         if (FullUnroll.getValue(options)) {
             appendPhase(new LoopFullUnrollPhase(canonicalizer, loopPolicies));
@@ -24,18 +24,25 @@ package org.graalvm.compiler.core.phases;
 
 import static org.graalvm.compiler.core.common.GraalOptions.ConditionalElimination;
 import static org.graalvm.compiler.core.common.GraalOptions.ImmutableCode;
+import static org.graalvm.compiler.core.common.GraalOptions.LoopPredication;
+import static org.graalvm.compiler.core.common.GraalOptions.LoopStripMining;
 import static org.graalvm.compiler.core.common.GraalOptions.OptDeoptimizationGrouping;
 import static org.graalvm.compiler.core.common.GraalOptions.OptFloatingReads;
+import static org.graalvm.compiler.core.common.GraalOptions.OptGlobalValueNumbering;
 import static org.graalvm.compiler.core.common.GraalOptions.OptLoopTransform;
 import static org.graalvm.compiler.core.common.GraalOptions.PartialUnroll;
 import static org.graalvm.compiler.core.common.GraalOptions.ReassociateInvariants;
+import static org.graalvm.compiler.core.common.GraalOptions.SpeculativeGuardMovement;
 import static org.graalvm.compiler.core.common.GraalOptions.VerifyHeapAtReturn;
 
 import org.graalvm.compiler.loop.DefaultLoopPolicies;
 import org.graalvm.compiler.loop.LoopPolicies;
 import org.graalvm.compiler.loop.phases.LoopPartialUnrollPhase;
+import org.graalvm.compiler.loop.phases.LoopPredicationPhase;
 import org.graalvm.compiler.loop.phases.LoopSafepointEliminationPhase;
+import org.graalvm.compiler.loop.phases.LoopStripMiningPhase;
 import org.graalvm.compiler.loop.phases.ReassociateInvariantPhase;
+import org.graalvm.compiler.loop.phases.SpeculativeGuardMovementPhase;
 import org.graalvm.compiler.nodes.spi.LoweringTool;
 import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.phases.PhaseSuite;
@@ -43,6 +50,7 @@ import org.graalvm.compiler.phases.common.CanonicalizerPhase;
 import org.graalvm.compiler.phases.common.DeoptimizationGroupingPhase;
 import org.graalvm.compiler.phases.common.FloatingReadPhase;
 import org.graalvm.compiler.phases.common.FrameStateAssignmentPhase;
+import org.graalvm.compiler.phases.common.GlobalValueNumberingPhase;
 import org.graalvm.compiler.phases.common.GuardLoweringPhase;
 import org.graalvm.compiler.phases.common.IncrementalCanonicalizerPhase;
 import org.graalvm.compiler.phases.common.IterativeConditionalEliminationPhase;
@@ -70,6 +78,18 @@ public class MidTier extends PhaseSuite<MidTierContext> {
             appendPhase(new IterativeConditionalEliminationPhase(canonicalizer, true));
         }
 
+        if (OptLoopTransform.getValue(options) && LoopPredication.getValue(options)) {
+            appendPhase(new LoopPredicationPhase());
+        }
+
+        if (OptLoopTransform.getValue(options) && SpeculativeGuardMovement.getValue(options)) {
+            appendPhase(new SpeculativeGuardMovementPhase());
+        }
+
+        if (OptLoopTransform.getValue(options) && LoopStripMining.getValue(options)) {
+            appendPhase(new LoopStripMiningPhase());
+        }
+
         appendPhase(new LoopSafepointEliminationPhase());
 
         appendPhase(new LoopSafepointInsertionPhase());
@@ -82,6 +102,10 @@ public class MidTier extends PhaseSuite<MidTierContext> {
 
         appendPhase(new LoweringPhase(canonicalizer, LoweringTool.StandardLoweringStage.MID_TIER));
 
+        if (OptGlobalValueNumbering.getValue(options)) {
+            appendPhase(new GlobalValueNumberingPhase());
+        }
+
         appendPhase(new FrameStateAssignmentPhase());
 
         LoopPolicies loopPolicies = createLoopPolicies();
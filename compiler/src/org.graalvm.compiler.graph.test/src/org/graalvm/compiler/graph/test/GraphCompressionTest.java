@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.graph.test;
+
+import static org.graalvm.compiler.graph.test.matchers.NodeIterableContains.contains;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_IGNORED;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_IGNORED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.graph.Graph;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.graph.NodeInputList;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.options.OptionValues;
+import org.junit.Test;
+
+public class GraphCompressionTest extends GraphTest {
+
+    @NodeInfo(cycles = CYCLES_IGNORED, size = SIZE_IGNORED)
+    static final class Def extends Node {
+        public static final NodeClass<Def> TYPE = NodeClass.create(Def.class);
+
+        protected Def() {
+            super(TYPE);
+        }
+    }
+
+    @NodeInfo(cycles = CYCLES_IGNORED, size = SIZE_IGNORED)
+    static final class Use extends Node {
+        public static final NodeClass<Use> TYPE = NodeClass.create(Use.class);
+        @Input Def in;
+        @Input NodeInputList<Def> extra;
+
+        protected Use(Def in) {
+            super(TYPE);
+            this.in = in;
+            this.extra = new NodeInputList<>(this, 0);
+        }
+    }
+
+    @Test
+    public void testCompressTrimsUsages() {
+        OptionValues options = getOptions();
+        Graph graph = new Graph(options, getDebug(options));
+        Def def = graph.add(new Def());
+        List<Use> uses = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            uses.add(graph.add(new Use(def)));
+        }
+        assertEquals(100, def.getUsageCount());
+        for (int i = 10; i < uses.size(); i++) {
+            uses.get(i).safeDelete();
+        }
+        assertEquals(10, def.getUsageCount());
+
+        assertTrue(graph.maybeCompress());
+        assertEquals(11, graph.getNodeCount());
+        assertEquals(10, def.getUsageCount());
+        for (int i = 0; i < 10; i++) {
+            assertThat(def.usages(), contains(uses.get(i)));
+            assertTrue(uses.get(i).isAlive());
+        }
+
+        // the graph and the trimmed usage lists must still be able to grow
+        for (int i = 0; i < 100; i++) {
+            graph.add(new Use(def));
+        }
+        assertEquals(110, def.getUsageCount());
+        assertEquals(111, graph.getNodeCount());
+        assertFalse(graph.maybeCompress());
+    }
+
+    @Test
+    public void testEmptyListsAfterCopy() {
+        OptionValues options = getOptions();
+        Graph graph = new Graph(options, getDebug(options));
+        Def def = graph.add(new Def());
+        Use use = graph.add(new Use(def));
+        Graph copy = graph.copy(graph.getDebug());
+        for (Node n : copy.getNodes()) {
+            if (n instanceof Use) {
+                Use copiedUse = (Use) n;
+                assertTrue(copiedUse.extra.isEmpty());
+                assertTrue(copiedUse != use);
+                copiedUse.extra.add(copiedUse.in);
+                assertEquals(1, copiedUse.extra.size());
+                assertEquals(2, copiedUse.in.getUsageCount());
+            }
+        }
+        assertTrue(use.extra.isEmpty());
+    }
+}
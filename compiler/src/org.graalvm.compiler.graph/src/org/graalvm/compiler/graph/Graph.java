@@ -941,7 +941,9 @@ public class Graph {
     /**
      * If the {@linkplain Options#GraphCompressionThreshold compression threshold} is met, the list
      * of nodes is compressed such that all non-null entries precede all null entries while
-     * preserving the ordering between the nodes within the list.
+     * preserving the ordering between the nodes within the list. The node array and the usage
+     * arrays of the live nodes are also trimmed so that memory retained for deleted nodes and
+     * removed usages is released.
      */
     public boolean maybeCompress() {
         if (debug.isDumpEnabledForMethod() || debug.isLogEnabledForMethod()) {
@@ -959,6 +961,7 @@ public class Graph {
             Node n = nodes[i];
             if (n != null) {
                 assert n.id == i;
+                n.trimUsages();
                 if (i != nextId) {
                     assert n.id > nextId;
                     n.id = nextId;
@@ -974,6 +977,9 @@ public class Graph {
             Arrays.fill(nodeUsageModCounts, 0);
         }
         nodesSize = nextId;
+        if (nodes.length > 2 * nextId + INITIAL_NODES_SIZE) {
+            nodes = Arrays.copyOf(nodes, nextId + (nextId >> 1) + INITIAL_NODES_SIZE);
+        }
         compressions++;
         nodesDeletedBeforeLastCompression += nodesDeletedSinceLastCompression;
         nodesDeletedSinceLastCompression = 0;
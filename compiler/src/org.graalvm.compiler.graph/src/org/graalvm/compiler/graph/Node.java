@@ -518,6 +518,20 @@ public abstract class Node implements Cloneable, Formattable, NodeInterface {
         return false;
     }
 
+    /**
+     * Releases the unused tail of {@link #extraUsages}. The array only grows while usages are
+     * added and removed, so a node that once had many usages (e.g., a constant before
+     * canonicalization) can otherwise retain a large, mostly empty array.
+     */
+    void trimUsages() {
+        int length = extraUsages.length;
+        if (extraUsagesCount == 0) {
+            extraUsages = NO_NODES;
+        } else if (length > 4 && length > extraUsagesCount * 2) {
+            extraUsages = Arrays.copyOf(extraUsages, extraUsagesCount);
+        }
+    }
+
     public final Node predecessor() {
         return predecessor;
     }
@@ -50,7 +50,16 @@ public abstract class NodeList<T extends Node> extends AbstractList<T> implement
         this.self = self;
         this.size = initialSize;
         this.initialSize = initialSize;
-        this.nodes = new Node[initialSize];
+        this.nodes = allocate(initialSize);
+    }
+
+    /**
+     * Allocates a backing array of a given length. All empty lists share a single zero length
+     * array as graphs contain many empty lists (e.g., in frame states and phis), especially after
+     * duplication.
+     */
+    private static Node[] allocate(int length) {
+        return length == 0 ? EMPTY_NODE_ARRAY : new Node[length];
     }
 
     protected NodeList(Node self, T[] elements) {
@@ -193,7 +202,7 @@ public abstract class NodeList<T extends Node> extends AbstractList<T> implement
     void copy(NodeList<? extends Node> other) {
         self.incModCount();
         incModCount();
-        Node[] newNodes = new Node[other.size];
+        Node[] newNodes = allocate(other.size);
         System.arraycopy(other.nodes, 0, newNodes, 0, newNodes.length);
         nodes = newNodes;
         size = other.size;
@@ -312,7 +321,7 @@ public abstract class NodeList<T extends Node> extends AbstractList<T> implement
         for (int i = 0; i < size(); i++) {
             update((T) nodes[i], null);
         }
-        nodes = Arrays.copyOf(values.nodes, values.size());
+        nodes = values.size() == 0 ? EMPTY_NODE_ARRAY : Arrays.copyOf(values.nodes, values.size());
         size = values.size();
 
         for (int i = 0; i < size(); i++) {
@@ -63,6 +63,7 @@ import org.graalvm.compiler.phases.common.AddressLoweringByUsePhase;
 import org.graalvm.compiler.phases.schedule.SchedulePhase;
 import org.graalvm.compiler.phases.tiers.CompilerConfiguration;
 import org.graalvm.compiler.phases.util.Providers;
+import org.graalvm.compiler.replacements.StandardGraphBuilderPlugins;
 import org.graalvm.compiler.replacements.aarch64.AArch64GraphBuilderPlugins;
 import org.graalvm.compiler.replacements.classfile.ClassfileBytecodeProvider;
 import org.graalvm.compiler.serviceprovider.ServiceProvider;
@@ -167,6 +168,12 @@ public class AArch64HotSpotBackendFactory implements HotSpotBackendFactory {
         Plugins plugins = HotSpotGraphBuilderPlugins.create(compilerConfiguration, config, wordTypes, metaAccess, constantReflection, snippetReflection, foreignCalls, lowerer, stampProvider,
                         replacements);
         AArch64GraphBuilderPlugins.register(plugins, replacements.getDefaultReplacementBytecodeProvider());
+        if (config.useFMA) {
+            AArch64GraphBuilderPlugins.registerFMAPlugins(plugins.getInvocationPlugins());
+        }
+        if (!config.useMulAddIntrinsic()) {
+            StandardGraphBuilderPlugins.registerPlatformSpecificBigIntegerPlugins(plugins.getInvocationPlugins(), replacements.getDefaultReplacementBytecodeProvider());
+        }
         return plugins;
     }
 
@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.hotspot.amd64.test;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins.Registration;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.replacements.nodes.AESCryptBlockNode;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests the code emitted for {@link AESCryptBlockNode} against {@link Cipher}, independent of
+ * whether the VM provides its own AES stubs. The expanded keys are laid out like the {@code K}
+ * field of {@code com.sun.crypto.provider.AESCrypt}.
+ */
+public class AESCryptBlockTest extends GraalCompilerTest {
+
+    private static final int[] SBOX = new int[256];
+
+    static {
+        for (int x = 0; x < 256; x++) {
+            int inverse = 0;
+            for (int y = 1; x != 0 && inverse == 0; y++) {
+                if (multiply(x, y) == 1) {
+                    inverse = y;
+                }
+            }
+            int s = inverse;
+            for (int i = 1; i < 5; i++) {
+                s ^= ((inverse << i) | (inverse >>> (8 - i))) & 0xFF;
+            }
+            SBOX[x] = s ^ 0x63;
+        }
+    }
+
+    @Before
+    public void checkAES() {
+        Assume.assumeTrue(getTarget().arch instanceof AMD64);
+        Assume.assumeTrue(((AMD64) getTarget().arch).getFeatures().contains(AMD64.CPUFeature.AES));
+        Assume.assumeTrue(((AMD64) getTarget().arch).getFeatures().contains(AMD64.CPUFeature.SSSE3));
+    }
+
+    private static int multiply(int a, int b) {
+        int result = 0;
+        int x = a;
+        for (int y = b; y != 0; y >>>= 1) {
+            if ((y & 1) != 0) {
+                result ^= x;
+            }
+            x = (x << 1) ^ ((x & 0x80) != 0 ? 0x11B : 0);
+        }
+        return result;
+    }
+
+    private static int subWord(int word) {
+        return SBOX[word >>> 24] << 24 | SBOX[(word >>> 16) & 0xFF] << 16 | SBOX[(word >>> 8) & 0xFF] << 8 | SBOX[word & 0xFF];
+    }
+
+    private static int invMixColumn(int word) {
+        int[] a = {word >>> 24, (word >>> 16) & 0xFF, (word >>> 8) & 0xFF, word & 0xFF};
+        int result = 0;
+        for (int i = 0; i < 4; i++) {
+            int b = multiply(a[i], 14) ^ multiply(a[(i + 1) % 4], 11) ^ multiply(a[(i + 2) % 4], 13) ^ multiply(a[(i + 3) % 4], 9);
+            result = (result << 8) | b;
+        }
+        return result;
+    }
+
+    /**
+     * Expands {@code key} into the round keys used by {@code AESCrypt}. For decryption the keys of
+     * the equivalent inverse cipher are stored with the final round key first.
+     */
+    static int[] expandKey(byte[] key, boolean decrypt) {
+        int nk = key.length / 4;
+        int rounds = nk + 6;
+        int[] w = new int[4 * (rounds + 1)];
+        for (int i = 0; i < nk; i++) {
+            w[i] = (key[4 * i] & 0xFF) << 24 | (key[4 * i + 1] & 0xFF) << 16 | (key[4 * i + 2] & 0xFF) << 8 | (key[4 * i + 3] & 0xFF);
+        }
+        int rcon = 1;
+        for (int i = nk; i < w.length; i++) {
+            int temp = w[i - 1];
+            if (i % nk == 0) {
+                temp = subWord((temp << 8) | (temp >>> 24)) ^ (rcon << 24);
+                rcon = multiply(rcon, 2);
+            } else if (nk > 6 && i % nk == 4) {
+                temp = subWord(temp);
+            }
+            w[i] = w[i - nk] ^ temp;
+        }
+        if (!decrypt) {
+            return w;
+        }
+        int[] k = new int[w.length];
+        for (int i = 0; i < 4; i++) {
+            k[i] = w[i];
+            k[4 + i] = w[4 * rounds + i];
+        }
+        for (int round = 2; round <= rounds; round++) {
+            for (int i = 0; i < 4; i++) {
+                k[4 * round + i] = invMixColumn(w[4 * (rounds + 1 - round) + i]);
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Reference implementation used by the interpreter. Compiled code uses
+     * {@link AESCryptBlockNode} with the expanded key {@code k} instead.
+     */
+    public static void cryptBlock(boolean encrypt, int[] k, byte[] key, byte[] in, int inOffset, byte[] out, int outOffset) {
+        try {
+            Cipher cipher = Cipher.getInstance("AES/ECB/NoPadding");
+            cipher.init(encrypt ? Cipher.ENCRYPT_MODE : Cipher.DECRYPT_MODE, new SecretKeySpec(key, "AES"));
+            cipher.doFinal(in, inOffset, 16, out, outOffset);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    protected void registerInvocationPlugins(InvocationPlugins invocationPlugins) {
+        Registration r = new Registration(invocationPlugins, AESCryptBlockTest.class);
+        r.register7("cryptBlock", boolean.class, int[].class, byte[].class, byte[].class, int.class, byte[].class, int.class, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode encrypt, ValueNode k, ValueNode key, ValueNode in, ValueNode inOffset,
+                            ValueNode out, ValueNode outOffset) {
+                if (!encrypt.isConstant()) {
+                    return false;
+                }
+                ValueNode keyLength = b.add(ArrayLengthNode.create(k, b.getConstantReflection()));
+                b.add(new AESCryptBlockNode(encrypt.asJavaConstant().asInt() != 0, in, inOffset, out, outOffset, k, keyLength));
+                return true;
+            }
+        });
+        super.registerInvocationPlugins(invocationPlugins);
+    }
+
+    public static byte[] encryptSnippet(int[] k, byte[] key, byte[] in, int inOffset, int outOffset) {
+        byte[] out = new byte[outOffset + 16];
+        cryptBlock(true, k, key, in, inOffset, out, outOffset);
+        return out;
+    }
+
+    public static byte[] decryptSnippet(int[] k, byte[] key, byte[] in, int inOffset, int outOffset) {
+        byte[] out = new byte[outOffset + 16];
+        cryptBlock(false, k, key, in, inOffset, out, outOffset);
+        return out;
+    }
+
+    private void testKeySize(int keySize) {
+        byte[] key = new byte[keySize];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = (byte) (i * 13 + keySize);
+        }
+        byte[] in = new byte[40];
+        for (int i = 0; i < in.length; i++) {
+            in[i] = (byte) (i * 31 + 7);
+        }
+        int[] encryptKey = expandKey(key, false);
+        int[] decryptKey = expandKey(key, true);
+        for (int offset = 0; offset < in.length - 16; offset += 7) {
+            test("encryptSnippet", encryptKey, key, in, offset, offset / 2);
+            test("decryptSnippet", decryptKey, key, in, offset, offset / 2);
+        }
+    }
+
+    @Test
+    public void testAES128() {
+        testKeySize(16);
+    }
+
+    @Test
+    public void testAES192() {
+        testKeySize(24);
+    }
+
+    @Test
+    public void testAES256() {
+        testKeySize(32);
+    }
+}
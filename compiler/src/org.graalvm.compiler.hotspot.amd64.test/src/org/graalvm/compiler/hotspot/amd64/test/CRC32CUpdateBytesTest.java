@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.hotspot.amd64.test;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins.Registration;
+import org.graalvm.compiler.replacements.nodes.CRC32CUpdateBytesNode;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests the code emitted for {@link CRC32CUpdateBytesNode} against a bitwise reference
+ * implementation, independent of whether the VM provides its own CRC32C stub.
+ */
+public class CRC32CUpdateBytesTest extends GraalCompilerTest {
+
+    @Before
+    public void checkSSE42() {
+        Assume.assumeTrue(getTarget().arch instanceof AMD64);
+        Assume.assumeTrue(((AMD64) getTarget().arch).getFeatures().contains(AMD64.CPUFeature.SSE4_2));
+    }
+
+    /**
+     * Reference implementation used by the interpreter. Compiled code uses
+     * {@link CRC32CUpdateBytesNode} instead.
+     */
+    public static int updateBytes(int crc, byte[] b, int off, int len) {
+        int result = crc;
+        for (int i = off; i < off + len; i++) {
+            result ^= b[i] & 0xFF;
+            for (int bit = 0; bit < 8; bit++) {
+                result = (result >>> 1) ^ (0x82F63B78 & -(result & 1));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    protected void registerInvocationPlugins(InvocationPlugins invocationPlugins) {
+        Registration r = new Registration(invocationPlugins, CRC32CUpdateBytesTest.class);
+        r.register4("updateBytes", int.class, byte[].class, int.class, int.class, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode crc, ValueNode array, ValueNode off, ValueNode len) {
+                b.addPush(JavaKind.Int, new CRC32CUpdateBytesNode(crc, array, off, len));
+                return true;
+            }
+        });
+        super.registerInvocationPlugins(invocationPlugins);
+    }
+
+    public static int crc32cSnippet(byte[] b, int off, int len) {
+        return ~updateBytes(0xFFFFFFFF, b, off, len);
+    }
+
+    @Test
+    public void testKnownValue() {
+        // The CRC32C check value of "123456789" is 0xE3069283.
+        byte[] b = "123456789".getBytes();
+        assertDeepEquals(0xE3069283, crc32cSnippet(b, 0, b.length));
+        test("crc32cSnippet", b, 0, b.length);
+    }
+
+    @Test
+    public void testLengthsAndOffsets() {
+        byte[] b = new byte[100];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = (byte) (i * 31 + 7);
+        }
+        for (int off = 0; off < 9; off++) {
+            for (int len = 0; off + len <= b.length; len += 3) {
+                test("crc32cSnippet", b, off, len);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.hotspot.amd64.test;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins.Registration;
+import org.graalvm.compiler.replacements.nodes.GHASHProcessBlocksNode;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests the code emitted for {@link GHASHProcessBlocksNode} against a bitwise reference
+ * implementation of {@code com.sun.crypto.provider.GHASH.processBlocks}.
+ */
+public class GHASHProcessBlocksTest extends GraalCompilerTest {
+
+    @Before
+    public void checkCLMUL() {
+        Assume.assumeTrue(getTarget().arch instanceof AMD64);
+        Assume.assumeTrue(((AMD64) getTarget().arch).getFeatures().contains(AMD64.CPUFeature.CLMUL));
+        Assume.assumeTrue(((AMD64) getTarget().arch).getFeatures().contains(AMD64.CPUFeature.SSSE3));
+    }
+
+    private static long getLong(byte[] buffer, int offset) {
+        long result = 0;
+        for (int i = offset; i < offset + 8; i++) {
+            result = (result << 8) | (buffer[i] & 0xFF);
+        }
+        return result;
+    }
+
+    private static void blockMult(long[] st, long[] subH) {
+        long z0 = 0;
+        long z1 = 0;
+        long v0 = subH[0];
+        long v1 = subH[1];
+        for (int i = 0; i < 128; i++) {
+            long x = i < 64 ? st[0] << i : st[1] << (i - 64);
+            long mask = x >> 63;
+            z0 ^= v0 & mask;
+            z1 ^= v1 & mask;
+            mask = (v1 << 63) >> 63;
+            long carry = v0 & 1;
+            v0 = v0 >>> 1;
+            v1 = (v1 >>> 1) | (carry << 63);
+            v0 ^= 0xe100000000000000L & mask;
+        }
+        st[0] = z0;
+        st[1] = z1;
+    }
+
+    /**
+     * Reference implementation used by the interpreter. Compiled code uses
+     * {@link GHASHProcessBlocksNode} instead.
+     */
+    public static void processBlocks(byte[] data, int inOfs, int blocks, long[] st, long[] subH) {
+        int offset = inOfs;
+        for (int i = 0; i < blocks; i++) {
+            st[0] ^= getLong(data, offset);
+            st[1] ^= getLong(data, offset + 8);
+            blockMult(st, subH);
+            offset += 16;
+        }
+    }
+
+    @Override
+    protected void registerInvocationPlugins(InvocationPlugins invocationPlugins) {
+        Registration r = new Registration(invocationPlugins, GHASHProcessBlocksTest.class);
+        r.register5("processBlocks", byte[].class, int.class, int.class, long[].class, long[].class, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode data, ValueNode inOfs, ValueNode blocks, ValueNode st, ValueNode subH) {
+                b.add(new GHASHProcessBlocksNode(data, inOfs, blocks, st, subH));
+                return true;
+            }
+        });
+        super.registerInvocationPlugins(invocationPlugins);
+    }
+
+    public static long[] ghashSnippet(byte[] data, int inOfs, int blocks, long[] subH) {
+        long[] st = {0x0123456789abcdefL, 0xfedcba9876543210L};
+        processBlocks(data, inOfs, blocks, st, subH);
+        return st;
+    }
+
+    @Test
+    public void testBlocksAndOffsets() {
+        byte[] data = new byte[100];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i * 31 + 7);
+        }
+        long[] subH = {0x66e94bd4ef8a2c3bL, 0x884cfa59ca342b2eL};
+        for (int inOfs = 0; inOfs < 9; inOfs++) {
+            for (int blocks = 0; inOfs + blocks * 16 <= data.length; blocks++) {
+                test("ghashSnippet", data, inOfs, blocks, subH);
+            }
+        }
+    }
+}
@@ -55,6 +55,7 @@ import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.phases.common.AddressLoweringPhase;
 import org.graalvm.compiler.phases.tiers.CompilerConfiguration;
 import org.graalvm.compiler.phases.util.Providers;
+import org.graalvm.compiler.replacements.StandardGraphBuilderPlugins;
 import org.graalvm.compiler.replacements.amd64.AMD64GraphBuilderPlugins;
 import org.graalvm.compiler.replacements.classfile.ClassfileBytecodeProvider;
 import org.graalvm.compiler.serviceprovider.ServiceProvider;
@@ -161,6 +162,19 @@ public class AMD64HotSpotBackendFactory implements HotSpotBackendFactory {
         Plugins plugins = HotSpotGraphBuilderPlugins.create(compilerConfiguration, config, wordTypes, metaAccess, constantReflection, snippetReflection, foreignCalls, lowerer, stampProvider,
                         replacements);
         AMD64GraphBuilderPlugins.register(plugins, replacements.getDefaultReplacementBytecodeProvider(), (AMD64) target.arch, GraalArithmeticStubs.getValue(options));
+        if (config.useFMA) {
+            AMD64GraphBuilderPlugins.registerFMAPlugins(plugins.getInvocationPlugins(), (AMD64) target.arch);
+        }
+        if (!config.useCRC32CIntrinsics) {
+            AMD64GraphBuilderPlugins.registerCRC32CPlugins(plugins.getInvocationPlugins(), replacements.getDefaultReplacementBytecodeProvider(), (AMD64) target.arch);
+        }
+        if (!config.useAESIntrinsics) {
+            AMD64GraphBuilderPlugins.registerAESPlugins(plugins.getInvocationPlugins(), replacements.getDefaultReplacementBytecodeProvider(), (AMD64) target.arch);
+        }
+        AMD64GraphBuilderPlugins.registerGHASHPlugins(plugins.getInvocationPlugins(), replacements.getDefaultReplacementBytecodeProvider(), (AMD64) target.arch);
+        if (!config.useMulAddIntrinsic()) {
+            StandardGraphBuilderPlugins.registerPlatformSpecificBigIntegerPlugins(plugins.getInvocationPlugins(), replacements.getDefaultReplacementBytecodeProvider());
+        }
         return plugins;
     }
 
@@ -212,7 +212,10 @@ final class HotSpotGraalRuntimeMBean implements DynamicMBean {
                                         new MBeanParameterInfo("filter", "java.lang.String", "The parameter for Dump option"),
                                         new MBeanParameterInfo("host", "java.lang.String", "The host where the IGV tool is running at"),
                                         new MBeanParameterInfo("port", "int", "The port where the IGV tool is listening at"),
-                        }, "void", MBeanOperationInfo.ACTION)
+                        }, "void", MBeanOperationInfo.ACTION),
+                        new MBeanOperationInfo("dumpPhaseStatistics", "Per-phase execution counts, times, node growth and time histograms (requires TrackPhaseCosts)",
+                                        new MBeanParameterInfo[0], "java.lang.String", MBeanOperationInfo.INFO),
+                        new MBeanOperationInfo("resetPhaseStatistics", "Discard the per-phase statistics recorded so far", new MBeanParameterInfo[0], "void", MBeanOperationInfo.ACTION)
         };
 
         return new MBeanInfo(
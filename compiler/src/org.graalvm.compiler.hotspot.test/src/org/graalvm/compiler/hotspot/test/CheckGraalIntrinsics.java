@@ -225,16 +225,6 @@ public class CheckGraalIntrinsics extends GraalTest {
                         "java/lang/Double.doubleToLongBits(D)J",
                         "java/lang/Float.floatToIntBits(F)I",
 
-                        // Should be trivial to implement because we already have existing nodes
-                        "java/lang/Math.decrementExact(I)I",
-                        "java/lang/Math.decrementExact(J)J",
-                        "java/lang/Math.incrementExact(I)I",
-                        "java/lang/Math.incrementExact(J)J",
-
-                        // Similar to addExact
-                        "java/lang/Math.negateExact(I)I",
-                        // Similar to addExact
-                        "java/lang/Math.negateExact(J)J",
                         // HotSpot MacroAssembler-based intrinsic
                         "java/lang/String.compareTo(Ljava/lang/String;)I",
                         // HotSpot MacroAssembler-based intrinsic
@@ -259,10 +249,6 @@ public class CheckGraalIntrinsics extends GraalTest {
                             "com/sun/crypto/provider/CounterMode.implCrypt([BII[BI)I",
                             // Stub and very little logic
                             "com/sun/crypto/provider/GHASH.processBlocks([BII[J[J)V",
-                            // HotSpot MacroAssembler-based intrinsic
-                            "java/lang/Math.fma(DDD)D",
-                            // HotSpot MacroAssembler-based intrinsic
-                            "java/lang/Math.fma(FFF)F",
                             // Just a runtime call (the called C code has a better fast path)
                             "java/lang/Object.notify()V",
                             // Just a runtime call (the called C code has a better fast path)
@@ -391,43 +377,51 @@ public class CheckGraalIntrinsics extends GraalTest {
 
             // Compact string support - HotSpot MacroAssembler-based intrinsic or complex C2 logic.
             add(TO_BE_INVESTIGATED,
-                            "java/lang/StringCoding.hasNegatives([BII)Z",
                             "java/lang/StringCoding.implEncodeISOArray([BI[BII)I",
                             "java/lang/StringLatin1.compareTo([B[B)I",
                             "java/lang/StringLatin1.compareToUTF16([B[B)I",
                             "java/lang/StringLatin1.equals([B[B)Z",
                             "java/lang/StringLatin1.indexOf([BI[BII)I",
                             "java/lang/StringLatin1.indexOf([B[B)I",
-                            "java/lang/StringLatin1.inflate([BI[BII)V",
-                            "java/lang/StringLatin1.inflate([BI[CII)V",
                             "java/lang/StringUTF16.compareTo([B[B)I",
                             "java/lang/StringUTF16.compareToLatin1([B[B)I",
-                            "java/lang/StringUTF16.compress([BI[BII)I",
-                            "java/lang/StringUTF16.compress([CI[BII)I",
                             "java/lang/StringUTF16.equals([B[B)Z",
                             "java/lang/StringUTF16.getChar([BI)C",
                             "java/lang/StringUTF16.getChars([BII[CI)V",
                             "java/lang/StringUTF16.indexOf([BI[BII)I",
                             "java/lang/StringUTF16.indexOf([B[B)I",
-                            "java/lang/StringUTF16.indexOfChar([BIII)I",
                             "java/lang/StringUTF16.indexOfLatin1([BI[BII)I",
                             "java/lang/StringUTF16.indexOfLatin1([B[B)I",
                             "java/lang/StringUTF16.putChar([BII)V",
                             "java/lang/StringUTF16.toBytes([CII)[B");
         }
 
-        if (isJDK10OrHigher()) {
-            add(TO_BE_INVESTIGATED,
-                            "java/lang/Math.multiplyHigh(JJ)J",
-                            "jdk/internal/util/ArraysSupport.vectorizedMismatch(Ljava/lang/Object;JLjava/lang/Object;JII)I");
-        }
-
         if (isJDK11OrHigher()) {
             // Relevant for Java flight recorder
             add(TO_BE_INVESTIGATED,
                             "jdk/jfr/internal/JVM.getEventWriter()Ljava/lang/Object;");
         }
 
+        if (!getHostArchitectureName().equals("amd64") && !getHostArchitectureName().equals("aarch64")) {
+            if (isJDK9OrHigher()) {
+                add(TO_BE_INVESTIGATED,
+                                "java/lang/Math.fma(DDD)D",
+                                "java/lang/Math.fma(FFF)F",
+                                "java/lang/StringCoding.hasNegatives([BII)Z");
+            }
+            if (isJDK10OrHigher()) {
+                add(TO_BE_INVESTIGATED,
+                                "jdk/internal/util/ArraysSupport.vectorizedMismatch(Ljava/lang/Object;JLjava/lang/Object;JII)I");
+            }
+        }
+
+        if (!getHostArchitectureName().equals("aarch64")) {
+            if (isJDK9OrHigher()) {
+                add(TO_BE_INVESTIGATED,
+                                "java/lang/StringUTF16.indexOfChar([BIII)I");
+            }
+        }
+
         if (!getHostArchitectureName().equals("amd64")) {
             // Can we implement these on non-AMD64 platforms? C2 seems to.
             add(TO_BE_INVESTIGATED,
@@ -439,6 +433,10 @@ public class CheckGraalIntrinsics extends GraalTest {
 
             if (isJDK9OrHigher()) {
                 add(TO_BE_INVESTIGATED,
+                                "java/lang/StringLatin1.inflate([BI[BII)V",
+                                "java/lang/StringLatin1.inflate([BI[CII)V",
+                                "java/lang/StringUTF16.compress([BI[BII)I",
+                                "java/lang/StringUTF16.compress([CI[BII)I",
                                 "jdk/internal/misc/Unsafe.getAndAddInt(Ljava/lang/Object;JI)I",
                                 "jdk/internal/misc/Unsafe.getAndAddLong(Ljava/lang/Object;JJ)J",
                                 "jdk/internal/misc/Unsafe.getAndSetInt(Ljava/lang/Object;JI)I",
@@ -485,6 +483,13 @@ public class CheckGraalIntrinsics extends GraalTest {
                             "java/util/zip/CRC32C.updateDirectByteBuffer(IJII)I");
         }
 
+        // FMA intrinsics
+        if (isJDK9OrHigher() && !config.useFMA) {
+            add(IGNORE,
+                            "java/lang/Math.fma(DDD)D",
+                            "java/lang/Math.fma(FFF)F");
+        }
+
         // AES intrinsics
         if (!config.useAESIntrinsics) {
             if (isJDK9OrHigher()) {
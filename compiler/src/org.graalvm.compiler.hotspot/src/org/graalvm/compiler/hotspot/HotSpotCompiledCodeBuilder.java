@@ -76,9 +76,14 @@ public class HotSpotCompiledCodeBuilder {
         ResolvedJavaMethod[] methods = compResult.getMethods();
 
         List<CodeAnnotation> annotations = compResult.getAnnotations();
-        Comment[] comments = new Comment[annotations.size()];
+        int coldCodeStart = compResult.getColdCodeStart();
+        Comment[] comments = new Comment[annotations.size() + (coldCodeStart == -1 ? 0 : 1)];
+        if (coldCodeStart != -1) {
+            // marks the start of the cold region in disassembled code
+            comments[annotations.size()] = new Comment(coldCodeStart, "cold code");
+        }
         if (!annotations.isEmpty()) {
-            for (int i = 0; i < comments.length; i++) {
+            for (int i = 0; i < annotations.size(); i++) {
                 CodeAnnotation annotation = annotations.get(i);
                 String text;
                 if (annotation instanceof CodeComment) {
@@ -64,6 +64,7 @@ import org.graalvm.compiler.options.OptionDescriptors;
 import org.graalvm.compiler.options.OptionKey;
 import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.options.OptionsParser;
+import org.graalvm.compiler.phases.contract.PhaseCostStatistics;
 import org.graalvm.compiler.phases.tiers.CompilerConfiguration;
 import org.graalvm.compiler.replacements.SnippetCounter;
 import org.graalvm.compiler.replacements.SnippetCounter.Group;
@@ -536,6 +537,10 @@ public final class HotSpotGraalRuntime implements HotSpotGraalRuntimeProvider {
                 Number port = param(params, 4, "port", Number.class, 4445);
                 dumpMethod(className, methodName, filter, host, port.intValue());
             }
+        } else if ("dumpPhaseStatistics".equals(actionName)) {
+            return PhaseCostStatistics.format();
+        } else if ("resetPhaseStatistics".equals(actionName)) {
+            PhaseCostStatistics.reset();
         }
         return null;
     }
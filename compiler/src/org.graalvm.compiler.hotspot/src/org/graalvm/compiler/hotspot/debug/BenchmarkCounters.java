@@ -26,6 +26,9 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Locale;
 import java.util.Map;
@@ -35,12 +38,17 @@ import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import org.graalvm.compiler.core.common.SuppressFBWarnings;
 import org.graalvm.compiler.debug.CSVUtil;
+import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.debug.GraalError;
 import org.graalvm.compiler.debug.TTY;
 import org.graalvm.compiler.hotspot.GraalHotSpotVMConfig;
+import org.graalvm.compiler.lir.profiling.BlockProfile;
+import org.graalvm.compiler.lir.profiling.BlockProfileDumper;
+import org.graalvm.compiler.lir.profiling.BlockProfilingPhase;
 import org.graalvm.compiler.nodes.debug.DynamicCounterNode;
 import org.graalvm.compiler.options.Option;
 import org.graalvm.compiler.options.OptionKey;
@@ -93,11 +101,19 @@ public class BenchmarkCounters {
         public static final OptionKey<Boolean> BenchmarkCountersDumpDynamic = new OptionKey<>(true);
         @Option(help = "Dump static counters", type = OptionType.Debug)
         public static final OptionKey<Boolean> BenchmarkCountersDumpStatic = new OptionKey<>(false);
+        @Option(help = "Snapshot the block counters inserted by LIRProfileBlocks every n milliseconds " +
+                       "and dump the counts of each interval to the Ideal Graph Visualizer", type = OptionType.Debug)
+        public static final OptionKey<Integer> BlockProfileSnapshotInterval = new OptionKey<>(-1);
         //@formatter:on
     }
 
     public static boolean enabled = false;
 
+    /**
+     * The thread started for {@link Options#BlockProfileSnapshotInterval} or {@code null}.
+     */
+    private static Thread blockProfileSnapshotThread;
+
     private static class Counter {
         public final int index;
         public final String group;
@@ -464,11 +480,105 @@ public class BenchmarkCounters {
         if (enabled) {
             clear(jvmciRuntime.collectCounters());
         }
+        if (enabled && Options.BlockProfileSnapshotInterval.getValue(options) > 0) {
+            Thread thread = new Thread() {
+                final IdentityHashMap<BlockProfile, long[]> previousCounts = new IdentityHashMap<>();
+                int snapshot = 0;
+
+                @Override
+                public void run() {
+                    while (!isInterrupted()) {
+                        try {
+                            Thread.sleep(Options.BlockProfileSnapshotInterval.getValue(options));
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        long[] counters = jvmciRuntime.collectCounters();
+                        for (BlockProfile profile : BlockProfile.getProfiles()) {
+                            long[] counts = profile.computeCounts(name -> getBlockCounterValue(name, counters));
+                            long[] previous = previousCounts.put(profile, counts);
+                            long[] interval = counts.clone();
+                            if (previous != null) {
+                                for (int i = 0; i < interval.length; i++) {
+                                    interval[i] -= previous[i];
+                                }
+                            }
+                            profile.setSnapshot(interval);
+                        }
+                        dumpBlockProfiles(options, "Block profile snapshot " + snapshot++, BlockProfile::getSnapshot);
+                    }
+                }
+            };
+            thread.setDaemon(true);
+            thread.start();
+            blockProfileSnapshotThread = thread;
+        }
+    }
+
+    private static long getBlockCounterValue(String name, long[] counters) {
+        Counter counter = counterMap.get(name + "#" + BlockProfilingPhase.BLOCK_GROUP);
+        return counter == null || counter.index >= counters.length ? 0 : counters[counter.index];
+    }
+
+    private static long[] nonZeroCounts(long[] counts) {
+        if (counts != null) {
+            for (long count : counts) {
+                if (count != 0) {
+                    return counts;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static void dumpBlockProfiles(OptionValues options, String name, Function<BlockProfile, long[]> counts) {
+        DebugContext debug = DebugContext.create(options, Collections.emptyList());
+        try {
+            BlockProfileDumper.dump(debug, name, BlockProfile.getProfiles(), profile -> nonZeroCounts(counts.apply(profile)));
+        } catch (IOException e) {
+            TTY.out().println("Failed to dump block profiles: " + e.getMessage());
+        } finally {
+            debug.close();
+        }
+    }
+
+    private static void printBlockProfiles(PrintStream out, long[] counters, int maxProfiles) {
+        ArrayList<BlockProfile> profiles = new ArrayList<>();
+        IdentityHashMap<BlockProfile, long[]> counts = new IdentityHashMap<>();
+        IdentityHashMap<BlockProfile, Long> totals = new IdentityHashMap<>();
+        for (BlockProfile profile : BlockProfile.getProfiles()) {
+            long[] profileCounts = profile.computeCounts(name -> getBlockCounterValue(name, counters));
+            long total = 0;
+            for (long count : profileCounts) {
+                total += count;
+            }
+            if (total > 0) {
+                profiles.add(profile);
+                counts.put(profile, profileCounts);
+                totals.put(profile, total);
+            }
+        }
+        profiles.sort((a, b) -> Long.compare(totals.get(b), totals.get(a)));
+        out.println("====== block profiles (" + Math.min(maxProfiles, profiles.size()) + " of " + profiles.size() + " profiled compilation units)");
+        for (int i = 0; i < profiles.size() && i < maxProfiles; i++) {
+            profiles.get(i).print(out, counts.get(profiles.get(i)));
+        }
     }
 
     public static void shutdown(HotSpotJVMCIRuntime jvmciRuntime, OptionValues options, long compilerStartTime) {
+        if (blockProfileSnapshotThread != null) {
+            blockProfileSnapshotThread.interrupt();
+            blockProfileSnapshotThread = null;
+        }
         if (Options.GenericDynamicCounters.getValue(options)) {
-            dump(options, getPrintStream(options), (System.nanoTime() - compilerStartTime) / 1000000000d, jvmciRuntime.collectCounters(), 100);
+            long[] counters = jvmciRuntime.collectCounters();
+            PrintStream out = getPrintStream(options);
+            dump(options, out, (System.nanoTime() - compilerStartTime) / 1000000000d, counters, 100);
+            if (!BlockProfile.getProfiles().isEmpty()) {
+                printBlockProfiles(out, counters, 20);
+                dumpBlockProfiles(options, "Block profiles", profile -> profile.computeCounts(name -> getBlockCounterValue(name, counters)));
+                BlockProfile.clear();
+            }
         }
     }
 
@@ -77,7 +77,8 @@ public enum AArch64ArithmeticOp {
     FRINTM,
     FRINTN,
     FRINTP,
-    SQRT;
+    SQRT,
+    FMADD;
 
     /**
      * Specifies what constants can be used directly without having to be loaded into a register
@@ -365,6 +366,41 @@ public enum AArch64ArithmeticOp {
         }
     }
 
+    /**
+     * Class used for the floating point fused multiply-add, which computes {@code a * b + c} with
+     * a single rounding.
+     */
+    public static class TernaryOp extends AArch64LIRInstruction {
+        private static final LIRInstructionClass<TernaryOp> TYPE = LIRInstructionClass.create(TernaryOp.class);
+        @Opcode private final AArch64ArithmeticOp op;
+        @Def({REG}) protected AllocatableValue result;
+        @Use({REG}) protected AllocatableValue a;
+        @Use({REG}) protected AllocatableValue b;
+        @Use({REG}) protected AllocatableValue c;
+
+        public TernaryOp(AArch64ArithmeticOp op, AllocatableValue result, AllocatableValue a, AllocatableValue b, AllocatableValue c) {
+            super(TYPE);
+            this.op = op;
+            this.result = result;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+        }
+
+        @Override
+        public void emitCode(CompilationResultBuilder crb, AArch64MacroAssembler masm) {
+            Register dst = asRegister(result);
+            int size = result.getPlatformKind().getSizeInBytes() * Byte.SIZE;
+            switch (op) {
+                case FMADD:
+                    masm.fmadd(size, dst, asRegister(a), asRegister(b), asRegister(c));
+                    break;
+                default:
+                    throw GraalError.shouldNotReachHere();
+            }
+        }
+    }
+
     public static class AddSubShiftOp extends AArch64LIRInstruction {
         private static final LIRInstructionClass<AddSubShiftOp> TYPE = LIRInstructionClass.create(AddSubShiftOp.class);
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.aarch64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.aarch64.AArch64Address;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ShiftType;
+import org.graalvm.compiler.asm.aarch64.AArch64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code searching a {@code byte[]} holding Latin-1 or UTF-16 elements for a value. Whole
+ * 8-byte words are searched at once: after xor-ing a word with the value replicated into every
+ * lane, {@code (x - 0x01..01) & ~x & 0x80..80} flags the zero lanes, and the lowest flag marks the
+ * first match. The remaining elements are compared one by one.
+ */
+@Opcode("ARRAY_INDEX_OF")
+public final class AArch64ArrayIndexOfOp extends AArch64LIRInstruction {
+    public static final LIRInstructionClass<AArch64ArrayIndexOfOp> TYPE = LIRInstructionClass.create(AArch64ArrayIndexOfOp.class);
+
+    private static final int WORD_SIZE = 8;
+
+    private final int arrayBaseOffset;
+    private final int log2ElementSize;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value arrayValue;
+    @Alive({REG}) protected Value fromIndexValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Alive({REG}) protected Value searchValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+    @Temp({REG}) protected Value temp5;
+    @Temp({REG}) protected Value temp6;
+    @Temp({REG}) protected Value temp7;
+    @Temp({REG}) protected Value temp8;
+
+    public AArch64ArrayIndexOfOp(LIRGeneratorTool tool, JavaKind kind, Value result, Value array, Value fromIndex, Value length, Value search) {
+        super(TYPE);
+        assert kind == JavaKind.Byte || kind == JavaKind.Char;
+        this.arrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Byte);
+        this.log2ElementSize = kind == JavaKind.Byte ? 0 : 1;
+
+        this.resultValue = result;
+        this.arrayValue = array;
+        this.fromIndexValue = fromIndex;
+        this.lengthValue = length;
+        this.searchValue = search;
+
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp5 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp6 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp7 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp8 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AArch64MacroAssembler masm) {
+        int elementBits = Byte.SIZE << log2ElementSize;
+        long lowBits = log2ElementSize == 0 ? 0x0101010101010101L : 0x0001000100010001L;
+        long highBits = lowBits << (elementBits - 1);
+
+        Register result = asRegister(resultValue);
+        Register base = asRegister(temp1);
+        Register offset = asRegister(temp2);
+        Register end = asRegister(temp3);
+        Register key = asRegister(temp4);
+        Register pattern = asRegister(temp5);
+        Register ones = asRegister(temp6);
+        Register word = asRegister(temp7);
+        Register mask = asRegister(temp8);
+
+        Label wordLoop = new Label();
+        Label tail = new Label();
+        Label foundInWord = new Label();
+        Label found = new Label();
+        Label notFound = new Label();
+        Label done = new Label();
+
+        // Work with byte offsets relative to the first array element.
+        masm.lea(base, AArch64Address.createUnscaledImmediateAddress(asRegister(arrayValue), arrayBaseOffset));
+        masm.sxt(64, 32, offset, asRegister(fromIndexValue));
+        masm.shl(64, offset, offset, log2ElementSize);
+        masm.sxt(64, 32, end, asRegister(lengthValue));
+        masm.shl(64, end, end, log2ElementSize);
+
+        // Replicate the search value into every lane of a word.
+        masm.and(64, key, asRegister(searchValue), (1L << elementBits) - 1);
+        masm.mov(ones, lowBits);
+        masm.mul(64, pattern, key, ones);
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(wordLoop);
+        masm.sub(64, word, end, offset);
+        masm.cmp(64, word, WORD_SIZE);
+        masm.branchConditionally(ConditionFlag.LT, tail);
+        masm.ldr(64, word, AArch64Address.createRegisterOffsetAddress(base, offset, false));
+        masm.eor(64, word, word, pattern);
+        masm.sub(64, mask, word, ones);
+        masm.not(64, word, word);
+        masm.and(64, mask, mask, word);
+        masm.ands(64, mask, mask, highBits);
+        masm.branchConditionally(ConditionFlag.NE, foundInWord);
+        masm.add(64, offset, offset, WORD_SIZE);
+        masm.jmp(wordLoop);
+
+        masm.bind(tail);
+        masm.cmp(64, offset, end);
+        masm.branchConditionally(ConditionFlag.GE, notFound);
+        masm.ldr(elementBits, word, AArch64Address.createRegisterOffsetAddress(base, offset, false));
+        masm.cmp(32, word, key);
+        masm.branchConditionally(ConditionFlag.EQ, found);
+        masm.add(64, offset, offset, 1 << log2ElementSize);
+        masm.jmp(tail);
+
+        // The lowest flag lies in the first matching lane.
+        masm.bind(foundInWord);
+        masm.rbit(64, mask, mask);
+        masm.clz(64, mask, mask);
+        masm.add(64, offset, offset, mask, ShiftType.LSR, 3);
+
+        masm.bind(found);
+        masm.lshr(64, result, offset, log2ElementSize);
+        masm.jmp(done);
+
+        masm.bind(notFound);
+        masm.mov(result, -1);
+
+        masm.bind(done);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.aarch64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.aarch64.AArch64Address;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.aarch64.AArch64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code for {@code java.math.BigInteger.implMulAdd}. Each 32-bit word is multiplied by
+ * {@code k} and added to the carry with a single {@code umaddl}, to which the existing output word
+ * is added; the sum cannot overflow 64 bits.
+ */
+@Opcode("BIGINTEGER_MUL_ADD")
+public final class AArch64BigIntegerMulAddOp extends AArch64LIRInstruction {
+    public static final LIRInstructionClass<AArch64BigIntegerMulAddOp> TYPE = LIRInstructionClass.create(AArch64BigIntegerMulAddOp.class);
+
+    private final int arrayBaseOffset;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value outValue;
+    @Alive({REG}) protected Value inValue;
+    @Alive({REG}) protected Value outIndexValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Alive({REG}) protected Value kValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+    @Temp({REG}) protected Value temp5;
+    @Temp({REG}) protected Value temp6;
+
+    public AArch64BigIntegerMulAddOp(LIRGeneratorTool tool, Value result, Value out, Value in, Value outIndex, Value length, Value k) {
+        super(TYPE);
+        this.arrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Int);
+
+        this.resultValue = result;
+        this.outValue = out;
+        this.inValue = in;
+        this.outIndexValue = outIndex;
+        this.lengthValue = length;
+        this.kValue = k;
+
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp5 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp6 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AArch64MacroAssembler masm) {
+        Register carry = asRegister(resultValue);
+        Register k = asRegister(kValue);
+        Register out = asRegister(temp1);
+        Register in = asRegister(temp2);
+        Register outIndex = asRegister(temp3);
+        Register inIndex = asRegister(temp4);
+        Register product = asRegister(temp5);
+        Register word = asRegister(temp6);
+
+        Label loop = new Label();
+        Label done = new Label();
+
+        // Load array base addresses.
+        masm.lea(out, AArch64Address.createUnscaledImmediateAddress(asRegister(outValue), arrayBaseOffset));
+        masm.lea(in, AArch64Address.createUnscaledImmediateAddress(asRegister(inValue), arrayBaseOffset));
+        masm.sxt(64, 32, outIndex, asRegister(outIndexValue));
+        masm.sxt(64, 32, inIndex, asRegister(lengthValue));
+        masm.mov(carry, 0);
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(loop);
+        masm.subs(64, inIndex, inIndex, 1);
+        masm.branchConditionally(ConditionFlag.LT, done);
+        masm.ldr(32, word, AArch64Address.createRegisterOffsetAddress(in, inIndex, true));
+        masm.umaddl(product, word, k, carry);
+        masm.ldr(32, word, AArch64Address.createRegisterOffsetAddress(out, outIndex, true));
+        masm.add(64, product, product, word);
+        masm.str(32, product, AArch64Address.createRegisterOffsetAddress(out, outIndex, true));
+        masm.lshr(64, carry, product, 32);
+        masm.sub(64, outIndex, outIndex, 1);
+        masm.jmp(loop);
+
+        masm.bind(done);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.aarch64;
+
+import static jdk.vm.ci.aarch64.AArch64.zr;
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.aarch64.AArch64Address;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.aarch64.AArch64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which determines if a range of a {@code byte[]} contains a negative value, as needed
+ * by {@code java.lang.StringCoding.hasNegatives}. The sign bits are tested in 8-byte words,
+ * followed by single bytes.
+ */
+@Opcode("HAS_NEGATIVES")
+public final class AArch64HasNegativesOp extends AArch64LIRInstruction {
+    public static final LIRInstructionClass<AArch64HasNegativesOp> TYPE = LIRInstructionClass.create(AArch64HasNegativesOp.class);
+
+    private static final int WORD_SIZE = 8;
+    private static final long SIGN_BITS = 0x8080808080808080L;
+
+    private final int arrayBaseOffset;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value arrayValue;
+    @Alive({REG}) protected Value offsetValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+
+    public AArch64HasNegativesOp(LIRGeneratorTool tool, Value result, Value array, Value offset, Value length) {
+        super(TYPE);
+        this.arrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Byte);
+
+        this.resultValue = result;
+        this.arrayValue = array;
+        this.offsetValue = offset;
+        this.lengthValue = length;
+
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AArch64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register address = asRegister(temp1);
+        Register length = asRegister(temp2);
+        Register value = asRegister(temp3);
+
+        Label wordLoop = new Label();
+        Label byteTail = new Label();
+        Label byteLoop = new Label();
+        Label found = new Label();
+        Label notFound = new Label();
+        Label done = new Label();
+
+        // Load the address of the first byte of the range.
+        masm.sxt(64, 32, value, asRegister(offsetValue));
+        masm.add(64, address, asRegister(arrayValue), value);
+        masm.lea(address, AArch64Address.createUnscaledImmediateAddress(address, arrayBaseOffset));
+        masm.sxt(64, 32, length, asRegister(lengthValue));
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(wordLoop);
+        masm.subs(64, length, length, WORD_SIZE);
+        masm.branchConditionally(ConditionFlag.LT, byteTail);
+        masm.ldr(64, value, AArch64Address.createPostIndexedImmediateAddress(address, WORD_SIZE));
+        masm.ands(64, zr, value, SIGN_BITS);
+        masm.branchConditionally(ConditionFlag.NE, found);
+        masm.jmp(wordLoop);
+
+        masm.bind(byteTail);
+        masm.add(64, length, length, WORD_SIZE);
+        masm.bind(byteLoop);
+        masm.cbz(64, length, notFound);
+        masm.ldr(8, value, AArch64Address.createPostIndexedImmediateAddress(address, 1));
+        masm.tbnz(value, 7, found);
+        masm.sub(64, length, length, 1);
+        masm.jmp(byteLoop);
+
+        masm.bind(found);
+        masm.mov(result, 1);
+        masm.jmp(done);
+
+        masm.bind(notFound);
+        masm.mov(result, 0);
+
+        masm.bind(done);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.aarch64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.aarch64.AArch64Address;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.aarch64.AArch64Assembler.ShiftType;
+import org.graalvm.compiler.asm.aarch64.AArch64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code for {@code jdk.internal.util.ArraysSupport.vectorizedMismatch}. The two regions are
+ * compared in 8-byte words. The result is the index of the first mismatching element, or the
+ * bitwise complement of the number of remaining elements that were not compared because they do
+ * not fill a complete 8-byte word.
+ */
+@Opcode("VECTORIZED_MISMATCH")
+public final class AArch64VectorizedMismatchOp extends AArch64LIRInstruction {
+    public static final LIRInstructionClass<AArch64VectorizedMismatchOp> TYPE = LIRInstructionClass.create(AArch64VectorizedMismatchOp.class);
+
+    private static final int WORD_SIZE = 8;
+
+    private final int log2ElementSize;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value aValue;
+    @Alive({REG}) protected Value aOffsetValue;
+    @Alive({REG}) protected Value bValue;
+    @Alive({REG}) protected Value bOffsetValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+    @Temp({REG}) protected Value temp5;
+    @Temp({REG}) protected Value temp6;
+
+    public AArch64VectorizedMismatchOp(LIRGeneratorTool tool, int log2ElementSize, Value result, Value a, Value aOffset, Value b, Value bOffset, Value length) {
+        super(TYPE);
+        assert log2ElementSize >= 0 && log2ElementSize <= 3;
+        this.log2ElementSize = log2ElementSize;
+
+        this.resultValue = result;
+        this.aValue = a;
+        this.aOffsetValue = aOffset;
+        this.bValue = b;
+        this.bOffsetValue = bOffset;
+        this.lengthValue = length;
+
+        this.temp1 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.unknownReference(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp5 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp6 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AArch64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register a = asRegister(temp1);
+        Register b = asRegister(temp2);
+        Register length = asRegister(temp3);
+        Register index = asRegister(temp4);
+        Register value1 = asRegister(temp5);
+        Register value2 = asRegister(temp6);
+
+        Label loop = new Label();
+        Label tail = new Label();
+        Label found = new Label();
+        Label done = new Label();
+
+        masm.add(64, a, asRegister(aValue), asRegister(aOffsetValue));
+        masm.add(64, b, asRegister(bValue), asRegister(bOffsetValue));
+
+        // Get the length in bytes and the part of it that fills whole words.
+        masm.sxt(64, 32, length, asRegister(lengthValue));
+        masm.shl(64, length, length, log2ElementSize);
+        masm.and(64, result, length, ~(WORD_SIZE - 1));
+        masm.mov(index, 0);
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(loop);
+        masm.cmp(64, index, result);
+        masm.branchConditionally(ConditionFlag.GE, tail);
+        masm.ldr(64, value1, AArch64Address.createRegisterOffsetAddress(a, index, false));
+        masm.ldr(64, value2, AArch64Address.createRegisterOffsetAddress(b, index, false));
+        masm.eor(64, value1, value1, value2);
+        masm.cbnz(64, value1, found);
+        masm.add(64, index, index, WORD_SIZE);
+        masm.jmp(loop);
+
+        // Return the complement of the number of elements left over.
+        masm.bind(tail);
+        masm.sub(64, result, length, index);
+        masm.lshr(64, result, result, log2ElementSize);
+        masm.not(32, result, result);
+        masm.jmp(done);
+
+        // The lowest set bit of the difference lies in the first mismatching byte.
+        masm.bind(found);
+        masm.rbit(64, value1, value1);
+        masm.clz(64, value1, value1);
+        masm.add(64, index, index, value1, ShiftType.LSR, 3);
+        masm.lshr(64, result, index, log2ElementSize);
+
+        masm.bind(done);
+    }
+}
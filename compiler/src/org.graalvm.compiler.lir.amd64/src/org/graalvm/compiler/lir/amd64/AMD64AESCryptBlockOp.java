@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which encrypts or decrypts one 16 byte block with the AES-NI instructions. The
+ * expanded key is an {@code int[]} of big-endian words as produced by
+ * {@code com.sun.crypto.provider.AESCrypt}, so each round key is byte swapped after loading. Its
+ * length of 44, 52 or 60 words selects 10, 12 or 14 rounds.
+ *
+ * The decryption key holds the key of the final round first, followed by the keys of the other
+ * rounds in the order they are applied, already transformed for {@code aesdec}.
+ */
+@Opcode("AES_CRYPT_BLOCK")
+public final class AMD64AESCryptBlockOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64AESCryptBlockOp> TYPE = LIRInstructionClass.create(AMD64AESCryptBlockOp.class);
+
+    private static final int BLOCK_SIZE = 16;
+    private static final int AES128_KEY_LENGTH = 44;
+    private static final int AES192_KEY_LENGTH = 52;
+
+    /**
+     * Reverses the bytes of each 32 bit word.
+     */
+    private static final byte[] KEY_SHUFFLE_MASK = {3, 2, 1, 0, 7, 6, 5, 4, 11, 10, 9, 8, 15, 14, 13, 12};
+
+    private final boolean encrypt;
+    private final int byteArrayBaseOffset;
+    private final int intArrayBaseOffset;
+
+    @Alive({REG}) protected Value inValue;
+    @Alive({REG}) protected Value inOffsetValue;
+    @Alive({REG}) protected Value outValue;
+    @Alive({REG}) protected Value outOffsetValue;
+    @Alive({REG}) protected Value keyValue;
+    @Alive({REG}) protected Value keyLengthValue;
+    @Temp({REG}) protected Value indexTemp;
+    @Temp({REG}) protected Value blockTemp;
+    @Temp({REG}) protected Value roundKeyTemp;
+    @Temp({REG}) protected Value shuffleMaskTemp;
+
+    public AMD64AESCryptBlockOp(LIRGeneratorTool tool, boolean encrypt, Value in, Value inOffset, Value out, Value outOffset, Value key, Value keyLength) {
+        super(TYPE);
+        this.encrypt = encrypt;
+        this.byteArrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Byte);
+        this.intArrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Int);
+
+        this.inValue = in;
+        this.inOffsetValue = inOffset;
+        this.outValue = out;
+        this.outOffsetValue = outOffset;
+        this.keyValue = key;
+        this.keyLengthValue = keyLength;
+
+        this.indexTemp = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.blockTemp = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+        this.roundKeyTemp = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+        this.shuffleMaskTemp = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register index = asRegister(indexTemp);
+        Register block = asRegister(blockTemp);
+        Register shuffleMask = asRegister(shuffleMaskTemp);
+
+        masm.movdqu(shuffleMask, (AMD64Address) crb.recordDataReferenceInCode(KEY_SHUFFLE_MASK, BLOCK_SIZE));
+        masm.movslq(index, asRegister(inOffsetValue));
+        masm.movdqu(block, new AMD64Address(asRegister(inValue), index, Scale.Times1, byteArrayBaseOffset));
+        if (encrypt) {
+            emitEncrypt(masm, block, shuffleMask);
+        } else {
+            emitDecrypt(masm, block, shuffleMask);
+        }
+        masm.movslq(index, asRegister(outOffsetValue));
+        masm.movdqu(new AMD64Address(asRegister(outValue), index, Scale.Times1, byteArrayBaseOffset), block);
+    }
+
+    private void emitEncrypt(AMD64MacroAssembler masm, Register block, Register shuffleMask) {
+        Register roundKey = asRegister(roundKeyTemp);
+        Label lastRound = new Label();
+
+        loadRoundKey(masm, roundKey, 0, shuffleMask);
+        masm.pxor(block, roundKey);
+        for (int round = 1; round < 10; round++) {
+            loadRoundKey(masm, roundKey, round, shuffleMask);
+            masm.aesenc(block, roundKey);
+        }
+        masm.cmpl(asRegister(keyLengthValue), AES128_KEY_LENGTH);
+        masm.jcc(ConditionFlag.Equal, lastRound);
+        for (int round = 10; round < 12; round++) {
+            loadRoundKey(masm, roundKey, round, shuffleMask);
+            masm.aesenc(block, roundKey);
+        }
+        masm.cmpl(asRegister(keyLengthValue), AES192_KEY_LENGTH);
+        masm.jcc(ConditionFlag.Equal, lastRound);
+        for (int round = 12; round < 14; round++) {
+            loadRoundKey(masm, roundKey, round, shuffleMask);
+            masm.aesenc(block, roundKey);
+        }
+
+        masm.bind(lastRound);
+        // the key of the final round is at the end of the expanded key
+        Register index = asRegister(indexTemp);
+        masm.movslq(index, asRegister(keyLengthValue));
+        masm.movdqu(roundKey, new AMD64Address(asRegister(keyValue), index, Scale.Times4, intArrayBaseOffset - BLOCK_SIZE));
+        masm.pshufb(roundKey, shuffleMask);
+        masm.aesenclast(block, roundKey);
+    }
+
+    private void emitDecrypt(AMD64MacroAssembler masm, Register block, Register shuffleMask) {
+        Register roundKey = asRegister(roundKeyTemp);
+        Label lastRound = new Label();
+
+        loadRoundKey(masm, roundKey, 1, shuffleMask);
+        masm.pxor(block, roundKey);
+        for (int round = 2; round < 11; round++) {
+            loadRoundKey(masm, roundKey, round, shuffleMask);
+            masm.aesdec(block, roundKey);
+        }
+        masm.cmpl(asRegister(keyLengthValue), AES128_KEY_LENGTH);
+        masm.jcc(ConditionFlag.Equal, lastRound);
+        for (int round = 11; round < 13; round++) {
+            loadRoundKey(masm, roundKey, round, shuffleMask);
+            masm.aesdec(block, roundKey);
+        }
+        masm.cmpl(asRegister(keyLengthValue), AES192_KEY_LENGTH);
+        masm.jcc(ConditionFlag.Equal, lastRound);
+        for (int round = 13; round < 15; round++) {
+            loadRoundKey(masm, roundKey, round, shuffleMask);
+            masm.aesdec(block, roundKey);
+        }
+
+        masm.bind(lastRound);
+        loadRoundKey(masm, roundKey, 0, shuffleMask);
+        masm.aesdeclast(block, roundKey);
+    }
+
+    private void loadRoundKey(AMD64MacroAssembler masm, Register roundKey, int index, Register shuffleMask) {
+        masm.movdqu(roundKey, new AMD64Address(asRegister(keyValue), intArrayBaseOffset + index * BLOCK_SIZE));
+        masm.pshufb(roundKey, shuffleMask);
+    }
+}
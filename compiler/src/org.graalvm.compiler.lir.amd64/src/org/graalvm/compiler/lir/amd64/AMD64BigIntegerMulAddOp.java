@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code for {@code java.math.BigInteger.implMulAdd}. Each 32-bit word is multiplied by
+ * {@code k} with a single 64-bit multiply, to which the existing output word and the carry are
+ * added; the sum cannot overflow 64 bits.
+ */
+@Opcode("BIGINTEGER_MUL_ADD")
+public final class AMD64BigIntegerMulAddOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64BigIntegerMulAddOp> TYPE = LIRInstructionClass.create(AMD64BigIntegerMulAddOp.class);
+
+    private final int arrayBaseOffset;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value outValue;
+    @Alive({REG}) protected Value inValue;
+    @Alive({REG}) protected Value outIndexValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Alive({REG}) protected Value kValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+    @Temp({REG}) protected Value temp4;
+    @Temp({REG}) protected Value temp5;
+
+    public AMD64BigIntegerMulAddOp(LIRGeneratorTool tool, Value result, Value out, Value in, Value outIndex, Value length, Value k) {
+        super(TYPE);
+        this.arrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Int);
+
+        this.resultValue = result;
+        this.outValue = out;
+        this.inValue = in;
+        this.outIndexValue = outIndex;
+        this.lengthValue = length;
+        this.kValue = k;
+
+        this.temp1 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp4 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp5 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register out = asRegister(outValue);
+        Register in = asRegister(inValue);
+        Register carry = asRegister(resultValue);
+        Register outIndex = asRegister(temp1);
+        Register inIndex = asRegister(temp2);
+        Register k = asRegister(temp3);
+        Register product = asRegister(temp4);
+        Register word = asRegister(temp5);
+
+        Label loop = new Label();
+        Label done = new Label();
+
+        masm.movslq(outIndex, asRegister(outIndexValue));
+        masm.movslq(inIndex, asRegister(lengthValue));
+        // Zero extend k and the words so the product is unsigned.
+        masm.movl(k, asRegister(kValue));
+        masm.xorl(carry, carry);
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(loop);
+        masm.decrementq(inIndex, 1);
+        masm.jcc(ConditionFlag.Less, done);
+        masm.movl(product, new AMD64Address(in, inIndex, Scale.Times4, arrayBaseOffset));
+        masm.imulq(product, k);
+        masm.movl(word, new AMD64Address(out, outIndex, Scale.Times4, arrayBaseOffset));
+        masm.addq(product, word);
+        masm.addq(product, carry);
+        masm.movl(new AMD64Address(out, outIndex, Scale.Times4, arrayBaseOffset), product);
+        masm.movq(carry, product);
+        masm.shrq(carry, 32);
+        masm.decrementq(outIndex, 1);
+        masm.jmp(loop);
+
+        masm.bind(done);
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static jdk.vm.ci.code.ValueUtil.isIllegal;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.OperandSize.DWORD;
+import static org.graalvm.compiler.asm.amd64.AMD64Assembler.OperandSize.QWORD;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.ILLEGAL;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.AMD64RMOp;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which updates a CRC32C checksum using the SSE4.2 {@code crc32} instruction, 8 bytes at
+ * a time followed by single bytes. The bytes are read from a {@code byte[]} or, if no array is
+ * given, from an absolute address.
+ */
+@Opcode("CRC32C_UPDATE_BYTES")
+public final class AMD64CRC32CUpdateBytesOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64CRC32CUpdateBytesOp> TYPE = LIRInstructionClass.create(AMD64CRC32CUpdateBytesOp.class);
+
+    private static final int WORD_SIZE = 8;
+
+    private final int arrayBaseOffset;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value crcValue;
+    @Alive({REG, ILLEGAL}) protected Value arrayValue;
+    @Alive({REG}) protected Value offsetValue;
+    @Alive({REG}) protected Value lengthValue;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+
+    public AMD64CRC32CUpdateBytesOp(LIRGeneratorTool tool, Value result, Value crc, Value array, Value offset, Value length) {
+        super(TYPE);
+        this.arrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Byte);
+
+        this.resultValue = result;
+        this.crcValue = crc;
+        this.arrayValue = array;
+        this.offsetValue = offset;
+        this.lengthValue = length;
+
+        this.temp1 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register address = asRegister(temp1);
+        Register length = asRegister(temp2);
+
+        Label wordLoop = new Label();
+        Label byteLoop = new Label();
+        Label done = new Label();
+
+        if (isIllegal(arrayValue)) {
+            masm.movq(address, asRegister(offsetValue));
+        } else {
+            masm.movslq(address, asRegister(offsetValue));
+            masm.leaq(address, new AMD64Address(asRegister(arrayValue), address, Scale.Times1, arrayBaseOffset));
+        }
+        masm.movslq(length, asRegister(lengthValue));
+        masm.movl(result, asRegister(crcValue));
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(wordLoop);
+        masm.cmpq(length, WORD_SIZE);
+        masm.jcc(ConditionFlag.Less, byteLoop);
+        AMD64RMOp.CRC32.emit(masm, QWORD, result, new AMD64Address(address));
+        masm.addq(address, WORD_SIZE);
+        masm.subq(length, WORD_SIZE);
+        masm.jmp(wordLoop);
+
+        masm.bind(byteLoop);
+        masm.testq(length, length);
+        masm.jcc(ConditionFlag.LessEqual, done);
+        AMD64RMOp.CRC32B.emit(masm, DWORD, result, new AMD64Address(address));
+        masm.incrementq(address, 1);
+        masm.decrementq(length, 1);
+        masm.jmp(byteLoop);
+
+        masm.bind(done);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.HINT;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.debug.GraalError;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.meta.AllocatableValue;
+
+/**
+ * Computes {@code result = x * y + z} with {@code VFMADD231SD} or {@code VFMADD231SS}. The
+ * accumulator is moved into the result register first, so {@code x} and {@code y} must stay alive
+ * until the instruction has been emitted.
+ */
+@Opcode("FMA")
+public final class AMD64FusedMultiplyAddOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64FusedMultiplyAddOp> TYPE = LIRInstructionClass.create(AMD64FusedMultiplyAddOp.class);
+
+    @Def({REG, HINT}) protected AllocatableValue result;
+    @Alive({REG}) protected AllocatableValue x;
+    @Alive({REG}) protected AllocatableValue y;
+    @Use({REG}) protected AllocatableValue z;
+
+    public AMD64FusedMultiplyAddOp(AllocatableValue result, AllocatableValue x, AllocatableValue y, AllocatableValue z) {
+        super(TYPE);
+        this.result = result;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        AMD64Move.move(crb, masm, result, z);
+        switch ((AMD64Kind) result.getPlatformKind()) {
+            case SINGLE:
+                masm.vfmadd231ss(asRegister(result), asRegister(x), asRegister(y));
+                break;
+            case DOUBLE:
+                masm.vfmadd231sd(asRegister(result), asRegister(x), asRegister(y));
+                break;
+            default:
+                throw GraalError.shouldNotReachHere();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code for {@code com.sun.crypto.provider.GHASH.processBlocks}, which multiplies the state
+ * XORed with each 16 byte block by the hash subkey in GF(2^128). The carry-less multiplication uses
+ * {@code pclmulqdq}; the product is shifted left by one bit, because GCM bit order is reflected,
+ * and reduced modulo x^128 + x^7 + x^2 + x + 1 as described in Intel's "Carry-Less Multiplication
+ * Instruction and its Usage for Computing the GCM Mode" white paper.
+ *
+ * The state and the subkey are {@code long[2]} arrays holding the high 64 bits first, and the data
+ * blocks are big-endian.
+ */
+@Opcode("GHASH_PROCESS_BLOCKS")
+public final class AMD64GHASHProcessBlocksOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64GHASHProcessBlocksOp> TYPE = LIRInstructionClass.create(AMD64GHASHProcessBlocksOp.class);
+
+    private static final int BLOCK_SIZE = 16;
+
+    /**
+     * Swaps the two 64 bit halves.
+     */
+    private static final byte[] LONG_SWAP_MASK = {8, 9, 10, 11, 12, 13, 14, 15, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    /**
+     * Reverses all 16 bytes.
+     */
+    private static final byte[] BYTE_SWAP_MASK = {15, 14, 13, 12, 11, 10, 9, 8, 7, 6, 5, 4, 3, 2, 1, 0};
+
+    private final int byteArrayBaseOffset;
+    private final int longArrayBaseOffset;
+
+    @Alive({REG}) protected Value dataValue;
+    @Alive({REG}) protected Value offsetValue;
+    @Alive({REG}) protected Value blocksValue;
+    @Alive({REG}) protected Value stateValue;
+    @Alive({REG}) protected Value subkeyHValue;
+    @Temp({REG}) protected Value addressTemp;
+    @Temp({REG}) protected Value countTemp;
+    @Temp({REG}) protected Value[] vectorTemps;
+
+    public AMD64GHASHProcessBlocksOp(LIRGeneratorTool tool, Value data, Value offset, Value blocks, Value state, Value subkeyH) {
+        super(TYPE);
+        this.byteArrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Byte);
+        this.longArrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Long);
+
+        this.dataValue = data;
+        this.offsetValue = offset;
+        this.blocksValue = blocks;
+        this.stateValue = state;
+        this.subkeyHValue = subkeyH;
+
+        this.addressTemp = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.countTemp = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.vectorTemps = new Value[12];
+        for (int i = 0; i < vectorTemps.length; i++) {
+            vectorTemps[i] = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+        }
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register address = asRegister(addressTemp);
+        Register count = asRegister(countTemp);
+        Register state = asRegister(vectorTemps[0]);
+        Register subkeyH = asRegister(vectorTemps[1]);
+        Register block = asRegister(vectorTemps[2]);
+        Register longSwapMask = asRegister(vectorTemps[10]);
+        Register byteSwapMask = asRegister(vectorTemps[11]);
+
+        Label loop = new Label();
+        Label done = new Label();
+
+        masm.movslq(count, asRegister(blocksValue));
+        masm.testq(count, count);
+        masm.jcc(ConditionFlag.LessEqual, done);
+
+        masm.movdqu(longSwapMask, (AMD64Address) crb.recordDataReferenceInCode(LONG_SWAP_MASK, BLOCK_SIZE));
+        masm.movdqu(byteSwapMask, (AMD64Address) crb.recordDataReferenceInCode(BYTE_SWAP_MASK, BLOCK_SIZE));
+        masm.movslq(address, asRegister(offsetValue));
+        masm.leaq(address, new AMD64Address(asRegister(dataValue), address, Scale.Times1, byteArrayBaseOffset));
+        masm.movdqu(state, new AMD64Address(asRegister(stateValue), longArrayBaseOffset));
+        masm.pshufb(state, longSwapMask);
+        masm.movdqu(subkeyH, new AMD64Address(asRegister(subkeyHValue), longArrayBaseOffset));
+        masm.pshufb(subkeyH, longSwapMask);
+
+        masm.bind(loop);
+        masm.movdqu(block, new AMD64Address(address));
+        masm.pshufb(block, byteSwapMask);
+        masm.pxor(state, block);
+        emitMultiply(masm);
+        masm.addq(address, BLOCK_SIZE);
+        masm.subq(count, 1);
+        masm.jcc(ConditionFlag.NotZero, loop);
+
+        masm.pshufb(state, longSwapMask);
+        masm.movdqu(new AMD64Address(asRegister(stateValue), longArrayBaseOffset), state);
+        masm.bind(done);
+    }
+
+    /**
+     * Computes {@code state = state * subkeyH} in GF(2^128).
+     */
+    private void emitMultiply(AMD64MacroAssembler masm) {
+        Register state = asRegister(vectorTemps[0]);
+        Register subkeyH = asRegister(vectorTemps[1]);
+        Register tmp2 = asRegister(vectorTemps[2]);
+        Register tmp3 = asRegister(vectorTemps[3]);
+        Register tmp4 = asRegister(vectorTemps[4]);
+        Register tmp5 = asRegister(vectorTemps[5]);
+        Register tmp6 = asRegister(vectorTemps[6]);
+        Register tmp7 = asRegister(vectorTemps[7]);
+        Register tmp8 = asRegister(vectorTemps[8]);
+        Register tmp9 = asRegister(vectorTemps[9]);
+
+        // 256 bit carry-less product <tmp6:tmp3> of state and subkeyH
+        masm.movdqu(tmp3, state);
+        masm.pclmulqdq(tmp3, subkeyH, 0x00);
+        masm.movdqu(tmp4, state);
+        masm.pclmulqdq(tmp4, subkeyH, 0x10);
+        masm.movdqu(tmp5, state);
+        masm.pclmulqdq(tmp5, subkeyH, 0x01);
+        masm.movdqu(tmp6, state);
+        masm.pclmulqdq(tmp6, subkeyH, 0x11);
+        masm.pxor(tmp4, tmp5);
+        masm.movdqu(tmp5, tmp4);
+        masm.psrldq(tmp4, 8);
+        masm.pslldq(tmp5, 8);
+        masm.pxor(tmp3, tmp5);
+        masm.pxor(tmp6, tmp4);
+
+        // shift the product left by one bit
+        masm.movdqu(tmp7, tmp3);
+        masm.movdqu(tmp8, tmp6);
+        masm.pslld(tmp3, 1);
+        masm.pslld(tmp6, 1);
+        masm.psrld(tmp7, 31);
+        masm.psrld(tmp8, 31);
+        masm.movdqu(tmp9, tmp7);
+        masm.pslldq(tmp8, 4);
+        masm.pslldq(tmp7, 4);
+        masm.psrldq(tmp9, 12);
+        masm.por(tmp3, tmp7);
+        masm.por(tmp6, tmp8);
+        masm.por(tmp6, tmp9);
+
+        // first phase of the reduction
+        masm.movdqu(tmp7, tmp3);
+        masm.movdqu(tmp8, tmp3);
+        masm.movdqu(tmp9, tmp3);
+        masm.pslld(tmp7, 31);
+        masm.pslld(tmp8, 30);
+        masm.pslld(tmp9, 25);
+        masm.pxor(tmp7, tmp8);
+        masm.pxor(tmp7, tmp9);
+        masm.movdqu(tmp8, tmp7);
+        masm.pslldq(tmp7, 12);
+        masm.psrldq(tmp8, 4);
+        masm.pxor(tmp3, tmp7);
+
+        // second phase of the reduction
+        masm.movdqu(tmp2, tmp3);
+        masm.movdqu(tmp4, tmp3);
+        masm.movdqu(tmp5, tmp3);
+        masm.psrld(tmp2, 1);
+        masm.psrld(tmp4, 2);
+        masm.psrld(tmp5, 7);
+        masm.pxor(tmp2, tmp4);
+        masm.pxor(tmp2, tmp5);
+        masm.pxor(tmp2, tmp8);
+        masm.pxor(tmp3, tmp2);
+        masm.pxor(tmp6, tmp3);
+        masm.movdqu(state, tmp6);
+    }
+}
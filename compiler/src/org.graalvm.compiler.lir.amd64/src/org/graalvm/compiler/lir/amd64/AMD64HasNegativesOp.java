@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.ILLEGAL;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code which determines if a range of a {@code byte[]} contains a negative value, as needed
+ * by {@code java.lang.StringCoding.hasNegatives}. The sign bits of 32 bytes per iteration are
+ * tested with SSE4.1 {@code ptest}, followed by 8-byte words and single bytes.
+ */
+@Opcode("HAS_NEGATIVES")
+public final class AMD64HasNegativesOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64HasNegativesOp> TYPE = LIRInstructionClass.create(AMD64HasNegativesOp.class);
+
+    private final int arrayBaseOffset;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value arrayValue;
+    @Use({REG}) protected Value offsetValue;
+    @Use({REG}) protected Value lengthValue;
+    @Temp({REG}) protected Value offsetValueTemp;
+    @Temp({REG}) protected Value lengthValueTemp;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp1;
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp2;
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp3;
+
+    public AMD64HasNegativesOp(LIRGeneratorTool tool, Value result, Value array, Value offset, Value length) {
+        super(TYPE);
+        this.arrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Byte);
+
+        this.resultValue = result;
+        this.arrayValue = array;
+        /*
+         * The offset and the length are inputs but are also killed like temporaries so need both
+         * Use and Temp annotations, which will only work with fixed registers.
+         */
+        this.offsetValue = offset;
+        this.lengthValue = length;
+        this.offsetValueTemp = offset;
+        this.lengthValueTemp = length;
+
+        // Allocate some temporaries.
+        this.temp1 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+
+        // We only need the vector temporaries if we generate SSE code.
+        if (supportsSSE41(tool.target())) {
+            this.vectorTemp1 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+            this.vectorTemp2 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+            this.vectorTemp3 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+        } else {
+            this.vectorTemp1 = Value.ILLEGAL;
+            this.vectorTemp2 = Value.ILLEGAL;
+            this.vectorTemp3 = Value.ILLEGAL;
+        }
+    }
+
+    private static boolean supportsSSE41(TargetDescription target) {
+        return ((AMD64) target.arch).getFeatures().contains(CPUFeature.SSE4_1);
+    }
+
+    /**
+     * Number of bytes tested per iteration of the vector loop.
+     */
+    private static final int VECTOR_LOOP_SIZE = 32;
+
+    private static final int WORD_SIZE = 8;
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register address = asRegister(offsetValue);
+        Register length = asRegister(lengthValue);
+        Register index = asRegister(temp1);
+        Register limit = asRegister(temp2);
+
+        Label wordCompare = new Label();
+        Label wordLoop = new Label();
+        Label byteCompare = new Label();
+        Label byteLoop = new Label();
+        Label trueLabel = new Label();
+        Label falseLabel = new Label();
+        Label done = new Label();
+
+        masm.movslq(address, address);
+        masm.leaq(address, new AMD64Address(asRegister(arrayValue), address, Scale.Times1, arrayBaseOffset));
+        masm.movslq(length, length);
+        masm.xorl(index, index);
+
+        if (supportsSSE41(crb.target)) {
+            Register mask = asRegister(vectorTemp1, AMD64Kind.DOUBLE);
+            Register vector1 = asRegister(vectorTemp2, AMD64Kind.DOUBLE);
+            Register vector2 = asRegister(vectorTemp3, AMD64Kind.DOUBLE);
+            Label vectorLoop = new Label();
+
+            masm.movq(limit, length);
+            masm.andq(limit, -VECTOR_LOOP_SIZE);
+            masm.jcc(ConditionFlag.Zero, wordCompare);
+
+            // Broadcast the sign bit mask to all bytes.
+            masm.movl(result, 0x80808080);
+            masm.movdl(mask, result);
+            masm.pshufd(mask, mask, 0);
+
+            // Align the main loop
+            masm.align(crb.target.wordSize * 2);
+            masm.bind(vectorLoop);
+            masm.movdqu(vector1, new AMD64Address(address, index, Scale.Times1, 0));
+            masm.movdqu(vector2, new AMD64Address(address, index, Scale.Times1, 16));
+            masm.por(vector1, vector2);
+            masm.ptest(mask, vector1);
+            masm.jcc(ConditionFlag.NotZero, trueLabel);
+            masm.addq(index, VECTOR_LOOP_SIZE);
+            masm.cmpq(index, limit);
+            masm.jcc(ConditionFlag.Below, vectorLoop);
+        }
+
+        // Test 8-byte words while index + 8 <= length.
+        masm.bind(wordCompare);
+        masm.movq(limit, 0x8080808080808080L);
+        masm.subq(length, WORD_SIZE);
+        masm.cmpq(index, length);
+        masm.jcc(ConditionFlag.Greater, byteCompare);
+        masm.bind(wordLoop);
+        masm.movq(result, new AMD64Address(address, index, Scale.Times1, 0));
+        masm.testq(result, limit);
+        masm.jcc(ConditionFlag.NotZero, trueLabel);
+        masm.addq(index, WORD_SIZE);
+        masm.cmpq(index, length);
+        masm.jcc(ConditionFlag.LessEqual, wordLoop);
+
+        // Test the remaining bytes.
+        masm.bind(byteCompare);
+        masm.addq(length, WORD_SIZE);
+        masm.cmpq(index, length);
+        masm.jcc(ConditionFlag.AboveEqual, falseLabel);
+        masm.bind(byteLoop);
+        masm.movzbl(result, new AMD64Address(address, index, Scale.Times1, 0));
+        masm.testl(result, 0x80);
+        masm.jcc(ConditionFlag.NotZero, trueLabel);
+        masm.incq(index);
+        masm.cmpq(index, length);
+        masm.jcc(ConditionFlag.Below, byteLoop);
+        masm.jmpb(falseLabel);
+
+        masm.bind(trueLabel);
+        masm.movl(result, 1);
+        masm.jmpb(done);
+
+        masm.bind(falseLabel);
+        masm.xorl(result, result);
+
+        masm.bind(done);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.ILLEGAL;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code for {@code java.lang.StringUTF16.compress}, which copies UTF-16 characters into a
+ * Latin-1 {@code byte[]} as long as they are below 256. The result is the number of characters
+ * compressed, i.e. either the requested length or 0 if a character could not be compressed.
+ * <p>
+ * Blocks of 16 characters are checked with SSE4.1 {@code ptest} and only stored if all of them fit
+ * into a byte. A block which contains a wider character is handed to the scalar loop, which copies
+ * the characters preceding it exactly like the Java code does before giving up.
+ */
+@Opcode("STRING_COMPRESS")
+public final class AMD64StringCompressOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64StringCompressOp> TYPE = LIRInstructionClass.create(AMD64StringCompressOp.class);
+
+    private final int srcBaseOffset;
+    private final int dstBaseOffset;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value srcValue;
+    @Alive({REG}) protected Value dstValue;
+    @Use({REG}) protected Value srcIndexValue;
+    @Use({REG}) protected Value dstIndexValue;
+    @Use({REG}) protected Value lengthValue;
+    @Temp({REG}) protected Value srcIndexValueTemp;
+    @Temp({REG}) protected Value dstIndexValueTemp;
+    @Temp({REG}) protected Value lengthValueTemp;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp1;
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp2;
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp3;
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp4;
+
+    /**
+     * @param srcKind {@link JavaKind#Char} for a {@code char[]} source or {@link JavaKind#Byte} for
+     *            a {@code byte[]} holding UTF-16 characters
+     */
+    public AMD64StringCompressOp(LIRGeneratorTool tool, JavaKind srcKind, Value result, Value src, Value srcIndex, Value dst, Value dstIndex, Value length) {
+        super(TYPE);
+        assert srcKind == JavaKind.Char || srcKind == JavaKind.Byte;
+        this.srcBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(srcKind);
+        this.dstBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Byte);
+
+        this.resultValue = result;
+        this.srcValue = src;
+        this.dstValue = dst;
+        /*
+         * The indices and the length are inputs but are also killed like temporaries so need both
+         * Use and Temp annotations, which will only work with fixed registers.
+         */
+        this.srcIndexValue = srcIndex;
+        this.dstIndexValue = dstIndex;
+        this.lengthValue = length;
+        this.srcIndexValueTemp = srcIndex;
+        this.dstIndexValueTemp = dstIndex;
+        this.lengthValueTemp = length;
+
+        // Allocate some temporaries.
+        this.temp1 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+
+        // We only need the vector temporaries if we generate SSE code.
+        if (supportsSSE41(tool.target())) {
+            this.vectorTemp1 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+            this.vectorTemp2 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+            this.vectorTemp3 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+            this.vectorTemp4 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+        } else {
+            this.vectorTemp1 = Value.ILLEGAL;
+            this.vectorTemp2 = Value.ILLEGAL;
+            this.vectorTemp3 = Value.ILLEGAL;
+            this.vectorTemp4 = Value.ILLEGAL;
+        }
+    }
+
+    private static boolean supportsSSE41(TargetDescription target) {
+        return ((AMD64) target.arch).getFeatures().contains(CPUFeature.SSE4_1);
+    }
+
+    /**
+     * Number of characters compressed per iteration of the vector loop.
+     */
+    private static final int VECTOR_LOOP_CHARS = 16;
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register src = asRegister(srcIndexValue);
+        Register dst = asRegister(dstIndexValue);
+        Register length = asRegister(lengthValue);
+        Register index = asRegister(temp1);
+        Register temp = asRegister(temp2);
+
+        Label scalarCompress = new Label();
+        Label scalarLoop = new Label();
+        Label failed = new Label();
+        Label done = new Label();
+
+        masm.movslq(src, src);
+        masm.leaq(src, new AMD64Address(asRegister(srcValue), src, Scale.Times2, srcBaseOffset));
+        masm.movslq(dst, dst);
+        masm.leaq(dst, new AMD64Address(asRegister(dstValue), dst, Scale.Times1, dstBaseOffset));
+        masm.movslq(length, length);
+        masm.xorl(index, index);
+
+        if (supportsSSE41(crb.target)) {
+            Register mask = asRegister(vectorTemp1, AMD64Kind.DOUBLE);
+            Register vector1 = asRegister(vectorTemp2, AMD64Kind.DOUBLE);
+            Register vector2 = asRegister(vectorTemp3, AMD64Kind.DOUBLE);
+            Register vector3 = asRegister(vectorTemp4, AMD64Kind.DOUBLE);
+            Label vectorLoop = new Label();
+
+            masm.movq(result, length);
+            masm.andq(result, -VECTOR_LOOP_CHARS);
+            masm.jcc(ConditionFlag.Zero, scalarCompress);
+
+            // Broadcast the mask of the upper byte of each character.
+            masm.movl(temp, 0xFF00FF00);
+            masm.movdl(mask, temp);
+            masm.pshufd(mask, mask, 0);
+
+            // Align the main loop
+            masm.align(crb.target.wordSize * 2);
+            masm.bind(vectorLoop);
+            masm.movdqu(vector1, new AMD64Address(src, index, Scale.Times2, 0));
+            masm.movdqu(vector2, new AMD64Address(src, index, Scale.Times2, 16));
+            masm.movdqu(vector3, vector1);
+            masm.por(vector3, vector2);
+            masm.ptest(mask, vector3);
+            masm.jcc(ConditionFlag.NotZero, scalarCompress);
+            masm.packuswb(vector1, vector2);
+            masm.movdqu(new AMD64Address(dst, index, Scale.Times1, 0), vector1);
+            masm.addq(index, VECTOR_LOOP_CHARS);
+            masm.cmpq(index, result);
+            masm.jcc(ConditionFlag.Below, vectorLoop);
+        }
+
+        masm.bind(scalarCompress);
+        masm.cmpq(index, length);
+        masm.jcc(ConditionFlag.AboveEqual, done);
+        masm.bind(scalarLoop);
+        masm.movzwl(temp, new AMD64Address(src, index, Scale.Times2, 0));
+        masm.cmpl(temp, 0xFF);
+        masm.jcc(ConditionFlag.Above, failed);
+        masm.movb(new AMD64Address(dst, index, Scale.Times1, 0), temp);
+        masm.incq(index);
+        masm.cmpq(index, length);
+        masm.jcc(ConditionFlag.Below, scalarLoop);
+        masm.jmpb(done);
+
+        masm.bind(failed);
+        masm.xorl(length, length);
+
+        masm.bind(done);
+        masm.movl(result, length);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.ILLEGAL;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.AvxVectorLen;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code for {@code java.lang.StringLatin1.inflate}, which zero-extends Latin-1 bytes into
+ * UTF-16 characters. Blocks of 16 (AVX2) or 8 (SSE4.2) bytes are widened with {@code pmovzxbw}.
+ */
+@Opcode("STRING_INFLATE")
+public final class AMD64StringInflateOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64StringInflateOp> TYPE = LIRInstructionClass.create(AMD64StringInflateOp.class);
+
+    private final int srcBaseOffset;
+    private final int dstBaseOffset;
+
+    @Alive({REG}) protected Value srcValue;
+    @Alive({REG}) protected Value dstValue;
+    @Use({REG}) protected Value srcIndexValue;
+    @Use({REG}) protected Value dstIndexValue;
+    @Use({REG}) protected Value lengthValue;
+    @Temp({REG}) protected Value srcIndexValueTemp;
+    @Temp({REG}) protected Value dstIndexValueTemp;
+    @Temp({REG}) protected Value lengthValueTemp;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp1;
+
+    /**
+     * @param dstKind {@link JavaKind#Char} for a {@code char[]} destination or
+     *            {@link JavaKind#Byte} for a {@code byte[]} holding UTF-16 characters
+     */
+    public AMD64StringInflateOp(LIRGeneratorTool tool, JavaKind dstKind, Value src, Value srcIndex, Value dst, Value dstIndex, Value length) {
+        super(TYPE);
+        assert dstKind == JavaKind.Char || dstKind == JavaKind.Byte;
+        this.srcBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(JavaKind.Byte);
+        this.dstBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(dstKind);
+
+        this.srcValue = src;
+        this.dstValue = dst;
+        /*
+         * The indices and the length are inputs but are also killed like temporaries so need both
+         * Use and Temp annotations, which will only work with fixed registers.
+         */
+        this.srcIndexValue = srcIndex;
+        this.dstIndexValue = dstIndex;
+        this.lengthValue = length;
+        this.srcIndexValueTemp = srcIndex;
+        this.dstIndexValueTemp = dstIndex;
+        this.lengthValueTemp = length;
+
+        // Allocate some temporaries.
+        this.temp1 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+
+        // We only need the vector temporary if we generate SSE code.
+        if (supportsSSE42(tool.target())) {
+            this.vectorTemp1 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+        } else {
+            this.vectorTemp1 = Value.ILLEGAL;
+        }
+    }
+
+    private static boolean supportsSSE42(TargetDescription target) {
+        return ((AMD64) target.arch).getFeatures().contains(CPUFeature.SSE4_2);
+    }
+
+    private static boolean supportsAVX2(TargetDescription target) {
+        return ((AMD64) target.arch).getFeatures().contains(CPUFeature.AVX2);
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register src = asRegister(srcIndexValue);
+        Register dst = asRegister(dstIndexValue);
+        Register length = asRegister(lengthValue);
+        Register index = asRegister(temp1);
+        Register temp = asRegister(temp2);
+
+        Label scalarInflate = new Label();
+        Label scalarLoop = new Label();
+        Label done = new Label();
+
+        masm.movslq(src, src);
+        masm.leaq(src, new AMD64Address(asRegister(srcValue), src, Scale.Times1, srcBaseOffset));
+        masm.movslq(dst, dst);
+        masm.leaq(dst, new AMD64Address(asRegister(dstValue), dst, Scale.Times2, dstBaseOffset));
+        masm.movslq(length, length);
+        masm.xorl(index, index);
+
+        if (supportsSSE42(crb.target)) {
+            boolean avx2 = supportsAVX2(crb.target);
+            int vectorChars = avx2 ? 16 : 8;
+            Register vector = asRegister(vectorTemp1, AMD64Kind.DOUBLE);
+            Label vectorLoop = new Label();
+
+            masm.movq(temp, length);
+            masm.andq(temp, -vectorChars);
+            masm.jcc(ConditionFlag.Zero, scalarInflate);
+
+            // Align the main loop
+            masm.align(crb.target.wordSize * 2);
+            masm.bind(vectorLoop);
+            if (avx2) {
+                masm.vpmovzxbw(vector, new AMD64Address(src, index, Scale.Times1, 0), AvxVectorLen.AVX_256bit);
+                masm.vmovdqu(new AMD64Address(dst, index, Scale.Times2, 0), vector);
+            } else {
+                masm.pmovzxbw(vector, new AMD64Address(src, index, Scale.Times1, 0));
+                masm.movdqu(new AMD64Address(dst, index, Scale.Times2, 0), vector);
+            }
+            masm.addq(index, vectorChars);
+            masm.cmpq(index, temp);
+            masm.jcc(ConditionFlag.Below, vectorLoop);
+        }
+
+        masm.bind(scalarInflate);
+        masm.cmpq(index, length);
+        masm.jcc(ConditionFlag.AboveEqual, done);
+        masm.bind(scalarLoop);
+        masm.movzbl(temp, new AMD64Address(src, index, Scale.Times1, 0));
+        masm.movw(new AMD64Address(dst, index, Scale.Times2, 0), temp);
+        masm.incq(index);
+        masm.cmpq(index, length);
+        masm.jcc(ConditionFlag.Below, scalarLoop);
+
+        masm.bind(done);
+    }
+}
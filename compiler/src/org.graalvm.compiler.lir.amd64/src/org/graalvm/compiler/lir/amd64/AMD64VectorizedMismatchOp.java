@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.ILLEGAL;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64MacroAssembler;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits code for {@code jdk.internal.util.ArraysSupport.vectorizedMismatch}. The two regions are
+ * compared in 32-byte (AVX2) or 16-byte (SSE4.1) blocks and then in 8-byte words. The result is
+ * the index of the first mismatching element, or the bitwise complement of the number of
+ * remaining elements that were not compared because they do not fill a complete 8-byte word.
+ */
+@Opcode("VECTORIZED_MISMATCH")
+public final class AMD64VectorizedMismatchOp extends AMD64LIRInstruction {
+    public static final LIRInstructionClass<AMD64VectorizedMismatchOp> TYPE = LIRInstructionClass.create(AMD64VectorizedMismatchOp.class);
+
+    private final int log2ElementSize;
+
+    @Def({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value aValue;
+    @Alive({REG}) protected Value bValue;
+    @Use({REG}) protected Value aOffsetValue;
+    @Use({REG}) protected Value bOffsetValue;
+    @Use({REG}) protected Value lengthValue;
+    @Temp({REG}) protected Value aOffsetValueTemp;
+    @Temp({REG}) protected Value bOffsetValueTemp;
+    @Temp({REG}) protected Value lengthValueTemp;
+    @Temp({REG}) protected Value temp1;
+    @Temp({REG}) protected Value temp2;
+    @Temp({REG}) protected Value temp3;
+
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp1;
+    @Temp({REG, ILLEGAL}) protected Value vectorTemp2;
+
+    public AMD64VectorizedMismatchOp(LIRGeneratorTool tool, int log2ElementSize, Value result, Value a, Value aOffset, Value b, Value bOffset, Value length) {
+        super(TYPE);
+        assert log2ElementSize >= 0 && log2ElementSize <= 3;
+        this.log2ElementSize = log2ElementSize;
+
+        this.resultValue = result;
+        this.aValue = a;
+        this.bValue = b;
+        /*
+         * The offsets and the length are inputs but are also killed like temporaries so need both
+         * Use and Temp annotations, which will only work with fixed registers.
+         */
+        this.aOffsetValue = aOffset;
+        this.bOffsetValue = bOffset;
+        this.lengthValue = length;
+        this.aOffsetValueTemp = aOffset;
+        this.bOffsetValueTemp = bOffset;
+        this.lengthValueTemp = length;
+
+        // Allocate some temporaries.
+        this.temp1 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp2 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+        this.temp3 = tool.newVariable(LIRKind.value(tool.target().arch.getWordKind()));
+
+        // We only need the vector temporaries if we generate SSE code.
+        if (supportsSSE41(tool.target())) {
+            this.vectorTemp1 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+            this.vectorTemp2 = tool.newVariable(LIRKind.value(AMD64Kind.DOUBLE));
+        } else {
+            this.vectorTemp1 = Value.ILLEGAL;
+            this.vectorTemp2 = Value.ILLEGAL;
+        }
+    }
+
+    private static boolean supportsSSE41(TargetDescription target) {
+        return ((AMD64) target.arch).getFeatures().contains(CPUFeature.SSE4_1);
+    }
+
+    private static boolean supportsAVX2(TargetDescription target) {
+        return ((AMD64) target.arch).getFeatures().contains(CPUFeature.AVX2);
+    }
+
+    /**
+     * Size of the words compared after the vector loop.
+     */
+    private static final int WORD_SIZE = 8;
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64MacroAssembler masm) {
+        Register result = asRegister(resultValue);
+        Register a = asRegister(aOffsetValue);
+        Register b = asRegister(bOffsetValue);
+        Register length = asRegister(lengthValue);
+        Register index = asRegister(temp1);
+        Register limit = asRegister(temp2);
+        Register word = asRegister(temp3);
+
+        Label wordCompare = new Label();
+        Label wordLoop = new Label();
+        Label tail = new Label();
+        Label found = new Label();
+        Label done = new Label();
+
+        // Compute the start addresses and the length in bytes.
+        masm.leaq(a, new AMD64Address(asRegister(aValue), a, Scale.Times1, 0));
+        masm.leaq(b, new AMD64Address(asRegister(bValue), b, Scale.Times1, 0));
+        masm.movslq(length, length);
+        if (log2ElementSize > 0) {
+            masm.shlq(length, log2ElementSize);
+        }
+        masm.xorl(index, index);
+
+        if (supportsSSE41(crb.target)) {
+            boolean avx2 = supportsAVX2(crb.target);
+            int vectorSize = avx2 ? 32 : 16;
+            Register vector1 = asRegister(vectorTemp1, AMD64Kind.DOUBLE);
+            Register vector2 = asRegister(vectorTemp2, AMD64Kind.DOUBLE);
+            Label vectorLoop = new Label();
+
+            masm.movq(limit, length);
+            masm.andq(limit, -vectorSize);
+            masm.jcc(ConditionFlag.Zero, wordCompare);
+
+            // Align the main loop
+            masm.align(crb.target.wordSize * 2);
+            masm.bind(vectorLoop);
+            if (avx2) {
+                masm.vmovdqu(vector1, new AMD64Address(a, index, Scale.Times1, 0));
+                masm.vmovdqu(vector2, new AMD64Address(b, index, Scale.Times1, 0));
+                masm.vpxor(vector1, vector1, vector2);
+                masm.vptest(vector1, vector1);
+            } else {
+                masm.movdqu(vector1, new AMD64Address(a, index, Scale.Times1, 0));
+                masm.movdqu(vector2, new AMD64Address(b, index, Scale.Times1, 0));
+                masm.pxor(vector1, vector2);
+                masm.ptest(vector1, vector1);
+            }
+            // The word loop locates the mismatch within the current block.
+            masm.jcc(ConditionFlag.NotZero, wordCompare);
+            masm.addq(index, vectorSize);
+            masm.cmpq(index, limit);
+            masm.jcc(ConditionFlag.Below, vectorLoop);
+        }
+
+        masm.bind(wordCompare);
+        masm.movq(limit, length);
+        masm.andq(limit, -WORD_SIZE);
+        masm.cmpq(index, limit);
+        masm.jcc(ConditionFlag.AboveEqual, tail);
+
+        masm.align(crb.target.wordSize * 2);
+        masm.bind(wordLoop);
+        masm.movq(word, new AMD64Address(a, index, Scale.Times1, 0));
+        masm.cmpq(word, new AMD64Address(b, index, Scale.Times1, 0));
+        masm.jcc(ConditionFlag.NotEqual, found);
+        masm.addq(index, WORD_SIZE);
+        masm.cmpq(index, limit);
+        masm.jcc(ConditionFlag.Below, wordLoop);
+
+        // Return the complement of the number of elements left for the caller to compare.
+        masm.bind(tail);
+        masm.movq(result, length);
+        masm.subq(result, index);
+        if (log2ElementSize > 0) {
+            masm.shrq(result, log2ElementSize);
+        }
+        masm.notl(result);
+        masm.jmpb(done);
+
+        // Locate the first mismatching byte in the word and convert it to an element index.
+        masm.bind(found);
+        masm.movq(limit, new AMD64Address(b, index, Scale.Times1, 0));
+        masm.xorq(word, limit);
+        masm.bsfq(word, word);
+        masm.shrq(word, 3);
+        masm.addq(index, word);
+        if (log2ElementSize > 0) {
+            masm.shrq(index, log2ElementSize);
+        }
+        masm.movl(result, index);
+
+        masm.bind(done);
+    }
+}
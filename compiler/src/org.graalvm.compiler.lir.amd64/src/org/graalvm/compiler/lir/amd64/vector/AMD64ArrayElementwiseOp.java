@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2018, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.amd64.vector;
+
+import static jdk.vm.ci.code.ValueUtil.asRegister;
+import static org.graalvm.compiler.lir.LIRInstruction.OperandFlag.REG;
+
+import org.graalvm.compiler.asm.Label;
+import org.graalvm.compiler.asm.amd64.AMD64Address;
+import org.graalvm.compiler.asm.amd64.AMD64Address.Scale;
+import org.graalvm.compiler.asm.amd64.AMD64Assembler.ConditionFlag;
+import org.graalvm.compiler.asm.amd64.AMD64VectorAssembler;
+import org.graalvm.compiler.asm.amd64.AMD64VectorAssembler.VexMoveOp;
+import org.graalvm.compiler.asm.amd64.AMD64VectorAssembler.VexRVMOp;
+import org.graalvm.compiler.asm.amd64.AVXKind;
+import org.graalvm.compiler.asm.amd64.AVXKind.AVXSize;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.core.common.calc.ElementwiseBinaryOp;
+import org.graalvm.compiler.debug.GraalError;
+import org.graalvm.compiler.lir.LIRInstructionClass;
+import org.graalvm.compiler.lir.Opcode;
+import org.graalvm.compiler.lir.asm.CompilationResultBuilder;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool;
+
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.amd64.AMD64Kind;
+import jdk.vm.ci.code.Register;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Emits a vector loop computing {@code result[i] = x[i] op y[i]} for the largest prefix of
+ * {@code [start, end)} that is a multiple of the vector length. The first index that was not
+ * processed is returned, the remaining elements are left to the scalar loop following this
+ * operation. The caller guarantees that the arrays are non-null and that {@code [start, end)} is
+ * within their bounds.
+ */
+@Opcode("ARRAY_ELEMENTWISE")
+public final class AMD64ArrayElementwiseOp extends AMD64VectorLIRInstruction {
+    public static final LIRInstructionClass<AMD64ArrayElementwiseOp> TYPE = LIRInstructionClass.create(AMD64ArrayElementwiseOp.class);
+
+    private final VexRVMOp opcode;
+    private final VexMoveOp move;
+    private final AVXSize size;
+    private final int arrayBaseOffset;
+    private final Scale arrayIndexScale;
+    private final int elementsPerVector;
+
+    @Def({REG}) protected Value processedEndValue;
+    @Alive({REG}) protected Value resultValue;
+    @Alive({REG}) protected Value xValue;
+    @Alive({REG}) protected Value yValue;
+    @Alive({REG}) protected Value startValue;
+    @Alive({REG}) protected Value endValue;
+    @Temp({REG}) protected Value indexTemp;
+    @Temp({REG}) protected Value limitTemp;
+    @Temp({REG}) protected Value vectorTemp;
+
+    public AMD64ArrayElementwiseOp(LIRGeneratorTool tool, ElementwiseBinaryOp op, JavaKind kind, Value processedEnd, Value result, Value x, Value y, Value start, Value end) {
+        super(TYPE);
+        assert isSupported(tool.target(), op, kind);
+        this.opcode = getOpcode(op, kind);
+        this.move = kind.isNumericFloat() ? (kind == JavaKind.Float ? VexMoveOp.VMOVUPS : VexMoveOp.VMOVUPD) : VexMoveOp.VMOVDQU;
+        this.size = getVectorSize(tool.target(), kind);
+        this.arrayBaseOffset = tool.getProviders().getArrayOffsetProvider().arrayBaseOffset(kind);
+        int scale = tool.getProviders().getArrayOffsetProvider().arrayScalingFactor(kind);
+        this.arrayIndexScale = Scale.fromInt(scale);
+        this.elementsPerVector = size.getBytes() / scale;
+
+        this.processedEndValue = processedEnd;
+        this.resultValue = result;
+        this.xValue = x;
+        this.yValue = y;
+        this.startValue = start;
+        this.endValue = end;
+
+        this.indexTemp = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.limitTemp = tool.newVariable(LIRKind.value(AMD64Kind.QWORD));
+        this.vectorTemp = tool.newVariable(LIRKind.value(AVXKind.getAVXKind(getScalarKind(kind), size)));
+    }
+
+    /**
+     * Determines if the operation can be vectorized on the given target. All operations require
+     * AVX, 256-bit integer operations additionally require AVX2 and fall back to 128-bit vectors
+     * otherwise.
+     */
+    public static boolean isSupported(TargetDescription target, ElementwiseBinaryOp op, JavaKind kind) {
+        return op.supports(kind) && ((AMD64) target.arch).getFeatures().contains(CPUFeature.AVX);
+    }
+
+    private static AVXSize getVectorSize(TargetDescription target, JavaKind kind) {
+        if (kind.isNumericInteger() && !((AMD64) target.arch).getFeatures().contains(CPUFeature.AVX2)) {
+            return AVXSize.XMM;
+        }
+        return AVXSize.YMM;
+    }
+
+    private static AMD64Kind getScalarKind(JavaKind kind) {
+        switch (kind) {
+            case Int:
+                return AMD64Kind.DWORD;
+            case Long:
+                return AMD64Kind.QWORD;
+            case Float:
+                return AMD64Kind.SINGLE;
+            case Double:
+                return AMD64Kind.DOUBLE;
+            default:
+                throw GraalError.shouldNotReachHere();
+        }
+    }
+
+    private static VexRVMOp getOpcode(ElementwiseBinaryOp op, JavaKind kind) {
+        switch (kind) {
+            case Int:
+                switch (op) {
+                    case ADD:
+                        return VexRVMOp.VPADDD;
+                    case SUB:
+                        return VexRVMOp.VPSUBD;
+                    case MUL:
+                        return VexRVMOp.VPMULLD;
+                    case AND:
+                        return VexRVMOp.VPAND;
+                    case OR:
+                        return VexRVMOp.VPOR;
+                    case XOR:
+                        return VexRVMOp.VPXOR;
+                }
+                break;
+            case Long:
+                switch (op) {
+                    case ADD:
+                        return VexRVMOp.VPADDQ;
+                    case SUB:
+                        return VexRVMOp.VPSUBQ;
+                    case AND:
+                        return VexRVMOp.VPAND;
+                    case OR:
+                        return VexRVMOp.VPOR;
+                    case XOR:
+                        return VexRVMOp.VPXOR;
+                }
+                break;
+            case Float:
+                switch (op) {
+                    case ADD:
+                        return VexRVMOp.VADDPS;
+                    case SUB:
+                        return VexRVMOp.VSUBPS;
+                    case MUL:
+                        return VexRVMOp.VMULPS;
+                    case DIV:
+                        return VexRVMOp.VDIVPS;
+                }
+                break;
+            case Double:
+                switch (op) {
+                    case ADD:
+                        return VexRVMOp.VADDPD;
+                    case SUB:
+                        return VexRVMOp.VSUBPD;
+                    case MUL:
+                        return VexRVMOp.VMULPD;
+                    case DIV:
+                        return VexRVMOp.VDIVPD;
+                }
+                break;
+        }
+        throw GraalError.shouldNotReachHere(op + " " + kind);
+    }
+
+    @Override
+    public void emitCode(CompilationResultBuilder crb, AMD64VectorAssembler vasm) {
+        Register result = asRegister(resultValue);
+        Register x = asRegister(xValue);
+        Register y = asRegister(yValue);
+        Register index = asRegister(indexTemp);
+        Register limit = asRegister(limitTemp);
+        Register vector = asRegister(vectorTemp);
+
+        Label loop = new Label();
+        Label done = new Label();
+
+        // The start index is not negative, so the 32-bit move also zero extends it for addressing.
+        vasm.movl(index, asRegister(startValue));
+        vasm.movl(limit, asRegister(endValue));
+        vasm.subl(limit, index);
+        vasm.cmpl(limit, elementsPerVector);
+        vasm.jcc(ConditionFlag.Less, done);
+
+        // Round the element count down to whole vectors.
+        vasm.andl(limit, -elementsPerVector);
+        vasm.addl(limit, index);
+
+        vasm.align(crb.target.wordSize * 2);
+        vasm.bind(loop);
+        move.emit(vasm, size, vector, new AMD64Address(x, index, arrayIndexScale, arrayBaseOffset));
+        opcode.emit(vasm, size, vector, vector, new AMD64Address(y, index, arrayIndexScale, arrayBaseOffset));
+        move.emit(vasm, size, new AMD64Address(result, index, arrayIndexScale, arrayBaseOffset), vector);
+        vasm.addl(index, elementsPerVector);
+        vasm.cmpl(index, limit);
+        vasm.jcc(ConditionFlag.Less, loop);
+
+        if (size == AVXSize.YMM) {
+            // avoid the transition penalty for subsequent legacy SSE instructions
+            vasm.vzeroupper();
+        }
+
+        vasm.bind(done);
+        vasm.movl(asRegister(processedEndValue), index);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.graalvm.compiler.lir.profiling.BlockProfile;
+import org.graalvm.compiler.lir.profiling.BlockProfile.Block;
+import org.junit.Test;
+
+public class BlockProfileTest {
+
+    /**
+     * Creates the profile of the following blocks, where B3 and B4 are derived from B1 and B2 is
+     * counted because it has two predecessors.
+     *
+     * <pre>
+     * B0 -> B1 -> B3 -> B4 -> B2
+     *  \______________________/
+     * </pre>
+     */
+    private static BlockProfile createProfile() {
+        return new BlockProfile("test", "1", Arrays.asList(
+                        new Block(0, 0, "c0", -1, new int[]{1, 2}, 0, null),
+                        new Block(1, 1, "c1", -1, new int[]{3}, 0, null),
+                        new Block(2, 2, "c2", -1, new int[0], 0, null),
+                        new Block(3, 3, null, 1, new int[]{4}, 0, null),
+                        new Block(4, 4, null, 3, new int[]{2}, 0, null)));
+    }
+
+    @Test
+    public void testComputeCounts() {
+        Map<String, Long> counters = new HashMap<>();
+        counters.put("c0", 10L);
+        counters.put("c1", 7L);
+        counters.put("c2", 10L);
+        long[] counts = createProfile().computeCounts(counters::get);
+        assertArrayEquals(new long[]{10, 7, 10, 7, 7}, counts);
+    }
+
+    @Test
+    public void testPrint() {
+        Map<String, Long> counters = new HashMap<>();
+        counters.put("c0", 3L);
+        counters.put("c1", 5L);
+        counters.put("c2", 1L);
+        BlockProfile profile = createProfile();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        profile.print(new PrintStream(bytes, true), profile.computeCounts(counters::get));
+        String[] lines = bytes.toString().split(System.lineSeparator());
+        assertEquals(6, lines.length);
+        assertTrue(lines[0], lines[0].contains("19 block executions"));
+        // sorted by decreasing count, derived blocks are marked
+        assertTrue(lines[1], lines[1].trim().startsWith("B1 ") && !lines[1].contains("(derived)"));
+        assertTrue(lines[2], lines[2].trim().startsWith("B3 ") && lines[2].contains("(derived)"));
+        assertTrue(lines[3], lines[3].trim().startsWith("B4 ") && lines[3].contains("(derived)"));
+        assertTrue(lines[4], lines[4].trim().startsWith("B0 "));
+        assertTrue(lines[5], lines[5].trim().startsWith("B2 "));
+    }
+
+    @Test
+    public void testReserve() {
+        BlockProfile.clear();
+        try {
+            assertTrue(BlockProfile.reserve(2));
+            assertTrue(BlockProfile.reserve(2));
+            assertFalse(BlockProfile.reserve(2));
+            BlockProfile.register(createProfile());
+            assertEquals(1, BlockProfile.getProfiles().size());
+            BlockProfile.clear();
+            assertTrue(BlockProfile.getProfiles().isEmpty());
+            assertTrue(BlockProfile.reserve(2));
+        } finally {
+            BlockProfile.clear();
+        }
+    }
+}
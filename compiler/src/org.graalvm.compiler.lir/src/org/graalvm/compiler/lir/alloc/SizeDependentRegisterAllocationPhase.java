@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.alloc;
+
+import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.lir.LIR;
+import org.graalvm.compiler.lir.gen.LIRGenerationResult;
+
+import jdk.vm.ci.code.TargetDescription;
+
+/**
+ * Selects a register allocator per compilation based on the number of {@link LIR} instructions.
+ * Compilation units with at least {@code threshold} instructions are allocated by
+ * {@code fastAllocator}, which trades code quality for compile time, all others by
+ * {@code defaultAllocator}.
+ */
+public final class SizeDependentRegisterAllocationPhase extends RegisterAllocationPhase {
+
+    private static final CounterKey fastAllocationCounter = DebugContext.counter("RegisterAllocation[fast]");
+
+    private final RegisterAllocationPhase defaultAllocator;
+    private final RegisterAllocationPhase fastAllocator;
+    private final int threshold;
+
+    public SizeDependentRegisterAllocationPhase(RegisterAllocationPhase defaultAllocator, RegisterAllocationPhase fastAllocator, int threshold) {
+        assert threshold > 0 : "threshold must be positive: " + threshold;
+        this.defaultAllocator = defaultAllocator;
+        this.fastAllocator = fastAllocator;
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void run(TargetDescription target, LIRGenerationResult lirGenRes, AllocationContext context) {
+        LIR lir = lirGenRes.getLIR();
+        RegisterAllocationPhase allocator;
+        if (reachesThreshold(lir)) {
+            fastAllocationCounter.increment(lir.getDebug());
+            allocator = fastAllocator;
+        } else {
+            allocator = defaultAllocator;
+        }
+        allocator.setNeverSpillConstants(getNeverSpillConstants());
+        allocator.apply(target, lirGenRes, context);
+    }
+
+    private boolean reachesThreshold(LIR lir) {
+        int numInstructions = 0;
+        for (AbstractBlockBase<?> block : lir.getControlFlowGraph().getBlocks()) {
+            numInstructions += lir.getLIRforBlock(block).size();
+            if (numInstructions >= threshold) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -369,12 +369,22 @@ public final class DefaultTraceRegisterAllocationPolicy {
     public static TraceRegisterAllocationPolicy allocationPolicy(TargetDescription target, LIRGenerationResult lirGenRes, MoveFactory spillMoveFactory,
                     RegisterAllocationConfig registerAllocationConfig, AllocatableValue[] cachedStackSlots, TraceBuilderResult resultTraces, boolean neverSpillConstant,
                     GlobalLivenessInfo livenessInfo, OptionValues options) {
+        return allocationPolicy(target, lirGenRes, spillMoveFactory, registerAllocationConfig, cachedStackSlots, resultTraces, neverSpillConstant, livenessInfo, null, options);
+    }
+
+    /**
+     * Creates an allocation plan for {@code policy}. If {@code policy} is {@code null}, the
+     * {@link Options#TraceRAPolicy} option is used.
+     */
+    public static TraceRegisterAllocationPolicy allocationPolicy(TargetDescription target, LIRGenerationResult lirGenRes, MoveFactory spillMoveFactory,
+                    RegisterAllocationConfig registerAllocationConfig, AllocatableValue[] cachedStackSlots, TraceBuilderResult resultTraces, boolean neverSpillConstant,
+                    GlobalLivenessInfo livenessInfo, TraceRAPolicies policy, OptionValues options) {
         TraceRegisterAllocationPolicy plan = new TraceRegisterAllocationPolicy(target, lirGenRes, spillMoveFactory, registerAllocationConfig, cachedStackSlots, resultTraces, neverSpillConstant,
                         livenessInfo);
         if (Options.TraceRAtrivialBlockAllocator.getValue(options)) {
             plan.appendStrategy(new TrivialTraceStrategy(plan));
         }
-        switch (Options.TraceRAPolicy.getValue(options)) {
+        switch (policy != null ? policy : Options.TraceRAPolicy.getValue(options)) {
             case Default:
             case LinearScanOnly:
                 break;
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.alloc.trace;
+
+import static org.graalvm.compiler.lir.LIRValueUtil.isVariable;
+
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Supplier;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.compiler.core.common.alloc.RegisterAllocationConfig;
+import org.graalvm.compiler.core.common.alloc.Trace;
+import org.graalvm.compiler.core.common.alloc.TraceBuilderResult;
+import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.lir.InstructionValueConsumer;
+import org.graalvm.compiler.lir.LIR;
+import org.graalvm.compiler.lir.LIRInstruction;
+import org.graalvm.compiler.lir.VirtualStackSlot;
+import org.graalvm.compiler.lir.alloc.trace.TraceAllocationPhase.TraceAllocationContext;
+import org.graalvm.compiler.lir.framemap.FrameMapBuilder;
+import org.graalvm.compiler.lir.framemap.FrameMapBuilderImpl;
+import org.graalvm.compiler.lir.gen.LIRGenerationResult;
+import org.graalvm.compiler.lir.gen.LIRGeneratorTool.MoveFactory;
+import org.graalvm.compiler.options.OptionValues;
+
+import jdk.vm.ci.code.StackSlot;
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.AllocatableValue;
+import jdk.vm.ci.meta.PlatformKind;
+import jdk.vm.ci.meta.ValueKind;
+
+/**
+ * Allocates the traces of a compilation unit concurrently using the common
+ * {@link java.util.concurrent.ForkJoinPool}.
+ *
+ * Trace allocators only read the allocation results of the traces that contain a predecessor of
+ * the first block of the trace and that come before it in the sequential allocation order (e.g.
+ * for inter-trace hints). A trace is therefore scheduled as soon as all these traces are
+ * allocated, which guarantees that it sees the same input as in sequential allocation. Every
+ * worker thread uses its own {@link TraceRegisterAllocationPolicy} since allocators are not
+ * thread-safe. The only state shared between traces that are allocated concurrently are the
+ * cached stack slots and the {@link FrameMapBuilderImpl frame map builder}.
+ *
+ * To make the result independent of the scheduling, spill slots are allocated with
+ * {@linkplain FrameMapBuilderImpl#reserveSpillSlotIds() reserved ids} that are derived from the
+ * input of the allocators. Relative to the first reserved id, the cached spill slot of the variable
+ * with index {@code v} gets the id {@code v}, and the {@code k}-th uncached spill slot of trace
+ * {@code t} gets the id {@code numVariables + k * numTraces + t}.
+ */
+final class ParallelTraceAllocation {
+
+    private final TargetDescription target;
+    private final LIRGenerationResult lirGenRes;
+    private final TraceAllocationContext traceContext;
+    private final ArrayList<Trace> traces;
+
+    /**
+     * Creates a new {@link TraceRegisterAllocationPolicy} for a worker thread.
+     */
+    private final Supplier<TraceRegisterAllocationPolicy> planFactory;
+    private final ConcurrentLinkedQueue<TraceRegisterAllocationPolicy> idlePlans;
+
+    /**
+     * Maps from a {@linkplain Trace#getId() trace} to the traces that must not be allocated before
+     * it is allocated.
+     */
+    private final int[][] dependentTraces;
+
+    /**
+     * Maps from a {@linkplain Trace#getId() trace} to the number of traces that still need to be
+     * allocated before it can be allocated.
+     */
+    private final AtomicIntegerArray pendingDependencies;
+
+    /**
+     * Determines if the traces of a compilation unit can be allocated concurrently.
+     */
+    static boolean isApplicable(LIRGenerationResult lirGenRes, TraceBuilderResult resultTraces, AllocatableValue[] cachedStackSlots) {
+        LIR lir = lirGenRes.getLIR();
+        OptionValues options = lir.getOptions();
+        if (!TraceRegisterAllocationPhase.Options.TraceRAParallel.getValue(options)) {
+            return false;
+        }
+        if (resultTraces.getTraces().size() < TraceRegisterAllocationPhase.Options.TraceRAParallelMinTraces.getValue(options)) {
+            return false;
+        }
+        // allocators that do not share the stack slot cache use it across traces
+        if (cachedStackSlots == null) {
+            return false;
+        }
+        DebugContext debug = lir.getDebug();
+        // debug contexts must not be used by multiple threads
+        if (debug.areScopesEnabled() || debug.areMetricsEnabled()) {
+            return false;
+        }
+        return lirGenRes.getFrameMapBuilder() instanceof FrameMapBuilderImpl;
+    }
+
+    ParallelTraceAllocation(TargetDescription target, LIRGenerationResult lirGenRes, TraceAllocationContext traceContext, Supplier<TraceRegisterAllocationPolicy> planFactory) {
+        this.target = target;
+        this.lirGenRes = lirGenRes;
+        this.traceContext = traceContext;
+        this.traces = traceContext.resultTraces.getTraces();
+        this.planFactory = planFactory;
+        this.idlePlans = new ConcurrentLinkedQueue<>();
+        this.dependentTraces = new int[traces.size()][];
+        this.pendingDependencies = new AtomicIntegerArray(traces.size());
+        computeDependencies();
+    }
+
+    private void computeDependencies() {
+        TraceBuilderResult resultTraces = traceContext.resultTraces;
+        int[] numDependents = new int[traces.size()];
+        int[][] dependencies = new int[traces.size()][];
+        for (Trace trace : traces) {
+            AbstractBlockBase<?>[] predecessors = trace.getBlocks()[0].getPredecessors();
+            int[] traceDependencies = new int[predecessors.length];
+            int numDependencies = 0;
+            for (AbstractBlockBase<?> pred : predecessors) {
+                int predTraceId = resultTraces.getTraceForBlock(pred).getId();
+                if (predTraceId < trace.getId() && !contains(traceDependencies, numDependencies, predTraceId)) {
+                    traceDependencies[numDependencies++] = predTraceId;
+                    numDependents[predTraceId]++;
+                }
+            }
+            dependencies[trace.getId()] = traceDependencies;
+            pendingDependencies.set(trace.getId(), numDependencies);
+        }
+        for (int i = 0; i < dependentTraces.length; i++) {
+            dependentTraces[i] = new int[numDependents[i]];
+        }
+        for (Trace trace : traces) {
+            int id = trace.getId();
+            for (int i = 0; i < pendingDependencies.get(id); i++) {
+                int predTraceId = dependencies[id][i];
+                dependentTraces[predTraceId][--numDependents[predTraceId]] = id;
+            }
+        }
+    }
+
+    private static boolean contains(int[] array, int length, int value) {
+        for (int i = 0; i < length; i++) {
+            if (array[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void allocate() {
+        LIR lir = lirGenRes.getLIR();
+        FrameMapBuilderImpl frameMapBuilder = (FrameMapBuilderImpl) lirGenRes.getFrameMapBuilder();
+        initializeSharedState(lir, traceContext.registerAllocationConfig, traceContext.spillMoveFactory);
+        frameMapBuilder.reserveSpillSlotIds();
+
+        ArrayList<Integer> roots = new ArrayList<>();
+        for (Trace trace : traces) {
+            if (pendingDependencies.get(trace.getId()) == 0) {
+                roots.add(trace.getId());
+            }
+        }
+        int[] rootTraces = new int[roots.size()];
+        for (int i = 0; i < rootTraces.length; i++) {
+            rootTraces[i] = roots.get(i);
+        }
+        try {
+            new AllocateTraces(null, -1, rootTraces).invoke();
+        } finally {
+            frameMapBuilder.releaseSpillSlotIds();
+        }
+    }
+
+    /**
+     * Allocates a trace and schedules all dependent traces that become ready. The root task has no
+     * trace and schedules all traces without dependencies.
+     */
+    @SuppressWarnings("serial")
+    private final class AllocateTraces extends CountedCompleter<Void> {
+
+        private final int traceId;
+        private final int[] dependents;
+
+        AllocateTraces(CountedCompleter<?> completer, int traceId, int[] dependents) {
+            super(completer);
+            this.traceId = traceId;
+            this.dependents = dependents;
+        }
+
+        @Override
+        public void compute() {
+            if (traceId >= 0) {
+                allocateTrace(traces.get(traceId));
+            }
+            for (int dependent : dependents) {
+                if (traceId < 0 || pendingDependencies.decrementAndGet(dependent) == 0) {
+                    addToPendingCount(1);
+                    new AllocateTraces(this, dependent, dependentTraces[dependent]).fork();
+                }
+            }
+            tryComplete();
+        }
+    }
+
+    private void allocateTrace(Trace trace) {
+        TraceRegisterAllocationPolicy plan = idlePlans.poll();
+        if (plan == null) {
+            plan = planFactory.get();
+        }
+        try {
+            TraceAllocationPhase<TraceAllocationContext> allocator = plan.selectStrategy(trace);
+            allocator.apply(target, lirGenRes, trace, traceContext);
+        } finally {
+            idlePlans.add(plan);
+        }
+    }
+
+    /**
+     * {@link RegisterAllocationConfig} lazily computes the allocatable registers per kind and a
+     * {@link MoveFactory} might lazily allocate a stack slot per kind for moves between stack slots.
+     * Do this for all kinds of variables up front so that allocators only read it.
+     */
+    private static void initializeSharedState(LIR lir, RegisterAllocationConfig registerAllocationConfig, MoveFactory spillMoveFactory) {
+        EconomicMap<PlatformKind, ValueKind<?>> kinds = EconomicMap.create(Equivalence.DEFAULT);
+        InstructionValueConsumer proc = (instruction, value, mode, flags) -> {
+            if (isVariable(value) && !kinds.containsKey(value.getPlatformKind())) {
+                kinds.put(value.getPlatformKind(), value.getValueKind());
+            }
+        };
+        for (AbstractBlockBase<?> block : lir.getControlFlowGraph().getBlocks()) {
+            for (LIRInstruction op : lir.getLIRforBlock(block)) {
+                op.visitEachOutput(proc);
+                op.visitEachTemp(proc);
+            }
+        }
+        for (ValueKind<?> kind : kinds.getValues()) {
+            registerAllocationConfig.getAllocatableRegisters(kind.getPlatformKind());
+            StackSlot slot = StackSlot.get(kind, 0, true);
+            spillMoveFactory.createStackMove(slot, slot);
+        }
+    }
+
+    static boolean hasReservedSpillSlotIds(FrameMapBuilder frameMapBuilder) {
+        return frameMapBuilder instanceof FrameMapBuilderImpl && ((FrameMapBuilderImpl) frameMapBuilder).hasReservedSpillSlotIds();
+    }
+
+    /**
+     * @see TraceUtil#allocateCachedSpillSlot
+     */
+    static AllocatableValue allocateCachedSpillSlot(FrameMapBuilder frameMapBuilder, AllocatableValue[] cachedStackSlots, int variableIndex, ValueKind<?> kind) {
+        FrameMapBuilderImpl builder = (FrameMapBuilderImpl) frameMapBuilder;
+        /*
+         * The cache is shared with traces that are allocated concurrently. Allocators can read it
+         * without locking since the fields of stack slots are final.
+         */
+        synchronized (cachedStackSlots) {
+            AllocatableValue slot = cachedStackSlots[variableIndex];
+            if (slot == null) {
+                slot = builder.allocateReservedSpillSlot(builder.getNumberOfStackSlots() + variableIndex, kind);
+                cachedStackSlots[variableIndex] = slot;
+            }
+            return slot;
+        }
+    }
+
+    /**
+     * @see TraceUtil#allocateUncachedSpillSlot
+     */
+    static VirtualStackSlot allocateUncachedSpillSlot(FrameMapBuilder frameMapBuilder, AllocatableValue[] cachedStackSlots, TraceBuilderResult resultTraces, Trace trace, int index,
+                    ValueKind<?> kind) {
+        FrameMapBuilderImpl builder = (FrameMapBuilderImpl) frameMapBuilder;
+        int numTraces = resultTraces.getTraces().size();
+        int id = builder.getNumberOfStackSlots() + cachedStackSlots.length + index * numTraces + trace.getId();
+        return builder.allocateReservedSpillSlot(id, kind);
+    }
+}
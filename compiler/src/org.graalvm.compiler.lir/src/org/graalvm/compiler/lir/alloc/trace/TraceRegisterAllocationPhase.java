@@ -31,6 +31,7 @@ import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.debug.Indent;
 import org.graalvm.compiler.lir.LIR;
 import org.graalvm.compiler.lir.alloc.RegisterAllocationPhase;
+import org.graalvm.compiler.lir.alloc.trace.DefaultTraceRegisterAllocationPolicy.TraceRAPolicies;
 import org.graalvm.compiler.lir.alloc.trace.TraceAllocationPhase.TraceAllocationContext;
 import org.graalvm.compiler.lir.gen.LIRGenerationResult;
 import org.graalvm.compiler.lir.gen.LIRGeneratorTool.MoveFactory;
@@ -59,6 +60,10 @@ public final class TraceRegisterAllocationPhase extends RegisterAllocationPhase
         public static final OptionKey<Boolean> TraceRAreuseStackSlotsForMoveResolutionCycleBreaking = new OptionKey<>(true);
         @Option(help = "Cache stack slots globally (i.e. a variable always gets the same slot in every trace).", type = OptionType.Debug)
         public static final OptionKey<Boolean> TraceRACacheStackSlots = new OptionKey<>(true);
+        @Option(help = "Allocate independent traces concurrently. Only used if TraceRACacheStackSlots is enabled and debug scopes and metrics are disabled.", type = OptionType.Expert)
+        public static final OptionKey<Boolean> TraceRAParallel = new OptionKey<>(false);
+        @Option(help = "Minimum number of traces of a compilation unit to allocate them concurrently.", type = OptionType.Expert)
+        public static final OptionKey<Integer> TraceRAParallelMinTraces = new OptionKey<>(128);
         // @formatter:on
     }
 
@@ -69,14 +74,24 @@ public final class TraceRegisterAllocationPhase extends RegisterAllocationPhase
 
     private final TraceBuilderPhase traceBuilder;
     private final GlobalLivenessAnalysisPhase livenessAnalysis;
+    private final TraceRAPolicies policy;
 
     public TraceRegisterAllocationPhase() {
+        this(null);
+    }
+
+    /**
+     * Creates a trace register allocation phase that uses {@code policy} instead of the
+     * {@linkplain DefaultTraceRegisterAllocationPolicy.Options#TraceRAPolicy configured} policy. A
+     * {@code null} policy defers to the options of the compilation.
+     */
+    public TraceRegisterAllocationPhase(TraceRAPolicies policy) {
         this.traceBuilder = new TraceBuilderPhase();
         this.livenessAnalysis = new GlobalLivenessAnalysisPhase();
+        this.policy = policy;
     }
 
     @Override
-    @SuppressWarnings("try")
     protected void run(TargetDescription target, LIRGenerationResult lirGenRes, AllocationContext context) {
         traceBuilder.apply(target, lirGenRes, context);
         livenessAnalysis.apply(target, lirGenRes, context);
@@ -84,7 +99,6 @@ public final class TraceRegisterAllocationPhase extends RegisterAllocationPhase
         MoveFactory spillMoveFactory = context.spillMoveFactory;
         RegisterAllocationConfig registerAllocationConfig = context.registerAllocationConfig;
         LIR lir = lirGenRes.getLIR();
-        DebugContext debug = lir.getDebug();
         TraceBuilderResult resultTraces = context.contextLookup(TraceBuilderResult.class);
         GlobalLivenessInfo livenessInfo = context.contextLookup(GlobalLivenessInfo.class);
         assert livenessInfo != null;
@@ -94,8 +108,25 @@ public final class TraceRegisterAllocationPhase extends RegisterAllocationPhase
         boolean neverSpillConstant = getNeverSpillConstants();
         assert !neverSpillConstant : "currently this is not supported";
 
-        final TraceRegisterAllocationPolicy plan = DefaultTraceRegisterAllocationPolicy.allocationPolicy(target, lirGenRes, spillMoveFactory, registerAllocationConfig, cachedStackSlots, resultTraces,
-                        neverSpillConstant, livenessInfo, lir.getOptions());
+        if (ParallelTraceAllocation.isApplicable(lirGenRes, resultTraces, cachedStackSlots)) {
+            new ParallelTraceAllocation(target, lirGenRes, traceContext, () -> DefaultTraceRegisterAllocationPolicy.allocationPolicy(target, lirGenRes, spillMoveFactory, registerAllocationConfig,
+                            cachedStackSlots, resultTraces, neverSpillConstant, livenessInfo, policy, lir.getOptions())).allocate();
+        } else {
+            allocateTraces(target, lirGenRes, traceContext, cachedStackSlots, neverSpillConstant);
+        }
+
+        TraceGlobalMoveResolutionPhase.resolve(target, lirGenRes, traceContext);
+        deconstructSSAForm(lir);
+    }
+
+    @SuppressWarnings("try")
+    private void allocateTraces(TargetDescription target, LIRGenerationResult lirGenRes, TraceAllocationContext traceContext, AllocatableValue[] cachedStackSlots, boolean neverSpillConstant) {
+        LIR lir = lirGenRes.getLIR();
+        DebugContext debug = lir.getDebug();
+        TraceBuilderResult resultTraces = traceContext.resultTraces;
+        GlobalLivenessInfo livenessInfo = traceContext.livenessInfo;
+        final TraceRegisterAllocationPolicy plan = DefaultTraceRegisterAllocationPolicy.allocationPolicy(target, lirGenRes, traceContext.spillMoveFactory, traceContext.registerAllocationConfig,
+                        cachedStackSlots, resultTraces, neverSpillConstant, livenessInfo, policy, lir.getOptions());
 
         try (DebugContext.Scope s0 = debug.scope("AllocateTraces", resultTraces, livenessInfo)) {
             for (Trace trace : resultTraces.getTraces()) {
@@ -108,9 +139,6 @@ public final class TraceRegisterAllocationPhase extends RegisterAllocationPhase
         } catch (Throwable e) {
             throw debug.handle(e);
         }
-
-        TraceGlobalMoveResolutionPhase.resolve(target, lirGenRes, traceContext);
-        deconstructSSAForm(lir);
     }
 
     /**
@@ -31,8 +31,12 @@ import org.graalvm.compiler.lir.LIR;
 import org.graalvm.compiler.lir.LIRInstruction;
 import org.graalvm.compiler.lir.StandardOp.JumpOp;
 import org.graalvm.compiler.lir.StandardOp.LabelOp;
+import org.graalvm.compiler.lir.VirtualStackSlot;
+import org.graalvm.compiler.lir.framemap.FrameMapBuilder;
 
+import jdk.vm.ci.meta.AllocatableValue;
 import jdk.vm.ci.meta.Value;
+import jdk.vm.ci.meta.ValueKind;
 
 public class TraceUtil {
 
@@ -97,4 +101,32 @@ public class TraceUtil {
         }
         return true;
     }
+
+    /**
+     * Allocates a spill slot for the variable with index {@code variableIndex} and stores it in the
+     * {@linkplain TraceRegisterAllocationPhase.Options#TraceRACacheStackSlots stack slot cache}. If
+     * the traces are {@linkplain ParallelTraceAllocation allocated concurrently}, the slot might
+     * have been allocated by another trace in the meantime, in which case that slot is returned.
+     */
+    public static AllocatableValue allocateCachedSpillSlot(FrameMapBuilder frameMapBuilder, AllocatableValue[] cachedStackSlots, int variableIndex, ValueKind<?> kind) {
+        if (ParallelTraceAllocation.hasReservedSpillSlotIds(frameMapBuilder)) {
+            return ParallelTraceAllocation.allocateCachedSpillSlot(frameMapBuilder, cachedStackSlots, variableIndex, kind);
+        }
+        VirtualStackSlot slot = frameMapBuilder.allocateSpillSlot(kind);
+        cachedStackSlots[variableIndex] = slot;
+        return slot;
+    }
+
+    /**
+     * Allocates a spill slot that is not cached, e.g., to break a cycle of moves.
+     *
+     * @param index the number of uncached spill slots previously allocated for {@code trace}
+     */
+    public static VirtualStackSlot allocateUncachedSpillSlot(FrameMapBuilder frameMapBuilder, AllocatableValue[] cachedStackSlots, TraceBuilderResult resultTraces, Trace trace, int index,
+                    ValueKind<?> kind) {
+        if (ParallelTraceAllocation.hasReservedSpillSlotIds(frameMapBuilder)) {
+            return ParallelTraceAllocation.allocateUncachedSpillSlot(frameMapBuilder, cachedStackSlots, resultTraces, trace, index, kind);
+        }
+        return frameMapBuilder.allocateSpillSlot(kind);
+    }
 }
@@ -56,7 +56,6 @@ import org.graalvm.compiler.lir.StandardOp.BlockEndOp;
 import org.graalvm.compiler.lir.StandardOp.JumpOp;
 import org.graalvm.compiler.lir.StandardOp.LabelOp;
 import org.graalvm.compiler.lir.Variable;
-import org.graalvm.compiler.lir.VirtualStackSlot;
 import org.graalvm.compiler.lir.alloc.OutOfRegistersException;
 import org.graalvm.compiler.lir.alloc.trace.GlobalLivenessInfo;
 import org.graalvm.compiler.lir.alloc.trace.TraceAllocationPhase;
@@ -64,6 +63,7 @@ import org.graalvm.compiler.lir.alloc.trace.TraceAllocationPhase.TraceAllocation
 import org.graalvm.compiler.lir.alloc.trace.TraceGlobalMoveResolutionPhase;
 import org.graalvm.compiler.lir.alloc.trace.TraceGlobalMoveResolver;
 import org.graalvm.compiler.lir.alloc.trace.TraceRegisterAllocationPhase;
+import org.graalvm.compiler.lir.alloc.trace.TraceUtil;
 import org.graalvm.compiler.lir.gen.LIRGenerationResult;
 import org.graalvm.compiler.lir.gen.LIRGeneratorTool.MoveFactory;
 import org.graalvm.compiler.lir.ssa.SSAUtil;
@@ -165,8 +165,7 @@ public final class BottomUpAllocator extends TraceAllocationPhase<TraceAllocatio
             assert cachedStackSlot.getValueKind().equals(var.getValueKind()) : "CachedStackSlot: kind mismatch? " + var.getValueKind() + " vs. " + cachedStackSlot.getValueKind();
             return cachedStackSlot;
         }
-        VirtualStackSlot slot = lirGenRes.getFrameMapBuilder().allocateSpillSlot(var.getValueKind());
-        stackSlots[variableIndex] = slot;
+        AllocatableValue slot = TraceUtil.allocateCachedSpillSlot(lirGenRes.getFrameMapBuilder(), stackSlots, variableIndex, var.getValueKind());
         TraceRegisterAllocationPhase.allocatedStackSlots.increment(debug);
         return slot;
     }
@@ -239,6 +239,11 @@ public final class TraceLinearScanPhase extends TraceAllocationPhase<TraceAlloca
 
         private final Trace trace;
 
+        /**
+         * Number of spill slots allocated with {@link #allocateUncachedSpillSlot}.
+         */
+        private int numUncachedSpillSlots;
+
         public TraceLinearScan(Trace trace) {
             this.trace = trace;
             this.fixedIntervals = new FixedInterval[registers.size()];
@@ -343,15 +348,22 @@ public final class TraceLinearScanPhase extends TraceAllocationPhase<TraceAlloca
                     assert cachedStackSlot.getValueKind().equals(getKind(interval)) : "CachedStackSlot: kind mismatch? " + getKind(interval) + " vs. " + cachedStackSlot.getValueKind();
                     return cachedStackSlot;
                 }
+                AllocatableValue slot = TraceUtil.allocateCachedSpillSlot(frameMapBuilder, cachedStackSlots, variableIndex, getKind(interval));
+                TraceRegisterAllocationPhase.allocatedStackSlots.increment(debug);
+                return slot;
             }
             VirtualStackSlot slot = frameMapBuilder.allocateSpillSlot(getKind(interval));
-            if (TraceRegisterAllocationPhase.Options.TraceRACacheStackSlots.getValue(options)) {
-                cachedStackSlots[variableIndex] = slot;
-            }
             TraceRegisterAllocationPhase.allocatedStackSlots.increment(debug);
             return slot;
         }
 
+        /**
+         * Returns a new spill slot that is not cached, e.g., to break a cycle of moves.
+         */
+        VirtualStackSlot allocateUncachedSpillSlot(ValueKind<?> kind) {
+            return TraceUtil.allocateUncachedSpillSlot(frameMapBuilder, cachedStackSlots, traceBuilderResult, trace, numUncachedSpillSlots++, kind);
+        }
+
         // access to block list (sorted in linear scan order)
         public int blockCount() {
             return sortedBlocks().length;
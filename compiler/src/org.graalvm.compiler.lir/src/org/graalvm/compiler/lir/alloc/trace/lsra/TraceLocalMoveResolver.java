@@ -437,7 +437,7 @@ final class TraceLocalMoveResolver {
             // one stack slot to another can happen (not allowed by LIRAssembler
             AllocatableValue spillSlot1 = fromInterval1.spillSlot();
             if (spillSlot1 == null) {
-                spillSlot1 = getAllocator().getFrameMapBuilder().allocateSpillSlot(allocator.getKind(fromInterval1));
+                spillSlot1 = getAllocator().allocateUncachedSpillSlot(allocator.getKind(fromInterval1));
                 fromInterval1.setSpillSlot(spillSlot1);
                 cycleBreakingSlotsAllocated.increment(debug);
             }
@@ -449,7 +449,7 @@ final class TraceLocalMoveResolver {
         int stackSpillCandidate = 0;
         TraceInterval fromInterval = getMappingFrom(stackSpillCandidate);
         // allocate new stack slot
-        VirtualStackSlot spillSlot = getAllocator().getFrameMapBuilder().allocateSpillSlot(allocator.getKind(fromInterval));
+        VirtualStackSlot spillSlot = getAllocator().allocateUncachedSpillSlot(allocator.getKind(fromInterval));
         spillInterval(stackSpillCandidate, fromInterval, spillSlot);
     }
 
@@ -495,6 +495,10 @@ public class CompilationResultBuilder {
             emitBlock(b);
             currentBlockIndex++;
         }
+        if (compilationResult.getColdCodeStart() != -1) {
+            // cold blocks are emitted last, so the region ends with the last block
+            compilationResult.setColdCodeEnd(asm.position());
+        }
         this.lir = null;
         this.currentBlockIndex = 0;
     }
@@ -503,6 +507,9 @@ public class CompilationResultBuilder {
         if (block == null) {
             return;
         }
+        if (block.isCold() && compilationResult.getColdCodeStart() == -1) {
+            compilationResult.setColdCodeStart(asm.position());
+        }
         boolean emitComment = debug.isDumpEnabled(DebugContext.BASIC_LEVEL) || Options.PrintLIRWithAssembly.getValue(getOptions());
         if (emitComment) {
             blockComment(String.format("block B%d %s", block.getId(), block.getLoop()));
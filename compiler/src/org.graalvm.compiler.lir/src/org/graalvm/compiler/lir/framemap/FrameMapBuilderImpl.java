@@ -25,9 +25,11 @@ package org.graalvm.compiler.lir.framemap;
 import static org.graalvm.compiler.lir.LIRValueUtil.isVirtualStackSlot;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import org.graalvm.compiler.core.common.LIRKind;
 import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
@@ -60,6 +62,12 @@ public class FrameMapBuilderImpl extends FrameMapBuilderTool {
     private final List<CallingConvention> calls;
     private int numStackSlots;
 
+    /**
+     * Spill slots allocated with {@linkplain #allocateReservedSpillSlot reserved ids}, or
+     * {@code null} if no ids are reserved.
+     */
+    private ConcurrentLinkedQueue<VirtualStackSlot> reservedSpillSlots;
+
     public FrameMapBuilderImpl(FrameMap frameMap, CodeCacheProvider codeCache, RegisterConfig registerConfig) {
         assert registerConfig != null : "No register config!";
         this.registerConfig = registerConfig == null ? codeCache.getRegisterConfig() : registerConfig;
@@ -72,6 +80,7 @@ public class FrameMapBuilderImpl extends FrameMapBuilderTool {
 
     @Override
     public VirtualStackSlot allocateSpillSlot(ValueKind<?> kind) {
+        assert reservedSpillSlots == null : "Spill slot ids are reserved";
         SimpleVirtualStackSlot slot = new SimpleVirtualStackSlot(numStackSlots++, kind);
         stackSlots.add(slot);
         return slot;
@@ -85,11 +94,59 @@ public class FrameMapBuilderImpl extends FrameMapBuilderTool {
         if (outObjectStackSlots != null) {
             throw GraalError.unimplemented();
         }
+        assert reservedSpillSlots == null : "Spill slot ids are reserved";
         VirtualStackSlotRange slot = new VirtualStackSlotRange(numStackSlots++, slots, objects, LIRKind.fromJavaKind(frameMap.getTarget().arch, JavaKind.Object));
         stackSlots.add(slot);
         return slot;
     }
 
+    /**
+     * Reserves all ids starting at the returned id for spill slots allocated with
+     * {@link #allocateReservedSpillSlot}. This allows a register allocator that allocates spill
+     * slots concurrently to derive the ids from its input, so that they do not depend on the
+     * scheduling of the allocating threads. Other stack slots must not be allocated until the ids
+     * are {@linkplain #releaseSpillSlotIds() released}.
+     *
+     * The first reserved id is the {@linkplain #getNumberOfStackSlots() number of stack slots},
+     * which does not change while the ids are reserved.
+     */
+    public void reserveSpillSlotIds() {
+        assert reservedSpillSlots == null : "Spill slot ids are already reserved";
+        reservedSpillSlots = new ConcurrentLinkedQueue<>();
+    }
+
+    public boolean hasReservedSpillSlotIds() {
+        return reservedSpillSlots != null;
+    }
+
+    /**
+     * Allocates a spill slot with an id that was {@linkplain #reserveSpillSlotIds() reserved}. The
+     * caller is responsible for using every id at most once. This method can be called
+     * concurrently.
+     */
+    public VirtualStackSlot allocateReservedSpillSlot(int id, ValueKind<?> kind) {
+        assert reservedSpillSlots != null && id >= numStackSlots : "Not a reserved id: " + id;
+        SimpleVirtualStackSlot slot = new SimpleVirtualStackSlot(id, kind);
+        reservedSpillSlots.add(slot);
+        return slot;
+    }
+
+    /**
+     * Adds the spill slots allocated with reserved ids to the {@linkplain #getStackSlots() stack
+     * slots} in the order of their ids. Ids that were not used are skipped.
+     */
+    public void releaseSpillSlotIds() {
+        assert reservedSpillSlots != null : "No spill slot ids reserved";
+        VirtualStackSlot[] slots = reservedSpillSlots.toArray(new VirtualStackSlot[reservedSpillSlots.size()]);
+        reservedSpillSlots = null;
+        Arrays.sort(slots, (a, b) -> Integer.compare(a.getId(), b.getId()));
+        for (VirtualStackSlot slot : slots) {
+            assert slot.getId() >= numStackSlots : "Duplicate id: " + slot;
+            stackSlots.add(slot);
+            numStackSlots = slot.getId() + 1;
+        }
+    }
+
     @Override
     public RegisterConfig getRegisterConfig() {
         return registerConfig;
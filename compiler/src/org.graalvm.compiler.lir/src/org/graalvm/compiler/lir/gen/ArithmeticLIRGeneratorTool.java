@@ -130,4 +130,13 @@ public interface ArithmeticLIRGeneratorTool {
         throw GraalError.unimplemented("No specialized implementation available");
     }
 
+    /**
+     * Emits {@code a * b + c} for float or double values, rounded once as specified by
+     * {@link Math#fma}.
+     */
+    @SuppressWarnings("unused")
+    default Value emitFusedMultiplyAdd(Value a, Value b, Value c) {
+        throw GraalError.unimplemented("No specialized implementation available");
+    }
+
 }
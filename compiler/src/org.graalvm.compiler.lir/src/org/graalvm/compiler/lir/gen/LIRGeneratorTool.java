@@ -26,6 +26,7 @@ import jdk.vm.ci.code.RegisterConfig;
 import org.graalvm.compiler.core.common.CompressEncoding;
 import org.graalvm.compiler.core.common.LIRKind;
 import org.graalvm.compiler.core.common.calc.Condition;
+import org.graalvm.compiler.core.common.calc.ElementwiseBinaryOp;
 import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
 import org.graalvm.compiler.core.common.spi.CodeGenProviders;
 import org.graalvm.compiler.core.common.spi.ForeignCallLinkage;
@@ -261,11 +262,123 @@ public interface LIRGeneratorTool extends DiagnosticLIRGeneratorTool, ValueKindF
 
     Variable emitArrayEquals(JavaKind kind, Value array1, Value array2, Value length);
 
+    /**
+     * Emits code computing {@code result[i] = x[i] op y[i]} with vector instructions for a prefix of
+     * the index range {@code [start, end)}.
+     *
+     * @return the first index that was not processed
+     */
+    @SuppressWarnings("unused")
+    default Variable emitArrayElementwiseOp(ElementwiseBinaryOp op, JavaKind kind, Value result, Value x, Value y, Value start, Value end) {
+        throw GraalError.unimplemented("Array loop vectorization is not implemented on this architecture");
+    }
+
     @SuppressWarnings("unused")
     default Variable emitStringIndexOf(Value sourcePointer, Value sourceCount, Value targetPointer, Value targetCount, int constantTargetCount) {
         throw GraalError.unimplemented("String.indexOf substitution is not implemented on this architecture");
     }
 
+    /**
+     * Emits code for {@code ArraysSupport.vectorizedMismatch}. The compared regions start at
+     * {@code a + aOffset} and {@code b + bOffset} and contain {@code length} elements of size
+     * {@code 1 << log2ElementSize}.
+     *
+     * @return the index of the first mismatching element or the bitwise complement of the number of
+     *         trailing elements that remain to be compared
+     */
+    @SuppressWarnings("unused")
+    default Variable emitVectorizedMismatch(Value a, Value aOffset, Value b, Value bOffset, Value length, int log2ElementSize) {
+        throw GraalError.unimplemented("ArraysSupport.vectorizedMismatch substitution is not implemented on this architecture");
+    }
+
+    @SuppressWarnings("unused")
+    default Variable emitHasNegatives(Value array, Value offset, Value length) {
+        throw GraalError.unimplemented("StringCoding.hasNegatives substitution is not implemented on this architecture");
+    }
+
+    /**
+     * Emits code searching a {@code byte[]} that holds elements of {@code kind} for the first
+     * element in {@code [fromIndex, length)} that equals {@code searchValue}.
+     *
+     * @param kind {@link JavaKind#Byte} for Latin-1 or {@link JavaKind#Char} for UTF-16 contents
+     * @return the element index of the match or -1
+     */
+    @SuppressWarnings("unused")
+    default Variable emitArrayIndexOf(JavaKind kind, Value array, Value fromIndex, Value length, Value searchValue) {
+        throw GraalError.unimplemented("String indexOf substitution is not implemented on this architecture");
+    }
+
+    /**
+     * Emits code compressing {@code length} UTF-16 characters into a Latin-1 {@code byte[]}.
+     *
+     * @param srcKind {@link JavaKind#Char} for a {@code char[]} source or {@link JavaKind#Byte} for
+     *            a {@code byte[]} holding UTF-16 characters
+     * @return {@code length} if all characters were compressed, else 0
+     */
+    @SuppressWarnings("unused")
+    default Variable emitStringCompress(JavaKind srcKind, Value src, Value srcIndex, Value dst, Value dstIndex, Value length) {
+        throw GraalError.unimplemented("StringUTF16.compress substitution is not implemented on this architecture");
+    }
+
+    /**
+     * Emits code inflating {@code length} Latin-1 bytes into UTF-16 characters.
+     *
+     * @param dstKind {@link JavaKind#Char} for a {@code char[]} destination or
+     *            {@link JavaKind#Byte} for a {@code byte[]} holding UTF-16 characters
+     */
+    @SuppressWarnings("unused")
+    default void emitStringInflate(JavaKind dstKind, Value src, Value srcIndex, Value dst, Value dstIndex, Value length) {
+        throw GraalError.unimplemented("StringLatin1.inflate substitution is not implemented on this architecture");
+    }
+
+    /**
+     * Emits code updating a CRC32C checksum with {@code length} bytes.
+     *
+     * @param array the {@code byte[]} to read from, or {@link Value#ILLEGAL} if {@code offset} is
+     *            an absolute address
+     * @param offset the index of the first byte in {@code array}, or an absolute address
+     * @return the updated checksum
+     */
+    @SuppressWarnings("unused")
+    default Variable emitCRC32CUpdateBytes(Value crc, Value array, Value offset, Value length) {
+        throw GraalError.unimplemented("CRC32C.updateBytes substitution is not implemented on this architecture");
+    }
+
+    /**
+     * Emits code encrypting or decrypting one 16 byte AES block.
+     *
+     * @param key the expanded key as an {@code int[]} of 44, 52 or 60 big-endian words, laid out
+     *            like {@code com.sun.crypto.provider.AESCrypt.K}
+     * @param keyLength the length of {@code key}
+     */
+    @SuppressWarnings("unused")
+    default void emitAESCryptBlock(boolean encrypt, Value in, Value inOffset, Value out, Value outOffset, Value key, Value keyLength) {
+        throw GraalError.unimplemented("AESCrypt substitution is not implemented on this architecture");
+    }
+
+    /**
+     * Emits code folding {@code blocks} 16 byte blocks of {@code data} into a GHASH state, like
+     * {@code com.sun.crypto.provider.GHASH.processBlocks}.
+     *
+     * @param state the {@code long[2]} state, which is updated in place
+     * @param subkeyH the {@code long[2]} hash subkey
+     */
+    @SuppressWarnings("unused")
+    default void emitGHASHProcessBlocks(Value data, Value offset, Value blocks, Value state, Value subkeyH) {
+        throw GraalError.unimplemented("GHASH.processBlocks substitution is not implemented on this architecture");
+    }
+
+    /**
+     * Emits code for {@code java.math.BigInteger.implMulAdd}, adding {@code in[0..length) * k} to
+     * {@code out} with the last word of {@code in} added to {@code out[outIndex]}.
+     *
+     * @return the final carry
+     */
+    @SuppressWarnings("unused")
+    default Variable emitBigIntegerMulAdd(Value out, Value in, Value outIndex, Value length, Value k) {
+        throw GraalError.unimplemented("BigInteger.implMulAdd substitution is not implemented on this architecture");
+    }
+
     void emitBlackhole(Value operand);
 
     LIRKind getLIRKind(Stamp stamp);
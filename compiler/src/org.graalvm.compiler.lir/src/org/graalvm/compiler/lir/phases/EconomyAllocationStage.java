@@ -24,20 +24,33 @@ package org.graalvm.compiler.lir.phases;
 
 import static org.graalvm.compiler.core.common.GraalOptions.TraceRA;
 
+import org.graalvm.compiler.lir.alloc.RegisterAllocationPhase;
+import org.graalvm.compiler.lir.alloc.SizeDependentRegisterAllocationPhase;
 import org.graalvm.compiler.lir.alloc.lsra.LinearScanPhase;
+import org.graalvm.compiler.lir.alloc.trace.DefaultTraceRegisterAllocationPolicy.TraceRAPolicies;
 import org.graalvm.compiler.lir.alloc.trace.TraceRegisterAllocationPhase;
 import org.graalvm.compiler.lir.dfa.LocationMarkerPhase;
 import org.graalvm.compiler.lir.phases.AllocationPhase.AllocationContext;
 import org.graalvm.compiler.lir.stackslotalloc.SimpleStackSlotAllocator;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.options.OptionKey;
+import org.graalvm.compiler.options.OptionType;
 import org.graalvm.compiler.options.OptionValues;
 
 public class EconomyAllocationStage extends LIRPhaseSuite<AllocationContext> {
+
+    public static class Options {
+        // @formatter:off
+        @Option(help = "Use the fast bottom-up trace register allocator for all compilations in the economy configuration.", type = OptionType.Expert)
+        public static final OptionKey<Boolean> EconomyFastRegisterAllocation = new OptionKey<>(false);
+        @Option(help = "Use the fast bottom-up trace register allocator in the economy configuration if the LIR " +
+                       "has at least this many instructions (0 to disable).", type = OptionType.Expert)
+        public static final OptionKey<Integer> EconomyFastRegisterAllocationThreshold = new OptionKey<>(50000);
+        // @formatter:on
+    }
+
     public EconomyAllocationStage(OptionValues options) {
-        if (TraceRA.getValue(options)) {
-            appendPhase(new TraceRegisterAllocationPhase());
-        } else {
-            appendPhase(new LinearScanPhase());
-        }
+        appendPhase(createRegisterAllocationPhase(options));
 
         // build frame map
         appendPhase(new SimpleStackSlotAllocator());
@@ -45,4 +58,25 @@ public class EconomyAllocationStage extends LIRPhaseSuite<AllocationContext> {
         // currently we mark locations only if we do register allocation
         appendPhase(new LocationMarkerPhase());
     }
+
+    private static RegisterAllocationPhase createRegisterAllocationPhase(OptionValues options) {
+        if (Options.EconomyFastRegisterAllocation.getValue(options)) {
+            return createFastRegisterAllocationPhase();
+        }
+        RegisterAllocationPhase allocator = TraceRA.getValue(options) ? new TraceRegisterAllocationPhase() : new LinearScanPhase();
+        int threshold = Options.EconomyFastRegisterAllocationThreshold.getValue(options);
+        if (threshold > 0) {
+            return new SizeDependentRegisterAllocationPhase(allocator, createFastRegisterAllocationPhase(), threshold);
+        }
+        return allocator;
+    }
+
+    /**
+     * Creates a register allocator that trades code quality for allocation time. It allocates all
+     * traces with a single backward pass of the {@code BottomUpAllocator}, except those with
+     * exception edges, which are not supported by that allocator.
+     */
+    private static RegisterAllocationPhase createFastRegisterAllocationPhase() {
+        return new TraceRegisterAllocationPhase(TraceRAPolicies.BottomUpOnly);
+    }
 }
@@ -29,6 +29,7 @@ import org.graalvm.compiler.lir.EdgeMoveOptimizer;
 import org.graalvm.compiler.lir.NullCheckOptimizer;
 import org.graalvm.compiler.lir.RedundantMoveElimination;
 import org.graalvm.compiler.lir.phases.PostAllocationOptimizationPhase.PostAllocationOptimizationContext;
+import org.graalvm.compiler.lir.profiling.BlockProfilingPhase;
 import org.graalvm.compiler.lir.profiling.MethodProfilingPhase;
 import org.graalvm.compiler.lir.profiling.MoveProfilingPhase;
 import org.graalvm.compiler.options.NestedBooleanOptionKey;
@@ -54,6 +55,12 @@ public class PostAllocationOptimizationStage extends LIRPhaseSuite<PostAllocatio
         public static final OptionKey<Boolean> LIRProfileMoves = new OptionKey<>(false);
         @Option(help = "Enables profiling of methods.", type = OptionType.Debug)
         public static final OptionKey<Boolean> LIRProfileMethods = new OptionKey<>(false);
+        @Option(help = "Enables profiling of basic blocks. Blocks whose count equals the count of " +
+                       "their only predecessor are not instrumented. The counts are reported with " +
+                       "the benchmark counters.", type = OptionType.Debug)
+        public static final OptionKey<Boolean> LIRProfileBlocks = new OptionKey<>(false);
+        @Option(help = "Maximum number of compilation units that are instrumented by LIRProfileBlocks.", type = OptionType.Debug)
+        public static final OptionKey<Integer> LIRProfileBlocksLimit = new OptionKey<>(10000);
         // @formatter:on
     }
 
@@ -76,5 +83,8 @@ public class PostAllocationOptimizationStage extends LIRPhaseSuite<PostAllocatio
         if (Options.LIRProfileMethods.getValue(options)) {
             appendPhase(new MethodProfilingPhase());
         }
+        if (Options.LIRProfileBlocks.getValue(options)) {
+            appendPhase(new BlockProfilingPhase());
+        }
     }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.profiling;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToLongFunction;
+
+import org.graalvm.compiler.graph.NodeSourcePosition;
+
+/**
+ * Describes the blocks of a compilation unit that was instrumented by the
+ * {@link BlockProfilingPhase}. The execution count of a block is either read from its counter or,
+ * if the block is the only successor of its only predecessor, derived from the count of the
+ * predecessor. Derived counts are an upper bound since control can leave the predecessor early,
+ * e.g. due to an implicit exception.
+ */
+public final class BlockProfile {
+
+    private static final ConcurrentLinkedQueue<BlockProfile> profiles = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger reservedProfiles = new AtomicInteger();
+
+    /**
+     * Reserves a place for a profile unless {@code limit} places are already reserved. A profile
+     * must only be {@linkplain #register registered} after a place was reserved for it.
+     *
+     * @return {@code true} if a place was reserved
+     */
+    public static boolean reserve(int limit) {
+        int reserved;
+        do {
+            reserved = reservedProfiles.get();
+            if (reserved >= limit) {
+                return false;
+            }
+        } while (!reservedProfiles.compareAndSet(reserved, reserved + 1));
+        return true;
+    }
+
+    /**
+     * Registers a profile so that it is included in {@link #getProfiles()}.
+     */
+    public static void register(BlockProfile profile) {
+        profiles.add(profile);
+    }
+
+    /**
+     * Removes all registered profiles and their reservations.
+     */
+    public static void clear() {
+        profiles.clear();
+        reservedProfiles.set(0);
+    }
+
+    /**
+     * Gets all profiles registered so far, in registration order.
+     */
+    public static Collection<BlockProfile> getProfiles() {
+        return Collections.unmodifiableCollection(profiles);
+    }
+
+    public static final class Block {
+        private final int index;
+        private final int id;
+        private final String counterName;
+        private final int predecessor;
+        private final int[] successors;
+        private final int loopDepth;
+        private final NodeSourcePosition position;
+
+        /**
+         * @param counterName the name of the counter of this block or {@code null} if its count is
+         *            derived from {@code predecessor}
+         * @param predecessor the index of the block this block inherits its count from or -1
+         */
+        public Block(int index, int id, String counterName, int predecessor, int[] successors, int loopDepth, NodeSourcePosition position) {
+            assert (counterName == null) != (predecessor < 0) : "a block is either counted or derived";
+            this.index = index;
+            this.id = id;
+            this.counterName = counterName;
+            this.predecessor = predecessor;
+            this.successors = successors;
+            this.loopDepth = loopDepth;
+            this.position = position;
+        }
+
+        /**
+         * Gets the index of this block in {@link BlockProfile#getBlocks()}.
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Gets the id of the LIR block.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Gets the name of the counter of this block or {@code null} if the count is
+         * {@linkplain #getPredecessor() derived}.
+         */
+        public String getCounterName() {
+            return counterName;
+        }
+
+        /**
+         * Gets the index of the block this block inherits its count from or -1 if this block has
+         * its own counter.
+         */
+        public int getPredecessor() {
+            return predecessor;
+        }
+
+        /**
+         * Gets the indexes of the successors of this block.
+         */
+        public int[] getSuccessors() {
+            return successors.clone();
+        }
+
+        public int getLoopDepth() {
+            return loopDepth;
+        }
+
+        /**
+         * Gets the source position of the first instruction in this block that has one or
+         * {@code null} if there is no such instruction.
+         */
+        public NodeSourcePosition getPosition() {
+            return position;
+        }
+
+        @Override
+        public String toString() {
+            return "B" + id;
+        }
+    }
+
+    private final String compilationUnitName;
+    private final String compilationId;
+    private final List<Block> blocks;
+    private volatile long[] snapshot;
+
+    public BlockProfile(String compilationUnitName, String compilationId, List<Block> blocks) {
+        this.compilationUnitName = compilationUnitName;
+        this.compilationId = compilationId;
+        this.blocks = Collections.unmodifiableList(new ArrayList<>(blocks));
+    }
+
+    public String getCompilationUnitName() {
+        return compilationUnitName;
+    }
+
+    public String getCompilationId() {
+        return compilationId;
+    }
+
+    public List<Block> getBlocks() {
+        return blocks;
+    }
+
+    /**
+     * Computes the execution count of every block.
+     *
+     * @param counterValues maps a {@linkplain Block#getCounterName() counter name} to its value
+     * @return the counts indexed by {@link Block#getIndex()}
+     */
+    public long[] computeCounts(ToLongFunction<String> counterValues) {
+        long[] counts = new long[blocks.size()];
+        for (Block block : blocks) {
+            Block counted = block;
+            while (counted.counterName == null) {
+                counted = blocks.get(counted.predecessor);
+            }
+            counts[block.index] = counterValues.applyAsLong(counted.counterName);
+        }
+        return counts;
+    }
+
+    /**
+     * Records the counts of the most recent snapshot.
+     */
+    public void setSnapshot(long[] counts) {
+        assert counts.length == blocks.size();
+        this.snapshot = counts;
+    }
+
+    /**
+     * Gets the counts recorded by the most recent {@link #setSnapshot snapshot} or {@code null}.
+     */
+    public long[] getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Prints the blocks with their counts and source positions, ordered by decreasing count.
+     */
+    public void print(PrintStream out, long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        out.printf("%s (%s): %d block executions%n", compilationUnitName, compilationId, total);
+        ArrayList<Block> sorted = new ArrayList<>(blocks);
+        sorted.sort((a, b) -> Long.compare(counts[b.index], counts[a.index]));
+        for (Block block : sorted) {
+            NodeSourcePosition pos = block.position;
+            String location = pos == null ? "<unknown>" : pos.getMethod().format("%H.%n(%p)") + "@" + pos.getBCI();
+            out.printf("  %6s %19d %s%s%n", block, counts[block.index], location, block.counterName == null ? " (derived)" : "");
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.profiling;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.NodeSourcePosition;
+import org.graalvm.compiler.lir.profiling.BlockProfile.Block;
+import org.graalvm.graphio.GraphOutput;
+import org.graalvm.graphio.GraphStructure;
+
+/**
+ * Dumps {@link BlockProfile}s in the format of the Ideal Graph Visualizer. Each profile becomes a
+ * graph with a node per block and an edge per control flow edge. The nodes carry the count, the
+ * share of all block executions of the compilation unit and the source position of the block.
+ */
+public final class BlockProfileDumper {
+
+    private BlockProfileDumper() {
+    }
+
+    /**
+     * Dumps the given profiles as a group named {@code groupName} to the IGV output of
+     * {@code debug}.
+     *
+     * @param counts computes the counts of a profile, indexed by {@link Block#getIndex()}. Profiles
+     *            for which this returns {@code null} are skipped.
+     */
+    public static void dump(DebugContext debug, String groupName, Iterable<BlockProfile> profiles, Function<BlockProfile, long[]> counts) throws IOException {
+        GraphOutput<ProfiledGraph, ?> output = debug.buildOutput(GraphOutput.newBuilder(new BlockProfileGraphStructure()).protocolVersion(6, 0));
+        output.beginGroup(null, groupName, groupName, null, 0, null);
+        int id = 0;
+        for (BlockProfile profile : profiles) {
+            long[] profileCounts = counts.apply(profile);
+            if (profileCounts != null) {
+                output.print(new ProfiledGraph(profile, profileCounts), null, id++, "%s (%s)", profile.getCompilationUnitName(), profile.getCompilationId());
+            }
+        }
+        output.endGroup();
+        output.close();
+    }
+
+    static final class ProfiledGraph {
+        final BlockProfile profile;
+        final long[] counts;
+        final long total;
+
+        ProfiledGraph(BlockProfile profile, long[] counts) {
+            this.profile = profile;
+            this.counts = counts;
+            long sum = 0;
+            for (long count : counts) {
+                sum += count;
+            }
+            this.total = sum;
+        }
+    }
+
+    /**
+     * All blocks share a single node class with a single output port, the successors.
+     */
+    enum BlockClass {
+        INSTANCE
+    }
+
+    enum BlockEdge {
+        SUCCESSOR
+    }
+
+    static final class BlockProfileGraphStructure implements GraphStructure<ProfiledGraph, Block, BlockClass, BlockClass> {
+
+        @Override
+        public ProfiledGraph graph(ProfiledGraph currentGraph, Object obj) {
+            return (obj instanceof ProfiledGraph) ? (ProfiledGraph) obj : null;
+        }
+
+        @Override
+        public Iterable<? extends Block> nodes(ProfiledGraph graph) {
+            return graph.profile.getBlocks();
+        }
+
+        @Override
+        public int nodesCount(ProfiledGraph graph) {
+            return graph.profile.getBlocks().size();
+        }
+
+        @Override
+        public int nodeId(Block node) {
+            return node.getIndex();
+        }
+
+        @Override
+        public boolean nodeHasPredecessor(Block node) {
+            return false;
+        }
+
+        @Override
+        public void nodeProperties(ProfiledGraph graph, Block node, Map<String, ? super Object> properties) {
+            long count = graph.counts[node.getIndex()];
+            properties.put("label", node + ": " + count);
+            properties.put("count", count);
+            properties.put("percentage", graph.total == 0 ? 0D : count * 100D / graph.total);
+            properties.put("loopDepth", node.getLoopDepth());
+            properties.put("derived", node.getCounterName() == null);
+            NodeSourcePosition position = node.getPosition();
+            if (position != null) {
+                properties.put("method", position.getMethod().format("%H.%n(%p)"));
+                properties.put("bci", position.getBCI());
+                properties.put("sourcePosition", position.toString());
+            }
+        }
+
+        @Override
+        public Block node(Object obj) {
+            return (obj instanceof Block) ? (Block) obj : null;
+        }
+
+        @Override
+        public BlockClass nodeClass(Object obj) {
+            return (obj instanceof BlockClass) ? (BlockClass) obj : null;
+        }
+
+        @Override
+        public BlockClass classForNode(Block node) {
+            return BlockClass.INSTANCE;
+        }
+
+        @Override
+        public String nameTemplate(BlockClass nodeClass) {
+            return "{p#label}";
+        }
+
+        @Override
+        public Object nodeClassType(BlockClass nodeClass) {
+            return Block.class;
+        }
+
+        @Override
+        public BlockClass portInputs(BlockClass nodeClass) {
+            return null;
+        }
+
+        @Override
+        public BlockClass portOutputs(BlockClass nodeClass) {
+            return nodeClass;
+        }
+
+        @Override
+        public int portSize(BlockClass port) {
+            return port == null ? 0 : 1;
+        }
+
+        @Override
+        public boolean edgeDirect(BlockClass port, int index) {
+            return false;
+        }
+
+        @Override
+        public String edgeName(BlockClass port, int index) {
+            return "successors";
+        }
+
+        @Override
+        public Object edgeType(BlockClass port, int index) {
+            return BlockEdge.SUCCESSOR;
+        }
+
+        @Override
+        public Collection<? extends Block> edgeNodes(ProfiledGraph graph, Block node, BlockClass port, int index) {
+            List<Block> blocks = graph.profile.getBlocks();
+            List<Block> successors = new ArrayList<>();
+            for (int successor : node.getSuccessors()) {
+                successors.add(blocks.get(successor));
+            }
+            return successors;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.lir.profiling;
+
+import java.util.ArrayList;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.compiler.core.common.CompilationIdentifier.Verbosity;
+import org.graalvm.compiler.core.common.LIRKind;
+import org.graalvm.compiler.core.common.cfg.AbstractBlockBase;
+import org.graalvm.compiler.graph.NodeSourcePosition;
+import org.graalvm.compiler.lir.ConstantValue;
+import org.graalvm.compiler.lir.LIR;
+import org.graalvm.compiler.lir.LIRInsertionBuffer;
+import org.graalvm.compiler.lir.LIRInstruction;
+import org.graalvm.compiler.lir.StandardOp.LabelOp;
+import org.graalvm.compiler.lir.gen.LIRGenerationResult;
+import org.graalvm.compiler.lir.phases.PostAllocationOptimizationPhase;
+import org.graalvm.compiler.lir.phases.PostAllocationOptimizationStage;
+import org.graalvm.compiler.lir.profiling.BlockProfile.Block;
+
+import jdk.vm.ci.code.TargetDescription;
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Inserts a counter at the beginning of the blocks of a compilation unit and registers a
+ * {@link BlockProfile} that maps the counters back to the blocks and their source positions. Blocks
+ * that are the only successor of their only predecessor are not instrumented since their count
+ * can be derived from the predecessor. At most
+ * {@link PostAllocationOptimizationStage.Options#LIRProfileBlocksLimit} compilation units are
+ * instrumented.
+ */
+public class BlockProfilingPhase extends PostAllocationOptimizationPhase {
+    public static final String BLOCK_GROUP = "BLOCK_COUNTER";
+
+    @Override
+    protected void run(TargetDescription target, LIRGenerationResult lirGenRes, PostAllocationOptimizationContext context) {
+        LIR lir = lirGenRes.getLIR();
+        if (!BlockProfile.reserve(PostAllocationOptimizationStage.Options.LIRProfileBlocksLimit.getValue(lir.getOptions()))) {
+            return;
+        }
+        String compilationId = lirGenRes.getCompilationId().toString(Verbosity.ID);
+        ConstantValue increment = new ConstantValue(LIRKind.fromJavaKind(target.arch, JavaKind.Int), JavaConstant.INT_1);
+
+        EconomicMap<AbstractBlockBase<?>, Integer> indexes = EconomicMap.create(Equivalence.IDENTITY);
+        ArrayList<AbstractBlockBase<?>> blocks = new ArrayList<>();
+        for (AbstractBlockBase<?> block : lir.codeEmittingOrder()) {
+            if (block != null) {
+                indexes.put(block, blocks.size());
+                blocks.add(block);
+            }
+        }
+
+        LIRInsertionBuffer buffer = new LIRInsertionBuffer();
+        ArrayList<Block> profileBlocks = new ArrayList<>(blocks.size());
+        for (AbstractBlockBase<?> block : blocks) {
+            int index = indexes.get(block);
+            AbstractBlockBase<?>[] successors = block.getSuccessors();
+            int[] successorIndexes = new int[successors.length];
+            for (int i = 0; i < successors.length; i++) {
+                successorIndexes[i] = indexes.get(successors[i]);
+            }
+            ArrayList<LIRInstruction> instructions = lir.getLIRforBlock(block);
+            NodeSourcePosition position = findPosition(instructions);
+            if (isDerived(block)) {
+                int predecessor = indexes.get(block.getPredecessors()[0]);
+                profileBlocks.add(new Block(index, block.getId(), null, predecessor, successorIndexes, block.getLoopDepth(), position));
+            } else {
+                String counterName = lirGenRes.getCompilationUnitName() + "#" + compilationId + "#B" + block.getId();
+                assert instructions.get(0) instanceof LabelOp : "Not a LabelOp: " + instructions.get(0);
+                buffer.init(instructions);
+                buffer.append(1, context.diagnosticLirGenTool.createBenchmarkCounter(counterName, BLOCK_GROUP, increment));
+                buffer.finish();
+                profileBlocks.add(new Block(index, block.getId(), counterName, -1, successorIndexes, block.getLoopDepth(), position));
+            }
+        }
+        BlockProfile.register(new BlockProfile(lirGenRes.getCompilationUnitName(), compilationId, profileBlocks));
+    }
+
+    /**
+     * Determines if the count of {@code block} equals the count of its only predecessor.
+     */
+    private static boolean isDerived(AbstractBlockBase<?> block) {
+        return block.getPredecessorCount() == 1 && block.getPredecessors()[0].getSuccessorCount() == 1 && block.getPredecessors()[0] != block;
+    }
+
+    private static NodeSourcePosition findPosition(ArrayList<LIRInstruction> instructions) {
+        for (LIRInstruction instruction : instructions) {
+            if (instruction.getPosition() != null) {
+                return instruction.getPosition();
+            }
+        }
+        return null;
+    }
+}
@@ -69,4 +69,9 @@ public class LoopFullUnrollPhase extends LoopPhase<LoopPolicies> {
     public boolean checkContract() {
         return false;
     }
+
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
 }
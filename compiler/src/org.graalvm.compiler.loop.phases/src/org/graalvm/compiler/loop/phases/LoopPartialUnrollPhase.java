@@ -98,4 +98,9 @@ public class LoopPartialUnrollPhase extends LoopPhase<LoopPolicies> {
     public boolean checkContract() {
         return false;
     }
+
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
 }
@@ -60,4 +60,9 @@ public class LoopPeelingPhase extends LoopPhase<LoopPolicies> {
     public float codeSizeIncrease() {
         return 5.0f;
     }
+
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
 }
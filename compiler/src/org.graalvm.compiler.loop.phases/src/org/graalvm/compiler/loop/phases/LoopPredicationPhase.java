@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2018, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import static org.graalvm.compiler.nodes.extended.BranchProbabilityNode.FAST_PATH_PROBABILITY;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.core.common.cfg.AbstractControlFlowGraph;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.loop.BasicInductionVariable;
+import org.graalvm.compiler.loop.CountedLoopInfo;
+import org.graalvm.compiler.loop.DerivedOffsetInductionVariable;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.InductionVariable.Direction;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.loop.MathUtil;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.GuardNode;
+import org.graalvm.compiler.nodes.LogicNegationNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.IntegerBelowNode;
+import org.graalvm.compiler.nodes.calc.IntegerConvertNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.IsNullNode;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
+
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.SpeculationLog;
+import jdk.vm.ci.meta.SpeculationLog.SpeculationReason;
+
+/**
+ * Replaces null checks and bounds checks inside counted loops by predicates that are checked once
+ * before the loop.
+ * <p>
+ * A null check on a loop invariant value is moved out of the loop unchanged. A bounds check
+ * {@code i |<| length} where {@code i} is the counter of the loop, optionally plus a loop invariant
+ * offset, and {@code length} is loop invariant is replaced by checks of the first and the last
+ * value of {@code i}. These are computed in 64 bit so that they cannot overflow. The predicates
+ * only apply if the loop is entered at all.
+ * <p>
+ * The predicates are speculative: the loop might leave through another exit before reaching an
+ * index that fails the check, or the check might be on a path that is not executed in every
+ * iteration. Predicates therefore deoptimize with a speculation per loop, and a loop whose
+ * predicate failed before is not predicated again.
+ */
+public class LoopPredicationPhase extends BasePhase<MidTierContext> {
+
+    private static final CounterKey PREDICATED_LOOPS = DebugContext.counter("LoopPredication_PredicatedLoops");
+    private static final CounterKey ELIMINATED_BOUNDS_CHECKS = DebugContext.counter("LoopPredication_EliminatedBoundsChecks");
+    private static final CounterKey ELIMINATED_NULL_CHECKS = DebugContext.counter("LoopPredication_EliminatedNullChecks");
+    private static final CounterKey SPECULATION_FAILED = DebugContext.counter("LoopPredication_SpeculationFailed");
+
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, MidTierContext context) {
+        SpeculationLog speculationLog = graph.getSpeculationLog();
+        if (!graph.hasLoops() || speculationLog == null || !graph.getGuardsStage().allowsFloatingGuards() ||
+                        !context.getOptimisticOptimizations().useLoopLimitChecks(graph.getOptions())) {
+            return;
+        }
+        LoopsData data = new LoopsData(graph);
+        data.detectedCountedLoops();
+        for (LoopEx loop : data.countedLoops()) {
+            predicate(loop, data.getCFG(), speculationLog);
+        }
+        data.deleteUnusedNodes();
+    }
+
+    private static void predicate(LoopEx loop, ControlFlowGraph cfg, SpeculationLog speculationLog) {
+        StructuredGraph graph = loop.loopBegin().graph();
+        DebugContext debug = graph.getDebug();
+        CountedLoopInfo counted = loop.counted();
+        if (!(counted.getCounter() instanceof BasicInductionVariable) || counted.getStamp().getBits() != 32) {
+            return;
+        }
+        FrameState state = loop.loopBegin().stateAfter();
+        if (state == null || state.getMethod() == null) {
+            return;
+        }
+
+        LoopPredicationSpeculationReason reason = new LoopPredicationSpeculationReason(state.getMethod(), state.bci);
+        if (!speculationLog.maySpeculate(reason)) {
+            SPECULATION_FAILED.increment(debug);
+            return;
+        }
+
+        // predicating an inner loop adds nodes to this loop
+        loop.invalidateFragments();
+        Block body = cfg.blockFor(counted.getBody());
+        List<GuardNode> nullChecks = new ArrayList<>();
+        for (GuardNode guard : guardsInBody(loop, cfg, body)) {
+            if (isInvariantNullCheck(loop, guard)) {
+                nullChecks.add(guard);
+            }
+        }
+        JavaConstant speculation = null;
+        LogicNode entered = null;
+        AbstractBeginNode anchor = AbstractBeginNode.prevBegin(loop.entryPoint());
+        if (!nullChecks.isEmpty()) {
+            speculation = speculationLog.speculate(reason);
+            entered = createEnteredCondition(counted);
+            for (GuardNode guard : nullChecks) {
+                LogicNode predicate = LogicNode.or(entered, true, guard.getCondition(), true, 1 - FAST_PATH_PROBABILITY);
+                replaceGuard(guard, predicate, anchor, speculation);
+                ELIMINATED_NULL_CHECKS.increment(debug);
+            }
+            // array lengths guarded by the null checks may have become loop invariant
+            loop.invalidateFragments();
+        }
+
+        List<GuardNode> boundsChecks = new ArrayList<>();
+        for (GuardNode guard : guardsInBody(loop, cfg, body)) {
+            if (isCounterBoundsCheck(loop, guard)) {
+                boundsChecks.add(guard);
+            }
+        }
+        if (!boundsChecks.isEmpty()) {
+            if (speculation == null) {
+                speculation = speculationLog.speculate(reason);
+                entered = createEnteredCondition(counted);
+            }
+            counted.createOverFlowGuard();
+            for (GuardNode guard : boundsChecks) {
+                IntegerBelowNode check = (IntegerBelowNode) guard.getCondition();
+                LogicNode predicate = LogicNode.or(entered, true, createRangeCheck(counted, check), false, 1 - FAST_PATH_PROBABILITY);
+                replaceGuard(guard, predicate, anchor, speculation);
+                ELIMINATED_BOUNDS_CHECKS.increment(debug);
+            }
+        }
+        if (speculation != null) {
+            PREDICATED_LOOPS.increment(debug);
+            debug.dump(DebugContext.DETAILED_LEVEL, graph, "After predicating %s", loop);
+        }
+    }
+
+    /**
+     * Returns the guards in {@code loop} that are only evaluated after the limit test passed.
+     */
+    private static List<GuardNode> guardsInBody(LoopEx loop, ControlFlowGraph cfg, Block body) {
+        List<GuardNode> guards = new ArrayList<>();
+        for (GuardNode guard : loop.whole().nodes().filter(GuardNode.class)) {
+            if (guard.getAnchor() instanceof AbstractBeginNode && AbstractControlFlowGraph.dominates(body, cfg.blockFor(guard.getAnchor().asNode()))) {
+                guards.add(guard);
+            }
+        }
+        return guards;
+    }
+
+    private static boolean isInvariantNullCheck(LoopEx loop, GuardNode guard) {
+        return guard.isNegated() && guard.getCondition() instanceof IsNullNode && loop.isOutsideLoop(((IsNullNode) guard.getCondition()).getValue());
+    }
+
+    private static boolean isCounterBoundsCheck(LoopEx loop, GuardNode guard) {
+        if (guard.isNegated() || !(guard.getCondition() instanceof IntegerBelowNode)) {
+            return false;
+        }
+        IntegerBelowNode check = (IntegerBelowNode) guard.getCondition();
+        if (!loop.isOutsideLoop(check.getY()) || ((IntegerStamp) check.getY().stamp(NodeView.DEFAULT)).lowerBound() < 0) {
+            return false;
+        }
+        InductionVariable iv = loop.getInductionVariables().get(check.getX());
+        InductionVariable counter = loop.counted().getCounter();
+        if (iv == counter) {
+            return true;
+        }
+        return iv instanceof DerivedOffsetInductionVariable && iv.valueNode() instanceof AddNode && ((DerivedOffsetInductionVariable) iv).getBase() == counter;
+    }
+
+    /**
+     * Creates the condition under which the counted loop executes at least one iteration.
+     */
+    private static LogicNode createEnteredCondition(CountedLoopInfo counted) {
+        StructuredGraph graph = counted.getLimitTest().graph();
+        ValueNode start = counted.getStart();
+        ValueNode limit = counted.getLimit();
+        ValueNode low = counted.getDirection() == Direction.Up ? start : limit;
+        ValueNode high = counted.getDirection() == Direction.Up ? limit : start;
+        if (counted.isLimitIncluded()) {
+            return graph.addOrUniqueWithInputs(LogicNegationNode.create(IntegerLessThanNode.create(high, low, NodeView.DEFAULT)));
+        }
+        return graph.addOrUniqueWithInputs(IntegerLessThanNode.create(low, high, NodeView.DEFAULT));
+    }
+
+    /**
+     * Creates a condition that holds if {@code check} holds for the first and the last value the
+     * induction variable takes.
+     */
+    private static LogicNode createRangeCheck(CountedLoopInfo counted, IntegerBelowNode check) {
+        StructuredGraph graph = check.graph();
+        Stamp longStamp = StampFactory.forKind(JavaKind.Long);
+        InductionVariable counter = counted.getCounter();
+        ValueNode first = IntegerConvertNode.convert(counter.initNode(), longStamp, graph, NodeView.DEFAULT);
+        ValueNode last = counter.extremumNode(true, longStamp);
+        InductionVariable iv = counted.getCounter().getLoop().getInductionVariables().get(check.getX());
+        if (iv != counter) {
+            ValueNode offset = IntegerConvertNode.convert(((DerivedOffsetInductionVariable) iv).getOffset(), longStamp, graph, NodeView.DEFAULT);
+            first = MathUtil.add(graph, first, offset);
+            last = MathUtil.add(graph, last, offset);
+        }
+        ValueNode length = IntegerConvertNode.convert(check.getY(), longStamp, graph, NodeView.DEFAULT);
+        LogicNode firstInBounds = graph.addOrUniqueWithInputs(IntegerBelowNode.create(first, length, NodeView.DEFAULT));
+        LogicNode lastInBounds = graph.addOrUniqueWithInputs(IntegerBelowNode.create(last, length, NodeView.DEFAULT));
+        return LogicNode.and(firstInBounds, lastInBounds, FAST_PATH_PROBABILITY);
+    }
+
+    private static void replaceGuard(GuardNode guard, LogicNode predicate, AbstractBeginNode anchor, JavaConstant speculation) {
+        StructuredGraph graph = guard.graph();
+        LogicNode condition = guard.getCondition();
+        GuardNode predicateGuard = graph.unique(new GuardNode(predicate, anchor, guard.getReason(), DeoptimizationAction.InvalidateRecompile, false, speculation, null));
+        guard.replaceAndDelete(predicateGuard);
+        GraphUtil.tryKillUnused(condition);
+    }
+
+    private static final class LoopPredicationSpeculationReason implements SpeculationReason {
+        private final ResolvedJavaMethod method;
+        private final int loopBci;
+
+        LoopPredicationSpeculationReason(ResolvedJavaMethod method, int loopBci) {
+            this.method = method;
+            this.loopBci = loopBci;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof LoopPredicationSpeculationReason) {
+                LoopPredicationSpeculationReason that = (LoopPredicationSpeculationReason) obj;
+                return this.method.equals(that.method) && this.loopBci == that.loopBci;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return method.hashCode() ^ loopBci;
+        }
+    }
+}
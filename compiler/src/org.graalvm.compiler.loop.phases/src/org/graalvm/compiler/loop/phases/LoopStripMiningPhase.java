@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import static org.graalvm.compiler.core.common.GraalOptions.LoopStripMiningIterations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Graph.Mark;
+import org.graalvm.compiler.loop.BasicInductionVariable;
+import org.graalvm.compiler.loop.CountedLoopInfo;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.InductionVariable.Direction;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.BeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.EndNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.GuardPhiNode;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.VirtualState;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.ConditionalNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.NarrowNode;
+import org.graalvm.compiler.nodes.calc.SignExtendNode;
+import org.graalvm.compiler.nodes.memory.MemoryPhiNode;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
+
+/**
+ * Splits long running counted loops into an outer loop and an inner loop that runs for at most
+ * {@link org.graalvm.compiler.core.common.GraalOptions#LoopStripMiningIterations} iterations:
+ *
+ * <pre>
+ * for (i = init; i &lt; limit; i += stride) {          for (i = init;;) {
+ *     body                                   ==&gt;        innerLimit = min(limit, i + N * stride);
+ * }                                                     for (; i &lt; innerLimit; i += stride) {
+ *                                                           body
+ *                                                       }
+ *                                                       if (i &gt;= limit) break;
+ *                                                   }
+ * </pre>
+ *
+ * The inner loop is still a counted loop, so {@link LoopSafepointEliminationPhase} removes its
+ * safepoint and later loop optimizations such as partial unrolling apply to it. The outer loop
+ * keeps its safepoint, which bounds the time to the next safepoint poll by N iterations.
+ * <p>
+ * This phase runs in the mid tier where there are no proxies, so values of the inner loop can be
+ * used after the exits. It only handles loops with an {@code i < limit} test on a basic induction
+ * variable at the very beginning of the loop. The outer loop restarts the inner loop at its header
+ * with the values of the phis at the exit, which is only correct if nothing is executed in the
+ * header before the test.
+ */
+public class LoopStripMiningPhase extends BasePhase<MidTierContext> {
+
+    private static final CounterKey STRIP_MINED_LOOPS = DebugContext.counter("StripMinedLoops");
+
+    @Override
+    protected void run(StructuredGraph graph, MidTierContext context) {
+        if (!graph.hasLoops() || !context.getOptimisticOptimizations().useLoopLimitChecks(graph.getOptions()) || !graph.getGuardsStage().allowsFloatingGuards()) {
+            return;
+        }
+        int iterations = LoopStripMiningIterations.getValue(graph.getOptions());
+        if (iterations <= 1) {
+            return;
+        }
+        LoopsData loops = new LoopsData(graph);
+        loops.detectedCountedLoops();
+        List<LoopEx> candidates = new ArrayList<>();
+        for (LoopEx loop : loops.countedLoops()) {
+            if (isStripMiningCandidate(loop, iterations)) {
+                candidates.add(loop);
+            }
+        }
+        for (LoopEx loop : candidates) {
+            stripMine(loop, iterations);
+            STRIP_MINED_LOOPS.increment(graph.getDebug());
+            graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "After strip mining %s", loop);
+        }
+        loops.deleteUnusedNodes();
+    }
+
+    private static boolean isStripMiningCandidate(LoopEx loop, int iterations) {
+        LoopBeginNode loopBegin = loop.loopBegin();
+        if (!loop.loop().getChildren().isEmpty() || !loopBegin.isSimpleLoop()) {
+            return false;
+        }
+        CountedLoopInfo counted = loop.counted();
+        if (counted.getStamp().getBits() != 32 || counted.isLimitIncluded() || counted.getDirection() != Direction.Up) {
+            return false;
+        }
+        if (counted.isConstantMaxTripCount() && counted.constantMaxTripCount().isLessThan(iterations + 1)) {
+            // short loops are left without a safepoint poll altogether
+            return false;
+        }
+        InductionVariable counter = counted.getCounter();
+        if (!(counter instanceof BasicInductionVariable) || !counter.isConstantStride() || counter.constantStride() <= 0) {
+            return false;
+        }
+        IfNode limitTest = counted.getLimitTest();
+        if (loopBegin.next() != limitTest || !(limitTest.condition() instanceof IntegerLessThanNode)) {
+            return false;
+        }
+        IntegerLessThanNode condition = (IntegerLessThanNode) limitTest.condition();
+        if (condition.getX() != counter.valueNode() || condition.getY() != counted.getLimit() || limitTest.trueSuccessor() != counted.getBody()) {
+            return false;
+        }
+        boolean hasSafepoint = false;
+        for (LoopEndNode loopEnd : loopBegin.loopEnds()) {
+            hasSafepoint |= loopEnd.canSafepoint();
+        }
+        return hasSafepoint && loopBegin.forwardEnd() instanceof EndNode;
+    }
+
+    private static void stripMine(LoopEx loop, int iterations) {
+        LoopBeginNode inner = loop.loopBegin();
+        StructuredGraph graph = inner.graph();
+        CountedLoopInfo counted = loop.counted();
+        IfNode limitTest = counted.getLimitTest();
+        LoopExitNode limitExit = (LoopExitNode) limitTest.falseSuccessor();
+        ValuePhiNode counter = (ValuePhiNode) counted.getCounter().valueNode();
+        ValueNode limit = counted.getLimit();
+
+        // the outer loop takes over the entry of the inner loop
+        LoopBeginNode outer = graph.add(new LoopBeginNode());
+        EndNode innerEntry = (EndNode) inner.forwardEnd();
+        EndNode outerEntry = graph.add(new EndNode());
+        innerEntry.replaceAtPredecessor(outerEntry);
+        outer.addForwardEnd(outerEntry);
+        outer.setNext(innerEntry);
+
+        // each inner phi starts with the value of an outer phi, which continues with the value
+        // the inner phi had when the inner loop was left
+        List<PhiNode> innerPhis = inner.phis().snapshot();
+        List<PhiNode> outerPhis = new ArrayList<>(innerPhis.size());
+        for (PhiNode innerPhi : innerPhis) {
+            PhiNode outerPhi = createPhi(graph, innerPhi, outer);
+            outerPhi.addInput(innerPhi.valueAt(innerEntry));
+            outerPhi.addInput(innerPhi);
+            innerPhi.setValueAt(innerEntry, outerPhi);
+            outerPhis.add(outerPhi);
+        }
+        if (inner.stateAfter() != null) {
+            Mark mark = graph.getMark();
+            FrameState outerState = inner.stateAfter().duplicateWithVirtualState();
+            for (int i = 0; i < innerPhis.size(); i++) {
+                innerPhis.get(i).replaceAtMatchingUsages(outerPhis.get(i), usage -> usage instanceof VirtualState && graph.isNew(mark, usage));
+            }
+            outer.setStateAfter(outerState);
+        }
+
+        // innerLimit = min(limit, i + N * stride), computed in 64 bit so that it cannot overflow
+        ValueNode outerCounter = outerPhis.get(innerPhis.indexOf(counter));
+        IntegerStamp stamp = (IntegerStamp) counter.stamp(NodeView.DEFAULT);
+        ValueNode wideLimit = graph.addOrUniqueWithInputs(SignExtendNode.create(limit, 64, NodeView.DEFAULT));
+        ValueNode wideStart = graph.addOrUniqueWithInputs(SignExtendNode.create(outerCounter, 64, NodeView.DEFAULT));
+        ValueNode wideEnd = graph.addOrUniqueWithInputs(AddNode.create(wideStart, ConstantNode.forLong(iterations * counted.getCounter().constantStride(), graph), NodeView.DEFAULT));
+        LogicNode endBeforeLimit = graph.addOrUniqueWithInputs(IntegerLessThanNode.create(wideEnd, wideLimit, NodeView.DEFAULT));
+        ValueNode wideInnerLimit = graph.addOrUniqueWithInputs(ConditionalNode.create(endBeforeLimit, wideEnd, wideLimit, NodeView.DEFAULT));
+        ValueNode innerLimit = graph.addOrUniqueWithInputs(NarrowNode.create(wideInnerLimit, stamp.getBits(), NodeView.DEFAULT));
+        limitTest.setCondition(graph.addOrUniqueWithInputs(IntegerLessThanNode.create(counter, innerLimit, NodeView.DEFAULT)));
+
+        // after the inner loop: continue the outer loop while i < limit
+        FixedNode continuation = limitExit.next();
+        limitExit.setNext(null);
+        LoopExitNode outerExit = graph.add(new LoopExitNode(outer));
+        outerExit.setNext(continuation);
+        LoopEndNode outerEnd = graph.add(new LoopEndNode(outer));
+        double outerFrequency = Math.max(1.0, inner.loopFrequency() / iterations);
+        LogicNode beforeLimit = graph.addOrUniqueWithInputs(IntegerLessThanNode.create(counter, limit, NodeView.DEFAULT));
+        IfNode outerTest = graph.add(new IfNode(beforeLimit, BeginNode.begin(outerEnd), outerExit, 1.0 - 1.0 / outerFrequency));
+        limitExit.setNext(outerTest);
+        outer.setLoopFrequency(outerFrequency);
+        inner.setLoopFrequency(Math.min(inner.loopFrequency(), iterations));
+
+        // every other exit of the inner loop also leaves the outer loop
+        for (LoopExitNode exit : inner.loopExits().snapshot()) {
+            if (exit != limitExit) {
+                graph.addAfterFixed(exit, graph.add(new LoopExitNode(outer)));
+            }
+        }
+    }
+
+    private static PhiNode createPhi(StructuredGraph graph, PhiNode phi, LoopBeginNode merge) {
+        PhiNode result;
+        if (phi instanceof ValuePhiNode) {
+            result = new ValuePhiNode(phi.stamp(NodeView.DEFAULT), merge);
+        } else if (phi instanceof MemoryPhiNode) {
+            result = new MemoryPhiNode(merge, ((MemoryPhiNode) phi).getLocationIdentity());
+        } else {
+            result = new GuardPhiNode(merge);
+        }
+        return graph.addWithoutUnique(result);
+    }
+
+    @Override
+    public boolean checkContract() {
+        return false;
+    }
+
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright (c) 2018, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import static org.graalvm.compiler.nodes.extended.BranchProbabilityNode.FAST_PATH_PROBABILITY;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.compiler.core.common.calc.ElementwiseBinaryOp;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.loop.CountedLoopInfo;
+import org.graalvm.compiler.loop.InductionVariable;
+import org.graalvm.compiler.loop.InductionVariable.Direction;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.AbstractEndNode;
+import org.graalvm.compiler.nodes.BeginNode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.EndNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.IfNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.MergeNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.PiNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.calc.AddNode;
+import org.graalvm.compiler.nodes.calc.AndNode;
+import org.graalvm.compiler.nodes.calc.BinaryNode;
+import org.graalvm.compiler.nodes.calc.FloatDivNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.IsNullNode;
+import org.graalvm.compiler.nodes.calc.MulNode;
+import org.graalvm.compiler.nodes.calc.OrNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
+import org.graalvm.compiler.nodes.calc.XorNode;
+import org.graalvm.compiler.nodes.java.ArrayElementwiseOpNode;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
+import org.graalvm.compiler.nodes.java.LoadIndexedNode;
+import org.graalvm.compiler.nodes.java.StoreIndexedNode;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Vectorizes counted loops whose body is a single element-wise array operation such as
+ * {@code c[i] = a[i] + b[i]}. The loop is kept as the scalar post loop and an
+ * {@link ArrayElementwiseOpNode} processing as many iterations as possible with vector
+ * instructions is inserted in front of it:
+ *
+ * <pre>
+ * if (a != null &amp;&amp; b != null &amp;&amp; c != null &amp;&amp; start &gt;= 0 &amp;&amp; end &lt;= a.length &amp;&amp; ...) {
+ *     start = ArrayElementwiseOp(ADD, c, a, b, start, end);
+ * }
+ * for (i = start; i &lt; end; i++) {
+ *     c[i] = a[i] + b[i];
+ * }
+ * </pre>
+ *
+ * The checks make sure that the vector code neither throws nor accesses memory out of bounds, all
+ * exceptional cases are left to the original loop. The induction variable must be the only loop
+ * phi, so resuming the loop at the first unprocessed index is equivalent to executing all the
+ * skipped iterations.
+ * <p>
+ * The phase has to run before high tier lowering, while array accesses are still represented by
+ * {@link LoadIndexedNode} and {@link StoreIndexedNode}. It must only be scheduled for backends that
+ * implement {@link ArrayElementwiseOpNode}.
+ */
+public class LoopVectorizationPhase extends BasePhase<PhaseContext> {
+
+    private static final CounterKey VECTORIZED_LOOPS = DebugContext.counter("VectorizedLoops");
+
+    @Override
+    protected void run(StructuredGraph graph, PhaseContext context) {
+        if (graph.hasLoops()) {
+            LoopsData data = new LoopsData(graph);
+            data.detectedCountedLoops();
+            for (LoopEx loop : data.countedLoops()) {
+                if (tryVectorize(loop)) {
+                    VECTORIZED_LOOPS.increment(graph.getDebug());
+                    graph.getDebug().dump(DebugContext.DETAILED_LEVEL, graph, "After vectorizing %s", loop);
+                }
+            }
+            data.deleteUnusedNodes();
+        }
+    }
+
+    private static boolean tryVectorize(LoopEx loop) {
+        LoopBeginNode loopBegin = loop.loopBegin();
+        CountedLoopInfo counted = loop.counted();
+        InductionVariable counter = counted.getCounter();
+        if (counter.valueNode() != loopBegin.phis().first() || loopBegin.phis().count() != 1) {
+            // resuming the loop at another index is only correct if nothing else is carried
+            return false;
+        }
+        PhiNode phi = (PhiNode) counter.valueNode();
+        if (counter.direction() != Direction.Up || !counter.isConstantStride() || counter.constantStride() != 1) {
+            return false;
+        }
+        if (!(phi.stamp(NodeView.DEFAULT) instanceof IntegerStamp) || ((IntegerStamp) phi.stamp(NodeView.DEFAULT)).getBits() != 32) {
+            return false;
+        }
+        if (loopBegin.forwardEndCount() != 1 || loopBegin.loopEnds().count() != 1 || loopBegin.loopExits().count() != 1 || loopBegin.next() != counted.getLimitTest()) {
+            return false;
+        }
+        FrameState loopState = loopBegin.stateAfter();
+        if (loopState == null || loopState.virtualObjectMappingCount() != 0) {
+            return false;
+        }
+
+        StoreIndexedNode store = null;
+        List<LoadIndexedNode> loads = new ArrayList<>(2);
+        FixedNode current = counted.getBody().next();
+        while (!(current instanceof LoopEndNode)) {
+            if (current instanceof LoadIndexedNode) {
+                loads.add((LoadIndexedNode) current);
+            } else if (current instanceof StoreIndexedNode && store == null) {
+                store = (StoreIndexedNode) current;
+            } else if (!(current instanceof BeginNode)) {
+                return false;
+            }
+            current = ((FixedWithNextNode) current).next();
+        }
+        if (store == null || store.index() != phi || !loop.isOutsideLoop(store.array())) {
+            return false;
+        }
+        JavaKind kind = store.elementKind();
+        ElementwiseBinaryOp op = getOp(store.value());
+        if (op == null || !op.supports(kind) || store.value().getStackKind() != kind) {
+            return false;
+        }
+        BinaryNode operation = (BinaryNode) store.value();
+        if (!isVectorizableLoad(loop, operation.getX(), phi, kind) || !isVectorizableLoad(loop, operation.getY(), phi, kind)) {
+            return false;
+        }
+        for (LoadIndexedNode load : loads) {
+            if (load != operation.getX() && load != operation.getY()) {
+                // another load could throw an exception the vector code would not
+                return false;
+            }
+        }
+
+        vectorize(loop, op, kind, store.array(), ((LoadIndexedNode) operation.getX()).array(), ((LoadIndexedNode) operation.getY()).array());
+        return true;
+    }
+
+    private static ElementwiseBinaryOp getOp(ValueNode value) {
+        Class<?> nodeClass = value.getClass();
+        if (nodeClass == AddNode.class) {
+            return ElementwiseBinaryOp.ADD;
+        } else if (nodeClass == SubNode.class) {
+            return ElementwiseBinaryOp.SUB;
+        } else if (nodeClass == MulNode.class) {
+            return ElementwiseBinaryOp.MUL;
+        } else if (nodeClass == FloatDivNode.class) {
+            return ElementwiseBinaryOp.DIV;
+        } else if (nodeClass == AndNode.class) {
+            return ElementwiseBinaryOp.AND;
+        } else if (nodeClass == OrNode.class) {
+            return ElementwiseBinaryOp.OR;
+        } else if (nodeClass == XorNode.class) {
+            return ElementwiseBinaryOp.XOR;
+        }
+        return null;
+    }
+
+    private static boolean isVectorizableLoad(LoopEx loop, ValueNode value, PhiNode phi, JavaKind kind) {
+        if (!(value instanceof LoadIndexedNode)) {
+            return false;
+        }
+        LoadIndexedNode load = (LoadIndexedNode) value;
+        return load.index() == phi && load.elementKind() == kind && loop.isOutsideLoop(load.array()) && !loop.isOutsideLoop(load);
+    }
+
+    private static void vectorize(LoopEx loop, ElementwiseBinaryOp op, JavaKind kind, ValueNode result, ValueNode x, ValueNode y) {
+        StructuredGraph graph = loop.loopBegin().graph();
+        LoopBeginNode loopBegin = loop.loopBegin();
+        CountedLoopInfo counted = loop.counted();
+        PhiNode phi = (PhiNode) counted.getCounter().valueNode();
+        ValueNode start = counted.getStart();
+        ValueNode end = counted.getLimit();
+        if (counted.isLimitIncluded()) {
+            end = graph.addOrUniqueWithInputs(AddNode.create(end, ConstantNode.forInt(1), NodeView.DEFAULT));
+        }
+
+        AbstractEndNode loopEntry = loopBegin.forwardEnd();
+        FixedWithNextNode last = (FixedWithNextNode) loopEntry.predecessor();
+        last.setNext(null);
+        List<EndNode> skipEnds = new ArrayList<>();
+
+        List<ValueNode> arrays = new ArrayList<>(3);
+        for (ValueNode array : new ValueNode[]{result, x, y}) {
+            if (!arrays.contains(array)) {
+                arrays.add(array);
+            }
+        }
+        last = appendCheck(last, graph.addOrUniqueWithInputs(IntegerLessThanNode.create(start, ConstantNode.forInt(0), NodeView.DEFAULT)), skipEnds);
+        for (ValueNode array : arrays) {
+            last = appendCheck(last, graph.addOrUniqueWithInputs(IsNullNode.create(array)), skipEnds);
+            ValueNode nonNullArray = graph.unique(new PiNode(array, array.stamp(NodeView.DEFAULT).join(StampFactory.objectNonNull()), last));
+            ArrayLengthNode length = graph.add(new ArrayLengthNode(nonNullArray));
+            last.setNext(length);
+            last = appendCheck(length, graph.addOrUniqueWithInputs(IntegerLessThanNode.create(length, end, NodeView.DEFAULT)), skipEnds);
+        }
+
+        ArrayElementwiseOpNode vectorOp = graph.add(new ArrayElementwiseOpNode(op, kind, result, x, y, start, end));
+        vectorOp.setStateAfter(resumeState(loopBegin.stateAfter(), phi, vectorOp));
+        last.setNext(vectorOp);
+        EndNode vectorEnd = graph.add(new EndNode());
+        vectorOp.setNext(vectorEnd);
+
+        MergeNode merge = graph.add(new MergeNode());
+        ValuePhiNode resumeIndex = graph.addWithoutUnique(new ValuePhiNode(phi.stamp(NodeView.DEFAULT), merge));
+        merge.addForwardEnd(vectorEnd);
+        resumeIndex.addInput(vectorOp);
+        for (EndNode skipEnd : skipEnds) {
+            merge.addForwardEnd(skipEnd);
+            resumeIndex.addInput(start);
+        }
+        merge.setStateAfter(resumeState(loopBegin.stateAfter(), phi, resumeIndex));
+        merge.setNext(loopEntry);
+
+        phi.setValueAt(loopEntry, resumeIndex);
+    }
+
+    /**
+     * Creates a state that re-enters the loop header with the counter at {@code index}.
+     */
+    private static FrameState resumeState(FrameState loopState, PhiNode phi, ValueNode index) {
+        FrameState state = loopState.duplicate();
+        for (int i = 0; i < state.values().size(); i++) {
+            if (state.values().get(i) == phi) {
+                state.values().set(i, index);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Appends a check after {@code last} that leaves the vectorized path if {@code skipCondition}
+     * holds and returns the begin of the path that continues vectorization.
+     */
+    private static AbstractBeginNode appendCheck(FixedWithNextNode last, LogicNode skipCondition, List<EndNode> skipEnds) {
+        StructuredGraph graph = last.graph();
+        EndNode skipEnd = graph.add(new EndNode());
+        AbstractBeginNode skip = graph.add(new BeginNode());
+        skip.setNext(skipEnd);
+        skipEnds.add(skipEnd);
+        AbstractBeginNode proceed = graph.add(new BeginNode());
+        last.setNext(graph.add(new IfNode(skipCondition, skip, proceed, 1 - FAST_PATH_PROBABILITY)));
+        return proceed;
+    }
+
+    @Override
+    public boolean checkContract() {
+        return false;
+    }
+
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
+}
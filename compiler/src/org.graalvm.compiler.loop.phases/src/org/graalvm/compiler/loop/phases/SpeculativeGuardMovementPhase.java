@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.phases;
+
+import java.util.List;
+import java.util.ListIterator;
+
+import org.graalvm.compiler.core.common.cfg.Loop;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.loop.LoopEx;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.GuardNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
+
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.SpeculationLog;
+import jdk.vm.ci.meta.SpeculationLog.SpeculationReason;
+
+/**
+ * Moves guards with a loop invariant condition out of loops.
+ * <p>
+ * A guard anchored at the loop header is evaluated in every iteration and therefore already on
+ * loop entry, so it is moved to the loop pre-header unchanged. A guard that is control dependent on
+ * a branch inside the loop is only hoisted speculatively: the branch might never be taken. Such
+ * guards deoptimize with a speculation per loop and deoptimization reason, and a speculation that
+ * failed before is not made again, so a loop keeps the guards of a reason that turned out to be
+ * wrong instead of deoptimizing repeatedly. Without a {@link SpeculationLog} only guards anchored at
+ * the loop header are moved.
+ * <p>
+ * Loops are processed inner first so that a guard can move out of a whole loop nest.
+ */
+public class SpeculativeGuardMovementPhase extends BasePhase<MidTierContext> {
+
+    private static final CounterKey HOISTED_GUARDS = DebugContext.counter("SpeculativeGuardMovement_HoistedGuards");
+    private static final CounterKey SPECULATIVELY_HOISTED_GUARDS = DebugContext.counter("SpeculativeGuardMovement_SpeculativelyHoistedGuards");
+    private static final CounterKey REFUSED_SPECULATIONS = DebugContext.counter("SpeculativeGuardMovement_RefusedSpeculations");
+
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, MidTierContext context) {
+        SpeculationLog speculationLog = graph.getSpeculationLog();
+        if (!graph.hasLoops() || !graph.getGuardsStage().allowsFloatingGuards()) {
+            return;
+        }
+        LoopsData data = new LoopsData(graph);
+        List<LoopEx> loops = data.outerFirst();
+        for (ListIterator<LoopEx> it = loops.listIterator(loops.size()); it.hasPrevious();) {
+            LoopEx loop = it.previous();
+            // moving guards out of an inner loop adds nodes to this loop
+            loop.invalidateFragments();
+            moveGuards(loop, data.getCFG(), speculationLog);
+        }
+        data.deleteUnusedNodes();
+    }
+
+    private static void moveGuards(LoopEx loop, ControlFlowGraph cfg, SpeculationLog speculationLog) {
+        StructuredGraph graph = loop.loopBegin().graph();
+        DebugContext debug = graph.getDebug();
+        FrameState state = loop.loopBegin().stateAfter();
+        ResolvedJavaMethod method = state == null ? null : state.getMethod();
+        AbstractBeginNode preHeader = AbstractBeginNode.prevBegin(loop.entryPoint());
+        boolean changed = false;
+        for (GuardNode guard : loop.whole().nodes().filter(GuardNode.class).snapshot()) {
+            if (!isInvariantGuard(loop, cfg, guard)) {
+                continue;
+            }
+            if (guard.getAnchor() == loop.loopBegin()) {
+                moveGuard(guard, preHeader, guard.getAction(), guard.getSpeculation());
+                HOISTED_GUARDS.increment(debug);
+                changed = true;
+            } else if (method != null && speculationLog != null) {
+                SpeculativeGuardMovementReason reason = new SpeculativeGuardMovementReason(method, state.bci, guard.getReason());
+                if (!speculationLog.maySpeculate(reason)) {
+                    REFUSED_SPECULATIONS.increment(debug);
+                    continue;
+                }
+                moveGuard(guard, preHeader, DeoptimizationAction.InvalidateRecompile, speculationLog.speculate(reason));
+                SPECULATIVELY_HOISTED_GUARDS.increment(debug);
+                changed = true;
+            }
+        }
+        if (changed) {
+            debug.dump(DebugContext.DETAILED_LEVEL, graph, "After moving guards out of %s", loop);
+        }
+    }
+
+    /**
+     * Determines if {@code guard} is anchored inside {@code loop}, has a loop invariant condition
+     * and does not carry a speculation of its own.
+     */
+    private static boolean isInvariantGuard(LoopEx loop, ControlFlowGraph cfg, GuardNode guard) {
+        if (!(guard.getAnchor() instanceof AbstractBeginNode) || !loop.isOutsideLoop(guard.getCondition())) {
+            return false;
+        }
+        JavaConstant speculation = guard.getSpeculation();
+        if (speculation != null && !speculation.isNull()) {
+            return false;
+        }
+        Block anchorBlock = cfg.blockFor(guard.getAnchor().asNode());
+        return anchorBlock != null && Loop.transitiveParentLoop(anchorBlock.getLoop(), loop.loop());
+    }
+
+    private static void moveGuard(GuardNode guard, AbstractBeginNode anchor, DeoptimizationAction action, JavaConstant speculation) {
+        StructuredGraph graph = guard.graph();
+        GuardNode movedGuard = graph.unique(new GuardNode(guard.getCondition(), anchor, guard.getReason(), action, guard.isNegated(), speculation, null));
+        guard.replaceAndDelete(movedGuard);
+    }
+
+    private static final class SpeculativeGuardMovementReason implements SpeculationReason {
+        private final ResolvedJavaMethod method;
+        private final int loopBci;
+        private final DeoptimizationReason reason;
+
+        SpeculativeGuardMovementReason(ResolvedJavaMethod method, int loopBci, DeoptimizationReason reason) {
+            this.method = method;
+            this.loopBci = loopBci;
+            this.reason = reason;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof SpeculativeGuardMovementReason) {
+                SpeculativeGuardMovementReason that = (SpeculativeGuardMovementReason) obj;
+                return this.method.equals(that.method) && this.loopBci == that.loopBci && this.reason == that.reason;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return method.hashCode() ^ loopBci ^ reason.hashCode();
+        }
+    }
+}
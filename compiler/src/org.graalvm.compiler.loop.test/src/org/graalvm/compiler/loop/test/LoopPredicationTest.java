@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.loop.phases.LoopPredicationPhase;
+import org.graalvm.compiler.nodes.GuardNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.extended.GuardedNode;
+import org.graalvm.compiler.nodes.extended.GuardingNode;
+import org.graalvm.compiler.nodes.spi.LoweringTool;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.FloatingReadPhase;
+import org.graalvm.compiler.phases.common.LoweringPhase;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.DeoptimizationReason;
+import jdk.vm.ci.meta.SpeculationLog;
+
+public class LoopPredicationTest extends GraalCompilerTest {
+
+    @Override
+    protected SpeculationLog getSpeculationLog() {
+        return getCodeCache().createSpeculationLog();
+    }
+
+    public static int sumRangeSnippet(int[] a, int from, int to) {
+        int sum = 0;
+        for (int i = from; i < to; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int sumShiftedSnippet(int[] a, int n) {
+        int sum = 0;
+        for (int i = 0; i <= n; i++) {
+            sum += a[i + 2];
+        }
+        return sum;
+    }
+
+    public static int sumDownSnippet(int[] a, int n) {
+        int sum = 0;
+        for (int i = n; i >= 0; i--) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static final class Holder {
+        public int[] values;
+
+        Holder(int[] values) {
+            this.values = values;
+        }
+    }
+
+    public static int sumFieldSnippet(Holder h, int n) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += h.values[i];
+        }
+        return sum;
+    }
+
+    public static int conditionalAccessSnippet(int[] a, int[] b, int n) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            if (a[i] > 0) {
+                sum += b[i];
+            }
+        }
+        return sum;
+    }
+
+    private static int[] ints(int length) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i % 3 == 0 ? -i : i;
+        }
+        return result;
+    }
+
+    private OptionValues predicationOptions() {
+        return new OptionValues(getInitialOptions(), GraalOptions.LoopPredication, true);
+    }
+
+    private static boolean isPredicatedReason(DeoptimizationReason reason) {
+        return reason == DeoptimizationReason.BoundsCheckException || reason == DeoptimizationReason.NullCheckException;
+    }
+
+    private void assertPredicated(String snippet) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES);
+        MidTierContext context = getDefaultMidTierContext();
+        CanonicalizerPhase canonicalizer = new CanonicalizerPhase();
+        canonicalizer.apply(graph, context);
+        new LoweringPhase(canonicalizer, LoweringTool.StandardLoweringStage.HIGH_TIER).apply(graph, context);
+        new FloatingReadPhase().apply(graph);
+        canonicalizer.apply(graph, context);
+
+        // PiNodes and floating reads that depend on a null or bounds check
+        Map<Node, DeoptimizationReason> guardedNodes = new HashMap<>();
+        for (Node node : graph.getNodes()) {
+            if (node instanceof GuardedNode && ((GuardedNode) node).getGuard() instanceof GuardNode) {
+                DeoptimizationReason reason = ((GuardNode) ((GuardedNode) node).getGuard()).getReason();
+                if (isPredicatedReason(reason)) {
+                    guardedNodes.put(node, reason);
+                }
+            }
+        }
+        assertTrue(!guardedNodes.isEmpty());
+
+        new LoopPredicationPhase().apply(graph, context);
+
+        ControlFlowGraph cfg = ControlFlowGraph.compute(graph, true, true, false, false);
+        int predicates = 0;
+        for (GuardNode guard : graph.getNodes().filter(GuardNode.class)) {
+            if (isPredicatedReason(guard.getReason())) {
+                assertTrue(guard + " is still in a loop", cfg.blockFor(guard.getAnchor().asNode()).getLoop() == null);
+                predicates++;
+            }
+        }
+        assertTrue(predicates > 0);
+
+        for (Map.Entry<Node, DeoptimizationReason> entry : guardedNodes.entrySet()) {
+            Node node = entry.getKey();
+            if (node.isDeleted()) {
+                continue;
+            }
+            GuardingNode guard = ((GuardedNode) node).getGuard();
+            assertTrue(node + " lost its guard", guard != null && guard.asNode().isAlive());
+            assertTrue(node + " is guarded by " + guard, guard instanceof GuardNode && ((GuardNode) guard).getReason() == entry.getValue());
+        }
+    }
+
+    @Test
+    public void testSumRange() {
+        assertPredicated("sumRangeSnippet");
+        test(predicationOptions(), "sumRangeSnippet", ints(10), 0, 10);
+        test(predicationOptions(), "sumRangeSnippet", ints(10), 3, 7);
+        test(predicationOptions(), "sumRangeSnippet", ints(10), 7, 3);
+        test(predicationOptions(), "sumRangeSnippet", ints(10), -1, 5);
+        test(predicationOptions(), "sumRangeSnippet", ints(10), 5, 11);
+        test(predicationOptions(), "sumRangeSnippet", null, 0, 0);
+        test(predicationOptions(), "sumRangeSnippet", null, 0, 1);
+        test(predicationOptions(), "sumRangeSnippet", ints(10), Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testSumShifted() {
+        assertPredicated("sumShiftedSnippet");
+        test(predicationOptions(), "sumShiftedSnippet", ints(10), 7);
+        test(predicationOptions(), "sumShiftedSnippet", ints(10), 8);
+        test(predicationOptions(), "sumShiftedSnippet", ints(10), -5);
+        test(predicationOptions(), "sumShiftedSnippet", ints(10), Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testSumDown() {
+        assertPredicated("sumDownSnippet");
+        test(predicationOptions(), "sumDownSnippet", ints(10), 9);
+        test(predicationOptions(), "sumDownSnippet", ints(10), 10);
+        test(predicationOptions(), "sumDownSnippet", ints(10), -1);
+    }
+
+    @Test
+    public void testSumField() {
+        assertPredicated("sumFieldSnippet");
+        test(predicationOptions(), "sumFieldSnippet", new Holder(ints(10)), 10);
+        test(predicationOptions(), "sumFieldSnippet", new Holder(ints(10)), 0);
+        test(predicationOptions(), "sumFieldSnippet", new Holder(ints(10)), 11);
+        test(predicationOptions(), "sumFieldSnippet", new Holder(null), 0);
+        test(predicationOptions(), "sumFieldSnippet", new Holder(null), 1);
+        test(predicationOptions(), "sumFieldSnippet", null, 0);
+        test(predicationOptions(), "sumFieldSnippet", null, 1);
+    }
+
+    @Test
+    public void testConditionalAccess() {
+        test(predicationOptions(), "conditionalAccessSnippet", ints(10), ints(10), 10);
+        test(predicationOptions(), "conditionalAccessSnippet", ints(10), ints(5), 10);
+        test(predicationOptions(), "conditionalAccessSnippet", ints(10), ints(3), 3);
+        test(predicationOptions(), "conditionalAccessSnippet", new int[]{-1, -2}, null, 2);
+    }
+}
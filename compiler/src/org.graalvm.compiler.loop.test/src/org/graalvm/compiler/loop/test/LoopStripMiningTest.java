@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import static org.graalvm.compiler.core.common.GraalOptions.LoopStripMining;
+import static org.graalvm.compiler.core.common.GraalOptions.LoopStripMiningIterations;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.loop.LoopsData;
+import org.graalvm.compiler.loop.phases.LoopSafepointEliminationPhase;
+import org.graalvm.compiler.loop.phases.LoopStripMiningPhase;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.LoopEndNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.RemoveValueProxyPhase;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
+import org.junit.Test;
+
+public class LoopStripMiningTest extends GraalCompilerTest {
+
+    private final OptionValues stripMining = new OptionValues(getInitialOptions(), LoopStripMining, true);
+    private final OptionValues fewIterations = new OptionValues(stripMining, LoopStripMiningIterations, 4);
+
+    public static int sumSnippet(int[] a, int n) {
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int searchSnippet(int[] a, int n, int key) {
+        int sum = 0;
+        for (int i = 0; i < n; i += 3) {
+            if (a[i] == key) {
+                return -i;
+            }
+            sum += a[i];
+        }
+        return sum;
+    }
+
+    public static int shortLoopSnippet(int x) {
+        int sum = 0;
+        for (int i = 0; i < 3; i++) {
+            sum += x;
+        }
+        return sum;
+    }
+
+    private static int[] ints(int length) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i * 7 % 11;
+        }
+        return result;
+    }
+
+    private StructuredGraph stripMine(String snippet, OptionValues options) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES, options);
+        MidTierContext context = getDefaultMidTierContext();
+        CanonicalizerPhase canonicalizer = new CanonicalizerPhase();
+        canonicalizer.apply(graph, context);
+        new RemoveValueProxyPhase().apply(graph);
+        new LoopStripMiningPhase().apply(graph, context);
+        canonicalizer.apply(graph, context);
+        new LoopSafepointEliminationPhase().apply(graph, context);
+        return graph;
+    }
+
+    private void assertStripMined(String snippet) {
+        StructuredGraph graph = stripMine(snippet, fewIterations);
+        assertDeepEquals(2, graph.getNodes(LoopBeginNode.TYPE).count());
+        LoopsData loops = new LoopsData(graph);
+        loops.detectedCountedLoops();
+        assertDeepEquals("inner loop should still be counted", 1, loops.countedLoops().size());
+        LoopBeginNode inner = loops.countedLoops().iterator().next().loopBegin();
+        for (LoopEndNode loopEnd : graph.getNodes().filter(LoopEndNode.class)) {
+            assertDeepEquals(loopEnd.loopBegin() != inner, loopEnd.canSafepoint());
+        }
+    }
+
+    @Test
+    public void testSum() {
+        assertStripMined("sumSnippet");
+        for (int n : new int[]{0, 1, 3, 4, 5, 8, 13, 100}) {
+            test(fewIterations, "sumSnippet", ints(100), n);
+        }
+        test(fewIterations, "sumSnippet", ints(10), 11);
+        test(fewIterations, "sumSnippet", ints(10), Integer.MIN_VALUE);
+    }
+
+    @Test
+    public void testSearch() {
+        assertStripMined("searchSnippet");
+        for (int n : new int[]{0, 1, 12, 13, 50}) {
+            test(fewIterations, "searchSnippet", ints(50), n, 3);
+            test(fewIterations, "searchSnippet", ints(50), n, -1);
+        }
+        test(fewIterations, "searchSnippet", ints(10), Integer.MAX_VALUE, -1);
+    }
+
+    @Test
+    public void testShortLoop() {
+        StructuredGraph graph = stripMine("shortLoopSnippet", stripMining);
+        assertDeepEquals(1, graph.getNodes(LoopBeginNode.TYPE).count());
+        test(stripMining, "shortLoopSnippet", 5);
+    }
+}
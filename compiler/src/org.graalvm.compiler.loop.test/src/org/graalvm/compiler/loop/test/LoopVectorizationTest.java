@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.loop.phases.LoopVectorizationPhase;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.java.ArrayElementwiseOpNode;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.junit.Test;
+
+public class LoopVectorizationTest extends GraalCompilerTest {
+
+    private static final int[] LENGTHS = {0, 1, 3, 7, 8, 9, 31, 32, 33, 100};
+
+    public static int[] addIntsSnippet(int[] a, int[] b, int n) {
+        int[] c = new int[a.length];
+        for (int i = 0; i < n; i++) {
+            c[i] = a[i] + b[i];
+        }
+        return c;
+    }
+
+    public static long[] xorLongsSnippet(long[] a, long[] b, int from, int to) {
+        long[] c = new long[a.length];
+        for (int i = from; i <= to; i++) {
+            c[i] = a[i] ^ b[i];
+        }
+        return c;
+    }
+
+    public static long[] mulLongsSnippet(long[] a, long[] b, int n) {
+        long[] c = new long[a.length];
+        for (int i = 0; i < n; i++) {
+            c[i] = a[i] * b[i];
+        }
+        return c;
+    }
+
+    public static double[] mulDoublesInPlaceSnippet(double[] a, double[] b, int n) {
+        for (int i = 0; i < n; i++) {
+            a[i] = a[i] * b[i];
+        }
+        return a;
+    }
+
+    public static float[] divFloatsSnippet(float[] a, float[] b, float[] c, int n) {
+        for (int i = 0; i < n; i++) {
+            c[i] = a[i] / b[i];
+        }
+        return c;
+    }
+
+    private static int sum;
+
+    public static void notVectorizableSnippet(int[] a, int[] b, int[] c, int n) {
+        for (int i = 0; i < n; i++) {
+            c[i] = a[i] + b[i];
+            sum += c[i];
+        }
+    }
+
+    private static int[] ints(int length) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i * 31 - 7;
+        }
+        return result;
+    }
+
+    private static long[] longs(int length) {
+        long[] result = new long[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i * 0x1234567890L;
+        }
+        return result;
+    }
+
+    private static double[] doubles(int length) {
+        double[] result = new double[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i * 1.5 - 3;
+        }
+        return result;
+    }
+
+    private static float[] floats(int length) {
+        float[] result = new float[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i + 0.25f;
+        }
+        return result;
+    }
+
+    private OptionValues vectorizationOptions() {
+        return new OptionValues(getInitialOptions(), GraalOptions.LoopVectorization, true);
+    }
+
+    private void assertVectorized(String snippet, boolean expected) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES);
+        new CanonicalizerPhase().apply(graph, getDefaultHighTierContext());
+        new LoopVectorizationPhase().apply(graph, getDefaultHighTierContext());
+        assertTrue(graph.getNodes().filter(ArrayElementwiseOpNode.class).isNotEmpty() == expected);
+    }
+
+    @Test
+    public void testAddInts() {
+        assertVectorized("addIntsSnippet", true);
+        for (int length : LENGTHS) {
+            test(vectorizationOptions(), "addIntsSnippet", ints(length), ints(length), length);
+        }
+        // out of bounds and null arrays must be handled by the scalar loop
+        test(vectorizationOptions(), "addIntsSnippet", ints(10), ints(5), 10);
+        test(vectorizationOptions(), "addIntsSnippet", ints(10), null, 10);
+        test(vectorizationOptions(), "addIntsSnippet", ints(10), ints(10), -3);
+    }
+
+    @Test
+    public void testXorLongs() {
+        assertVectorized("xorLongsSnippet", true);
+        for (int length : LENGTHS) {
+            test(vectorizationOptions(), "xorLongsSnippet", longs(length), longs(length), 0, length - 1);
+            test(vectorizationOptions(), "xorLongsSnippet", longs(length), longs(length), 1, length - 2);
+        }
+        test(vectorizationOptions(), "xorLongsSnippet", longs(10), longs(10), -1, 9);
+        test(vectorizationOptions(), "xorLongsSnippet", longs(10), longs(10), 0, 10);
+    }
+
+    @Test
+    public void testMulLongs() {
+        // there is no packed long multiplication, the loop must stay scalar
+        assertVectorized("mulLongsSnippet", false);
+        for (int length : LENGTHS) {
+            test(vectorizationOptions(), "mulLongsSnippet", longs(length), longs(length), length);
+        }
+    }
+
+    @Test
+    public void testMulDoublesInPlace() {
+        assertVectorized("mulDoublesInPlaceSnippet", true);
+        for (int length : LENGTHS) {
+            test(vectorizationOptions(), "mulDoublesInPlaceSnippet", doubles(length), doubles(length), length);
+        }
+    }
+
+    @Test
+    public void testDivFloats() {
+        assertVectorized("divFloatsSnippet", true);
+        for (int length : LENGTHS) {
+            test(vectorizationOptions(), "divFloatsSnippet", floats(length), floats(length), new float[length], length);
+        }
+    }
+
+    @Test
+    public void testNotVectorizable() {
+        assertVectorized("notVectorizableSnippet", false);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.loop.test;
+
+import static org.graalvm.compiler.core.common.GraalOptions.SpeculativeGuardMovement;
+
+import org.graalvm.compiler.code.CompilationResult;
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.loop.phases.SpeculativeGuardMovementPhase;
+import org.graalvm.compiler.nodes.GuardNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.spi.LoweringTool;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.common.FloatingReadPhase;
+import org.graalvm.compiler.phases.common.LoweringPhase;
+import org.graalvm.compiler.phases.tiers.MidTierContext;
+import org.junit.Test;
+
+import jdk.vm.ci.code.InstalledCode;
+import jdk.vm.ci.code.InvalidInstalledCodeException;
+import jdk.vm.ci.meta.DeoptimizationReason;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+import jdk.vm.ci.meta.SpeculationLog;
+
+public class SpeculativeGuardMovementTest extends GraalCompilerTest {
+
+    /**
+     * If non-null, the speculation log shared by all compilations so that a failed speculation is
+     * seen by the next compilation.
+     */
+    private SpeculationLog sharedSpeculationLog;
+
+    @Override
+    protected SpeculationLog getSpeculationLog() {
+        if (sharedSpeculationLog != null) {
+            return sharedSpeculationLog;
+        }
+        return getCodeCache().createSpeculationLog();
+    }
+
+    @Override
+    protected InstalledCode addMethod(DebugContext debug, ResolvedJavaMethod method, CompilationResult compilationResult) {
+        if (sharedSpeculationLog != null) {
+            // the VM records failed speculations in the log of the installed code
+            return getBackend().createInstalledCode(debug, method, compilationResult, sharedSpeculationLog, null, false);
+        }
+        return super.addMethod(debug, method, compilationResult);
+    }
+
+    private void testMoved(String snippet, Object... args) {
+        test(new OptionValues(getInitialOptions(), SpeculativeGuardMovement, true), snippet, args);
+    }
+
+    public static int conditionalCastSnippet(Object o, int[] a) {
+        int sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] > 0) {
+                sum += ((Integer) o).intValue();
+            }
+        }
+        return sum;
+    }
+
+    public static int nestedConditionalCastSnippet(Object o, int[][] a) {
+        int sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            for (int j = 0; j < a[i].length; j++) {
+                if (a[i][j] > 0) {
+                    sum += ((Integer) o).intValue();
+                }
+            }
+        }
+        return sum;
+    }
+
+    private static int[] ints(int length) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = i % 3 == 0 ? -i : i;
+        }
+        return result;
+    }
+
+    private void assertClassCastGuards(String snippet, boolean moved) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES);
+        MidTierContext context = getDefaultMidTierContext();
+        CanonicalizerPhase canonicalizer = new CanonicalizerPhase();
+        canonicalizer.apply(graph, context);
+        new LoweringPhase(canonicalizer, LoweringTool.StandardLoweringStage.HIGH_TIER).apply(graph, context);
+        new FloatingReadPhase().apply(graph);
+        canonicalizer.apply(graph, context);
+        new SpeculativeGuardMovementPhase().apply(graph, context);
+
+        ControlFlowGraph cfg = ControlFlowGraph.compute(graph, true, true, false, false);
+        int guards = 0;
+        for (GuardNode guard : graph.getNodes().filter(GuardNode.class)) {
+            if (guard.getReason() == DeoptimizationReason.ClassCastException) {
+                boolean inLoop = cfg.blockFor(guard.getAnchor().asNode()).getLoop() != null;
+                assertTrue(inLoop != moved, "%s is %s a loop", guard, inLoop ? "still in" : "not in");
+                guards++;
+            }
+        }
+        assertTrue(guards > 0);
+    }
+
+    private void assertMoved(String snippet) {
+        assertClassCastGuards(snippet, true);
+    }
+
+    @Test
+    public void testConditionalCast() {
+        assertMoved("conditionalCastSnippet");
+        testMoved("conditionalCastSnippet", 5, ints(10));
+        testMoved("conditionalCastSnippet", 5, new int[0]);
+        testMoved("conditionalCastSnippet", "string", ints(10));
+        testMoved("conditionalCastSnippet", "string", new int[]{-1, -2});
+        testMoved("conditionalCastSnippet", null, ints(10));
+    }
+
+    @Test
+    public void testNestedConditionalCast() {
+        assertMoved("nestedConditionalCastSnippet");
+        testMoved("nestedConditionalCastSnippet", 5, new int[][]{ints(4), ints(7)});
+        testMoved("nestedConditionalCastSnippet", "string", new int[][]{ints(4), ints(7)});
+        testMoved("nestedConditionalCastSnippet", "string", new int[][]{{-1}, {}});
+    }
+
+    @Test
+    public void testFailedSpeculation() throws InvalidInstalledCodeException {
+        sharedSpeculationLog = getCodeCache().createSpeculationLog();
+        try {
+            ResolvedJavaMethod method = getResolvedJavaMethod("conditionalCastSnippet");
+            OptionValues options = new OptionValues(getInitialOptions(), SpeculativeGuardMovement, true);
+            InstalledCode code = getCode(method, null, true, false, options);
+            // the hoisted cast fails although the loop never executes the cast
+            int[] negative = {-1, -2};
+            assertDeepEquals(0, code.executeVarargs("string", negative));
+            assertFalse(code.isValid());
+
+            // the failed speculation must keep the recompiled guard in the loop
+            sharedSpeculationLog.collectFailedSpeculations();
+            assertClassCastGuards("conditionalCastSnippet", false);
+            testMoved("conditionalCastSnippet", "string", negative);
+        } finally {
+            sharedSpeculationLog = null;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.microbenchmarks.graal;
+
+import java.util.HashMap;
+
+import org.graalvm.compiler.graph.Graph;
+import org.graalvm.compiler.microbenchmarks.graal.util.GraalState;
+import org.graalvm.compiler.microbenchmarks.graal.util.GraphState;
+import org.graalvm.compiler.microbenchmarks.graal.util.MethodSpec;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the memory used by graphs. Run with {@code -prof gc} and divide the reported
+ * {@code gc.alloc.rate.norm} (bytes per operation) by the {@code nodes} counter (nodes per
+ * operation) to obtain the number of bytes allocated per node.
+ */
+public class GraphMemoryBenchmark extends GraalBenchmark {
+
+    @MethodSpec(declaringClass = String.class, name = "equals")
+    public static class StringEquals extends GraphState {
+    }
+
+    @MethodSpec(declaringClass = HashMap.class, name = "putVal")
+    public static class HashMapPutVal extends GraphState {
+    }
+
+    /**
+     * Counts the number of live nodes produced by a benchmark.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class NodeCounter {
+        public long nodes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            nodes = 0;
+        }
+    }
+
+    private static StructuredGraph copy(StructuredGraph graph, GraalState g, NodeCounter c) {
+        StructuredGraph copy = (StructuredGraph) graph.copy(g.debug);
+        c.nodes += copy.getNodeCount();
+        return copy;
+    }
+
+    @Benchmark
+    public StructuredGraph copyStringEquals(StringEquals s, GraalState g, NodeCounter c) {
+        return copy(s.graph, g, c);
+    }
+
+    @Benchmark
+    public StructuredGraph copyHashMapPutVal(HashMapPutVal s, GraalState g, NodeCounter c) {
+        return copy(s.graph, g, c);
+    }
+
+    /**
+     * Measures canonicalization followed by {@linkplain Graph#maybeCompress() compression} which
+     * together determine how much memory a graph retains after nodes are deleted.
+     */
+    @Benchmark
+    public StructuredGraph canonicalizeAndCompress(HashMapPutVal s, GraalState g, NodeCounter c) {
+        StructuredGraph graph = s.graph;
+        new CanonicalizerPhase().apply(graph, new PhaseContext(g.providers));
+        graph.maybeCompress();
+        c.nodes += graph.getNodeCount();
+        return graph;
+    }
+}
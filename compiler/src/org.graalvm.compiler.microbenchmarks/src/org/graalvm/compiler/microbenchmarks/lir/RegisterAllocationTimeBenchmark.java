@@ -22,8 +22,18 @@
  */
 package org.graalvm.compiler.microbenchmarks.lir;
 
+import static org.graalvm.compiler.core.common.GraalOptions.TraceRA;
+import static org.graalvm.compiler.lir.alloc.trace.TraceRegisterAllocationPhase.Options.TraceRAParallel;
+import static org.graalvm.compiler.lir.alloc.trace.TraceRegisterAllocationPhase.Options.TraceRAParallelMinTraces;
+import static org.graalvm.compiler.lir.phases.EconomyAllocationStage.Options.EconomyFastRegisterAllocation;
+import static org.graalvm.compiler.lir.phases.EconomyAllocationStage.Options.EconomyFastRegisterAllocationThreshold;
+
 import org.graalvm.compiler.lir.gen.LIRGenerationResult;
+import org.graalvm.compiler.lir.phases.AllocationStage;
+import org.graalvm.compiler.lir.phases.EconomyAllocationStage;
+import org.graalvm.compiler.lir.phases.LIRSuites;
 import org.graalvm.compiler.microbenchmarks.graal.GraalBenchmark;
+import org.graalvm.compiler.options.OptionValues;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Param;
@@ -44,4 +54,56 @@ public class RegisterAllocationTimeBenchmark extends GraalBenchmark {
     public LIRGenerationResult allocateRegisters(State s) {
         return s.compile();
     }
+
+    /**
+     * Compares the {@link EconomyAllocationStage} with and without the fast register allocator.
+     */
+    public static class EconomyState extends GraalCompilerState.AllocationStage {
+        @MethodDescString @Param({
+                        "java.lang.String#equals",
+                        "java.util.HashMap#computeIfAbsent"
+        }) public String method;
+
+        @Param({"false", "true"}) public boolean fastAllocation;
+
+        @Override
+        protected LIRSuites createLIRSuites(OptionValues opts) {
+            LIRSuites suites = super.createLIRSuites(opts);
+            OptionValues allocationOptions = new OptionValues(opts, EconomyFastRegisterAllocation, fastAllocation, EconomyFastRegisterAllocationThreshold, 0);
+            return new LIRSuites(suites.getPreAllocationOptimizationStage(), new EconomyAllocationStage(allocationOptions), suites.getPostAllocationOptimizationStage());
+        }
+    }
+
+    @Benchmark
+    public LIRGenerationResult allocateRegistersEconomy(EconomyState s) {
+        return s.compile();
+    }
+
+    /**
+     * Compares sequential and parallel trace register allocation.
+     */
+    public static class ParallelTraceState extends GraalCompilerState.AllocationStage {
+        @MethodDescString @Param({
+                        "java.lang.String#equals",
+                        "java.util.HashMap#computeIfAbsent"
+        }) public String method;
+
+        @Param({"false", "true"}) public boolean parallel;
+
+        @Override
+        protected OptionValues getGraphOptions() {
+            return new OptionValues(super.getGraphOptions(), TraceRAParallel, parallel, TraceRAParallelMinTraces, 1);
+        }
+
+        @Override
+        protected LIRSuites createLIRSuites(OptionValues opts) {
+            LIRSuites suites = super.createLIRSuites(opts);
+            return new LIRSuites(suites.getPreAllocationOptimizationStage(), new AllocationStage(new OptionValues(opts, TraceRA, true)), suites.getPostAllocationOptimizationStage());
+        }
+    }
+
+    @Benchmark
+    public LIRGenerationResult allocateRegistersTrace(ParallelTraceState s) {
+        return s.compile();
+    }
 }
@@ -50,9 +50,10 @@ public final class EncodedGraph {
 
     /**
      * The "table of contents" of the encoded graph, i.e., the mapping from orderId numbers to the
-     * offset in the encoded byte[] array. Used as a cache during decoding.
+     * offset in the encoded byte[] array. Used as a cache during decoding. Volatile because encoded
+     * graphs can be shared by decoders running in different threads.
      */
-    protected int[] nodeStartOffsets;
+    protected volatile int[] nodeStartOffsets;
 
     public EncodedGraph(byte[] encoding, int startOffset, Object[] objects, NodeClass<?>[] types, StructuredGraph sourceGraph) {
         this(encoding, startOffset, objects, types, sourceGraph.getAssumptions(), sourceGraph.getMethods(), sourceGraph.getFields(), sourceGraph.hasUnsafeAccess(),
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.nodes.java;
+
+import static org.graalvm.compiler.nodeinfo.InputType.Memory;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_UNKNOWN;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_64;
+
+import org.graalvm.compiler.core.common.calc.ElementwiseBinaryOp;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.AbstractMemoryCheckpoint;
+import org.graalvm.compiler.nodes.memory.MemoryCheckpoint;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+/**
+ * Computes {@code result[i] = x[i] op y[i]} for a prefix of the index range {@code [start, end)}
+ * using vector instructions. The node evaluates to the first index that was not processed, which
+ * is {@code start} if the backend cannot vectorize the operation. The remaining elements have to be
+ * processed by scalar code.
+ * <p>
+ * The arrays must be non-null and the whole range {@code [start, end)} must be within the bounds
+ * of all three arrays. The result array may be the same as one of the input arrays since every
+ * element is read before it is written and only elements with the same index are combined.
+ */
+@NodeInfo(allowedUsageTypes = Memory, cycles = CYCLES_UNKNOWN, size = SIZE_64)
+public final class ArrayElementwiseOpNode extends AbstractMemoryCheckpoint implements LIRLowerable, MemoryCheckpoint.Single {
+
+    public static final NodeClass<ArrayElementwiseOpNode> TYPE = NodeClass.create(ArrayElementwiseOpNode.class);
+
+    protected final ElementwiseBinaryOp op;
+    protected final JavaKind elementKind;
+
+    @Input ValueNode result;
+    @Input ValueNode x;
+    @Input ValueNode y;
+    @Input ValueNode start;
+    @Input ValueNode end;
+
+    public ArrayElementwiseOpNode(ElementwiseBinaryOp op, JavaKind elementKind, ValueNode result, ValueNode x, ValueNode y, ValueNode start, ValueNode end) {
+        super(TYPE, StampFactory.forKind(JavaKind.Int));
+        assert op.supports(elementKind) : op + " " + elementKind;
+        this.op = op;
+        this.elementKind = elementKind;
+        this.result = result;
+        this.x = x;
+        this.y = y;
+        this.start = start;
+        this.end = end;
+    }
+
+    public ElementwiseBinaryOp getOp() {
+        return op;
+    }
+
+    public JavaKind getElementKind() {
+        return elementKind;
+    }
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        return NamedLocationIdentity.getArrayLocation(elementKind);
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        Value processedEnd = gen.getLIRGeneratorTool().emitArrayElementwiseOp(op, elementKind, gen.operand(result), gen.operand(x), gen.operand(y), gen.operand(start), gen.operand(end));
+        gen.setResult(this, processedEnd);
+    }
+}
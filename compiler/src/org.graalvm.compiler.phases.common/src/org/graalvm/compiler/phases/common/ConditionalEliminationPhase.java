@@ -1193,4 +1193,9 @@ public class ConditionalEliminationPhase extends BasePhase<PhaseContext> {
     public float codeSizeIncrease() {
         return 1.5f;
     }
+
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
 }
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.phases.common;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.collections.MapCursor;
+import org.graalvm.compiler.core.common.cfg.BlockMap;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.Position;
+import org.graalvm.compiler.nodeinfo.InputType;
+import org.graalvm.compiler.nodes.FloatingGuardedNode;
+import org.graalvm.compiler.nodes.LoopExitNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.ScheduleResult;
+import org.graalvm.compiler.nodes.cfg.Block;
+import org.graalvm.compiler.nodes.cfg.ControlFlowGraph;
+import org.graalvm.compiler.nodes.memory.FloatingReadNode;
+import org.graalvm.compiler.nodes.memory.MemoryCheckpoint;
+import org.graalvm.compiler.nodes.memory.ReadNode;
+import org.graalvm.compiler.nodes.util.GraphUtil;
+import org.graalvm.compiler.phases.Phase;
+import org.graalvm.compiler.phases.schedule.SchedulePhase;
+import org.graalvm.compiler.phases.schedule.SchedulePhase.SchedulingStrategy;
+import org.graalvm.word.LocationIdentity;
+
+/**
+ * Dominator tree based value numbering for nodes the {@linkplain CanonicalizerPhase canonicalizer}
+ * cannot merge. Pure floating nodes are already value numbered graph wide, but floating nodes that
+ * are only equal modulo their {@linkplain InputType#Guard guard} (e.g., {@link FloatingReadNode}s
+ * and {@link org.graalvm.compiler.nodes.PiNode}s anchored at different guards) and fixed
+ * {@link ReadNode}s created by lowering after the {@link FloatingReadPhase} are not.
+ *
+ * A floating guarded node is replaced by an equal node available in a dominating block. As the
+ * memory input of a floating read is part of its identity, two such reads see the same memory
+ * state. Fixed reads are replaced by an equal dominating fixed read if no
+ * {@linkplain MemoryCheckpoint memory checkpoint} killing the read location was encountered in
+ * between. Reads of mutable locations are forgotten at control flow merges and loop exits.
+ */
+public class GlobalValueNumberingPhase extends Phase {
+
+    private static final CounterKey counterFloatingNodesMerged = DebugContext.counter("GVN_MergedFloatingGuardedNodes");
+    private static final CounterKey counterFloatingReadsMerged = DebugContext.counter("GVN_MergedFloatingReads");
+    private static final CounterKey counterFixedReadsMerged = DebugContext.counter("GVN_MergedFixedReads");
+
+    /**
+     * Considers two nodes equal if they are of the same class, have equal data fields and the same
+     * inputs, not taking {@linkplain InputType#Guard guard} and {@linkplain InputType#State state}
+     * inputs into account.
+     */
+    private static final Equivalence IGNORING_GUARDS = new Equivalence() {
+        @Override
+        public boolean equals(Object a, Object b) {
+            Node x = (Node) a;
+            Node y = (Node) b;
+            if (x == y) {
+                return true;
+            }
+            if (x.getNodeClass() != y.getNodeClass() || !x.getNodeClass().dataEquals(x, y)) {
+                return false;
+            }
+            Iterator<Position> xPositions = x.inputPositions().iterator();
+            Iterator<Position> yPositions = y.inputPositions().iterator();
+            while (xPositions.hasNext()) {
+                if (!yPositions.hasNext()) {
+                    return false;
+                }
+                Position xPos = xPositions.next();
+                Position yPos = yPositions.next();
+                if (!xPos.equals(yPos)) {
+                    return false;
+                }
+                if (isIdentityInput(xPos) && xPos.get(x) != yPos.get(y)) {
+                    return false;
+                }
+            }
+            return !yPositions.hasNext();
+        }
+
+        @Override
+        public int hashCode(Object o) {
+            Node n = (Node) o;
+            int hash = n.getNodeClass().hashCode() * 31 + n.getNodeClass().valueNumber(n);
+            for (Position pos : n.inputPositions()) {
+                if (isIdentityInput(pos)) {
+                    Node input = pos.get(n);
+                    hash = hash * 31 + (input == null ? 0 : input.hashCode());
+                }
+            }
+            return hash;
+        }
+    };
+
+    private static boolean isIdentityInput(Position pos) {
+        InputType type = pos.getInputType();
+        return type != InputType.Guard && type != InputType.State;
+    }
+
+    @Override
+    @SuppressWarnings("try")
+    protected void run(StructuredGraph graph) {
+        DebugContext debug = graph.getDebug();
+        ControlFlowGraph cfg = ControlFlowGraph.compute(graph, true, true, true, true);
+        try (DebugContext.Scope scheduleScope = debug.scope(SchedulePhase.class)) {
+            SchedulePhase.run(graph, SchedulingStrategy.EARLIEST, cfg);
+        } catch (Throwable t) {
+            throw debug.handle(t);
+        }
+        ScheduleResult schedule = graph.getLastSchedule();
+        cfg.visitDominatorTree(new Instance(debug, schedule.getBlockToNodesMap()), graph.hasValueProxies());
+    }
+
+    private static final class Instance implements ControlFlowGraph.RecursiveVisitor<Integer> {
+
+        private final DebugContext debug;
+        private final BlockMap<List<Node>> blockToNodes;
+
+        /**
+         * Floating guarded nodes available in the current block, i.e., scheduled in a dominating
+         * block or earlier in the current block.
+         */
+        private final EconomicMap<Node, Node> floatingNodes = EconomicMap.create(IGNORING_GUARDS);
+
+        /**
+         * Fixed reads whose value is still valid at the current position.
+         */
+        private final EconomicMap<Node, Node> fixedReads = EconomicMap.create(IGNORING_GUARDS);
+
+        /**
+         * Undo log for {@link #floatingNodes} and {@link #fixedReads}. Each change is recorded as
+         * the map, the key and the value the key was previously mapped to.
+         */
+        private final List<Object> undoLog = new ArrayList<>();
+
+        Instance(DebugContext debug, BlockMap<List<Node>> blockToNodes) {
+            this.debug = debug;
+            this.blockToNodes = blockToNodes;
+        }
+
+        @Override
+        public Integer enter(Block b) {
+            int mark = undoLog.size();
+            if (b.getPredecessorCount() != 1 || b.getBeginNode() instanceof LoopExitNode) {
+                /*
+                 * Other paths into this block (or the loop body for a loop exit) may have killed
+                 * any mutable location.
+                 */
+                killFixedReads(LocationIdentity.any());
+            }
+            for (Node node : blockToNodes.get(b)) {
+                if (!node.isAlive()) {
+                    continue;
+                }
+                if (node instanceof FloatingGuardedNode) {
+                    processFloating(node);
+                } else if (node instanceof ReadNode) {
+                    processFixedRead((ReadNode) node);
+                } else if (node instanceof MemoryCheckpoint.Single) {
+                    killFixedReads(((MemoryCheckpoint.Single) node).getLocationIdentity());
+                } else if (node instanceof MemoryCheckpoint.Multi) {
+                    for (LocationIdentity identity : ((MemoryCheckpoint.Multi) node).getLocationIdentities()) {
+                        killFixedReads(identity);
+                    }
+                }
+            }
+            return mark;
+        }
+
+        @Override
+        public void exit(Block b, Integer mark) {
+            for (int i = undoLog.size() - 3; i >= mark; i -= 3) {
+                @SuppressWarnings("unchecked")
+                EconomicMap<Node, Node> map = (EconomicMap<Node, Node>) undoLog.get(i);
+                Node key = (Node) undoLog.get(i + 1);
+                Node previous = (Node) undoLog.get(i + 2);
+                if (previous == null) {
+                    map.removeKey(key);
+                } else {
+                    map.put(key, previous);
+                }
+            }
+            undoLog.subList(mark, undoLog.size()).clear();
+        }
+
+        private void put(EconomicMap<Node, Node> map, Node key, Node value) {
+            undoLog.add(map);
+            undoLog.add(key);
+            undoLog.add(map.put(key, value));
+        }
+
+        private void remove(EconomicMap<Node, Node> map, Node key) {
+            undoLog.add(map);
+            undoLog.add(key);
+            undoLog.add(map.removeKey(key));
+        }
+
+        private void processFloating(Node node) {
+            Node existing = floatingNodes.get(node);
+            if (existing == null || !existing.isAlive()) {
+                put(floatingNodes, node, node);
+                return;
+            }
+            debug.log(DebugContext.VERBOSE_LEVEL, "Replacing %s with dominating %s", node, existing);
+            counterFloatingNodesMerged.increment(debug);
+            if (node instanceof FloatingReadNode) {
+                counterFloatingReadsMerged.increment(debug);
+            }
+            node.replaceAtUsages(existing);
+            GraphUtil.killWithUnusedFloatingInputs(node);
+        }
+
+        private void processFixedRead(ReadNode read) {
+            Node existing = fixedReads.get(read);
+            if (existing == null || !existing.isAlive()) {
+                put(fixedReads, read, read);
+                return;
+            }
+            debug.log(DebugContext.VERBOSE_LEVEL, "Replacing %s with dominating %s", read, existing);
+            counterFixedReadsMerged.increment(debug);
+            read.replaceAtUsages(existing);
+            GraphUtil.removeFixedWithUnusedInputs(read);
+        }
+
+        private void killFixedReads(LocationIdentity killed) {
+            if (fixedReads.isEmpty()) {
+                return;
+            }
+            List<Node> toKill = null;
+            MapCursor<Node, Node> cursor = fixedReads.getEntries();
+            while (cursor.advance()) {
+                LocationIdentity location = ((ReadNode) cursor.getValue()).getLocationIdentity();
+                if (!location.isImmutable() && location.overlaps(killed)) {
+                    if (toKill == null) {
+                        toKill = new ArrayList<>();
+                    }
+                    toKill.add(cursor.getKey());
+                }
+            }
+            if (toKill != null) {
+                for (Node key : toKill) {
+                    remove(fixedReads, key);
+                }
+            }
+        }
+    }
+
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
+
+    @Override
+    public float codeSizeIncrease() {
+        return 1.0f;
+    }
+}
@@ -74,4 +74,9 @@ public class IterativeConditionalEliminationPhase extends BasePhase<PhaseContext
     public float codeSizeIncrease() {
         return 2.0f;
     }
+
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
 }
@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.phases.common;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.graalvm.collections.EconomicMap;
+import org.graalvm.collections.Equivalence;
+import org.graalvm.collections.UnmodifiableEconomicMap;
+import org.graalvm.compiler.core.common.type.Stamp;
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Graph.Mark;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.graph.NodeBitMap;
+import org.graalvm.compiler.nodes.AbstractBeginNode;
+import org.graalvm.compiler.nodes.AbstractMergeNode;
+import org.graalvm.compiler.nodes.BinaryOpLogicNode;
+import org.graalvm.compiler.nodes.ControlSinkNode;
+import org.graalvm.compiler.nodes.EndNode;
+import org.graalvm.compiler.nodes.FixedNode;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.FrameState;
+import org.graalvm.compiler.nodes.LoopBeginNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.PhiNode;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.UnaryOpLogicNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValuePhiNode;
+import org.graalvm.compiler.nodes.java.AccessMonitorNode;
+import org.graalvm.compiler.nodes.java.MethodCallTargetNode;
+import org.graalvm.compiler.nodes.type.StampTool;
+import org.graalvm.compiler.nodes.virtual.EscapeObjectState;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.options.OptionKey;
+import org.graalvm.compiler.options.OptionType;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.BasePhase;
+import org.graalvm.compiler.phases.contract.NodeCostUtil;
+import org.graalvm.compiler.phases.graph.FixedNodeProbabilityCache;
+import org.graalvm.compiler.phases.tiers.PhaseContext;
+
+/**
+ * Duplicates the code following a merge into those predecessors in which a phi input has a more
+ * precise stamp than the phi itself and this stamp allows a usage of the phi to be folded. Typical
+ * examples are {@code instanceof} checks, null checks and virtual calls on a value whose type or
+ * nullness is known in each predecessor but lost by the merge.
+ *
+ * Only straight-line tails are duplicated, i.e., the fixed nodes following the merge up to a
+ * {@link ControlSinkNode} or up to the {@link EndNode} of another merge. Tails that end in a
+ * control split are already handled by {@code IfNode.splitIfAtPhi} if the split only depends on
+ * phis. The size of each tail and the total graph growth are bounded by {@link Options}.
+ */
+public class TailDuplicationPhase extends BasePhase<PhaseContext> {
+
+    public static class Options {
+        // @formatter:off
+        @Option(help = "Maximum estimated size of a merge tail that is duplicated into a predecessor.", type = OptionType.Expert)
+        public static final OptionKey<Integer> TailDuplicationMaxTailSize = new OptionKey<>(40);
+        @Option(help = "Maximum growth of the graph size caused by tail duplication, relative to the size before the phase.", type = OptionType.Expert)
+        public static final OptionKey<Double> TailDuplicationMaxGrowth = new OptionKey<>(0.25);
+        @Option(help = "Minimum probability of a predecessor, relative to the merge, for a tail to be duplicated into it.", type = OptionType.Expert)
+        public static final OptionKey<Double> TailDuplicationMinProbability = new OptionKey<>(0.1);
+        // @formatter:on
+    }
+
+    private static final CounterKey DUPLICATED_TAILS = DebugContext.counter("TailDuplication_DuplicatedTails");
+    private static final CounterKey FOLDABLE_USAGES = DebugContext.counter("TailDuplication_FoldableUsages");
+    private static final CounterKey BUDGET_EXCEEDED = DebugContext.counter("TailDuplication_BudgetExceeded");
+
+    private final CanonicalizerPhase canonicalizer;
+
+    public TailDuplicationPhase(CanonicalizerPhase canonicalizer) {
+        this.canonicalizer = canonicalizer;
+    }
+
+    @Override
+    public boolean isOptional() {
+        return true;
+    }
+
+    @Override
+    public float codeSizeIncrease() {
+        return 2.0f;
+    }
+
+    @Override
+    protected void run(StructuredGraph graph, PhaseContext context) {
+        OptionValues options = graph.getOptions();
+        DebugContext debug = graph.getDebug();
+        int maxTailSize = Options.TailDuplicationMaxTailSize.getValue(options);
+        double minProbability = Options.TailDuplicationMinProbability.getValue(options);
+        // small graphs may always grow by at least one maximal tail
+        double budget = Math.max(NodeCostUtil.computeGraphSize(graph) * Options.TailDuplicationMaxGrowth.getValue(options), maxTailSize);
+
+        FixedNodeProbabilityCache probabilities = new FixedNodeProbabilityCache();
+        Mark mark = graph.getMark();
+        List<AbstractMergeNode> changedMerges = new ArrayList<>();
+        boolean changed = false;
+        for (AbstractMergeNode merge : graph.getNodes(AbstractMergeNode.TYPE).snapshot()) {
+            if (!merge.isAlive() || merge instanceof LoopBeginNode || graph.isNew(mark, merge)) {
+                continue;
+            }
+            List<EndNode> targets = selectTargets(merge, probabilities, minProbability);
+            if (targets.isEmpty()) {
+                continue;
+            }
+            List<FixedNode> tail = collectTail(merge);
+            if (tail == null) {
+                continue;
+            }
+            NodeBitMap duplicates = collectDuplicates(merge, tail);
+            if (duplicates == null) {
+                continue;
+            }
+            int tailSize = 0;
+            for (Node node : duplicates) {
+                tailSize += node.estimatedNodeSize().value;
+            }
+            if (tailSize > maxTailSize) {
+                continue;
+            }
+            if (tailSize * targets.size() > budget) {
+                BUDGET_EXCEEDED.increment(debug);
+                continue;
+            }
+            budget -= tailSize * targets.size();
+            changed = true;
+            for (EndNode end : targets) {
+                duplicateInto(merge, end, tail, duplicates);
+                DUPLICATED_TAILS.increment(debug);
+            }
+            debug.dump(DebugContext.VERY_DETAILED_LEVEL, graph, "After duplicating tail of %s into %d predecessors", merge, targets.size());
+            if (merge.forwardEndCount() == 1) {
+                graph.reduceTrivialMerge(merge);
+            } else {
+                changedMerges.add(merge);
+            }
+        }
+
+        if (changed) {
+            canonicalizer.applyIncremental(graph, context, changedMerges, mark);
+            new ConditionalEliminationPhase(false).apply(graph, context);
+        }
+    }
+
+    /**
+     * Determines the forward ends of {@code merge} that are likely enough and where at least one
+     * usage of a phi can be folded. If all ends qualify, the least likely one is dropped so that
+     * the merge keeps the original tail.
+     */
+    private static List<EndNode> selectTargets(AbstractMergeNode merge, FixedNodeProbabilityCache probabilities, double minProbability) {
+        List<EndNode> targets = new ArrayList<>();
+        if (merge.valuePhis().isEmpty()) {
+            return targets;
+        }
+        double mergeProbability = probabilities.applyAsDouble(merge);
+        EndNode leastLikely = null;
+        double leastProbability = Double.MAX_VALUE;
+        for (int i = 0; i < merge.forwardEndCount(); i++) {
+            EndNode end = merge.forwardEndAt(i);
+            double probability = probabilities.applyAsDouble(end);
+            if (probability < mergeProbability * minProbability) {
+                continue;
+            }
+            int foldable = countFoldableUsages(merge, i);
+            if (foldable > 0) {
+                FOLDABLE_USAGES.add(merge.getDebug(), foldable);
+                targets.add(end);
+                if (probability < leastProbability) {
+                    leastProbability = probability;
+                    leastLikely = end;
+                }
+            }
+        }
+        if (targets.size() == merge.forwardEndCount()) {
+            targets.remove(leastLikely);
+        }
+        return targets;
+    }
+
+    private static int countFoldableUsages(AbstractMergeNode merge, int index) {
+        int count = 0;
+        for (ValuePhiNode phi : merge.valuePhis()) {
+            Stamp inputStamp = phi.valueAt(index).stamp(NodeView.DEFAULT);
+            if (inputStamp.equals(phi.stamp(NodeView.DEFAULT))) {
+                continue;
+            }
+            for (Node usage : phi.usages()) {
+                if (isFoldableWith(usage, phi, inputStamp)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static boolean isFoldableWith(Node usage, ValuePhiNode phi, Stamp inputStamp) {
+        if (usage instanceof UnaryOpLogicNode) {
+            return ((UnaryOpLogicNode) usage).tryFold(inputStamp).isKnown();
+        } else if (usage instanceof BinaryOpLogicNode) {
+            BinaryOpLogicNode logic = (BinaryOpLogicNode) usage;
+            Stamp xStamp = logic.getX() == phi ? inputStamp : logic.getX().stamp(NodeView.DEFAULT);
+            Stamp yStamp = logic.getY() == phi ? inputStamp : logic.getY().stamp(NodeView.DEFAULT);
+            return logic.tryFold(xStamp, yStamp).isKnown();
+        } else if (usage instanceof MethodCallTargetNode) {
+            MethodCallTargetNode callTarget = (MethodCallTargetNode) usage;
+            return callTarget.invokeKind().isIndirect() && callTarget.receiver() == phi && StampTool.isExactType(inputStamp) && !StampTool.isExactType(phi);
+        }
+        return false;
+    }
+
+    /**
+     * Collects the fixed nodes following {@code merge} up to and including a control sink or the
+     * end of another (non-loop) merge.
+     *
+     * @return the tail or {@code null} if it contains control flow or nodes that cannot be
+     *         duplicated
+     */
+    private static List<FixedNode> collectTail(AbstractMergeNode merge) {
+        List<FixedNode> tail = new ArrayList<>();
+        FixedNode current = merge.next();
+        while (true) {
+            if (current instanceof ControlSinkNode) {
+                tail.add(current);
+                return tail;
+            } else if (current instanceof EndNode) {
+                if (((EndNode) current).merge() instanceof LoopBeginNode) {
+                    return null;
+                }
+                tail.add(current);
+                return tail;
+            } else if (!(current instanceof FixedWithNextNode) || current instanceof AbstractBeginNode || current instanceof AccessMonitorNode) {
+                return null;
+            }
+            if (merge.stateAfter() != null && current.inputs().contains(merge.stateAfter())) {
+                return null;
+            }
+            tail.add(current);
+            current = ((FixedWithNextNode) current).next();
+        }
+    }
+
+    /**
+     * Collects the tail and all floating nodes that (transitively) depend on the tail, the merge
+     * or its phis. All of these are dominated by the merge and have to be duplicated together
+     * with the tail.
+     *
+     * The frame states of the tail are always duplicated, even if they do not depend on a phi, so
+     * that each copy owns its states and a phase that modifies a state in place only affects one
+     * path.
+     */
+    private static NodeBitMap collectDuplicates(AbstractMergeNode merge, List<FixedNode> tail) {
+        NodeBitMap duplicates = merge.graph().createNodeBitMap();
+        ArrayDeque<Node> worklist = new ArrayDeque<>();
+        for (FixedNode fixed : tail) {
+            duplicates.mark(fixed);
+            worklist.add(fixed);
+        }
+        for (FixedNode fixed : tail) {
+            for (FrameState state : fixed.inputs().filter(FrameState.class)) {
+                if (!duplicates.isMarked(state)) {
+                    worklist.add(state);
+                    markFrameStates(duplicates, state);
+                }
+            }
+        }
+        worklist.add(merge);
+        for (PhiNode phi : merge.phis()) {
+            worklist.add(phi);
+        }
+        FrameState mergeState = merge.stateAfter();
+        while (!worklist.isEmpty()) {
+            Node current = worklist.remove();
+            for (Node usage : current.usages()) {
+                if (usage instanceof AbstractMergeNode && current instanceof EndNode) {
+                    // the successor merge of the tail gets a new end for each duplicate
+                    continue;
+                } else if (usage instanceof FixedNode) {
+                    if (!duplicates.isMarked(usage) && usage != merge) {
+                        return null;
+                    }
+                } else if (usage instanceof PhiNode || usage == mergeState || duplicates.isMarked(usage)) {
+                    continue;
+                } else {
+                    duplicates.mark(usage);
+                    worklist.add(usage);
+                }
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Marks {@code state}, its outer states and their virtual object mappings.
+     */
+    private static void markFrameStates(NodeBitMap duplicates, FrameState state) {
+        for (FrameState current = state; current != null && !duplicates.isMarked(current); current = current.outerFrameState()) {
+            duplicates.mark(current);
+            for (EscapeObjectState mapping : current.virtualObjectMappings()) {
+                duplicates.mark(mapping);
+            }
+        }
+    }
+
+    private static void duplicateInto(AbstractMergeNode merge, EndNode end, List<FixedNode> tail, NodeBitMap duplicates) {
+        StructuredGraph graph = merge.graph();
+        int index = merge.forwardEndIndex(end);
+        EconomicMap<Node, Node> replacements = EconomicMap.create(Equivalence.IDENTITY);
+        for (PhiNode phi : merge.phis()) {
+            replacements.put(phi, phi.valueAt(index));
+        }
+        replacements.put(merge, AbstractBeginNode.prevBegin(end));
+        UnmodifiableEconomicMap<Node, Node> duplicateMap = graph.addDuplicates(duplicates, graph, duplicates.count(), replacements);
+        assert verifyUnsharedStates(tail, duplicateMap);
+
+        FixedNode last = tail.get(tail.size() - 1);
+        if (last instanceof EndNode) {
+            EndNode originalEnd = (EndNode) last;
+            AbstractMergeNode successor = originalEnd.merge();
+            int successorIndex = successor.forwardEndIndex(originalEnd);
+            successor.addForwardEnd((EndNode) duplicateMap.get(originalEnd));
+            for (PhiNode phi : successor.phis()) {
+                ValueNode value = phi.valueAt(successorIndex);
+                Node replacement = duplicateMap.get(value);
+                if (replacement == null) {
+                    replacement = replacements.get(value);
+                }
+                phi.addInput(replacement != null ? (ValueNode) replacement : value);
+            }
+        }
+
+        end.replaceAtPredecessor(duplicateMap.get(tail.get(0)));
+        merge.removeEnd(end);
+        end.safeDelete();
+    }
+
+    private static boolean verifyUnsharedStates(List<FixedNode> tail, UnmodifiableEconomicMap<Node, Node> duplicateMap) {
+        for (FixedNode fixed : tail) {
+            for (FrameState state : duplicateMap.get(fixed).inputs().filter(FrameState.class)) {
+                assert !fixed.inputs().contains(state) : "frame state " + state + " of " + fixed + " is shared with its duplicate";
+            }
+        }
+        return true;
+    }
+}
@@ -51,6 +51,9 @@ public class InliningPhase extends AbstractInliningPhase {
          */
         @Option(help = "Per-compilation method inlining exploration limit before giving up (use 0 to disable)", type = OptionType.Debug)//
         public static final OptionKey<Integer> MethodInlineBailoutLimit = new OptionKey<>(5000);
+
+        @Option(help = "Use the benefit/cost based inlining policy instead of the greedy one", type = OptionType.Expert)//
+        public static final OptionKey<Boolean> BenefitCostInlining = new OptionKey<>(false);
     }
 
     private final InliningPolicy inliningPolicy;
@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.phases.common.inlining.policy;
+
+import static org.graalvm.compiler.core.common.GraalOptions.InlineEverything;
+import static org.graalvm.compiler.core.common.GraalOptions.MaximumDesiredSize;
+import static org.graalvm.compiler.core.common.GraalOptions.TraceInlining;
+import static org.graalvm.compiler.core.common.GraalOptions.TrivialInliningSize;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.graph.Graph;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.Invoke;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.spi.Replacements;
+import org.graalvm.compiler.options.Option;
+import org.graalvm.compiler.options.OptionKey;
+import org.graalvm.compiler.options.OptionType;
+import org.graalvm.compiler.options.OptionValues;
+import org.graalvm.compiler.phases.common.inlining.InliningUtil;
+import org.graalvm.compiler.phases.common.inlining.info.InlineInfo;
+import org.graalvm.compiler.phases.common.inlining.info.elem.Inlineable;
+import org.graalvm.compiler.phases.common.inlining.info.elem.InlineableGraph;
+import org.graalvm.compiler.phases.common.inlining.walker.MethodInvocation;
+import org.graalvm.compiler.phases.contract.NodeCostUtil;
+
+/**
+ * Inlining policy that weighs the estimated {@linkplain NodeCostUtil#computeGraphSize size} of a
+ * callee against the benefit of inlining it. The benefit of a call site grows with its execution
+ * frequency (e.g. if it is in a loop), with the number of constant arguments, which allow folding
+ * the callee, and with the number of freshly allocated arguments, which may become scalar
+ * replaceable by escape analysis after inlining. The callee graphs are
+ * {@linkplain InlineableGraph specialized} to the arguments before they are measured, so code that
+ * folds away due to constant arguments does not count towards the cost.
+ *
+ * Since the callees of a call site are explored before it is inlined, the cost of a call site
+ * includes everything that was inlined into its callees. Inlining stops once the estimated size of
+ * the graph that is inlined into would exceed {@link Options#InliningSizeBudget}.
+ */
+public class BenefitCostInliningPolicy extends AbstractInliningPolicy {
+
+    public static class Options {
+        // @formatter:off
+        @Option(help = "Maximum estimated size of a graph after inlining for the benefit/cost inlining policy.", type = OptionType.Expert)
+        public static final OptionKey<Integer> InliningSizeBudget = new OptionKey<>(40000);
+        @Option(help = "Estimated callee size that is inlined per unit of benefit of a call site.", type = OptionType.Expert)
+        public static final OptionKey<Double> InliningSizePerBenefit = new OptionKey<>(100.0);
+        @Option(help = "Benefit of each constant argument of a call site.", type = OptionType.Expert)
+        public static final OptionKey<Double> InliningConstantArgumentBenefit = new OptionKey<>(0.5);
+        @Option(help = "Benefit of each freshly allocated argument of a call site.", type = OptionType.Expert)
+        public static final OptionKey<Double> InliningAllocatedArgumentBenefit = new OptionKey<>(1.0);
+        @Option(help = "Maximum relative execution frequency of a call site that is taken into account.", type = OptionType.Expert)
+        public static final OptionKey<Double> InliningMaximumFrequency = new OptionKey<>(10.0);
+        // @formatter:on
+    }
+
+    private static final CounterKey inliningStoppedByMaxDesiredSizeCounter = DebugContext.counter("InliningStoppedByMaxDesiredSize");
+    private static final CounterKey inliningStoppedBySizeBudgetCounter = DebugContext.counter("InliningStoppedBySizeBudget");
+
+    /**
+     * The estimated size of a graph at a given {@linkplain Graph#getMark() mark}.
+     */
+    private static final class GraphSize {
+        final WeakReference<StructuredGraph> graph;
+        final int compressions;
+        final int totalNodesDeleted;
+        final Graph.Mark mark;
+        final int size;
+
+        GraphSize(StructuredGraph graph, int size) {
+            this.graph = new WeakReference<>(graph);
+            this.compressions = graph.getCompressions();
+            this.totalNodesDeleted = graph.getTotalNodesDeleted();
+            this.mark = graph.getMark();
+            this.size = size;
+        }
+
+        /**
+         * Determines if only nodes were added to {@code g} since this size was computed.
+         */
+        boolean isPrefixOf(StructuredGraph g) {
+            return graph.get() == g && compressions == g.getCompressions() && totalNodesDeleted == g.getTotalNodesDeleted();
+        }
+    }
+
+    /**
+     * The size of the caller graph that was measured last. The size of a caller is needed for
+     * every call site in it, so it is only measured again after nodes were added or removed. If
+     * nodes were only added, only the new nodes are measured. {@link GraphSize} objects are
+     * immutable, so a policy can be shared between compilations.
+     */
+    private volatile GraphSize lastCallerSize;
+
+    public BenefitCostInliningPolicy(Map<Invoke, Double> hints) {
+        super(hints);
+    }
+
+    @Override
+    public boolean continueInlining(StructuredGraph currentGraph) {
+        if (InliningUtil.getNodeCount(currentGraph) >= MaximumDesiredSize.getValue(currentGraph.getOptions())) {
+            DebugContext debug = currentGraph.getDebug();
+            InliningUtil.logInliningDecision(debug, "inlining is cut off by MaximumDesiredSize");
+            inliningStoppedByMaxDesiredSizeCounter.increment(debug);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Decision isWorthInlining(Replacements replacements, MethodInvocation invocation, int inliningDepth, boolean fullyProcessed) {
+        final boolean isTracing = TraceInlining.getValue(replacements.getOptions());
+        final InlineInfo info = invocation.callee();
+        OptionValues options = info.graph().getOptions();
+
+        if (InlineEverything.getValue(options)) {
+            InliningUtil.traceInlinedMethod(info, inliningDepth, fullyProcessed, "inline everything");
+            return InliningPolicy.Decision.YES.withReason(isTracing, "inline everything");
+        }
+
+        if (isIntrinsic(replacements, info)) {
+            InliningUtil.traceInlinedMethod(info, inliningDepth, fullyProcessed, "intrinsic");
+            return InliningPolicy.Decision.YES.withReason(isTracing, "intrinsic");
+        }
+
+        if (info.shouldInline()) {
+            InliningUtil.traceInlinedMethod(info, inliningDepth, fullyProcessed, "forced inlining");
+            return InliningPolicy.Decision.YES.withReason(isTracing, "forced inlining");
+        }
+
+        double inliningBonus = getInliningBonus(info);
+        int size = computeCalleeSize(info);
+
+        if (size < TrivialInliningSize.getValue(options) * inliningBonus) {
+            InliningUtil.traceInlinedMethod(info, inliningDepth, fullyProcessed, "trivial (size=%d, bonus=%f)", size, inliningBonus);
+            return InliningPolicy.Decision.YES.withReason(isTracing, "trivial (size=%d, bonus=%f)", size, inliningBonus);
+        }
+
+        if (fullyProcessed) {
+            // only measure the caller once the final size of the callee is known
+            int callerSize = computeCallerSize(info.graph());
+            int budget = Options.InliningSizeBudget.getValue(options);
+            if (callerSize + size > budget) {
+                inliningStoppedBySizeBudgetCounter.increment(info.graph().getDebug());
+                InliningUtil.traceNotInlinedMethod(info, inliningDepth, "size budget exceeded (size=%d, caller size=%d, budget=%d)", size, callerSize, budget);
+                return InliningPolicy.Decision.NO.withReason(isTracing, "size budget exceeded (size=%d, caller size=%d, budget=%d)", size, callerSize, budget);
+            }
+        }
+
+        double frequency = Math.min(invocation.probability(), Options.InliningMaximumFrequency.getValue(options));
+        int constantArguments = countConstantArguments(info.invoke());
+        int allocatedArguments = invocation.getSizeFreshArgs();
+        double benefit = frequency * (1 + constantArguments * Options.InliningConstantArgumentBenefit.getValue(options) +
+                        allocatedArguments * Options.InliningAllocatedArgumentBenefit.getValue(options)) * inliningBonus;
+        double maximumSize = benefit * Options.InliningSizePerBenefit.getValue(options);
+
+        if (size <= maximumSize) {
+            InliningUtil.traceInlinedMethod(info, inliningDepth, fullyProcessed, "benefit (size=%d <= %f, frequency=%f, constant args=%d, allocated args=%d, bonus=%f)", size, maximumSize,
+                            frequency, constantArguments, allocatedArguments, inliningBonus);
+            return InliningPolicy.Decision.YES.withReason(isTracing, "benefit (size=%d <= %f, frequency=%f, constant args=%d, allocated args=%d, bonus=%f)", size, maximumSize, frequency,
+                            constantArguments, allocatedArguments, inliningBonus);
+        }
+
+        InliningUtil.traceNotInlinedMethod(info, inliningDepth, "benefit (size=%d > %f, frequency=%f, constant args=%d, allocated args=%d, bonus=%f)", size, maximumSize, frequency,
+                        constantArguments, allocatedArguments, inliningBonus);
+        return InliningPolicy.Decision.NO.withReason(isTracing, "benefit (size=%d > %f, frequency=%f, constant args=%d, allocated args=%d, bonus=%f)", size, maximumSize, frequency,
+                        constantArguments, allocatedArguments, inliningBonus);
+    }
+
+    private int computeCallerSize(StructuredGraph graph) {
+        GraphSize last = lastCallerSize;
+        int size;
+        if (last != null && last.isPrefixOf(graph)) {
+            if (last.mark.isCurrent()) {
+                return last.size;
+            }
+            size = last.size;
+            for (Node node : graph.getNewNodes(last.mark)) {
+                size += node.estimatedNodeSize().value;
+            }
+        } else {
+            size = NodeCostUtil.computeGraphSize(graph);
+        }
+        lastCallerSize = new GraphSize(graph, size);
+        return size;
+    }
+
+    /**
+     * Computes the estimated size of all graphs that would be inlined for {@code info}.
+     */
+    private static int computeCalleeSize(InlineInfo info) {
+        int size = 0;
+        for (int i = 0; i < info.numberOfMethods(); i++) {
+            Inlineable callee = info.inlineableElementAt(i);
+            if (callee instanceof InlineableGraph) {
+                size += NodeCostUtil.computeGraphSize(((InlineableGraph) callee).getGraph());
+            } else {
+                size += callee.getNodeCount();
+            }
+        }
+        return size;
+    }
+
+    private static int countConstantArguments(Invoke invoke) {
+        int count = 0;
+        for (ValueNode argument : invoke.callTarget().arguments()) {
+            if (argument.isConstant()) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -469,6 +469,7 @@ public class InliningData {
             doInline(callerCallsiteHolder, calleeInvocation, decision.getReason());
             return true;
         }
+        calleeInfo.graph().getInliningLog().addDecision(calleeInfo.invoke(), false, "InliningPhase", null, null, decision.getReason());
 
         if (context.getOptimisticOptimizations().devirtualizeInvokes(calleeInfo.graph().getOptions())) {
             calleeInfo.tryToDevirtualizeInvoke(new Providers(context));
@@ -725,7 +726,7 @@ public class InliningData {
 
         final MethodInvocation currentInvocation = currentInvocation();
 
-        final boolean backtrack = (!currentInvocation.isRoot() && !inliningPolicy.isWorthInlining(context.getReplacements(), currentInvocation, inliningDepth(), false).shouldInline());
+        final boolean backtrack = !currentInvocation.isRoot() && !isWorthExploring(currentInvocation);
         if (backtrack) {
             int remainingGraphs = currentInvocation.totalGraphs() - currentInvocation.processedGraphs();
             assert remainingGraphs > 0;
@@ -768,6 +769,16 @@ public class InliningData {
         return false;
     }
 
+    private boolean isWorthExploring(MethodInvocation invocation) {
+        InliningPolicy.Decision decision = inliningPolicy.isWorthInlining(context.getReplacements(), invocation, inliningDepth(), false);
+        if (!decision.shouldInline()) {
+            InlineInfo info = invocation.callee();
+            info.graph().getInliningLog().addDecision(info.invoke(), false, "InliningPhase", null, null, decision.getReason());
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Checks an invariant that {@link #moveForward()} must maintain: "the top invocation records
      * how many concrete target methods (for it) remain on the {@link #graphQueue}; those targets
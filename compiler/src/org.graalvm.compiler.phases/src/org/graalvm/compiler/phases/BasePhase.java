@@ -24,6 +24,7 @@ package org.graalvm.compiler.phases;
 
 import java.util.regex.Pattern;
 
+import org.graalvm.compiler.core.common.util.CompilationBudget;
 import org.graalvm.compiler.debug.CounterKey;
 import org.graalvm.compiler.debug.DebugCloseable;
 import org.graalvm.compiler.debug.DebugContext;
@@ -42,6 +43,7 @@ import org.graalvm.compiler.options.OptionKey;
 import org.graalvm.compiler.options.OptionType;
 import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.phases.contract.NodeCostUtil;
+import org.graalvm.compiler.phases.contract.PhaseCostStatistics;
 import org.graalvm.compiler.phases.contract.PhaseSizeContract;
 
 /**
@@ -55,6 +57,9 @@ public abstract class BasePhase<C> implements PhaseSizeContract {
         // @formatter:off
         @Option(help = "Verify before - after relation of the relative, computed, code size of a graph", type = OptionType.Debug)
         public static final OptionKey<Boolean> VerifyGraalPhasesSize = new OptionKey<>(false);
+
+        @Option(help = "Accumulate per-phase execution time and node count growth across all compilations.", type = OptionType.Debug)
+        public static final OptionKey<Boolean> TrackPhaseCosts = new OptionKey<>(false);
         // @formatter:on
     }
 
@@ -79,6 +84,8 @@ public abstract class BasePhase<C> implements PhaseSizeContract {
      */
     private final MemUseTrackerKey memUseTracker;
 
+    private static final CounterKey skippedOverBudgetCount = DebugContext.counter("PhasesSkippedOverBudget");
+
     /** Lazy initialization to create pattern only when assertions are enabled. */
     static class NamePatternHolder {
         static final Pattern NAME_PATTERN = Pattern.compile("[A-Z][A-Za-z0-9]+");
@@ -177,10 +184,19 @@ public abstract class BasePhase<C> implements PhaseSizeContract {
     protected final void apply(final StructuredGraph graph, final C context, final boolean dumpGraph) {
         graph.checkCancellation();
         DebugContext debug = graph.getDebug();
+        OptionValues options = graph.getOptions();
+        boolean trackCosts = PhaseOptions.TrackPhaseCosts.getValue(options);
+        if (isOptional() && CompilationBudget.current().isExhausted()) {
+            skippedOverBudgetCount.increment(debug);
+            debug.log(DebugContext.BASIC_LEVEL, "Skipping %s: compilation budget exhausted", getName());
+            if (trackCosts) {
+                PhaseCostStatistics.recordSkipped(contractorName());
+            }
+            return;
+        }
         try (DebugCloseable a = timer.start(debug); DebugContext.Scope s = debug.scope(getClass(), this); DebugCloseable c = memUseTracker.start(debug)) {
             int sizeBefore = 0;
             Mark before = null;
-            OptionValues options = graph.getOptions();
             boolean verifySizeContract = PhaseOptions.VerifyGraalPhasesSize.getValue(options) && checkContract();
             if (verifySizeContract) {
                 sizeBefore = NodeCostUtil.computeGraphSize(graph);
@@ -191,8 +207,13 @@ public abstract class BasePhase<C> implements PhaseSizeContract {
             if (dumpGraph && debug.areScopesEnabled()) {
                 dumpedBefore = dumpBefore(graph, context, isTopLevel);
             }
-            inputNodesCount.add(debug, graph.getNodeCount());
+            int nodesBefore = graph.getNodeCount();
+            inputNodesCount.add(debug, nodesBefore);
+            long startNanos = trackCosts ? System.nanoTime() : 0;
             this.run(graph, context);
+            if (trackCosts) {
+                PhaseCostStatistics.record(contractorName(), System.nanoTime() - startNanos, nodesBefore, graph.getNodeCount());
+            }
             executionCount.increment(debug);
             if (verifySizeContract) {
                 if (!before.isCurrent()) {
@@ -284,6 +305,14 @@ public abstract class BasePhase<C> implements PhaseSizeContract {
 
     protected abstract void run(StructuredGraph graph, C context);
 
+    /**
+     * Determines if this phase only improves the quality of the generated code and can therefore
+     * be omitted once the current compilation has exhausted its {@link CompilationBudget}.
+     */
+    protected boolean isOptional() {
+        return false;
+    }
+
     @Override
     public String contractorName() {
         return getName().toString();
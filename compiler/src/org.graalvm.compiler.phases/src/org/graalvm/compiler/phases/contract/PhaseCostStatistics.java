@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.phases.contract;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Formatter;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process wide accumulation of the cost of each compiler phase across all compilations. For each
+ * phase this records the number of executions, the wall clock time spent (including nested
+ * phases), a histogram of execution times and the growth in live node count. Unlike the
+ * {@link org.graalvm.compiler.debug.DebugContext} metrics, these statistics are not tied to a debug
+ * scope and can be queried while the VM is running, e.g., through a management interface.
+ */
+public final class PhaseCostStatistics {
+
+    /**
+     * Number of buckets in the execution time histogram. Bucket {@code i} counts executions that
+     * took less than {@code 2^i} microseconds, the last bucket counts all longer executions.
+     */
+    public static final int HISTOGRAM_BUCKETS = 21;
+
+    public static final class PhaseCost {
+        private final String name;
+        private final LongAdder executions = new LongAdder();
+        private final LongAdder skipped = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final LongAdder nodeGrowth = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+        PhaseCost(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getExecutions() {
+            return executions.sum();
+        }
+
+        /**
+         * Gets the number of times the phase was not applied because the compilation exceeded its
+         * {@linkplain org.graalvm.compiler.core.common.util.CompilationBudget budget}.
+         */
+        public long getSkipped() {
+            return skipped.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Gets the sum of the difference in live node count before and after each execution.
+         */
+        public long getNodeGrowth() {
+            return nodeGrowth.sum();
+        }
+
+        public long[] getHistogram() {
+            long[] result = new long[HISTOGRAM_BUCKETS];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = histogram.get(i);
+            }
+            return result;
+        }
+
+        void add(long nanos, int nodesBefore, int nodesAfter) {
+            executions.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            nodeGrowth.add(nodesAfter - nodesBefore);
+            long micros = nanos / 1000;
+            int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), HISTOGRAM_BUCKETS - 1);
+            histogram.incrementAndGet(bucket);
+        }
+    }
+
+    private static final ConcurrentHashMap<String, PhaseCost> costs = new ConcurrentHashMap<>();
+
+    private PhaseCostStatistics() {
+    }
+
+    private static PhaseCost get(String phaseName) {
+        PhaseCost cost = costs.get(phaseName);
+        if (cost == null) {
+            cost = costs.computeIfAbsent(phaseName, PhaseCost::new);
+        }
+        return cost;
+    }
+
+    /**
+     * Records one execution of the phase named {@code phaseName}.
+     *
+     * @param nanos the wall clock time spent in the phase
+     * @param nodesBefore the live node count of the graph before the phase
+     * @param nodesAfter the live node count of the graph after the phase
+     */
+    public static void record(String phaseName, long nanos, int nodesBefore, int nodesAfter) {
+        get(phaseName).add(nanos, nodesBefore, nodesAfter);
+    }
+
+    /**
+     * Records that the phase named {@code phaseName} was skipped.
+     */
+    public static void recordSkipped(String phaseName) {
+        get(phaseName).skipped.increment();
+    }
+
+    /**
+     * Gets a snapshot of the statistics recorded so far, sorted by decreasing total time.
+     */
+    public static List<PhaseCost> getCosts() {
+        List<PhaseCost> result = new ArrayList<>(costs.values());
+        result.sort(Comparator.comparingLong(PhaseCost::getTotalNanos).reversed());
+        return result;
+    }
+
+    public static void reset() {
+        costs.clear();
+    }
+
+    /**
+     * Formats the recorded statistics as a table with one row per phase.
+     */
+    public static String format() {
+        StringBuilder sb = new StringBuilder();
+        try (Formatter f = new Formatter(sb)) {
+            f.format("%-60s %10s %8s %12s %12s %12s  %s%n", "Phase", "Executions", "Skipped", "Total[ms]", "Max[us]", "NodeGrowth", "Histogram[<2^i us]");
+            for (PhaseCost cost : getCosts()) {
+                long[] histogram = cost.getHistogram();
+                int last = histogram.length - 1;
+                while (last > 0 && histogram[last] == 0) {
+                    last--;
+                }
+                StringBuilder buckets = new StringBuilder();
+                for (int i = 0; i <= last; i++) {
+                    if (i != 0) {
+                        buckets.append(' ');
+                    }
+                    buckets.append(histogram[i]);
+                }
+                f.format("%-60s %10d %8d %12.3f %12d %12d  [%s]%n", cost.getName(), cost.getExecutions(), cost.getSkipped(), cost.getTotalNanos() / 1_000_000.0, cost.getMaxNanos() / 1000,
+                                cost.getNodeGrowth(), buckets);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -47,6 +47,7 @@ import org.graalvm.compiler.replacements.StandardGraphBuilderPlugins;
 import org.graalvm.compiler.replacements.nodes.BinaryMathIntrinsicNode;
 import org.graalvm.compiler.replacements.nodes.UnaryMathIntrinsicNode;
 import org.graalvm.compiler.replacements.nodes.UnaryMathIntrinsicNode.UnaryOperation;
+import org.graalvm.compiler.replacements.nodes.arithmetic.FusedMultiplyAddNode;
 import org.graalvm.word.LocationIdentity;
 
 import jdk.vm.ci.meta.JavaKind;
@@ -70,6 +71,7 @@ public class AArch64GraphBuilderPlugins {
                 // instructions of the proper width.
                 StandardGraphBuilderPlugins.registerPlatformSpecificUnsafePlugins(invocationPlugins, bytecodeProvider,
                                 new JavaKind[]{JavaKind.Int, JavaKind.Long, JavaKind.Object});
+                StandardGraphBuilderPlugins.registerPlatformSpecificStringCodingPlugins(invocationPlugins, bytecodeProvider);
             }
         });
     }
@@ -125,6 +127,40 @@ public class AArch64GraphBuilderPlugins {
         registerRound(r, "floor", RoundingMode.DOWN);
     }
 
+    /**
+     * Registers intrinsics for {@code Math.fma} that are compiled to a single {@code fmadd}
+     * instruction. This is not done by {@link #register} so that a runtime that does not want FMA
+     * instructions to be used, e.g. when HotSpot runs with {@code -XX:-UseFMA}, can leave them
+     * out.
+     */
+    public static void registerFMAPlugins(InvocationPlugins plugins) {
+        if (JAVA_SPECIFICATION_VERSION >= 9) {
+            plugins.defer(new Runnable() {
+                @Override
+                public void run() {
+                    registerFMA(new Registration(plugins, Math.class));
+                }
+            });
+        }
+    }
+
+    private static void registerFMA(Registration r) {
+        r.register3("fma", Double.TYPE, Double.TYPE, Double.TYPE, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode x, ValueNode y, ValueNode z) {
+                b.push(JavaKind.Double, b.append(FusedMultiplyAddNode.create(x, y, z)));
+                return true;
+            }
+        });
+        r.register3("fma", Float.TYPE, Float.TYPE, Float.TYPE, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode x, ValueNode y, ValueNode z) {
+                b.push(JavaKind.Float, b.append(FusedMultiplyAddNode.create(x, y, z)));
+                return true;
+            }
+        });
+    }
+
     private static void registerUnaryMath(Registration r, String name, UnaryOperation operation) {
         r.register1(name, Double.TYPE, new InvocationPlugin() {
             @Override
@@ -151,6 +187,7 @@ public class AArch64GraphBuilderPlugins {
             r.setAllowOverwrite(true);
             r.registerMethodSubstitution(AArch64StringLatin1Substitutions.class, "compareTo", byte[].class, byte[].class);
             r.registerMethodSubstitution(AArch64StringLatin1Substitutions.class, "compareToUTF16", byte[].class, byte[].class);
+            r.registerMethodSubstitution(AArch64StringLatin1Substitutions.class, "indexOf", byte[].class, int.class, int.class);
         }
     }
 
@@ -160,6 +197,7 @@ public class AArch64GraphBuilderPlugins {
             r.setAllowOverwrite(true);
             r.registerMethodSubstitution(AArch64StringUTF16Substitutions.class, "compareTo", byte[].class, byte[].class);
             r.registerMethodSubstitution(AArch64StringUTF16Substitutions.class, "compareToLatin1", byte[].class, byte[].class);
+            r.registerMethodSubstitution(AArch64StringUTF16Substitutions.class, "indexOfChar", byte[].class, int.class, int.class, int.class);
         }
     }
 
@@ -25,6 +25,7 @@ package org.graalvm.compiler.replacements.aarch64;
 import org.graalvm.compiler.api.replacements.ClassSubstitution;
 import org.graalvm.compiler.api.replacements.MethodSubstitution;
 import org.graalvm.compiler.replacements.nodes.ArrayCompareToNode;
+import org.graalvm.compiler.replacements.nodes.ArrayIndexOfNode;
 
 import jdk.vm.ci.meta.JavaKind;
 
@@ -56,4 +57,19 @@ public class AArch64StringLatin1Substitutions {
         return ArrayCompareToNode.compareTo(value, other, value.length, other.length, JavaKind.Byte, JavaKind.Char);
     }
 
+    @MethodSubstitution
+    public static int indexOf(byte[] value, int ch, int origFromIndex) {
+        if ((ch >>> 8) != 0) {
+            // cannot be encoded in Latin-1
+            return -1;
+        }
+        int fromIndex = origFromIndex;
+        if (fromIndex < 0) {
+            fromIndex = 0;
+        } else if (fromIndex >= value.length) {
+            return -1;
+        }
+        return ArrayIndexOfNode.indexOf(value, fromIndex, value.length, ch, JavaKind.Byte);
+    }
+
 }
@@ -24,8 +24,12 @@ package org.graalvm.compiler.replacements.aarch64;
 
 import org.graalvm.compiler.api.replacements.ClassSubstitution;
 import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
 import org.graalvm.compiler.replacements.nodes.ArrayCompareToNode;
+import org.graalvm.compiler.replacements.nodes.ArrayIndexOfNode;
 
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
 import jdk.vm.ci.meta.JavaKind;
 
 // JaCoCo Exclude
@@ -60,4 +64,19 @@ public class AArch64StringUTF16Substitutions {
         return ArrayCompareToNode.compareTo(other, value, other.length, value.length, JavaKind.Char, JavaKind.Byte);
     }
 
+    /**
+     * @param value is char[]
+     */
+    @MethodSubstitution
+    public static int indexOfChar(byte[] value, int ch, int fromIndex, int max) {
+        if ((ch >>> 16) != 0 || fromIndex >= max) {
+            return -1;
+        }
+        if (fromIndex < 0 || max > value.length >> 1) {
+            // out of bounds: leave it to the interpreter
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        return ArrayIndexOfNode.indexOf(value, fromIndex, max, ch, JavaKind.Char);
+    }
+
 }
@@ -36,33 +36,48 @@ import java.util.Arrays;
 
 import org.graalvm.compiler.bytecode.BytecodeProvider;
 import org.graalvm.compiler.lir.amd64.AMD64ArithmeticLIRGeneratorTool.RoundingMode;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.FixedGuardNode;
+import org.graalvm.compiler.nodes.LogicNode;
+import org.graalvm.compiler.nodes.NodeView;
 import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.IntegerLessThanNode;
+import org.graalvm.compiler.nodes.calc.SubNode;
 import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderConfiguration.Plugins;
 import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
 import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin;
 import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin.Receiver;
 import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
 import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins.Registration;
+import org.graalvm.compiler.nodes.java.ArrayLengthNode;
 import org.graalvm.compiler.nodes.java.AtomicReadAndAddNode;
 import org.graalvm.compiler.nodes.java.AtomicReadAndWriteNode;
+import org.graalvm.compiler.nodes.java.LoadFieldNode;
 import org.graalvm.compiler.nodes.memory.address.AddressNode;
 import org.graalvm.compiler.nodes.memory.address.OffsetAddressNode;
 import org.graalvm.compiler.replacements.ArraysSubstitutions;
+import org.graalvm.compiler.replacements.CRC32CSubstitutions;
+import org.graalvm.compiler.replacements.GHASHSubstitutions;
 import org.graalvm.compiler.replacements.IntegerSubstitutions;
 import org.graalvm.compiler.replacements.LongSubstitutions;
 import org.graalvm.compiler.replacements.StandardGraphBuilderPlugins;
 import org.graalvm.compiler.replacements.StandardGraphBuilderPlugins.UnsafeGetPlugin;
 import org.graalvm.compiler.replacements.StandardGraphBuilderPlugins.UnsafePutPlugin;
+import org.graalvm.compiler.replacements.nodes.AESCryptBlockNode;
 import org.graalvm.compiler.replacements.nodes.BinaryMathIntrinsicNode;
 import org.graalvm.compiler.replacements.nodes.BinaryMathIntrinsicNode.BinaryOperation;
 import org.graalvm.compiler.replacements.nodes.BitCountNode;
 import org.graalvm.compiler.replacements.nodes.UnaryMathIntrinsicNode;
 import org.graalvm.compiler.replacements.nodes.UnaryMathIntrinsicNode.UnaryOperation;
+import org.graalvm.compiler.replacements.nodes.arithmetic.FusedMultiplyAddNode;
 import org.graalvm.word.LocationIdentity;
 
 import jdk.vm.ci.amd64.AMD64;
 import jdk.vm.ci.amd64.AMD64.CPUFeature;
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
 import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaField;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 import sun.misc.Unsafe;
 
@@ -81,6 +96,7 @@ public class AMD64GraphBuilderPlugins {
                 registerStringPlugins(invocationPlugins, arch, replacementsBytecodeProvider);
                 registerStringLatin1Plugins(invocationPlugins, replacementsBytecodeProvider);
                 registerStringUTF16Plugins(invocationPlugins, replacementsBytecodeProvider);
+                StandardGraphBuilderPlugins.registerPlatformSpecificStringCodingPlugins(invocationPlugins, replacementsBytecodeProvider);
                 registerMathPlugins(invocationPlugins, arch, arithmeticStubs, replacementsBytecodeProvider);
                 registerArraysEqualsPlugins(invocationPlugins, replacementsBytecodeProvider);
             }
@@ -158,6 +174,39 @@ public class AMD64GraphBuilderPlugins {
         }
     }
 
+    /**
+     * Registers intrinsics for {@code Math.fma} that are compiled to a single FMA instruction. This
+     * is not done by {@link #register} so that a runtime that does not want FMA instructions to be
+     * used, e.g. when HotSpot runs with {@code -XX:-UseFMA}, can leave them out.
+     */
+    public static void registerFMAPlugins(InvocationPlugins plugins, AMD64 arch) {
+        if (JAVA_SPECIFICATION_VERSION >= 9 && arch.getFeatures().contains(CPUFeature.FMA)) {
+            plugins.defer(new Runnable() {
+                @Override
+                public void run() {
+                    registerFMA(new Registration(plugins, Math.class));
+                }
+            });
+        }
+    }
+
+    private static void registerFMA(Registration r) {
+        r.register3("fma", Double.TYPE, Double.TYPE, Double.TYPE, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode x, ValueNode y, ValueNode z) {
+                b.push(JavaKind.Double, b.append(FusedMultiplyAddNode.create(x, y, z)));
+                return true;
+            }
+        });
+        r.register3("fma", Float.TYPE, Float.TYPE, Float.TYPE, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode x, ValueNode y, ValueNode z) {
+                b.push(JavaKind.Float, b.append(FusedMultiplyAddNode.create(x, y, z)));
+                return true;
+            }
+        });
+    }
+
     private static void registerUnaryMath(Registration r, String name, UnaryOperation operation) {
         r.register1(name, Double.TYPE, new InvocationPlugin() {
             @Override
@@ -207,6 +256,8 @@ public class AMD64GraphBuilderPlugins {
             r.setAllowOverwrite(true);
             r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "compareTo", byte[].class, byte[].class);
             r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "compareToUTF16", byte[].class, byte[].class);
+            r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "inflate", byte[].class, int.class, char[].class, int.class, int.class);
+            r.registerMethodSubstitution(AMD64StringLatin1Substitutions.class, "inflate", byte[].class, int.class, byte[].class, int.class, int.class);
         }
     }
 
@@ -216,6 +267,8 @@ public class AMD64GraphBuilderPlugins {
             r.setAllowOverwrite(true);
             r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "compareTo", byte[].class, byte[].class);
             r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "compareToLatin1", byte[].class, byte[].class);
+            r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "compress", char[].class, int.class, byte[].class, int.class, int.class);
+            r.registerMethodSubstitution(AMD64StringUTF16Substitutions.class, "compress", byte[].class, int.class, byte[].class, int.class, int.class);
         }
     }
 
@@ -270,4 +323,102 @@ public class AMD64GraphBuilderPlugins {
         r.registerMethodSubstitution(ArraysSubstitutions.class, "equals", float[].class, float[].class);
         r.registerMethodSubstitution(ArraysSubstitutions.class, "equals", double[].class, double[].class);
     }
+
+    /**
+     * Registers substitutions for {@code java.util.zip.CRC32C} that are compiled inline using the
+     * SSE4.2 {@code crc32} instruction. This is not done by {@link #register} so that a runtime
+     * providing its own CRC32C stub can keep using it.
+     */
+    public static void registerCRC32CPlugins(InvocationPlugins plugins, BytecodeProvider bytecodeProvider, AMD64 arch) {
+        if (JAVA_SPECIFICATION_VERSION >= 9 && arch.getFeatures().contains(CPUFeature.SSE4_2)) {
+            plugins.defer(new Runnable() {
+                @Override
+                public void run() {
+                    Registration r = new Registration(plugins, "java.util.zip.CRC32C", bytecodeProvider);
+                    r.registerMethodSubstitution(CRC32CSubstitutions.class, "updateBytes", int.class, byte[].class, int.class, int.class);
+                    r.registerMethodSubstitution(CRC32CSubstitutions.class, "updateDirectByteBuffer", int.class, long.class, int.class, int.class);
+                }
+            });
+        }
+    }
+
+    /**
+     * Registers a plugin for the single block operations of {@code com.sun.crypto.provider.AESCrypt}
+     * that is compiled inline using the AES-NI instructions. The expanded key is read from the
+     * {@code K} field of the receiver so that no runtime specific field offset is needed. This is
+     * not done by {@link #register} so that a runtime providing its own AES stubs can keep using
+     * them.
+     */
+    public static void registerAESPlugins(InvocationPlugins plugins, BytecodeProvider bytecodeProvider, AMD64 arch) {
+        if (arch.getFeatures().contains(CPUFeature.AES) && arch.getFeatures().contains(CPUFeature.SSSE3)) {
+            plugins.defer(new Runnable() {
+                @Override
+                public void run() {
+                    Registration r = new Registration(plugins, "com.sun.crypto.provider.AESCrypt", bytecodeProvider);
+                    r.register5(Java8OrEarlier ? "encryptBlock" : "implEncryptBlock", Receiver.class, byte[].class, int.class, byte[].class, int.class, new AESCryptBlockPlugin(true));
+                    r.register5(Java8OrEarlier ? "decryptBlock" : "implDecryptBlock", Receiver.class, byte[].class, int.class, byte[].class, int.class, new AESCryptBlockPlugin(false));
+                }
+            });
+        }
+    }
+
+    private static final class AESCryptBlockPlugin implements InvocationPlugin {
+
+        private static final int AES_BLOCK_SIZE = 16;
+
+        private final boolean encrypt;
+
+        AESCryptBlockPlugin(boolean encrypt) {
+            this.encrypt = encrypt;
+        }
+
+        @Override
+        public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode in, ValueNode inOffset, ValueNode out, ValueNode outOffset) {
+            ResolvedJavaField keyField = null;
+            for (ResolvedJavaField field : targetMethod.getDeclaringClass().getInstanceFields(false)) {
+                if (field.getName().equals("K") && field.getType().getName().equals("[I")) {
+                    keyField = field;
+                    break;
+                }
+            }
+            if (keyField == null) {
+                return false;
+            }
+            ValueNode aesCrypt = receiver.get();
+            ValueNode key = b.nullCheckedValue(b.add(LoadFieldNode.create(b.getAssumptions(), aesCrypt, keyField)));
+            ValueNode nonNullIn = b.nullCheckedValue(in);
+            ValueNode nonNullOut = b.nullCheckedValue(out);
+            ValueNode keyLength = b.add(ArrayLengthNode.create(key, b.getConstantReflection()));
+            checkBlockBounds(b, nonNullIn, inOffset);
+            checkBlockBounds(b, nonNullOut, outOffset);
+            b.add(new AESCryptBlockNode(encrypt, nonNullIn, inOffset, nonNullOut, outOffset, key, keyLength));
+            return true;
+        }
+
+        private static void checkBlockBounds(GraphBuilderContext b, ValueNode array, ValueNode offset) {
+            ValueNode length = b.add(ArrayLengthNode.create(array, b.getConstantReflection()));
+            ValueNode lastOffset = b.add(SubNode.create(length, ConstantNode.forInt(AES_BLOCK_SIZE, b.getGraph()), NodeView.DEFAULT));
+            LogicNode negativeOffset = b.add(IntegerLessThanNode.create(offset, ConstantNode.forInt(0, b.getGraph()), NodeView.DEFAULT));
+            b.add(new FixedGuardNode(negativeOffset, DeoptimizationReason.BoundsCheckException, DeoptimizationAction.InvalidateReprofile, true));
+            LogicNode pastEnd = b.add(IntegerLessThanNode.create(lastOffset, offset, NodeView.DEFAULT));
+            b.add(new FixedGuardNode(pastEnd, DeoptimizationReason.BoundsCheckException, DeoptimizationAction.InvalidateReprofile, true));
+        }
+    }
+
+    /**
+     * Registers a substitution for {@code com.sun.crypto.provider.GHASH.processBlocks} that is
+     * compiled inline using the carry-less multiplication instruction. This is not done by
+     * {@link #register} so that a runtime providing its own GHASH stub can keep using it.
+     */
+    public static void registerGHASHPlugins(InvocationPlugins plugins, BytecodeProvider bytecodeProvider, AMD64 arch) {
+        if (arch.getFeatures().contains(CPUFeature.CLMUL) && arch.getFeatures().contains(CPUFeature.SSSE3)) {
+            plugins.defer(new Runnable() {
+                @Override
+                public void run() {
+                    Registration r = new Registration(plugins, "com.sun.crypto.provider.GHASH", bytecodeProvider);
+                    r.registerMethodSubstitution(GHASHSubstitutions.class, "processBlocks", byte[].class, int.class, int.class, long[].class, long[].class);
+                }
+            });
+        }
+    }
 }
@@ -24,8 +24,12 @@ package org.graalvm.compiler.replacements.amd64;
 
 import org.graalvm.compiler.api.replacements.ClassSubstitution;
 import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
 import org.graalvm.compiler.replacements.nodes.ArrayCompareToNode;
+import org.graalvm.compiler.replacements.nodes.StringInflateNode;
 
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
 import jdk.vm.ci.meta.JavaKind;
 
 // JaCoCo Exclude
@@ -56,4 +60,25 @@ public class AMD64StringLatin1Substitutions {
         return ArrayCompareToNode.compareTo(value, other, value.length, other.length, JavaKind.Byte, JavaKind.Char);
     }
 
+    @MethodSubstitution
+    public static void inflate(byte[] src, int srcIndex, char[] dest, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || srcIndex > src.length - len || destIndex < 0 || destIndex > dest.length - len) {
+            // out of bounds or negative length: leave it to the interpreter
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        StringInflateNode.inflate(src, srcIndex, dest, destIndex, len, JavaKind.Char);
+    }
+
+    /**
+     * @param dest is char[]
+     */
+    @MethodSubstitution
+    public static void inflate(byte[] src, int srcIndex, byte[] dest, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || srcIndex > src.length - len || destIndex < 0 || destIndex > (dest.length >> 1) - len) {
+            // out of bounds or negative length: leave it to the interpreter
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        StringInflateNode.inflate(src, srcIndex, dest, destIndex, len, JavaKind.Byte);
+    }
+
 }
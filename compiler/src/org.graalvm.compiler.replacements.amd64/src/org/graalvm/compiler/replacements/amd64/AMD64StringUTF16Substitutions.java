@@ -24,8 +24,12 @@ package org.graalvm.compiler.replacements.amd64;
 
 import org.graalvm.compiler.api.replacements.ClassSubstitution;
 import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
 import org.graalvm.compiler.replacements.nodes.ArrayCompareToNode;
+import org.graalvm.compiler.replacements.nodes.StringCompressNode;
 
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
 import jdk.vm.ci.meta.JavaKind;
 
 // JaCoCo Exclude
@@ -60,4 +64,25 @@ public class AMD64StringUTF16Substitutions {
         return ArrayCompareToNode.compareTo(other, value, other.length, value.length, JavaKind.Char, JavaKind.Byte);
     }
 
+    @MethodSubstitution
+    public static int compress(char[] src, int srcIndex, byte[] dest, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || srcIndex > src.length - len || destIndex < 0 || destIndex > dest.length - len) {
+            // out of bounds or negative length: leave it to the interpreter
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        return StringCompressNode.compress(src, srcIndex, dest, destIndex, len, JavaKind.Char);
+    }
+
+    /**
+     * @param src is char[]
+     */
+    @MethodSubstitution
+    public static int compress(byte[] src, int srcIndex, byte[] dest, int destIndex, int len) {
+        if (len < 0 || srcIndex < 0 || srcIndex > (src.length >> 1) - len || destIndex < 0 || destIndex > dest.length - len) {
+            // out of bounds or negative length: leave it to the interpreter
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        return StringCompressNode.compress(src, srcIndex, dest, destIndex, len, JavaKind.Byte);
+    }
+
 }
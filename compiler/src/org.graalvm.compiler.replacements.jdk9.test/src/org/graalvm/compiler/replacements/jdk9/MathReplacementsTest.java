@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.jdk9;
+
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.phases.common.CanonicalizerPhase;
+import org.graalvm.compiler.replacements.nodes.arithmetic.FusedMultiplyAddNode;
+import org.graalvm.compiler.replacements.test.MethodSubstitutionTest;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class MathReplacementsTest extends MethodSubstitutionTest {
+
+    public static double fmaDouble(double a, double b, double c) {
+        return Math.fma(a, b, c);
+    }
+
+    public static float fmaFloat(float a, float b, float c) {
+        return Math.fma(a, b, c);
+    }
+
+    public static double fmaDoubleConstant() {
+        return Math.fma(0.1, 10.0, -1.0);
+    }
+
+    public static float fmaFloatConstant() {
+        return Math.fma(0.1f, 10.0f, -1.0f);
+    }
+
+    public static double fmaDoubleOverflow() {
+        return Math.fma(Double.MAX_VALUE, 2.0, Double.NEGATIVE_INFINITY);
+    }
+
+    public static double fmaDoubleNaN() {
+        return Math.fma(Double.POSITIVE_INFINITY, 0.0, 1.0);
+    }
+
+    public static double fmaDoubleSignedZero() {
+        return Math.fma(-0.0, 0.0, -0.0);
+    }
+
+    public static double fmaDoubleUnderflow() {
+        return Math.fma(-Double.MIN_VALUE, 0.5, 0.0);
+    }
+
+    public static float fmaFloatUnderflow() {
+        return Math.fma(Float.MIN_VALUE, 0.5f, 0.0f);
+    }
+
+    public static long multiplyHigh(long a, long b) {
+        return Math.multiplyHigh(a, b);
+    }
+
+    public static long multiplyHighByOne(long a) {
+        return Math.multiplyHigh(a, 1L);
+    }
+
+    public static int negateExactInt(int a) {
+        return Math.negateExact(a);
+    }
+
+    public static long negateExactLong(long a) {
+        return Math.negateExact(a);
+    }
+
+    private boolean supportsFMA() {
+        // the plugin is only registered if the runtime allows FMA instructions
+        return getReplacements().getGraphBuilderPlugins().getInvocationPlugins().lookupInvocation(getResolvedJavaMethod(Math.class, "fma", double.class, double.class, double.class)) != null;
+    }
+
+    @Test
+    public void testFMA() {
+        Assume.assumeTrue(supportsFMA());
+        testGraph("fmaDouble");
+        testGraph("fmaFloat");
+        // these differ from a * b + c because the product is not rounded
+        test("fmaDouble", 0.1, 10.0, -1.0);
+        test("fmaFloat", 0.1f, 10.0f, -1.0f);
+        test("fmaDouble", Double.MAX_VALUE, 2.0, Double.NEGATIVE_INFINITY);
+        test("fmaDouble", Double.NaN, 1.0, 1.0);
+        test("fmaDouble", -0.0, 0.0, -0.0);
+        test("fmaFloat", Float.MIN_VALUE, 0.5f, 0.0f);
+    }
+
+    private void testFMAFolded(String snippet) {
+        StructuredGraph graph = parseEager(snippet, AllowAssumptions.YES);
+        new CanonicalizerPhase().apply(graph, getDefaultHighTierContext());
+        assertNotInGraph(graph, FusedMultiplyAddNode.class);
+        test(snippet);
+    }
+
+    @Test
+    public void testFMAConstantFolding() {
+        Assume.assumeTrue(supportsFMA());
+        testFMAFolded("fmaDoubleConstant");
+        testFMAFolded("fmaFloatConstant");
+        testFMAFolded("fmaDoubleOverflow");
+        testFMAFolded("fmaDoubleNaN");
+        testFMAFolded("fmaDoubleSignedZero");
+        testFMAFolded("fmaDoubleUnderflow");
+        testFMAFolded("fmaFloatUnderflow");
+    }
+
+    @Test
+    public void testMultiplyHigh() {
+        testGraph("multiplyHigh");
+        long[] values = {0, 1, -1, 3, Long.MAX_VALUE, Long.MIN_VALUE, 0x123456789ABCDEFL, -0x7EDCBA9876543210L};
+        for (long a : values) {
+            for (long b : values) {
+                test("multiplyHigh", a, b);
+            }
+            test("multiplyHighByOne", a);
+        }
+    }
+
+    @Test
+    public void testNegateExact() {
+        testGraph("negateExactInt");
+        testGraph("negateExactLong");
+        for (int a : new int[]{0, 1, -1, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+            test("negateExactInt", a);
+        }
+        for (long a : new long[]{0, 1, -1, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            test("negateExactLong", a);
+        }
+    }
+}
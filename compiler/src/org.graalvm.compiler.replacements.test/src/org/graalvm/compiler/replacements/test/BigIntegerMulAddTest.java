@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.test;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.graphbuilderconf.GraphBuilderContext;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugin;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
+import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins.Registration;
+import org.graalvm.compiler.replacements.nodes.BigIntegerMulAddNode;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import jdk.vm.ci.aarch64.AArch64;
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests the code emitted for {@link BigIntegerMulAddNode} against the Java implementation of
+ * {@code BigInteger.implMulAdd}, independent of whether the VM provides its own stub.
+ */
+public class BigIntegerMulAddTest extends GraalCompilerTest {
+
+    @Before
+    public void checkArchitecture() {
+        Assume.assumeTrue((getTarget().arch instanceof AMD64) || (getTarget().arch instanceof AArch64));
+    }
+
+    /**
+     * Reference implementation used by the interpreter. Compiled code uses
+     * {@link BigIntegerMulAddNode} instead.
+     */
+    public static int mulAdd(int[] out, int[] in, int outIndex, int len, int k) {
+        long kLong = k & 0xFFFFFFFFL;
+        long carry = 0;
+        int o = outIndex;
+        for (int j = len - 1; j >= 0; j--) {
+            long product = (in[j] & 0xFFFFFFFFL) * kLong + (out[o] & 0xFFFFFFFFL) + carry;
+            out[o--] = (int) product;
+            carry = product >>> 32;
+        }
+        return (int) carry;
+    }
+
+    @Override
+    protected void registerInvocationPlugins(InvocationPlugins invocationPlugins) {
+        Registration r = new Registration(invocationPlugins, BigIntegerMulAddTest.class);
+        r.register5("mulAdd", int[].class, int[].class, int.class, int.class, int.class, new InvocationPlugin() {
+            @Override
+            public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode out, ValueNode in, ValueNode outIndex, ValueNode len, ValueNode k) {
+                b.addPush(JavaKind.Int, new BigIntegerMulAddNode(out, in, outIndex, len, k));
+                return true;
+            }
+        });
+        super.registerInvocationPlugins(invocationPlugins);
+    }
+
+    public static int[] mulAddSnippet(int[] out, int[] in, int outIndex, int len, int k) {
+        int[] result = out.clone();
+        result[0] = mulAdd(result, in, outIndex, len, k);
+        return result;
+    }
+
+    private static int[] words(int length, int seed) {
+        int[] result = new int[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (i + seed) * 0x9E3779B9;
+        }
+        return result;
+    }
+
+    @Test
+    public void testMulAdd() {
+        int[] in = words(33, 1);
+        int[] out = words(70, 2);
+        for (int len = 0; len <= in.length; len += 4) {
+            test("mulAddSnippet", out, in, out.length - 1, len, 0x7FFFFFFF);
+            test("mulAddSnippet", out, in, len + 5, len, -1);
+            test("mulAddSnippet", out, in, out.length - 3, len, 3);
+        }
+    }
+
+    @Test
+    public void testMaxCarry() {
+        int[] ones = {-1, -1, -1, -1, -1, -1, -1, -1, -1};
+        test("mulAddSnippet", ones.clone(), ones, ones.length - 1, ones.length, -1);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2018, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.nodes.EncodedGraph;
+import org.graalvm.compiler.nodes.GraphEncoder;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.replacements.EncodedGraphCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import jdk.vm.ci.meta.Assumptions;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+public class EncodedGraphCacheTest extends GraalCompilerTest {
+
+    public static int snippet1(int a) {
+        return a + 1;
+    }
+
+    public static int snippet2(int a, int b) {
+        return a * b + snippet1(a);
+    }
+
+    private EncodedGraph encode(String name) {
+        return GraphEncoder.encodeSingleGraph(parseEager(name, AllowAssumptions.NO), getTarget().arch);
+    }
+
+    private static long sizeOf(EncodedGraph graph) {
+        return graph.getEncoding().length + 8L * graph.getObjects().length + 8L * graph.getNodeClasses().length;
+    }
+
+    @Test
+    public void testLookup() {
+        DebugContext debug = getDebugContext();
+        ResolvedJavaMethod method = getResolvedJavaMethod("snippet1");
+        EncodedGraph graph = encode("snippet1");
+        EncodedGraphCache cache = new EncodedGraphCache(1024 * 1024);
+
+        Assert.assertNull(cache.get(debug, method, false, AllowAssumptions.NO));
+        cache.put(debug, method, false, AllowAssumptions.NO, graph);
+        Assert.assertSame(graph, cache.get(debug, method, false, AllowAssumptions.NO));
+        Assert.assertNull(cache.get(debug, method, true, AllowAssumptions.NO));
+        Assert.assertNull(cache.get(debug, method, false, AllowAssumptions.YES));
+
+        Assert.assertEquals(1, cache.getEntryCount());
+        Assert.assertEquals(sizeOf(graph), cache.getMemoryUsage());
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(3, cache.getMisses());
+        Assert.assertEquals(0.25, cache.getHitRate(), 0);
+
+        cache.clear();
+        Assert.assertEquals(0, cache.getEntryCount());
+        Assert.assertEquals(0, cache.getMemoryUsage());
+    }
+
+    @Test
+    public void testEviction() {
+        DebugContext debug = getDebugContext();
+        ResolvedJavaMethod method1 = getResolvedJavaMethod("snippet1");
+        ResolvedJavaMethod method2 = getResolvedJavaMethod("snippet2");
+        EncodedGraph graph1 = encode("snippet1");
+        EncodedGraph graph2 = encode("snippet2");
+        EncodedGraphCache cache = new EncodedGraphCache(Math.max(sizeOf(graph1), sizeOf(graph2)));
+
+        cache.put(debug, method1, false, AllowAssumptions.NO, graph1);
+        cache.put(debug, method2, false, AllowAssumptions.NO, graph2);
+        Assert.assertNull(cache.get(debug, method1, false, AllowAssumptions.NO));
+        Assert.assertSame(graph2, cache.get(debug, method2, false, AllowAssumptions.NO));
+        Assert.assertEquals(1, cache.getEvictions());
+        Assert.assertEquals(sizeOf(graph2), cache.getMemoryUsage());
+
+        EncodedGraphCache tooSmall = new EncodedGraphCache(sizeOf(graph1) - 1);
+        tooSmall.put(debug, method1, false, AllowAssumptions.NO, graph1);
+        Assert.assertEquals(0, tooSmall.getEntryCount());
+    }
+
+    @Test
+    public void testInvalidateAssumptionDependentGraphs() {
+        DebugContext debug = getDebugContext();
+        ResolvedJavaMethod method1 = getResolvedJavaMethod("snippet1");
+        ResolvedJavaMethod method2 = getResolvedJavaMethod("snippet2");
+        EncodedGraph graph1 = encode("snippet1");
+        EncodedGraph graph2 = encode("snippet2");
+        Assumptions assumptions = new Assumptions();
+        assumptions.record(new Assumptions.LeafType(getMetaAccess().lookupJavaType(EncodedGraphCacheTest.class)));
+        EncodedGraph dependentGraph = new EncodedGraph(graph2.getEncoding(), graph2.getStartOffset(), graph2.getObjects(), graph2.getNodeClasses(), assumptions, graph2.getInlinedMethods(),
+                        graph2.getFields(), graph2.hasUnsafeAccess(), graph2.trackNodeSourcePosition());
+        EncodedGraphCache cache = new EncodedGraphCache(1024 * 1024);
+
+        cache.put(debug, method1, false, AllowAssumptions.YES, graph1);
+        cache.put(debug, method2, false, AllowAssumptions.YES, dependentGraph);
+        cache.invalidateAssumptionDependentGraphs();
+        Assert.assertSame(graph1, cache.get(debug, method1, false, AllowAssumptions.YES));
+        Assert.assertNull(cache.get(debug, method2, false, AllowAssumptions.YES));
+        Assert.assertEquals(sizeOf(graph1), cache.getMemoryUsage());
+    }
+
+    @Test
+    public void testConcurrentAccess() throws InterruptedException {
+        ResolvedJavaMethod[] methods = {getResolvedJavaMethod("snippet1"), getResolvedJavaMethod("snippet2")};
+        EncodedGraph[] graphs = {encode("snippet1"), encode("snippet2")};
+        EncodedGraphCache cache = new EncodedGraphCache(sizeOf(graphs[0]) + sizeOf(graphs[1]));
+        AtomicInteger mismatches = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                DebugContext debug = DebugContext.DISABLED;
+                for (int i = 0; i < 1000; i++) {
+                    int index = i % methods.length;
+                    boolean trackNodeSourcePosition = (i / methods.length) % 2 == 0;
+                    EncodedGraph graph = cache.get(debug, methods[index], trackNodeSourcePosition, AllowAssumptions.NO);
+                    if (graph == null) {
+                        cache.put(debug, methods[index], trackNodeSourcePosition, AllowAssumptions.NO, graphs[index]);
+                    } else if (graph != graphs[index]) {
+                        mismatches.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(0, mismatches.get());
+        Assert.assertTrue(cache.getMemoryUsage() <= sizeOf(graphs[0]) + sizeOf(graphs[1]));
+        Assert.assertEquals(4000, cache.getHits() + cache.getMisses());
+    }
+}
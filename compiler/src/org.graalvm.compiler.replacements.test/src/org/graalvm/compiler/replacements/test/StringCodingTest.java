@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.test;
+
+import static org.graalvm.compiler.serviceprovider.GraalServices.Java8OrEarlier;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.graalvm.compiler.graph.Node;
+import org.graalvm.compiler.nodes.StructuredGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+import org.graalvm.compiler.replacements.nodes.HasNegativesNode;
+import org.graalvm.compiler.replacements.nodes.StringCompressNode;
+import org.graalvm.compiler.replacements.nodes.StringInflateNode;
+import org.graalvm.compiler.replacements.nodes.VectorizedMismatchNode;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import jdk.vm.ci.aarch64.AArch64;
+import jdk.vm.ci.amd64.AMD64;
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * Tests the intrinsics for {@code StringCoding.hasNegatives}, {@code StringUTF16.compress},
+ * {@code StringLatin1.inflate} and {@code ArraysSupport.vectorizedMismatch}. The lengths used
+ * cover the vector loops, the word loops and the scalar tails of the generated code. The graphs of
+ * the JDK methods are checked for the intrinsic nodes, so that a missing intrinsic does not go
+ * unnoticed behind a correct result of the bytecode fallback.
+ */
+public class StringCodingTest extends GraalCompilerTest {
+
+    private static final int[] LENGTHS = {0, 1, 7, 8, 9, 15, 16, 17, 31, 32, 33, 63, 64, 65, 100};
+
+    public StringCodingTest() {
+        Assume.assumeFalse(Java8OrEarlier);
+        Assume.assumeTrue((getTarget().arch instanceof AMD64) || (getTarget().arch instanceof AArch64));
+    }
+
+    private ResolvedJavaMethod getJDKMethod(String className, String methodName, Class<?>... parameterTypes) {
+        try {
+            return getResolvedJavaMethod(Class.forName(className), methodName, parameterTypes);
+        } catch (ClassNotFoundException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Checks that the graph compiled for a JDK method with a method substitution contains
+     * {@code intrinsic}.
+     */
+    private void assertSubstituted(Class<? extends Node> intrinsic, String className, String methodName, Class<?>... parameterTypes) {
+        ResolvedJavaMethod method = getJDKMethod(className, methodName, parameterTypes);
+        StructuredGraph graph = getReplacements().getSubstitution(method, -1, false, null);
+        Assert.assertNotNull("no substitution for " + method.format("%H.%n(%p)"), graph);
+        Assert.assertTrue(intrinsic.getSimpleName() + " expected in " + method.format("%H.%n(%p)"), graph.getNodes().filter(intrinsic).isNotEmpty());
+    }
+
+    private static byte[] ascii(int length) {
+        byte[] result = new byte[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = (byte) ('a' + i % 26);
+        }
+        return result;
+    }
+
+    private static String latin1(int length) {
+        return new String(ascii(length), StandardCharsets.ISO_8859_1);
+    }
+
+    @Test
+    public void testHasNegativesIntrinsic() {
+        assertSubstituted(HasNegativesNode.class, "java.lang.StringCoding", "hasNegatives", byte[].class, int.class, int.class);
+    }
+
+    @Test
+    public void testCompressIntrinsic() {
+        Assume.assumeTrue(getTarget().arch instanceof AMD64);
+        assertSubstituted(StringCompressNode.class, "java.lang.StringUTF16", "compress", char[].class, int.class, byte[].class, int.class, int.class);
+        assertSubstituted(StringCompressNode.class, "java.lang.StringUTF16", "compress", byte[].class, int.class, byte[].class, int.class, int.class);
+    }
+
+    @Test
+    public void testInflateIntrinsic() {
+        Assume.assumeTrue(getTarget().arch instanceof AMD64);
+        assertSubstituted(StringInflateNode.class, "java.lang.StringLatin1", "inflate", byte[].class, int.class, char[].class, int.class, int.class);
+        assertSubstituted(StringInflateNode.class, "java.lang.StringLatin1", "inflate", byte[].class, int.class, byte[].class, int.class, int.class);
+    }
+
+    /**
+     * Parses {@code ArraysSupport.mismatch} for arrays of {@code elementType} with start indexes
+     * and checks that its call to {@code vectorizedMismatch} is intrinsified for the element size.
+     */
+    private void assertMismatchIntrinsified(Class<?> arrayType, int log2ElementSize) {
+        ResolvedJavaMethod method = getJDKMethod("jdk.internal.util.ArraysSupport", "mismatch", arrayType, int.class, arrayType, int.class, int.class);
+        StructuredGraph graph = parseEager(method, AllowAssumptions.YES);
+        Assert.assertTrue(arrayType.getSimpleName(), graph.getNodes().filter(VectorizedMismatchNode.class).isNotEmpty());
+        for (VectorizedMismatchNode mismatch : graph.getNodes().filter(VectorizedMismatchNode.class)) {
+            Assert.assertEquals(arrayType.getSimpleName(), log2ElementSize, mismatch.getLog2ElementSize());
+        }
+    }
+
+    @Test
+    public void testVectorizedMismatchIntrinsic() {
+        assertMismatchIntrinsified(boolean[].class, 0);
+        assertMismatchIntrinsified(byte[].class, 0);
+        assertMismatchIntrinsified(char[].class, 1);
+        assertMismatchIntrinsified(short[].class, 1);
+        assertMismatchIntrinsified(int[].class, 2);
+        assertMismatchIntrinsified(float[].class, 2);
+        assertMismatchIntrinsified(long[].class, 3);
+        assertMismatchIntrinsified(double[].class, 3);
+    }
+
+    public static String decodeUTF8(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testHasNegatives() {
+        for (int length : LENGTHS) {
+            byte[] bytes = ascii(length);
+            test("decodeUTF8", bytes);
+            for (int i = 0; i < length; i++) {
+                byte[] withNegative = bytes.clone();
+                withNegative[i] = (byte) 0xC4;
+                test("decodeUTF8", withNegative);
+            }
+        }
+    }
+
+    public static String compress(char[] chars) {
+        return new String(chars);
+    }
+
+    @Test
+    public void testCompress() {
+        for (int length : LENGTHS) {
+            char[] chars = latin1(length).toCharArray();
+            test("compress", chars);
+            for (int i = 0; i < length; i++) {
+                char[] withWide = chars.clone();
+                withWide[i] = '\u0100';
+                test("compress", withWide);
+            }
+        }
+    }
+
+    public static char[] inflate(String s) {
+        return s.toCharArray();
+    }
+
+    public static String inflateIntoUTF16(String a, String b) {
+        return a + b;
+    }
+
+    @Test
+    public void testInflate() {
+        for (int length : LENGTHS) {
+            String s = latin1(length);
+            test("inflate", s);
+            test("inflateIntoUTF16", "\u0100", s);
+        }
+    }
+
+    public static boolean bufferEquals(byte[] a, byte[] b) {
+        return ByteBuffer.wrap(a).equals(ByteBuffer.wrap(b));
+    }
+
+    @Test
+    public void testVectorizedMismatch() {
+        for (int length : LENGTHS) {
+            byte[] a = ascii(length);
+            test("bufferEquals", a, a.clone());
+            for (int i = 0; i < length; i++) {
+                byte[] b = a.clone();
+                b[i]++;
+                test("bufferEquals", a, b);
+            }
+        }
+    }
+
+    private static final int A_OFFSET = 1;
+    private static final int B_OFFSET = 3;
+
+    public static boolean byteBufferEquals(byte[] a, byte[] b, int length) {
+        return ByteBuffer.wrap(a, A_OFFSET, length).equals(ByteBuffer.wrap(b, B_OFFSET, length));
+    }
+
+    @Test
+    public void testVectorizedMismatchWithOffsets() {
+        for (int length : LENGTHS) {
+            byte[] a = new byte[A_OFFSET + length];
+            byte[] b = new byte[B_OFFSET + length];
+            System.arraycopy(ascii(length), 0, a, A_OFFSET, length);
+            System.arraycopy(ascii(length), 0, b, B_OFFSET, length);
+            test("byteBufferEquals", a, b, length);
+            for (int i = 0; i < length; i++) {
+                byte[] c = b.clone();
+                c[B_OFFSET + i]++;
+                test("byteBufferEquals", a, c, length);
+            }
+        }
+    }
+
+    public static boolean charArrayEquals(char[] a, char[] b) {
+        return Arrays.equals(a, b);
+    }
+
+    public static boolean charBufferEquals(char[] a, char[] b, int length) {
+        return CharBuffer.wrap(a, A_OFFSET, length).equals(CharBuffer.wrap(b, B_OFFSET, length));
+    }
+
+    @Test
+    public void testVectorizedMismatchChars() {
+        for (int length : LENGTHS) {
+            char[] a = new char[B_OFFSET + length];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = (char) (0x100 + i);
+            }
+            test("charArrayEquals", a, a.clone());
+            char[] b = new char[A_OFFSET + length];
+            System.arraycopy(a, B_OFFSET, b, A_OFFSET, length);
+            test("charBufferEquals", b, a, length);
+            for (int i = 0; i < length; i++) {
+                char[] c = a.clone();
+                c[B_OFFSET + i] ^= 0x8000;
+                test("charArrayEquals", a, c);
+                test("charBufferEquals", b, c, length);
+            }
+        }
+    }
+
+    public static boolean intArrayEquals(int[] a, int[] b) {
+        return Arrays.equals(a, b);
+    }
+
+    public static boolean intBufferEquals(int[] a, int[] b, int length) {
+        return IntBuffer.wrap(a, A_OFFSET, length).equals(IntBuffer.wrap(b, B_OFFSET, length));
+    }
+
+    @Test
+    public void testVectorizedMismatchInts() {
+        for (int length : LENGTHS) {
+            int[] a = new int[B_OFFSET + length];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = i * 0x01010101;
+            }
+            test("intArrayEquals", a, a.clone());
+            int[] b = new int[A_OFFSET + length];
+            System.arraycopy(a, B_OFFSET, b, A_OFFSET, length);
+            test("intBufferEquals", b, a, length);
+            for (int i = 0; i < length; i++) {
+                int[] c = a.clone();
+                c[B_OFFSET + i] ^= Integer.MIN_VALUE;
+                test("intArrayEquals", a, c);
+                test("intBufferEquals", b, c, length);
+            }
+        }
+    }
+
+    public static boolean longArrayEquals(long[] a, long[] b) {
+        return Arrays.equals(a, b);
+    }
+
+    public static boolean longBufferEquals(long[] a, long[] b, int length) {
+        return LongBuffer.wrap(a, A_OFFSET, length).equals(LongBuffer.wrap(b, B_OFFSET, length));
+    }
+
+    @Test
+    public void testVectorizedMismatchLongs() {
+        for (int length : LENGTHS) {
+            long[] a = new long[B_OFFSET + length];
+            for (int i = 0; i < a.length; i++) {
+                a[i] = i * 0x0101010101010101L;
+            }
+            test("longArrayEquals", a, a.clone());
+            long[] b = new long[A_OFFSET + length];
+            System.arraycopy(a, B_OFFSET, b, A_OFFSET, length);
+            test("longBufferEquals", b, a, length);
+            for (int i = 0; i < length; i++) {
+                long[] c = a.clone();
+                c[B_OFFSET + i] ^= Long.MIN_VALUE;
+                test("longArrayEquals", a, c);
+                test("longBufferEquals", b, c, length);
+            }
+        }
+    }
+
+    public static boolean doubleArrayEquals(double[] a, double[] b) {
+        return Arrays.equals(a, b);
+    }
+
+    @Test
+    public void testVectorizedMismatchDoubles() {
+        for (int length : LENGTHS) {
+            double[] a = new double[length];
+            for (int i = 0; i < length; i++) {
+                a[i] = i * 0.5;
+            }
+            test("doubleArrayEquals", a, a.clone());
+            for (int i = 0; i < length; i++) {
+                double[] c = a.clone();
+                c[i] = -c[i];
+                test("doubleArrayEquals", a, c);
+                c[i] = Double.NaN;
+                double[] d = a.clone();
+                d[i] = Double.longBitsToDouble(Double.doubleToRawLongBits(Double.NaN) + 1);
+                test("doubleArrayEquals", c, d);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.graalvm.compiler.core.test.GraalCompilerTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(value = Parameterized.class)
+public class StringIndexOfCharTest extends GraalCompilerTest {
+    @Parameterized.Parameter(value = 0) public String sourceString;
+    @Parameterized.Parameter(value = 1) public int constantChar;
+    @Parameterized.Parameter(value = 2) public int fromIndex;
+
+    @Parameterized.Parameters(name = "{0},{1},{2}")
+    public static Collection<Object[]> data() {
+        ArrayList<Object[]> tests = new ArrayList<>();
+        int[] targets = new int[]{0x0, 0x1, 'a', 0x7f, 0x80, 0xff, 0x100, 0x8000, 0xffff, 0x10000, -1};
+        String[] sources = new String[]{"", "a", "ab", "abcdefgh", "abcdefghi", "\u0100abcdefghijklmnopq", "\u0080\u00ff\u0100\u8000\uffff", "\u00ff\u0000"};
+        for (String source : sources) {
+            StringBuilder sb = new StringBuilder(source);
+            for (int i = 0; i < 3; i++) {
+                sb.append(sb);
+            }
+            for (String s : new String[]{source, sb.toString()}) {
+                for (int target : targets) {
+                    for (int from : new int[]{-1, 0, 1, 7, 8, 9, s.length() - 1, s.length(), s.length() + 1}) {
+                        tests.add(new Object[]{s, target, from});
+                    }
+                }
+                /* Make sure the match is found in the last, partially filled word. */
+                tests.add(new Object[]{s + "z", 'z', 0});
+            }
+        }
+        return tests;
+    }
+
+    public int testStringIndexOf(String a, int b) {
+        return a.indexOf(b);
+    }
+
+    public int testStringIndexOfOffset(String a, int b, int offset) {
+        return a.indexOf(b, offset);
+    }
+
+    @Test
+    public void testStringIndexOfChar() {
+        test("testStringIndexOf", this.sourceString, this.constantChar);
+    }
+
+    @Test
+    public void testStringIndexOfCharOffset() {
+        test("testStringIndexOfOffset", this.sourceString, this.constantChar, this.fromIndex);
+    }
+}
@@ -26,6 +26,7 @@ import static org.graalvm.compiler.nodes.graphbuilderconf.IntrinsicContext.Compi
 
 import org.graalvm.collections.EconomicMap;
 import org.graalvm.compiler.bytecode.BytecodeProvider;
+import org.graalvm.compiler.core.common.spi.ConstantFieldProvider;
 import org.graalvm.compiler.debug.DebugContext;
 import org.graalvm.compiler.graph.SourceLanguagePositionProvider;
 import org.graalvm.compiler.java.GraphBuilderPhase;
@@ -40,6 +41,7 @@ import org.graalvm.compiler.nodes.graphbuilderconf.InvocationPlugins;
 import org.graalvm.compiler.nodes.graphbuilderconf.LoopExplosionPlugin;
 import org.graalvm.compiler.nodes.graphbuilderconf.NodePlugin;
 import org.graalvm.compiler.nodes.graphbuilderconf.ParameterPlugin;
+import org.graalvm.compiler.options.OptionValues;
 import org.graalvm.compiler.phases.OptimisticOptimizations;
 import org.graalvm.compiler.phases.common.CanonicalizerPhase;
 import org.graalvm.compiler.phases.common.ConvertDeoptimizeToGuardPhase;
@@ -47,6 +49,8 @@ import org.graalvm.compiler.phases.tiers.PhaseContext;
 import org.graalvm.compiler.phases.util.Providers;
 
 import jdk.vm.ci.code.Architecture;
+import jdk.vm.ci.meta.JavaConstant;
+import jdk.vm.ci.meta.ResolvedJavaField;
 import jdk.vm.ci.meta.ResolvedJavaMethod;
 
 /**
@@ -60,11 +64,25 @@ public class CachingPEGraphDecoder extends PEGraphDecoder {
     protected final OptimisticOptimizations optimisticOpts;
     private final AllowAssumptions allowAssumptions;
     private final EconomicMap<ResolvedJavaMethod, EncodedGraph> graphCache;
+    private final EncodedGraphCache sharedGraphCache;
 
     public CachingPEGraphDecoder(Architecture architecture, StructuredGraph graph, Providers providers, GraphBuilderConfiguration graphBuilderConfig, OptimisticOptimizations optimisticOpts,
                     AllowAssumptions allowAssumptions, LoopExplosionPlugin loopExplosionPlugin, InvocationPlugins invocationPlugins, InlineInvokePlugin[] inlineInvokePlugins,
                     ParameterPlugin parameterPlugin,
                     NodePlugin[] nodePlugins, ResolvedJavaMethod callInlinedMethod, SourceLanguagePositionProvider sourceLanguagePositionProvider) {
+        this(architecture, graph, providers, graphBuilderConfig, optimisticOpts, allowAssumptions, loopExplosionPlugin, invocationPlugins, inlineInvokePlugins, parameterPlugin, nodePlugins,
+                        callInlinedMethod, sourceLanguagePositionProvider, null);
+    }
+
+    /**
+     * @param sharedGraphCache a cache shared with other decoders using the same
+     *            {@code graphBuilderConfig}, or {@code null} if graphs should only be cached for
+     *            the lifetime of this decoder
+     */
+    public CachingPEGraphDecoder(Architecture architecture, StructuredGraph graph, Providers providers, GraphBuilderConfiguration graphBuilderConfig, OptimisticOptimizations optimisticOpts,
+                    AllowAssumptions allowAssumptions, LoopExplosionPlugin loopExplosionPlugin, InvocationPlugins invocationPlugins, InlineInvokePlugin[] inlineInvokePlugins,
+                    ParameterPlugin parameterPlugin,
+                    NodePlugin[] nodePlugins, ResolvedJavaMethod callInlinedMethod, SourceLanguagePositionProvider sourceLanguagePositionProvider, EncodedGraphCache sharedGraphCache) {
         super(architecture, graph, providers.getMetaAccess(), providers.getConstantReflection(), providers.getConstantFieldProvider(), providers.getStampProvider(), loopExplosionPlugin,
                         invocationPlugins, inlineInvokePlugins, parameterPlugin, nodePlugins, callInlinedMethod, sourceLanguagePositionProvider);
 
@@ -73,11 +91,66 @@ public class CachingPEGraphDecoder extends PEGraphDecoder {
         this.optimisticOpts = optimisticOpts;
         this.allowAssumptions = allowAssumptions;
         this.graphCache = EconomicMap.create();
+        this.sharedGraphCache = sharedGraphCache;
     }
 
-    protected GraphBuilderPhase.Instance createGraphBuilderPhaseInstance(IntrinsicContext initialIntrinsicContext) {
-        return new GraphBuilderPhase.Instance(providers.getMetaAccess(), providers.getStampProvider(), providers.getConstantReflection(), providers.getConstantFieldProvider(), graphBuilderConfig,
-                        optimisticOpts, initialIntrinsicContext);
+    protected GraphBuilderPhase.Instance createGraphBuilderPhaseInstance(Providers parsingProviders, IntrinsicContext initialIntrinsicContext) {
+        return new GraphBuilderPhase.Instance(parsingProviders.getMetaAccess(), parsingProviders.getStampProvider(), parsingProviders.getConstantReflection(),
+                        parsingProviders.getConstantFieldProvider(), graphBuilderConfig, optimisticOpts, initialIntrinsicContext);
+    }
+
+    /**
+     * Records whether a field read was constant folded whose value can change later, i.e., a read
+     * of a non-final field such as a {@code @CompilationFinal} field, or of a stable array. Graphs
+     * with such folded values are only valid for the current compilation.
+     */
+    private static final class MutableStateRecorder implements ConstantFieldProvider {
+
+        private final ConstantFieldProvider delegate;
+        boolean foldedMutableState;
+
+        MutableStateRecorder(ConstantFieldProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <T> T readConstantField(ResolvedJavaField field, ConstantFieldTool<T> tool) {
+            T result = delegate.readConstantField(field, new ConstantFieldTool<T>() {
+
+                @Override
+                public OptionValues getOptions() {
+                    return tool.getOptions();
+                }
+
+                @Override
+                public JavaConstant readValue() {
+                    return tool.readValue();
+                }
+
+                @Override
+                public JavaConstant getReceiver() {
+                    return tool.getReceiver();
+                }
+
+                @Override
+                public T foldConstant(JavaConstant ret) {
+                    return tool.foldConstant(ret);
+                }
+
+                @Override
+                public T foldStableArray(JavaConstant ret, int stableDimensions, boolean isDefaultStable) {
+                    T folded = tool.foldStableArray(ret, stableDimensions, isDefaultStable);
+                    if (folded != null) {
+                        foldedMutableState = true;
+                    }
+                    return folded;
+                }
+            });
+            if (result != null && !field.isFinal()) {
+                foldedMutableState = true;
+            }
+            return result;
+        }
     }
 
     @SuppressWarnings("try")
@@ -86,10 +159,13 @@ public class CachingPEGraphDecoder extends PEGraphDecoder {
                         graphBuilderConfig.trackNodeSourcePosition()).method(method).build();
         try (DebugContext.Scope scope = debug.scope("createGraph", graphToEncode)) {
             IntrinsicContext initialIntrinsicContext = intrinsicBytecodeProvider != null ? new IntrinsicContext(originalMethod, method, intrinsicBytecodeProvider, INLINE_AFTER_PARSING) : null;
-            GraphBuilderPhase.Instance graphBuilderPhaseInstance = createGraphBuilderPhaseInstance(initialIntrinsicContext);
+            boolean shareable = sharedGraphCache != null && intrinsicBytecodeProvider == null;
+            MutableStateRecorder recorder = shareable ? new MutableStateRecorder(providers.getConstantFieldProvider()) : null;
+            Providers parsingProviders = shareable ? providers.copyWith(recorder) : providers;
+            GraphBuilderPhase.Instance graphBuilderPhaseInstance = createGraphBuilderPhaseInstance(parsingProviders, initialIntrinsicContext);
             graphBuilderPhaseInstance.apply(graphToEncode);
 
-            PhaseContext context = new PhaseContext(providers);
+            PhaseContext context = new PhaseContext(parsingProviders);
             new CanonicalizerPhase().apply(graphToEncode, context);
             /*
              * ConvertDeoptimizeToGuardPhase reduces the number of merges in the graph, so that
@@ -100,6 +176,9 @@ public class CachingPEGraphDecoder extends PEGraphDecoder {
 
             EncodedGraph encodedGraph = GraphEncoder.encodeSingleGraph(graphToEncode, architecture);
             graphCache.put(method, encodedGraph);
+            if (shareable && !recorder.foldedMutableState) {
+                sharedGraphCache.put(debug, method, graphBuilderConfig.trackNodeSourcePosition(), allowAssumptions, encodedGraph);
+            }
             return encodedGraph;
 
         } catch (Throwable ex) {
@@ -110,6 +189,12 @@ public class CachingPEGraphDecoder extends PEGraphDecoder {
     @Override
     protected EncodedGraph lookupEncodedGraph(ResolvedJavaMethod method, ResolvedJavaMethod originalMethod, BytecodeProvider intrinsicBytecodeProvider, boolean trackNodeSourcePosition) {
         EncodedGraph result = graphCache.get(method);
+        if (result == null && sharedGraphCache != null && intrinsicBytecodeProvider == null) {
+            result = sharedGraphCache.get(debug, method, graphBuilderConfig.trackNodeSourcePosition(), allowAssumptions);
+            if (result != null) {
+                graphCache.put(method, result);
+            }
+        }
         if (result == null && method.hasBytecodes()) {
             result = createGraph(method, originalMethod, intrinsicBytecodeProvider);
         }
@@ -0,0 +1,213 @@
+/*
+ * Copyright (c) 2018, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.graalvm.compiler.debug.CounterKey;
+import org.graalvm.compiler.debug.DebugContext;
+import org.graalvm.compiler.nodes.EncodedGraph;
+import org.graalvm.compiler.nodes.StructuredGraph.AllowAssumptions;
+
+import jdk.vm.ci.meta.ResolvedJavaMethod;
+
+/**
+ * A cache of {@link EncodedGraph encoded graphs} that is shared between
+ * {@linkplain CachingPEGraphDecoder graph decoders} running concurrently in different compilations.
+ * All decoders sharing a cache must parse methods with the same graph builder configuration and
+ * plugins, so that the encoded graph of a method only depends on the method itself. Graphs that
+ * constant folded a value that can change later, such as a {@code @CompilationFinal} field or a
+ * stable array element, must not be cached.
+ * <p>
+ * The cache is bounded by the {@linkplain #sizeOf(EncodedGraph) approximate size} of the cached
+ * graphs, the oldest entries are evicted first. Graphs that recorded assumptions can become invalid
+ * and must be {@linkplain #invalidateAssumptionDependentGraphs() dropped} when a compilation using
+ * them failed.
+ */
+public final class EncodedGraphCache {
+
+    private static final CounterKey CACHE_HITS = DebugContext.counter("EncodedGraphCache_Hits");
+    private static final CounterKey CACHE_MISSES = DebugContext.counter("EncodedGraphCache_Misses");
+    private static final CounterKey CACHE_EVICTIONS = DebugContext.counter("EncodedGraphCache_Evictions");
+
+    private static final class Key {
+        private final ResolvedJavaMethod method;
+        private final boolean trackNodeSourcePosition;
+        private final AllowAssumptions allowAssumptions;
+
+        Key(ResolvedJavaMethod method, boolean trackNodeSourcePosition, AllowAssumptions allowAssumptions) {
+            this.method = method;
+            this.trackNodeSourcePosition = trackNodeSourcePosition;
+            this.allowAssumptions = allowAssumptions;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj instanceof Key) {
+                Key that = (Key) obj;
+                return this.method.equals(that.method) && this.trackNodeSourcePosition == that.trackNodeSourcePosition && this.allowAssumptions == that.allowAssumptions;
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return method.hashCode() ^ (trackNodeSourcePosition ? 1 : 0) ^ allowAssumptions.hashCode();
+        }
+    }
+
+    private final long capacity;
+    private final ConcurrentHashMap<Key, EncodedGraph> graphs = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final Set<Key> assumptionDependentKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicLong size = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param capacity the maximum approximate size in bytes of all cached graphs
+     */
+    public EncodedGraphCache(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public EncodedGraph get(DebugContext debug, ResolvedJavaMethod method, boolean trackNodeSourcePosition, AllowAssumptions allowAssumptions) {
+        EncodedGraph result = graphs.get(new Key(method, trackNodeSourcePosition, allowAssumptions));
+        if (result != null) {
+            hits.incrementAndGet();
+            CACHE_HITS.increment(debug);
+        } else {
+            misses.incrementAndGet();
+            CACHE_MISSES.increment(debug);
+        }
+        return result;
+    }
+
+    public void put(DebugContext debug, ResolvedJavaMethod method, boolean trackNodeSourcePosition, AllowAssumptions allowAssumptions, EncodedGraph encodedGraph) {
+        long graphSize = sizeOf(encodedGraph);
+        if (graphSize > capacity) {
+            return;
+        }
+        Key key = new Key(method, trackNodeSourcePosition, allowAssumptions);
+        if (graphs.putIfAbsent(key, encodedGraph) == null) {
+            if (encodedGraph.getAssumptions() != null && !encodedGraph.getAssumptions().isEmpty()) {
+                assumptionDependentKeys.add(key);
+            }
+            insertionOrder.add(key);
+            size.addAndGet(graphSize);
+            evict(debug);
+        }
+    }
+
+    private void evict(DebugContext debug) {
+        while (size.get() > capacity) {
+            Key key = insertionOrder.poll();
+            if (key == null) {
+                break;
+            }
+            if (remove(key)) {
+                evictions.incrementAndGet();
+                CACHE_EVICTIONS.increment(debug);
+            }
+        }
+    }
+
+    private boolean remove(Key key) {
+        EncodedGraph removed = graphs.remove(key);
+        if (removed != null) {
+            assumptionDependentKeys.remove(key);
+            size.addAndGet(-sizeOf(removed));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Drops all graphs that recorded assumptions. Assumptions cannot be checked when a graph is
+     * looked up, so this must be called if a compilation that used graphs from this cache was
+     * bailed out, as the reason might be an invalidated assumption.
+     */
+    public void invalidateAssumptionDependentGraphs() {
+        for (Key key : assumptionDependentKeys) {
+            remove(key);
+        }
+    }
+
+    public void clear() {
+        insertionOrder.clear();
+        for (Key key : graphs.keySet()) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Approximates the memory retained by an encoded graph. Objects referenced from the graph are
+     * only accounted for with the size of a reference since they are usually shared with other
+     * graphs.
+     */
+    static long sizeOf(EncodedGraph encodedGraph) {
+        return encodedGraph.getEncoding().length + 8L * encodedGraph.getObjects().length + 8L * encodedGraph.getNodeClasses().length;
+    }
+
+    public int getEntryCount() {
+        return graphs.size();
+    }
+
+    /**
+     * Gets the approximate size in bytes of all cached graphs.
+     */
+    public long getMemoryUsage() {
+        return size.get();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Gets the fraction of lookups that were served from this cache.
+     */
+    public double getHitRate() {
+        long h = hits.get();
+        long total = h + misses.get();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EncodedGraphCache[entries=%d, bytes=%d, capacity=%d, hits=%d, misses=%d, hitRate=%.2f, evictions=%d]", getEntryCount(), getMemoryUsage(), capacity, getHits(),
+                        getMisses(), getHitRate(), getEvictions());
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements;
+
+import org.graalvm.compiler.api.replacements.ClassSubstitution;
+import org.graalvm.compiler.api.replacements.MethodSubstitution;
+import org.graalvm.compiler.nodes.DeoptimizeNode;
+import org.graalvm.compiler.replacements.nodes.GHASHProcessBlocksNode;
+
+import jdk.vm.ci.meta.DeoptimizationAction;
+import jdk.vm.ci.meta.DeoptimizationReason;
+
+// JaCoCo Exclude
+
+/**
+ * Substitutions for {@code com.sun.crypto.provider.GHASH} that are compiled to inline code by the
+ * backend instead of calling a VM-provided stub.
+ */
+@ClassSubstitution(className = "com.sun.crypto.provider.GHASH", optional = true)
+public class GHASHSubstitutions {
+
+    private static final int BLOCK_SIZE = 16;
+
+    @MethodSubstitution
+    static void processBlocks(byte[] data, int inOfs, int blocks, long[] st, long[] subH) {
+        if (inOfs < 0 || blocks < 0 || inOfs > data.length || blocks > (data.length - inOfs) / BLOCK_SIZE || st.length < 2 || subH.length < 2) {
+            // out of bounds: leave it to the interpreter
+            DeoptimizeNode.deopt(DeoptimizationAction.None, DeoptimizationReason.BoundsCheckException);
+        }
+        GHASHProcessBlocksNode.processBlocks(data, inOfs, blocks, st, subH);
+    }
+}
@@ -31,10 +31,12 @@ import static jdk.vm.ci.code.MemoryBarriers.LOAD_STORE;
 import static jdk.vm.ci.code.MemoryBarriers.STORE_LOAD;
 import static jdk.vm.ci.code.MemoryBarriers.STORE_STORE;
 import static org.graalvm.compiler.nodes.NamedLocationIdentity.OFF_HEAP_LOCATION;
+import static org.graalvm.compiler.serviceprovider.GraalServices.JAVA_SPECIFICATION_VERSION;
 import static org.graalvm.compiler.serviceprovider.GraalServices.Java8OrEarlier;
 
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
+import java.math.BigInteger;
 import java.util.Arrays;
 
 import org.graalvm.compiler.api.directives.GraalDirectives;
@@ -101,9 +103,11 @@ import org.graalvm.compiler.nodes.java.UnsafeCompareAndSwapNode;
 import org.graalvm.compiler.nodes.util.GraphUtil;
 import org.graalvm.compiler.nodes.virtual.EnsureVirtualizedNode;
 import org.graalvm.compiler.replacements.nodes.ReverseBytesNode;
+import org.graalvm.compiler.replacements.nodes.VectorizedMismatchNode;
 import org.graalvm.compiler.replacements.nodes.VirtualizableInvokeMacroNode;
 import org.graalvm.compiler.replacements.nodes.arithmetic.IntegerAddExactNode;
 import org.graalvm.compiler.replacements.nodes.arithmetic.IntegerMulExactNode;
+import org.graalvm.compiler.replacements.nodes.arithmetic.IntegerMulHighNode;
 import org.graalvm.compiler.replacements.nodes.arithmetic.IntegerSubExactNode;
 import org.graalvm.word.LocationIdentity;
 
@@ -282,6 +286,49 @@ public class StandardGraphBuilderPlugins {
         }
     }
 
+    /**
+     * Registers the plugins for the array and string coding intrinsics added in JDK 9. They are
+     * only registered by platforms whose LIR generator implements the corresponding operations.
+     */
+    public static void registerPlatformSpecificStringCodingPlugins(InvocationPlugins plugins, BytecodeProvider bytecodeProvider) {
+        if (JAVA_SPECIFICATION_VERSION >= 9) {
+            Registration r = new Registration(plugins, "jdk.internal.util.ArraysSupport", bytecodeProvider);
+            r.register6("vectorizedMismatch", Object.class, long.class, Object.class, long.class, int.class, int.class, new InvocationPlugin() {
+                @Override
+                public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode aObject, ValueNode aOffset, ValueNode bObject, ValueNode bOffset,
+                                ValueNode length, ValueNode log2ArrayIndexScale) {
+                    if (!log2ArrayIndexScale.isJavaConstant()) {
+                        // the element size is encoded in the generated code
+                        return false;
+                    }
+                    int log2ElementSize = log2ArrayIndexScale.asJavaConstant().asInt();
+                    if (log2ElementSize < 0 || log2ElementSize > 3) {
+                        return false;
+                    }
+                    b.addPush(JavaKind.Int, new VectorizedMismatchNode(aObject, aOffset, bObject, bOffset, length, log2ElementSize));
+                    b.getGraph().markUnsafeAccess();
+                    return true;
+                }
+            });
+
+            r = new Registration(plugins, "java.lang.StringCoding", bytecodeProvider);
+            r.registerMethodSubstitution(StringCodingSubstitutions.class, "hasNegatives", byte[].class, int.class, int.class);
+        }
+    }
+
+    /**
+     * Registers the {@link BigIntegerSubstitutions}. These are not registered by the platform
+     * plugins themselves so that a runtime providing its own BigInteger stubs can keep using them.
+     * They must only be registered for platforms whose LIR generator implements the corresponding
+     * operations.
+     */
+    public static void registerPlatformSpecificBigIntegerPlugins(InvocationPlugins plugins, BytecodeProvider bytecodeProvider) {
+        if (JAVA_SPECIFICATION_VERSION >= 9) {
+            Registration r = new Registration(plugins, BigInteger.class, bytecodeProvider);
+            r.registerMethodSubstitution(BigIntegerSubstitutions.class, "implMulAdd", int[].class, int[].class, int.class, int.class, int.class);
+        }
+    }
+
     private static void registerUnsafePlugins(InvocationPlugins plugins, BytecodeProvider bytecodeProvider) {
         Registration r;
         if (Java8OrEarlier) {
@@ -497,8 +544,25 @@ public class StandardGraphBuilderPlugins {
                         return true;
                     }
                 });
+
+                r.register1("negateExact", type, new InvocationPlugin() {
+                    @Override
+                    public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode x) {
+                        b.addPush(kind, new IntegerSubExactNode(ConstantNode.forIntegerKind(kind, 0), x));
+                        return true;
+                    }
+                });
             }
         }
+        if (JAVA_SPECIFICATION_VERSION >= 9) {
+            r.register2("multiplyHigh", Long.TYPE, Long.TYPE, new InvocationPlugin() {
+                @Override
+                public boolean apply(GraphBuilderContext b, ResolvedJavaMethod targetMethod, Receiver receiver, ValueNode x, ValueNode y) {
+                    b.addPush(JavaKind.Long, new IntegerMulHighNode(x, y));
+                    return true;
+                }
+            });
+        }
         r.register1("abs", Float.TYPE, new InvocationPlugin() {
 
             @Override
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.nodes;
+
+import static org.graalvm.compiler.nodeinfo.InputType.Memory;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_UNKNOWN;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_64;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.AbstractMemoryCheckpoint;
+import org.graalvm.compiler.nodes.memory.MemoryCheckpoint;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+
+// JaCoCo Exclude
+
+/**
+ * Encrypts or decrypts one 16 byte block, as done by
+ * {@code com.sun.crypto.provider.AESCrypt.implEncryptBlock} and {@code implDecryptBlock}. The
+ * blocks must be within the bounds of {@code in} and {@code out}, and {@code key} must be an
+ * expanded key as stored in {@code AESCrypt.K}.
+ */
+@NodeInfo(allowedUsageTypes = Memory, cycles = CYCLES_UNKNOWN, size = SIZE_64)
+public final class AESCryptBlockNode extends AbstractMemoryCheckpoint implements LIRLowerable, MemoryCheckpoint.Single {
+
+    public static final NodeClass<AESCryptBlockNode> TYPE = NodeClass.create(AESCryptBlockNode.class);
+
+    protected final boolean encrypt;
+
+    @Input ValueNode in;
+    @Input ValueNode inOffset;
+    @Input ValueNode out;
+    @Input ValueNode outOffset;
+    @Input ValueNode key;
+    @Input ValueNode keyLength;
+
+    public AESCryptBlockNode(boolean encrypt, ValueNode in, ValueNode inOffset, ValueNode out, ValueNode outOffset, ValueNode key, ValueNode keyLength) {
+        super(TYPE, StampFactory.forVoid());
+        this.encrypt = encrypt;
+        this.in = in;
+        this.inOffset = inOffset;
+        this.out = out;
+        this.outOffset = outOffset;
+        this.key = key;
+        this.keyLength = keyLength;
+    }
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        return NamedLocationIdentity.getArrayLocation(JavaKind.Byte);
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        gen.getLIRGeneratorTool().emitAESCryptBlock(encrypt, gen.operand(in), gen.operand(inOffset), gen.operand(out), gen.operand(outOffset), gen.operand(key), gen.operand(keyLength));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.nodes;
+
+import static org.graalvm.compiler.nodeinfo.InputType.Memory;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_UNKNOWN;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_128;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValueNodeUtil;
+import org.graalvm.compiler.nodes.memory.MemoryAccess;
+import org.graalvm.compiler.nodes.memory.MemoryNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+// JaCoCo Exclude
+
+/**
+ * Finds the first occurrence of a value in a range of a {@code byte[]} that holds elements of
+ * {@link JavaKind#Byte} (Latin-1 strings) or {@link JavaKind#Char} (UTF-16 strings).
+ */
+@NodeInfo(cycles = CYCLES_UNKNOWN, size = SIZE_128)
+public final class ArrayIndexOfNode extends FixedWithNextNode implements LIRLowerable, MemoryAccess {
+
+    public static final NodeClass<ArrayIndexOfNode> TYPE = NodeClass.create(ArrayIndexOfNode.class);
+
+    protected final JavaKind kind;
+
+    @Input ValueNode array;
+    @Input ValueNode fromIndex;
+    @Input ValueNode length;
+    @Input ValueNode searchValue;
+
+    @OptionalInput(Memory) MemoryNode lastLocationAccess;
+
+    public ArrayIndexOfNode(ValueNode array, ValueNode fromIndex, ValueNode length, ValueNode searchValue, @ConstantNodeParameter JavaKind kind) {
+        super(TYPE, StampFactory.forKind(JavaKind.Int));
+        assert kind == JavaKind.Byte || kind == JavaKind.Char : kind;
+        this.kind = kind;
+        this.array = array;
+        this.fromIndex = fromIndex;
+        this.length = length;
+        this.searchValue = searchValue;
+    }
+
+    /**
+     * Returns the index of the first element in {@code [fromIndex, length)} that equals
+     * {@code searchValue}, or -1. Indices count elements of {@code kind}, not bytes.
+     */
+    @NodeIntrinsic
+    public static native int indexOf(byte[] array, int fromIndex, int length, int searchValue, @ConstantNodeParameter JavaKind kind);
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        Value result = gen.getLIRGeneratorTool().emitArrayIndexOf(kind, gen.operand(array), gen.operand(fromIndex), gen.operand(length), gen.operand(searchValue));
+        gen.setResult(this, result);
+    }
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        return NamedLocationIdentity.getArrayLocation(JavaKind.Byte);
+    }
+
+    @Override
+    public MemoryNode getLastLocationAccess() {
+        return lastLocationAccess;
+    }
+
+    @Override
+    public void setLastLocationAccess(MemoryNode lla) {
+        updateUsages(ValueNodeUtil.asNode(lastLocationAccess), ValueNodeUtil.asNode(lla));
+        lastLocationAccess = lla;
+    }
+}
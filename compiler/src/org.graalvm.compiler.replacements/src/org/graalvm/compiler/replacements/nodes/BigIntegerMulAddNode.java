@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.nodes;
+
+import static org.graalvm.compiler.nodeinfo.InputType.Memory;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_UNKNOWN;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_64;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.AbstractMemoryCheckpoint;
+import org.graalvm.compiler.nodes.memory.MemoryCheckpoint;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+// JaCoCo Exclude
+
+/**
+ * Multiplies the {@code length} low-order words of the magnitude {@code in} by {@code k} and adds
+ * the product to {@code out}, as done by {@code java.math.BigInteger.implMulAdd}. Words are
+ * processed from index {@code length - 1} of {@code in} and {@code outIndex} of {@code out}
+ * downwards. The node evaluates to the final carry. The ranges must be within the bounds of both
+ * arrays.
+ */
+@NodeInfo(allowedUsageTypes = Memory, cycles = CYCLES_UNKNOWN, size = SIZE_64)
+public final class BigIntegerMulAddNode extends AbstractMemoryCheckpoint implements LIRLowerable, MemoryCheckpoint.Single {
+
+    public static final NodeClass<BigIntegerMulAddNode> TYPE = NodeClass.create(BigIntegerMulAddNode.class);
+
+    @Input ValueNode out;
+    @Input ValueNode in;
+    @Input ValueNode outIndex;
+    @Input ValueNode length;
+    @Input ValueNode k;
+
+    public BigIntegerMulAddNode(ValueNode out, ValueNode in, ValueNode outIndex, ValueNode length, ValueNode k) {
+        super(TYPE, StampFactory.forKind(JavaKind.Int));
+        this.out = out;
+        this.in = in;
+        this.outIndex = outIndex;
+        this.length = length;
+        this.k = k;
+    }
+
+    @NodeIntrinsic
+    public static native int mulAdd(int[] out, int[] in, int outIndex, int length, int k);
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        return NamedLocationIdentity.getArrayLocation(JavaKind.Int);
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        Value result = gen.getLIRGeneratorTool().emitBigIntegerMulAdd(gen.operand(out), gen.operand(in), gen.operand(outIndex), gen.operand(length), gen.operand(k));
+        gen.setResult(this, result);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.nodes;
+
+import static org.graalvm.compiler.nodeinfo.InputType.Memory;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_UNKNOWN;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_64;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValueNodeUtil;
+import org.graalvm.compiler.nodes.memory.MemoryAccess;
+import org.graalvm.compiler.nodes.memory.MemoryNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+// JaCoCo Exclude
+
+/**
+ * Updates a CRC32C (Castagnoli) checksum with a range of a {@code byte[]} or of off-heap memory.
+ * The checksum is neither pre- nor post-inverted, matching {@code java.util.zip.CRC32C.updateBytes}
+ * and {@code java.util.zip.CRC32C.updateDirectByteBuffer}.
+ */
+@NodeInfo(cycles = CYCLES_UNKNOWN, size = SIZE_64)
+public final class CRC32CUpdateBytesNode extends FixedWithNextNode implements LIRLowerable, MemoryAccess {
+
+    public static final NodeClass<CRC32CUpdateBytesNode> TYPE = NodeClass.create(CRC32CUpdateBytesNode.class);
+
+    @Input ValueNode crc;
+    /**
+     * The array to read from, or {@code null} if {@link #offset} is an absolute address.
+     */
+    @OptionalInput ValueNode array;
+    @Input ValueNode offset;
+    @Input ValueNode length;
+
+    @OptionalInput(Memory) MemoryNode lastLocationAccess;
+
+    public CRC32CUpdateBytesNode(ValueNode crc, ValueNode array, ValueNode offset, ValueNode length) {
+        super(TYPE, StampFactory.forKind(JavaKind.Int));
+        this.crc = crc;
+        this.array = array;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    public CRC32CUpdateBytesNode(ValueNode crc, ValueNode address, ValueNode length) {
+        this(crc, null, address, length);
+    }
+
+    @NodeIntrinsic
+    public static native int updateBytes(int crc, byte[] array, int offset, int length);
+
+    @NodeIntrinsic
+    public static native int updateAddress(int crc, long address, int length);
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        Value arrayValue = array == null ? Value.ILLEGAL : gen.operand(array);
+        Value result = gen.getLIRGeneratorTool().emitCRC32CUpdateBytes(gen.operand(crc), arrayValue, gen.operand(offset), gen.operand(length));
+        gen.setResult(this, result);
+    }
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        return array == null ? LocationIdentity.any() : NamedLocationIdentity.getArrayLocation(JavaKind.Byte);
+    }
+
+    @Override
+    public MemoryNode getLastLocationAccess() {
+        return lastLocationAccess;
+    }
+
+    @Override
+    public void setLastLocationAccess(MemoryNode lla) {
+        updateUsages(ValueNodeUtil.asNode(lastLocationAccess), ValueNodeUtil.asNode(lla));
+        lastLocationAccess = lla;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.nodes;
+
+import static org.graalvm.compiler.nodeinfo.InputType.Memory;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_UNKNOWN;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_128;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.AbstractMemoryCheckpoint;
+import org.graalvm.compiler.nodes.memory.MemoryCheckpoint;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+
+// JaCoCo Exclude
+
+/**
+ * Folds 16 byte blocks into a GHASH state, as done by
+ * {@code com.sun.crypto.provider.GHASH.processBlocks}. The blocks must be within the bounds of
+ * {@code data}, and {@code state} and {@code subkeyH} must have at least two elements.
+ */
+@NodeInfo(allowedUsageTypes = Memory, cycles = CYCLES_UNKNOWN, size = SIZE_128)
+public final class GHASHProcessBlocksNode extends AbstractMemoryCheckpoint implements LIRLowerable, MemoryCheckpoint.Single {
+
+    public static final NodeClass<GHASHProcessBlocksNode> TYPE = NodeClass.create(GHASHProcessBlocksNode.class);
+
+    @Input ValueNode data;
+    @Input ValueNode offset;
+    @Input ValueNode blocks;
+    @Input ValueNode state;
+    @Input ValueNode subkeyH;
+
+    public GHASHProcessBlocksNode(ValueNode data, ValueNode offset, ValueNode blocks, ValueNode state, ValueNode subkeyH) {
+        super(TYPE, StampFactory.forVoid());
+        this.data = data;
+        this.offset = offset;
+        this.blocks = blocks;
+        this.state = state;
+        this.subkeyH = subkeyH;
+    }
+
+    @NodeIntrinsic
+    public static native void processBlocks(byte[] data, int offset, int blocks, long[] state, long[] subkeyH);
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        return NamedLocationIdentity.getArrayLocation(JavaKind.Long);
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        gen.getLIRGeneratorTool().emitGHASHProcessBlocks(gen.operand(data), gen.operand(offset), gen.operand(blocks), gen.operand(state), gen.operand(subkeyH));
+    }
+}
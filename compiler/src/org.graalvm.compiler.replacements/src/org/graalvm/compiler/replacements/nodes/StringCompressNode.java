@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.nodes;
+
+import static org.graalvm.compiler.nodeinfo.InputType.Memory;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_UNKNOWN;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_128;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.NamedLocationIdentity;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.memory.AbstractMemoryCheckpoint;
+import org.graalvm.compiler.nodes.memory.MemoryCheckpoint;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+// JaCoCo Exclude
+
+/**
+ * Compresses UTF-16 characters into a Latin-1 {@code byte[]}, as done by
+ * {@code java.lang.StringUTF16.compress}. The node evaluates to {@code length} if all characters
+ * were below 256 and to 0 otherwise, in which case the characters preceding the first wide one
+ * have been stored. The ranges must be within the bounds of both arrays.
+ */
+@NodeInfo(allowedUsageTypes = Memory, cycles = CYCLES_UNKNOWN, size = SIZE_128)
+public final class StringCompressNode extends AbstractMemoryCheckpoint implements LIRLowerable, MemoryCheckpoint.Single {
+
+    public static final NodeClass<StringCompressNode> TYPE = NodeClass.create(StringCompressNode.class);
+
+    /**
+     * {@link JavaKind#Char} for a {@code char[]} source or {@link JavaKind#Byte} for a
+     * {@code byte[]} holding UTF-16 characters.
+     */
+    protected final JavaKind srcKind;
+
+    @Input ValueNode src;
+    @Input ValueNode srcIndex;
+    @Input ValueNode dst;
+    @Input ValueNode dstIndex;
+    @Input ValueNode length;
+
+    public StringCompressNode(ValueNode src, ValueNode srcIndex, ValueNode dst, ValueNode dstIndex, ValueNode length, @ConstantNodeParameter JavaKind srcKind) {
+        super(TYPE, StampFactory.forKind(JavaKind.Int));
+        assert srcKind == JavaKind.Char || srcKind == JavaKind.Byte;
+        this.srcKind = srcKind;
+        this.src = src;
+        this.srcIndex = srcIndex;
+        this.dst = dst;
+        this.dstIndex = dstIndex;
+        this.length = length;
+    }
+
+    @NodeIntrinsic
+    public static native int compress(Object src, int srcIndex, byte[] dst, int dstIndex, int length, @ConstantNodeParameter JavaKind srcKind);
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        return NamedLocationIdentity.getArrayLocation(JavaKind.Byte);
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        Value result = gen.getLIRGeneratorTool().emitStringCompress(srcKind, gen.operand(src), gen.operand(srcIndex), gen.operand(dst), gen.operand(dstIndex), gen.operand(length));
+        gen.setResult(this, result);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.nodes;
+
+import static org.graalvm.compiler.nodeinfo.InputType.Memory;
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_UNKNOWN;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_128;
+
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.FixedWithNextNode;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.ValueNodeUtil;
+import org.graalvm.compiler.nodes.memory.MemoryAccess;
+import org.graalvm.compiler.nodes.memory.MemoryNode;
+import org.graalvm.compiler.nodes.spi.LIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+import org.graalvm.word.LocationIdentity;
+
+import jdk.vm.ci.meta.JavaKind;
+import jdk.vm.ci.meta.Value;
+
+// JaCoCo Exclude
+
+/**
+ * Intrinsic for {@code jdk.internal.util.ArraysSupport.vectorizedMismatch}. Like the Java code it
+ * replaces, the node compares raw memory at {@code a + aOffset} and {@code b + bOffset}, where
+ * {@code a} or {@code b} may be {@code null} for off-heap memory.
+ */
+@NodeInfo(cycles = CYCLES_UNKNOWN, size = SIZE_128)
+public final class VectorizedMismatchNode extends FixedWithNextNode implements LIRLowerable, MemoryAccess {
+
+    public static final NodeClass<VectorizedMismatchNode> TYPE = NodeClass.create(VectorizedMismatchNode.class);
+
+    /** Log2 of the size in bytes of the compared elements. */
+    protected final int log2ElementSize;
+
+    @Input ValueNode a;
+    @Input ValueNode aOffset;
+    @Input ValueNode b;
+    @Input ValueNode bOffset;
+
+    /** Number of elements to compare. */
+    @Input ValueNode length;
+
+    @OptionalInput(Memory) MemoryNode lastLocationAccess;
+
+    public VectorizedMismatchNode(ValueNode a, ValueNode aOffset, ValueNode b, ValueNode bOffset, ValueNode length, int log2ElementSize) {
+        super(TYPE, StampFactory.forKind(JavaKind.Int));
+        this.log2ElementSize = log2ElementSize;
+        this.a = a;
+        this.aOffset = aOffset;
+        this.b = b;
+        this.bOffset = bOffset;
+        this.length = length;
+    }
+
+    public int getLog2ElementSize() {
+        return log2ElementSize;
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool gen) {
+        Value result = gen.getLIRGeneratorTool().emitVectorizedMismatch(gen.operand(a), gen.operand(aOffset), gen.operand(b), gen.operand(bOffset), gen.operand(length), log2ElementSize);
+        gen.setResult(this, result);
+    }
+
+    @Override
+    public LocationIdentity getLocationIdentity() {
+        return LocationIdentity.any();
+    }
+
+    @Override
+    public MemoryNode getLastLocationAccess() {
+        return lastLocationAccess;
+    }
+
+    @Override
+    public void setLastLocationAccess(MemoryNode lla) {
+        updateUsages(ValueNodeUtil.asNode(lastLocationAccess), ValueNodeUtil.asNode(lla));
+        lastLocationAccess = lla;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package org.graalvm.compiler.replacements.nodes.arithmetic;
+
+import static org.graalvm.compiler.nodeinfo.NodeCycles.CYCLES_4;
+import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_1;
+
+import java.math.BigDecimal;
+
+import org.graalvm.compiler.core.common.type.FloatStamp;
+import org.graalvm.compiler.core.common.type.StampFactory;
+import org.graalvm.compiler.graph.NodeClass;
+import org.graalvm.compiler.graph.spi.Canonicalizable;
+import org.graalvm.compiler.graph.spi.CanonicalizerTool;
+import org.graalvm.compiler.lir.gen.ArithmeticLIRGeneratorTool;
+import org.graalvm.compiler.nodeinfo.NodeInfo;
+import org.graalvm.compiler.nodes.ConstantNode;
+import org.graalvm.compiler.nodes.NodeView;
+import org.graalvm.compiler.nodes.ValueNode;
+import org.graalvm.compiler.nodes.calc.FloatingNode;
+import org.graalvm.compiler.nodes.spi.ArithmeticLIRLowerable;
+import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
+
+import jdk.vm.ci.meta.JavaKind;
+
+/**
+ * Computes {@code x * y + z} with a single rounding step as specified by {@link Math#fma}. This
+ * node must only be created if the target can emit a fused multiply-add instruction.
+ */
+@NodeInfo(shortName = "fma", cycles = CYCLES_4, size = SIZE_1)
+public final class FusedMultiplyAddNode extends FloatingNode implements ArithmeticLIRLowerable, Canonicalizable {
+    public static final NodeClass<FusedMultiplyAddNode> TYPE = NodeClass.create(FusedMultiplyAddNode.class);
+
+    @Input protected ValueNode x;
+    @Input protected ValueNode y;
+    @Input protected ValueNode z;
+
+    public FusedMultiplyAddNode(ValueNode x, ValueNode y, ValueNode z) {
+        super(TYPE, StampFactory.forKind(x.getStackKind()));
+        assert x.stamp(NodeView.DEFAULT) instanceof FloatStamp && x.stamp(NodeView.DEFAULT).isCompatible(y.stamp(NodeView.DEFAULT)) && x.stamp(NodeView.DEFAULT).isCompatible(z.stamp(NodeView.DEFAULT));
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    public static ValueNode create(ValueNode x, ValueNode y, ValueNode z) {
+        ValueNode c = tryConstantFold(x, y, z);
+        if (c != null) {
+            return c;
+        }
+        return new FusedMultiplyAddNode(x, y, z);
+    }
+
+    protected static ValueNode tryConstantFold(ValueNode x, ValueNode y, ValueNode z) {
+        if (x.isConstant() && y.isConstant() && z.isConstant()) {
+            if (x.getStackKind() == JavaKind.Double) {
+                return ConstantNode.forDouble(fma(x.asJavaConstant().asDouble(), y.asJavaConstant().asDouble(), z.asJavaConstant().asDouble()));
+            } else {
+                assert x.getStackKind() == JavaKind.Float;
+                return ConstantNode.forFloat(fma(x.asJavaConstant().asFloat(), y.asJavaConstant().asFloat(), z.asJavaConstant().asFloat()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Same as {@code Math.fma(double, double, double)}, which is not available on JDK 8.
+     */
+    static double fma(double a, double b, double c) {
+        if (Double.isNaN(a) || Double.isNaN(b) || Double.isNaN(c)) {
+            return Double.NaN;
+        }
+        boolean infiniteA = Double.isInfinite(a);
+        boolean infiniteB = Double.isInfinite(b);
+        if (infiniteA || infiniteB || Double.isInfinite(c)) {
+            if (infiniteA && b == 0.0 || infiniteB && a == 0.0) {
+                return Double.NaN;
+            }
+            double product = a * b;
+            if (Double.isInfinite(product) && !infiniteA && !infiniteB) {
+                // the product overflowed, so c must be the infinite value
+                return c;
+            }
+            return product + c;
+        }
+        if (a == 0.0 || b == 0.0) {
+            // the product is an exact signed zero
+            return a * b + c;
+        }
+        BigDecimal product = new BigDecimal(a).multiply(new BigDecimal(b));
+        if (c == 0.0) {
+            return product.doubleValue();
+        }
+        return product.add(new BigDecimal(c)).doubleValue();
+    }
+
+    /**
+     * Same as {@code Math.fma(float, float, float)}, which is not available on JDK 8.
+     */
+    static float fma(float a, float b, float c) {
+        if (!Float.isFinite(a) || !Float.isFinite(b) || !Float.isFinite(c)) {
+            return (float) fma((double) a, (double) b, (double) c);
+        }
+        if (a == 0.0f || b == 0.0f) {
+            return a * b + c;
+        }
+        // the product of two floats is exact in double precision
+        return new BigDecimal((double) a * (double) b).add(new BigDecimal((double) c)).floatValue();
+    }
+
+    @Override
+    public ValueNode canonical(CanonicalizerTool tool) {
+        ValueNode c = tryConstantFold(x, y, z);
+        if (c != null) {
+            return c;
+        }
+        return this;
+    }
+
+    public ValueNode getX() {
+        return x;
+    }
+
+    public ValueNode getY() {
+        return y;
+    }
+
+    public ValueNode getZ() {
+        return z;
+    }
+
+    @Override
+    public void generate(NodeLIRBuilderTool builder, ArithmeticLIRGeneratorTool gen) {
+        builder.setResult(this, gen.emitFusedMultiplyAdd(builder.operand(x), builder.operand(y), builder.operand(z)));
+    }
+}
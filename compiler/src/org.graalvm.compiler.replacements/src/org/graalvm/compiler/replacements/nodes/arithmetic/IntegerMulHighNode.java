@@ -27,6 +27,7 @@ import static org.graalvm.compiler.nodeinfo.NodeSize.SIZE_2;
 
 import org.graalvm.compiler.core.common.type.ArithmeticOpTable;
 import org.graalvm.compiler.core.common.type.ArithmeticOpTable.BinaryOp.MulHigh;
+import org.graalvm.compiler.core.common.type.IntegerStamp;
 import org.graalvm.compiler.graph.NodeClass;
 import org.graalvm.compiler.graph.spi.Canonicalizable;
 import org.graalvm.compiler.graph.spi.CanonicalizerTool;
@@ -36,6 +37,7 @@ import org.graalvm.compiler.nodes.ConstantNode;
 import org.graalvm.compiler.nodes.NodeView;
 import org.graalvm.compiler.nodes.ValueNode;
 import org.graalvm.compiler.nodes.calc.BinaryArithmeticNode;
+import org.graalvm.compiler.nodes.calc.RightShiftNode;
 import org.graalvm.compiler.nodes.spi.NodeLIRBuilderTool;
 
 import jdk.vm.ci.meta.Constant;
@@ -73,16 +75,20 @@ public final class IntegerMulHighNode extends BinaryArithmeticNode<MulHigh> impl
             // if this fails we only swap
             return new IntegerMulHighNode(forY, forX);
         }
-        return canonical(this, forY);
+        return canonical(this, forX, forY);
     }
 
-    private static ValueNode canonical(IntegerMulHighNode self, ValueNode forY) {
+    private static ValueNode canonical(IntegerMulHighNode self, ValueNode forX, ValueNode forY) {
         if (forY.isConstant()) {
             Constant c = forY.asConstant();
             if (c instanceof PrimitiveConstant && ((PrimitiveConstant) c).getJavaKind().isNumericInteger()) {
                 long i = ((PrimitiveConstant) c).asLong();
-                if (i == 0 || i == 1) {
+                if (i == 0) {
                     return ConstantNode.forIntegerStamp(self.stamp(NodeView.DEFAULT), 0);
+                } else if (i == 1 && self.stamp(NodeView.DEFAULT) instanceof IntegerStamp) {
+                    // the high word of x * 1 is the sign extension of x
+                    int bits = ((IntegerStamp) self.stamp(NodeView.DEFAULT)).getBits();
+                    return new RightShiftNode(forX, ConstantNode.forInt(bits - 1));
                 }
             }
         }
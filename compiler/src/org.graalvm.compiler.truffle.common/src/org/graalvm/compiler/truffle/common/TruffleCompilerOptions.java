@@ -201,6 +201,9 @@ public class TruffleCompilerOptions {
     @Option(help = "Manually set the number of compiler threads", type = OptionType.Expert)
     public static final OptionKey<Integer> TruffleCompilerThreads = new OptionKey<>(0);
 
+    @Option(help = "Maximum size in megabytes of the parsed interpreter methods shared between Truffle compilations. 0 disables sharing.", type = OptionType.Expert)
+    public static final OptionKey<Integer> TruffleEncodedGraphCacheCapacity = new OptionKey<>(64);
+
     @Option(help = "Enable inlining across Truffle boundary", type = OptionType.Expert)
     public static final OptionKey<Boolean> TruffleInlineAcrossTruffleBoundary = new OptionKey<>(false);
 
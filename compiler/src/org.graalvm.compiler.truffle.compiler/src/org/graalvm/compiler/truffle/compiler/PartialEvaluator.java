@@ -26,6 +26,7 @@ import static org.graalvm.compiler.nodes.graphbuilderconf.InlineInvokePlugin.Inl
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.PrintTruffleExpansionHistogram;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TraceTrufflePerformanceWarnings;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TraceTruffleStackTraceLimit;
+import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleEncodedGraphCacheCapacity;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleFunctionInlining;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInlineAcrossTruffleBoundary;
 import static org.graalvm.compiler.truffle.common.TruffleCompilerOptions.TruffleInstrumentBoundaries;
@@ -88,6 +89,7 @@ import org.graalvm.compiler.phases.tiers.HighTierContext;
 import org.graalvm.compiler.phases.tiers.PhaseContext;
 import org.graalvm.compiler.phases.util.Providers;
 import org.graalvm.compiler.replacements.CachingPEGraphDecoder;
+import org.graalvm.compiler.replacements.EncodedGraphCache;
 import org.graalvm.compiler.replacements.InlineDuringParsingPlugin;
 import org.graalvm.compiler.replacements.PEGraphDecoder;
 import org.graalvm.compiler.replacements.ReplacementsImpl;
@@ -136,6 +138,7 @@ public abstract class PartialEvaluator {
     private final InvocationPlugins decodingInvocationPlugins;
     private final NodePlugin[] nodePlugins;
     private final KnownTruffleTypes knownTruffleTypes;
+    private final EncodedGraphCache encodedGraphCache;
 
     public PartialEvaluator(Providers providers, GraphBuilderConfiguration configForRoot, SnippetReflectionProvider snippetReflection, Architecture architecture,
                     InstrumentPhase.Instrumentation instrumentation, KnownTruffleTypes knownFields) {
@@ -161,6 +164,9 @@ public abstract class PartialEvaluator {
         this.configForParsing = createGraphBuilderConfig(configForRoot, true);
         this.decodingInvocationPlugins = createDecodingInvocationPlugins(configForRoot.getPlugins());
         this.nodePlugins = createNodePlugins(configForRoot.getPlugins());
+
+        int cacheCapacity = TruffleCompilerOptions.getValue(TruffleEncodedGraphCacheCapacity);
+        this.encodedGraphCache = cacheCapacity > 0 ? new EncodedGraphCache(cacheCapacity * 1024L * 1024L) : null;
     }
 
     static ResolvedJavaMethod findRequiredMethod(ResolvedJavaType declaringClass, ResolvedJavaMethod[] methods, String name, String descriptor) {
@@ -176,6 +182,14 @@ public abstract class PartialEvaluator {
         return providers;
     }
 
+    /**
+     * Gets the cache of parsed methods shared by all compilations of this partial evaluator, or
+     * {@code null} if sharing is disabled.
+     */
+    public EncodedGraphCache getEncodedGraphCache() {
+        return encodedGraphCache;
+    }
+
     public GraphBuilderConfiguration getConfigForParsing() {
         return configForParsing;
     }
@@ -408,8 +422,10 @@ public abstract class PartialEvaluator {
         }
 
         Providers compilationUnitProviders = providers.copyWith(new TruffleConstantFieldProvider(providers.getConstantFieldProvider(), providers.getMetaAccess()));
+        // graphs parsed with overridden options must not leak into other compilations
+        EncodedGraphCache sharedGraphCache = TruffleCompilerOptions.getCurrentOptionOverrides() == null ? encodedGraphCache : null;
         return new CachingPEGraphDecoder(architecture, graph, compilationUnitProviders, newConfig, TruffleCompilerImpl.Optimizations, AllowAssumptions.ifNonNull(graph.getAssumptions()),
-                        loopExplosionPlugin, decodingInvocationPlugins, inlineInvokePlugins, parameterPlugin, nodePluginList, callInlined, sourceLanguagePositionProvider);
+                        loopExplosionPlugin, decodingInvocationPlugins, inlineInvokePlugins, parameterPlugin, nodePluginList, callInlined, sourceLanguagePositionProvider, sharedGraphCache);
     }
 
     protected void doGraphPE(CompilableTruffleAST compilable, StructuredGraph graph, HighTierContext tierContext, TruffleInliningPlan inliningDecision) {
@@ -80,6 +80,7 @@ import org.graalvm.compiler.phases.PhaseSuite;
 import org.graalvm.compiler.phases.tiers.HighTierContext;
 import org.graalvm.compiler.phases.tiers.Suites;
 import org.graalvm.compiler.phases.util.Providers;
+import org.graalvm.compiler.replacements.EncodedGraphCache;
 import org.graalvm.compiler.truffle.common.CompilableTruffleAST;
 import org.graalvm.compiler.truffle.common.OptimizedAssumptionDependency;
 import org.graalvm.compiler.truffle.common.TruffleCompiler;
@@ -397,6 +398,11 @@ public abstract class TruffleCompilerImpl implements TruffleCompiler {
             // compilation time and memory usage reported by printer
             printer.finish(compilationResult);
         } catch (Throwable t) {
+            EncodedGraphCache encodedGraphCache = partialEvaluator.getEncodedGraphCache();
+            if (encodedGraphCache != null && t instanceof BailoutException && !(t instanceof CancellationBailoutException)) {
+                // code installation fails if a shared graph recorded an invalidated assumption
+                encodedGraphCache.invalidateAssumptionDependentGraphs();
+            }
             // Note: If the compiler cancels the compilation with a bailout exception, then the
             // graph is null
             if (listener != null) {
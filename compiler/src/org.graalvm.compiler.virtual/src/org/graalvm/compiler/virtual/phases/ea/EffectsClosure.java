@@ -425,7 +425,7 @@ public abstract class EffectsClosure<BlockT extends EffectsBlockState<BlockT>> e
      */
     protected abstract class MergeProcessor {
 
-        private final Block mergeBlock;
+        protected final Block mergeBlock;
         private final AbstractMergeNode merge;
 
         protected final GraphEffectList mergeEffects;
@@ -32,6 +32,7 @@ import org.graalvm.collections.EconomicMap;
 import org.graalvm.collections.EconomicSet;
 import org.graalvm.collections.Equivalence;
 import org.graalvm.compiler.core.common.GraalOptions;
+import org.graalvm.compiler.core.common.cfg.AbstractControlFlowGraph;
 import org.graalvm.compiler.core.common.cfg.Loop;
 import org.graalvm.compiler.core.common.spi.ConstantFieldProvider;
 import org.graalvm.compiler.core.common.type.Stamp;
@@ -85,6 +86,7 @@ public abstract class PartialEscapeClosure<BlockT extends PartialEscapeBlockStat
     public static final CounterKey COUNTER_MATERIALIZATIONS_UNHANDLED = DebugContext.counter("MaterializationsUnhandled");
     public static final CounterKey COUNTER_MATERIALIZATIONS_LOOP_REITERATION = DebugContext.counter("MaterializationsLoopReiteration");
     public static final CounterKey COUNTER_MATERIALIZATIONS_LOOP_END = DebugContext.counter("MaterializationsLoopEnd");
+    public static final CounterKey COUNTER_STATE_ONLY_PHI_ALLOCATIONS = DebugContext.counter("StateOnlyPhiAllocations");
     public static final CounterKey COUNTER_ALLOCATION_REMOVED = DebugContext.counter("AllocationsRemoved");
     public static final CounterKey COUNTER_MEMORYCHECKPOINT = DebugContext.counter("MemoryCheckpoint");
 
@@ -1086,8 +1088,10 @@ public abstract class PartialEscapeClosure<BlockT extends PartialEscapeBlockStat
              * this is a value that will only appear through this source, and cannot appear anywhere
              * else. If the phi is also the only usage of this input, we know that no other place
              * can check object identity against it, so it is safe to lose the object identity here.
+             * Frame states do not check object identity either, as long as they cannot see the
+             * input and the phi at the same time (see isStateOnlyAllocation).
              */
-            if (!(value instanceof AllocatedObjectNode && value.hasExactlyOneUsage())) {
+            if (!(value instanceof AllocatedObjectNode && value.hasExactlyOneUsage()) && !isStateOnlyAllocation(value)) {
                 return false;
             }
 
@@ -1109,6 +1113,55 @@ public abstract class PartialEscapeClosure<BlockT extends PartialEscapeBlockStat
             }
             return true;
         }
+
+        /**
+         * Determines if all usages of {@code value} other than the phi are frame states that cannot
+         * observe the allocation together with the merged object. This is the case for allocations
+         * dominated by the merge (e.g., an allocation in a loop body flowing into the loop phi via
+         * the back edge), because they are re-executed before each such frame state. Allocations
+         * that are not dominated by the merge must not be referenced by frame states that are
+         * dominated by the merge, otherwise a deoptimization could separate two references to the
+         * same object.
+         */
+        private boolean isStateOnlyAllocation(ValueNode value) {
+            if (!(value instanceof VirtualizableAllocation && value instanceof FixedNode)) {
+                return false;
+            }
+            Block allocationBlock = cfg.blockFor(value);
+            if (allocationBlock == null) {
+                return false;
+            }
+            boolean dominatedByMerge = AbstractControlFlowGraph.dominates(mergeBlock, allocationBlock);
+            int phiUsages = 0;
+            for (Node usage : value.usages()) {
+                if (usage instanceof PhiNode && ((PhiNode) usage).merge() == mergeBlock.getBeginNode()) {
+                    phiUsages++;
+                } else if (!(usage instanceof FrameState) || (!dominatedByMerge && !isOutsideMerge((FrameState) usage))) {
+                    return false;
+                }
+            }
+            if (phiUsages != 1) {
+                return false;
+            }
+            COUNTER_STATE_ONLY_PHI_ALLOCATIONS.increment(debug);
+            return true;
+        }
+
+        private boolean isOutsideMerge(FrameState state) {
+            for (Node usage : state.usages()) {
+                if (usage instanceof FrameState) {
+                    if (!isOutsideMerge((FrameState) usage)) {
+                        return false;
+                    }
+                } else {
+                    Block usageBlock = usage instanceof FixedNode ? cfg.blockFor(usage) : null;
+                    if (usageBlock == null || AbstractControlFlowGraph.dominates(mergeBlock, usageBlock)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
     }
 
     public ObjectState getObjectState(PartialEscapeBlockState<?> state, ValueNode value) {
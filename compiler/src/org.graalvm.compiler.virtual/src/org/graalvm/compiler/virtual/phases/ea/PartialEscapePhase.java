@@ -100,4 +100,8 @@ public class PartialEscapePhase extends EffectsPhase<PhaseContext> {
         return false;
     }
 
+    @Override
+    protected boolean isOptional() {
+        return true;
+    }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018, 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks element-wise array loops. {@link Vectorized} runs the same loops with
+ * {@code LoopVectorization} enabled.
+ */
+public class ArrayLoopBenchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class ArrayState {
+        @Param({"16", "1024", "65536"}) int length;
+
+        int[] intsA;
+        int[] intsB;
+        int[] intsResult;
+        long[] longsA;
+        long[] longsB;
+        long[] longsResult;
+        double[] doublesA;
+        double[] doublesB;
+        double[] doublesResult;
+
+        @Setup
+        public void setup() {
+            Random r = new Random(17);
+            intsA = new int[length];
+            intsB = new int[length];
+            intsResult = new int[length];
+            longsA = new long[length];
+            longsB = new long[length];
+            longsResult = new long[length];
+            doublesA = new double[length];
+            doublesB = new double[length];
+            doublesResult = new double[length];
+            for (int i = 0; i < length; i++) {
+                intsA[i] = r.nextInt();
+                intsB[i] = r.nextInt();
+                longsA[i] = r.nextLong();
+                longsB[i] = r.nextLong();
+                doublesA[i] = r.nextDouble();
+                doublesB[i] = r.nextDouble();
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] addInts(ArrayState state) {
+        int[] a = state.intsA;
+        int[] b = state.intsB;
+        int[] result = state.intsResult;
+        int n = state.length;
+        for (int i = 0; i < n; i++) {
+            result[i] = a[i] + b[i];
+        }
+        return result;
+    }
+
+    @Benchmark
+    public long[] xorLongs(ArrayState state) {
+        long[] a = state.longsA;
+        long[] b = state.longsB;
+        long[] result = state.longsResult;
+        int n = state.length;
+        for (int i = 0; i < n; i++) {
+            result[i] = a[i] ^ b[i];
+        }
+        return result;
+    }
+
+    @Benchmark
+    public double[] mulDoubles(ArrayState state) {
+        double[] a = state.doublesA;
+        double[] b = state.doublesB;
+        double[] result = state.doublesResult;
+        int n = state.length;
+        for (int i = 0; i < n; i++) {
+            result[i] = a[i] * b[i];
+        }
+        return result;
+    }
+
+    @Fork(value = BenchmarkBase.Defaults.FORKS, jvmArgsAppend = "-Dgraal.LoopVectorization=true")
+    public static class Vectorized extends ArrayLoopBenchmark {
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks RSA-sized {@link BigInteger} arithmetic, which spends most of its time in
+ * {@code BigInteger.implMulAdd} and the related multiply kernels. Run with
+ * {@code -XX:-UseJVMCICompiler} to compare against the C2 intrinsics.
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BigIntegerBenchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class BenchState {
+        @Param({"2048", "4096"}) int bits;
+
+        BigInteger base;
+        BigInteger exponent;
+        BigInteger modulus;
+
+        @Setup
+        public void setup() {
+            Random random = new Random(17);
+            // an odd modulus selects the Montgomery path of modPow
+            modulus = new BigInteger(bits, random).setBit(bits - 1).setBit(0);
+            base = new BigInteger(bits - 1, random);
+            exponent = new BigInteger(bits - 1, random);
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    public BigInteger modPow(BenchState state) {
+        return state.base.modPow(state.exponent, state.modulus);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    public BigInteger square(BenchState state) {
+        return state.modulus.multiply(state.modulus);
+    }
+}
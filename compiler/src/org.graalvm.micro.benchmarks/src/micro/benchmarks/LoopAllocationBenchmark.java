@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks allocations that flow around loops (boxed accumulators, iterators, per-iteration
+ * temporaries). Run with {@code -prof gc} to compare the allocation rate per operation.
+ */
+public class LoopAllocationBenchmark extends BenchmarkBase {
+
+    private static final int N = 100;
+
+    @State(Scope.Benchmark)
+    public static class ThreadState {
+        final int[] values = new int[N];
+        final List<Integer> list = new ArrayList<>();
+
+        @Setup
+        public void setup() {
+            for (int i = 0; i < N; i++) {
+                values[i] = i;
+                list.add(i);
+            }
+        }
+    }
+
+    static final class Pair {
+        final int sum;
+        final int count;
+
+        Pair(int sum, int count) {
+            this.sum = sum;
+            this.count = count;
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public Integer boxedSum(ThreadState state) {
+        Integer sum = 0;
+        for (int value : state.values) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int pairAccumulator(ThreadState state) {
+        Pair pair = new Pair(0, 0);
+        for (int value : state.values) {
+            pair = new Pair(pair.sum + value, pair.count + 1);
+        }
+        return pair.sum / pair.count;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int iteratorSum(ThreadState state) {
+        int sum = 0;
+        for (Iterator<Integer> it = state.list.iterator(); it.hasNext();) {
+            sum += it.next();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int streamSum(ThreadState state) {
+        return state.list.stream().mapToInt(Integer::intValue).sum();
+    }
+
+    @Benchmark
+    @Warmup(iterations = 20)
+    public int intStreamSum() {
+        return IntStream.range(0, N).map(i -> i * 2).sum();
+    }
+}
@@ -22,6 +22,9 @@
  */
 package micro.benchmarks;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.Random;
 
 import org.openjdk.jmh.annotations.Benchmark;
@@ -38,6 +41,8 @@ public class MathFunctionBenchmark extends BenchmarkBase {
     public static class ThreadState {
         double[] data = randomDoubles(100);
         double[] result = new double[100];
+        long[] longs = randomLongs(100);
+        long[] longResult = new long[100];
 
         static double[] randomDoubles(int len) {
             double[] data = new double[len];
@@ -47,6 +52,31 @@ public class MathFunctionBenchmark extends BenchmarkBase {
             }
             return data;
         }
+
+        static long[] randomLongs(int len) {
+            long[] data = new long[len];
+            Random r = new Random();
+            for (int i = 0; i < data.length; i++) {
+                data[i] = r.nextInt();
+            }
+            return data;
+        }
+    }
+
+    /*
+     * Math.fma and Math.multiplyHigh are JDK 9 API while this project is compiled for JDK 8. The
+     * compiler inlines the constant method handles, so the intrinsics are still exercised. These
+     * benchmarks fail on JDK 8.
+     */
+    private static final MethodHandle FMA = findMathMethod("fma", double.class, double.class, double.class, double.class);
+    private static final MethodHandle MULTIPLY_HIGH = findMathMethod("multiplyHigh", long.class, long.class, long.class);
+
+    private static MethodHandle findMathMethod(String name, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            return MethodHandles.lookup().findStatic(Math.class, name, MethodType.methodType(returnType, parameterTypes));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
     }
 
     @Benchmark
@@ -98,4 +128,34 @@ public class MathFunctionBenchmark extends BenchmarkBase {
             result[i] = Math.tan(data[i]);
         }
     }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    public void mathFma(ThreadState state) throws Throwable {
+        double[] data = state.data;
+        for (int i = 0; i < data.length - 1; i++) {
+            double[] result = state.result;
+            result[i] = (double) FMA.invokeExact(data[i], data[i + 1], result[i]);
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    public void mathMultiplyHigh(ThreadState state) throws Throwable {
+        long[] data = state.longs;
+        for (int i = 0; i < data.length - 1; i++) {
+            long[] result = state.longResult;
+            result[i] = (long) MULTIPLY_HIGH.invokeExact(data[i] << 32, data[i + 1] << 16);
+        }
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    public void mathMultiplyExact(ThreadState state) {
+        long[] data = state.longs;
+        for (int i = 0; i < data.length - 1; i++) {
+            long[] result = state.longResult;
+            result[i] = Math.addExact(Math.multiplyExact(data[i], data[i + 1]), result[i] >> 2);
+        }
+    }
 }
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the time to reach a safepoint while another thread runs long counted loops. The
+ * {@code loop} threads sum a large array; the {@code safepoint} thread repeatedly requests a
+ * safepoint and its sampled latency is dominated by how long the loops run without a poll. Compare
+ * runs without and with {@code -Dgraal.LoopStripMining=true} and different
+ * {@code -Dgraal.LoopStripMiningIterations} values, and check that the {@code loop} throughput
+ * stays the same.
+ */
+@State(Scope.Group)
+public class SafepointLatencyBenchmark extends BenchmarkBase {
+
+    private static final int N = 10_000_000;
+
+    final int[] values = new int[N];
+    int length = N;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < N; i++) {
+            values[i] = i;
+        }
+    }
+
+    @Benchmark
+    @Group("timeToSafepoint")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object safepoint() {
+        // requires all threads to be stopped at a safepoint
+        return Thread.getAllStackTraces();
+    }
+
+    @Benchmark
+    @Group("timeToSafepoint")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int loop() {
+        int[] array = values;
+        int n = length;
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            sum += array[i];
+        }
+        return sum;
+    }
+}
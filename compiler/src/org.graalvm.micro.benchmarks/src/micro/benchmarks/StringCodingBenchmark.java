@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package micro.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the string coding intrinsics ({@code StringCoding.hasNegatives},
+ * {@code StringUTF16.compress}, {@code StringLatin1.inflate}) and
+ * {@code ArraysSupport.vectorizedMismatch}. Run with {@code -XX:-UseJVMCICompiler} to compare
+ * against the C2 intrinsics.
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StringCodingBenchmark extends BenchmarkBase {
+
+    @State(Scope.Benchmark)
+    public static class BenchState {
+        // Checkstyle: stop
+        String lorem = "Lorem ipsum dolor sit amet, consectetur adipisici elit, sed eiusmod tempor incidunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation ullamco laboris nisi ut aliquid ex ea commodi consequat. Quis aute iure reprehenderit in voluptate velit esse cillum dolore eu fugiat nulla pariatur. Excepteur sint obcaecat cupiditat non proident, sunt in culpa qui officia deserunt mollit anim id est laborum.";
+        // Checkstyle: resume
+        byte[] bytes = lorem.getBytes(StandardCharsets.UTF_8);
+        char[] chars = lorem.toCharArray();
+        ByteBuffer buffer1 = ByteBuffer.wrap(lorem.getBytes(StandardCharsets.UTF_8));
+        ByteBuffer buffer2 = ByteBuffer.wrap(lorem.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    public String hasNegatives(BenchState state) {
+        return new String(state.bytes, StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    public String compress(BenchState state) {
+        return new String(state.chars);
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    public char[] inflate(BenchState state) {
+        return state.lorem.toCharArray();
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5)
+    public boolean vectorizedMismatch(BenchState state) {
+        return state.buffer1.equals(state.buffer2);
+    }
+}
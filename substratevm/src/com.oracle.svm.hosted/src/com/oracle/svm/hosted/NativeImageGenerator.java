@@ -984,6 +984,11 @@ public class NativeImageGenerator {
         BytecodeProvider replacementBytecodeProvider = replacements.getDefaultReplacementBytecodeProvider();
         StandardGraphBuilderPlugins.registerInvocationPlugins(providers.getMetaAccess(), providers.getSnippetReflection(), plugins.getInvocationPlugins(), replacementBytecodeProvider, !hosted);
         AMD64GraphBuilderPlugins.register(plugins, replacementBytecodeProvider, (AMD64) ConfigurationValues.getTarget().arch, true);
+        AMD64GraphBuilderPlugins.registerFMAPlugins(plugins.getInvocationPlugins(), (AMD64) ConfigurationValues.getTarget().arch);
+        AMD64GraphBuilderPlugins.registerCRC32CPlugins(plugins.getInvocationPlugins(), replacementBytecodeProvider, (AMD64) ConfigurationValues.getTarget().arch);
+        AMD64GraphBuilderPlugins.registerAESPlugins(plugins.getInvocationPlugins(), replacementBytecodeProvider, (AMD64) ConfigurationValues.getTarget().arch);
+        AMD64GraphBuilderPlugins.registerGHASHPlugins(plugins.getInvocationPlugins(), replacementBytecodeProvider, (AMD64) ConfigurationValues.getTarget().arch);
+        StandardGraphBuilderPlugins.registerPlatformSpecificBigIntegerPlugins(plugins.getInvocationPlugins(), replacementBytecodeProvider);
 
         /*
          * When the context is hosted, i.e., ahead-of-time compilation, and after the analysis we
@@ -36,6 +36,8 @@ import org.graalvm.nativeimage.PinnedObject;
 import org.graalvm.nativeimage.StackValue;
 import org.graalvm.nativeimage.UnmanagedMemory;
 import org.graalvm.nativeimage.c.CContext;
+import org.graalvm.nativeimage.c.function.CFunctionPointer;
+import org.graalvm.nativeimage.c.function.InvokeCFunctionPointer;
 import org.graalvm.nativeimage.c.struct.CFieldAddress;
 import org.graalvm.nativeimage.c.struct.CStruct;
 import org.graalvm.nativeimage.c.struct.SizeOf;
@@ -145,4 +147,74 @@ final class NativeSignature {
             }
         }
     }
+
+    /**
+     * Calls functions with up to six integer or pointer arguments directly, without going through
+     * libffi. This mirrors {@code executeDirect} in the native part of the NFI.
+     */
+    static class DirectCallHelper {
+
+        interface DirectCall0 extends CFunctionPointer {
+            @InvokeCFunctionPointer
+            long invoke();
+        }
+
+        interface DirectCall1 extends CFunctionPointer {
+            @InvokeCFunctionPointer
+            long invoke(long arg0);
+        }
+
+        interface DirectCall2 extends CFunctionPointer {
+            @InvokeCFunctionPointer
+            long invoke(long arg0, long arg1);
+        }
+
+        interface DirectCall3 extends CFunctionPointer {
+            @InvokeCFunctionPointer
+            long invoke(long arg0, long arg1, long arg2);
+        }
+
+        interface DirectCall4 extends CFunctionPointer {
+            @InvokeCFunctionPointer
+            long invoke(long arg0, long arg1, long arg2, long arg3);
+        }
+
+        interface DirectCall5 extends CFunctionPointer {
+            @InvokeCFunctionPointer
+            long invoke(long arg0, long arg1, long arg2, long arg3, long arg4);
+        }
+
+        interface DirectCall6 extends CFunctionPointer {
+            @InvokeCFunctionPointer
+            long invoke(long arg0, long arg1, long arg2, long arg3, long arg4, long arg5);
+        }
+
+        static long execute(long functionPointer, int argCount, long arg0, long arg1, long arg2, long arg3, long arg4, long arg5) {
+            PointerBase function = WordFactory.pointer(functionPointer);
+            CIntPointer errnoMirror = ErrnoMirror.getErrnoMirrorLocation();
+            Errno.set_errno(errnoMirror.read());
+            try {
+                switch (argCount) {
+                    case 0:
+                        return ((DirectCall0) function).invoke();
+                    case 1:
+                        return ((DirectCall1) function).invoke(arg0);
+                    case 2:
+                        return ((DirectCall2) function).invoke(arg0, arg1);
+                    case 3:
+                        return ((DirectCall3) function).invoke(arg0, arg1, arg2);
+                    case 4:
+                        return ((DirectCall4) function).invoke(arg0, arg1, arg2, arg3);
+                    case 5:
+                        return ((DirectCall5) function).invoke(arg0, arg1, arg2, arg3, arg4);
+                    case 6:
+                        return ((DirectCall6) function).invoke(arg0, arg1, arg2, arg3, arg4, arg5);
+                    default:
+                        throw new IllegalArgumentException("too many arguments for a direct call: " + argCount);
+                }
+            } finally {
+                errnoMirror.write(Errno.errno());
+            }
+        }
+    }
 }
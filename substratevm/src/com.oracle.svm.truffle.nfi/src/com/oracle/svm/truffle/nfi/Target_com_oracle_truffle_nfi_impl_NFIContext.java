@@ -34,6 +34,7 @@ import com.oracle.svm.core.snippets.KnownIntrinsics;
 import com.oracle.svm.truffle.nfi.NativeAPI.NativeTruffleContext;
 import com.oracle.svm.truffle.nfi.NativeAPI.NativeTruffleEnv;
 import com.oracle.svm.truffle.nfi.NativeSignature.CifData;
+import com.oracle.svm.truffle.nfi.NativeSignature.DirectCallHelper;
 import com.oracle.svm.truffle.nfi.NativeSignature.ExecuteHelper;
 import com.oracle.svm.truffle.nfi.NativeSignature.PrepareHelper;
 import com.oracle.svm.truffle.nfi.libffi.LibFFI;
@@ -212,6 +213,12 @@ final class Target_com_oracle_truffle_nfi_impl_NFIContext {
         }
     }
 
+    @Substitute
+    @SuppressWarnings("static-method")
+    long executeDirect(long functionPointer, int argCount, long arg0, long arg1, long arg2, long arg3, long arg4, long arg5) {
+        return DirectCallHelper.execute(functionPointer, argCount, arg0, arg1, arg2, arg3, arg4, arg5);
+    }
+
     @Substitute
     private static void loadNFILib() {
         // do nothing, the NFI library is statically linked to the SVM image
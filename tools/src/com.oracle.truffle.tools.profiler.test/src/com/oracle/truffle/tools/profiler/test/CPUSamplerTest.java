@@ -24,7 +24,9 @@
  */
 package com.oracle.truffle.tools.profiler.test;
 
+import java.util.ArrayDeque;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.Iterator;
 
 import org.graalvm.polyglot.Source;
@@ -33,6 +35,7 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.oracle.truffle.api.Truffle;
 import com.oracle.truffle.tools.profiler.CPUSampler;
 import com.oracle.truffle.tools.profiler.ProfilerNode;
 
@@ -129,6 +132,74 @@ public class CPUSamplerTest extends AbstractProfilerTest {
         Assert.assertTrue(children.size() == 0);
     }
 
+    @Test
+    public void testCorrectRootStructureAsyncRoots() {
+        sampler.setFilter(NO_INTERNAL_ROOT_TAG_FILTER);
+        sampler.setMode(CPUSampler.Mode.ASYNC_ROOTS);
+        sampler.setCollecting(true);
+        for (int i = 0; i < executionCount; i++) {
+            execute(defaultSourceForSampling);
+        }
+        sampler.setCollecting(false);
+
+        Collection<ProfilerNode<CPUSampler.Payload>> children = sampler.getRootNodes();
+        Assert.assertEquals(1, children.size());
+        ProfilerNode<CPUSampler.Payload> program = children.iterator().next();
+        Assert.assertEquals("", program.getRootName());
+        checkTimeline(program.getPayload());
+
+        children = program.getChildren();
+        Assert.assertEquals(2, children.size());
+        Iterator<ProfilerNode<CPUSampler.Payload>> iterator = children.iterator();
+        ProfilerNode<CPUSampler.Payload> baz = iterator.next();
+        if (!"baz".equals(baz.getRootName())) {
+            baz = iterator.next();
+        }
+        Assert.assertEquals("baz", baz.getRootName());
+        checkTimeline(baz.getPayload());
+
+        children = baz.getChildren();
+        Assert.assertEquals(1, children.size());
+        ProfilerNode<CPUSampler.Payload> bar = children.iterator().next();
+        Assert.assertEquals("bar", bar.getRootName());
+        checkTimeline(bar.getPayload());
+
+        children = bar.getChildren();
+        Assert.assertEquals(1, children.size());
+        ProfilerNode<CPUSampler.Payload> foo = children.iterator().next();
+        Assert.assertEquals("foo", foo.getRootName());
+        checkTimeline(foo.getPayload());
+
+        children = foo.getChildren();
+        Assert.assertTrue(children.size() == 0);
+    }
+
+    @Test
+    public void testCompiledHitCountsAsyncRoots() {
+        sampler.setFilter(NO_INTERNAL_ROOT_TAG_FILTER);
+        sampler.setMode(CPUSampler.Mode.ASYNC_ROOTS);
+        sampler.setCollecting(true);
+        for (int i = 0; i < executionCount; i++) {
+            execute(defaultSourceForSampling);
+        }
+        sampler.setCollecting(false);
+
+        int compiledHits = 0;
+        int interpretedHits = 0;
+        Deque<ProfilerNode<CPUSampler.Payload>> nodes = new ArrayDeque<>(sampler.getRootNodes());
+        while (!nodes.isEmpty()) {
+            ProfilerNode<CPUSampler.Payload> node = nodes.pop();
+            compiledHits += node.getPayload().getSelfCompiledHitCount();
+            interpretedHits += node.getPayload().getSelfInterpretedHitCount();
+            nodes.addAll(node.getChildren());
+        }
+        Assert.assertTrue(compiledHits + interpretedHits > 0);
+        if ("Interpreted".equals(Truffle.getRuntime().getName())) {
+            // frames of interpreted roots must not be reported as compiled
+            Assert.assertEquals(0, compiledHits);
+        }
+    }
+
     final Source defaultRecursiveSourceForSampling = makeSource("ROOT(" +
                     "DEFINE(foo,ROOT(BLOCK(RECURSIVE_CALL(foo, 10),SLEEP(1))))," +
                     "DEFINE(bar,ROOT(BLOCK(STATEMENT,LOOP(10, CALL(foo)))))," +
@@ -187,6 +258,18 @@ public class CPUSamplerTest extends AbstractProfilerTest {
         Assert.assertTrue(sampler.hasStackOverflowed());
     }
 
+    @Test
+    public void testStackOverflowsAsyncRoots() {
+        sampler.setFilter(NO_INTERNAL_ROOT_TAG_FILTER);
+        sampler.setMode(CPUSampler.Mode.ASYNC_ROOTS);
+        sampler.setStackLimit(2);
+        sampler.setCollecting(true);
+        for (int i = 0; i < executionCount; i++) {
+            execute(defaultSourceForSampling);
+        }
+        Assert.assertTrue(sampler.hasStackOverflowed());
+    }
+
     private static void checkTimeline(CPUSampler.Payload payload) {
         Assert.assertEquals("Timeline length and self hit count to not match!", payload.getSelfHitCount(), payload.getSelfHitTimes().size());
     }
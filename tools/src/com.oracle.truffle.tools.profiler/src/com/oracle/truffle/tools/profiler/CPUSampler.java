@@ -56,7 +56,8 @@ import com.oracle.truffle.tools.profiler.impl.ProfilerToolFactory;
  * <p>
  * The sampler keeps a shadow stack during execution. This shadow stack is sampled at regular
  * intervals, i.e. the state of the stack is copied and saved into trees of {@linkplain ProfilerNode
- * nodes}, which represent the profile of the execution.
+ * nodes}, which represent the profile of the execution. In {@link Mode#ASYNC_ROOTS} mode no shadow
+ * stack is kept, instead the executing threads capture their guest language frames on request.
  * <p>
  * Usage example: {@link CPUSamplerSnippets#example}
  *
@@ -173,7 +174,19 @@ public final class CPUSampler implements Closeable {
          *
          * @since 0.30
          */
-        STATEMENTS
+        STATEMENTS,
+        /**
+         * Sample {@link RootTag Roots} <b>including</b> the ones that get inlined during
+         * compilation, without maintaining a shadow stack. Roots only check for a pending sample
+         * request on entry and the requested thread then captures its stack by
+         * {@linkplain com.oracle.truffle.api.TruffleRuntime#iterateFrames iterating} its frames.
+         * This mode has the least overhead per call, but samples are only taken on the next root
+         * entry after they were requested, which can skew the profile of long running loops
+         * without calls.
+         *
+         * @since 1.0
+         */
+        ASYNC_ROOTS
     }
 
     private Mode mode = Mode.EXCLUDE_INLINED_ROOTS;
@@ -202,6 +215,8 @@ public final class CPUSampler implements Closeable {
 
     private ShadowStack shadowStack;
 
+    private FrameSampler frameSampler;
+
     private EventBinding<?> stacksBinding;
 
     private final ProfilerNode<Payload> rootNode = new ProfilerNode<>(this, new Payload());
@@ -493,8 +508,13 @@ public final class CPUSampler implements Closeable {
             f = DEFAULT_FILTER;
         }
         this.stackOverflowed = false;
-        this.shadowStack = new ShadowStack(stackLimit);
-        this.stacksBinding = this.shadowStack.install(env.getInstrumenter(), combine(f, mode), mode == Mode.EXCLUDE_INLINED_ROOTS);
+        if (mode == Mode.ASYNC_ROOTS) {
+            this.frameSampler = new FrameSampler(stackLimit);
+            this.stacksBinding = this.frameSampler.install(env.getInstrumenter(), combine(f, mode));
+        } else {
+            this.shadowStack = new ShadowStack(stackLimit);
+            this.stacksBinding = this.shadowStack.install(env.getInstrumenter(), combine(f, mode), mode == Mode.EXCLUDE_INLINED_ROOTS);
+        }
 
         this.samplerTask = new SamplingTimerTask();
         this.samplerThread.schedule(samplerTask, 0, period);
@@ -503,7 +523,7 @@ public final class CPUSampler implements Closeable {
 
     private static SourceSectionFilter combine(SourceSectionFilter filter, Mode mode) {
         List<Class<?>> tags = new ArrayList<>();
-        if (mode == Mode.EXCLUDE_INLINED_ROOTS || mode == Mode.ROOTS) {
+        if (mode == Mode.EXCLUDE_INLINED_ROOTS || mode == Mode.ROOTS || mode == Mode.ASYNC_ROOTS) {
             tags.add(StandardTags.RootTag.class);
         }
         if (mode == Mode.STATEMENTS) {
@@ -521,6 +541,9 @@ public final class CPUSampler implements Closeable {
         if (shadowStack != null) {
             shadowStack = null;
         }
+        if (frameSampler != null) {
+            frameSampler = null;
+        }
         if (samplerTask != null) {
             samplerTask.cancel();
             samplerTask = null;
@@ -561,11 +584,32 @@ public final class CPUSampler implements Closeable {
                     sampleTaken |= sample(stack, timestamp);
                 }
             }
+            FrameSampler localFrameSampler = frameSampler;
+            if (localFrameSampler != null) {
+                sampleTaken |= drain(localFrameSampler);
+                localFrameSampler.requestSamples();
+            }
             if (sampleTaken) {
                 samplesTaken.incrementAndGet();
             }
         }
 
+        boolean drain(FrameSampler sampler) {
+            if (sampler.hasStackOverflowed()) {
+                stackOverflowed = true;
+                return false;
+            }
+            boolean sampleTaken = false;
+            for (FrameSampler.ThreadSamples samples : sampler.getThreads()) {
+                FrameSampler.StackSample sample;
+                while ((sample = samples.poll()) != null) {
+                    record(sample.stack, sample.compiledStack, sample.stack.length, sample.timestamp);
+                    sampleTaken = true;
+                }
+            }
+            return sampleTaken;
+        }
+
         boolean sample(ShadowStack.ThreadLocalStack stack, long timestamp) {
             if (stack.hasStackOverflowed()) {
                 stackOverflowed = true;
@@ -579,15 +623,20 @@ public final class CPUSampler implements Closeable {
             if (correctedStackInfo == null || correctedStackInfo.getLength() == 0) {
                 return false;
             }
+            record(correctedStackInfo.getStack(), correctedStackInfo.getCompiledStack(), correctedStackInfo.getLength(), timestamp);
+            return true;
+        }
+
+        private void record(SourceLocation[] stack, boolean[] compiledStack, int length, long timestamp) {
             // now traverse the stack and insert the path into the tree
             ProfilerNode<Payload> treeNode = rootNode;
-            for (int i = 0; i < correctedStackInfo.getLength(); i++) {
-                SourceLocation location = correctedStackInfo.getStack()[i];
-                boolean isCompiled = correctedStackInfo.getCompiledStack()[i];
+            for (int i = 0; i < length; i++) {
+                SourceLocation location = stack[i];
+                boolean isCompiled = compiledStack[i];
 
                 treeNode = addOrUpdateChild(treeNode, location);
                 Payload payload = treeNode.getPayload();
-                if (i == correctedStackInfo.getLength() - 1) {
+                if (i == length - 1) {
                     // last element is counted as self time
                     if (isCompiled) {
                         payload.selfCompiledHitCount++;
@@ -605,7 +654,6 @@ public final class CPUSampler implements Closeable {
                     payload.interpretedHitCount++;
                 }
             }
-            return true;
         }
 
         private ProfilerNode<Payload> addOrUpdateChild(ProfilerNode<Payload> treeNode, SourceLocation location) {
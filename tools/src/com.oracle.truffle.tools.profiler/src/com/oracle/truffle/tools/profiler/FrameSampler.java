@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.tools.profiler;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.RootCallTarget;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.FrameInstance;
+import com.oracle.truffle.api.frame.FrameInstanceVisitor;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventBinding;
+import com.oracle.truffle.api.instrumentation.EventContext;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNode;
+import com.oracle.truffle.api.instrumentation.ExecutionEventNodeFactory;
+import com.oracle.truffle.api.instrumentation.Instrumenter;
+import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
+import com.oracle.truffle.api.nodes.NodeCost;
+import com.oracle.truffle.api.nodes.RootNode;
+
+/**
+ * Captures guest language stacks by walking the Truffle frames of the sampled threads instead of
+ * maintaining a {@link ShadowStack shadow stack}. The sampling thread only
+ * {@link #requestSamples() requests} a sample, each guest thread polls for a pending request when
+ * it enters a root and then captures its own stack. Captured stacks are queued per thread and
+ * drained by the sampling thread, so guest threads never contend on a shared lock.
+ */
+final class FrameSampler {
+
+    private final ConcurrentHashMap<Thread, ThreadSamples> threads = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<RootNode, RootState> roots = new ConcurrentHashMap<>();
+    private final int stackLimit;
+
+    private volatile boolean stackOverflowed;
+
+    FrameSampler(int stackLimit) {
+        this.stackLimit = stackLimit;
+    }
+
+    Collection<ThreadSamples> getThreads() {
+        return threads.values();
+    }
+
+    boolean hasStackOverflowed() {
+        return stackOverflowed;
+    }
+
+    /**
+     * Asks every known thread to capture its stack the next time it enters a root. Threads that
+     * terminated and whose samples were consumed are forgotten.
+     */
+    void requestSamples() {
+        for (Iterator<ThreadSamples> iterator = threads.values().iterator(); iterator.hasNext();) {
+            ThreadSamples samples = iterator.next();
+            if (!samples.thread.isAlive() && samples.pending.isEmpty()) {
+                iterator.remove();
+            } else {
+                samples.requested = true;
+            }
+        }
+    }
+
+    EventBinding<?> install(Instrumenter instrumenter, SourceSectionFilter filter) {
+        return instrumenter.attachExecutionEventFactory(filter, new ExecutionEventNodeFactory() {
+            public ExecutionEventNode create(EventContext context) {
+                RootNode rootNode = context.getInstrumentedNode().getRootNode();
+                RootState root = null;
+                if (rootNode != null) {
+                    // only roots that pass the filter show up in the sampled stacks
+                    root = roots.get(rootNode);
+                    if (root == null) {
+                        root = new RootState(new SourceLocation(instrumenter, context));
+                        RootState prevRoot = roots.putIfAbsent(rootNode, root);
+                        if (prevRoot != null) {
+                            root = prevRoot;
+                        }
+                    }
+                }
+                return new SamplePollNode(FrameSampler.this, root);
+            }
+        });
+    }
+
+    @TruffleBoundary
+    private ThreadSamples getSamples() {
+        Thread currentThread = Thread.currentThread();
+        ThreadSamples samples = threads.get(currentThread);
+        if (samples == null) {
+            samples = new ThreadSamples(currentThread);
+            ThreadSamples prevSamples = threads.putIfAbsent(currentThread, samples);
+            if (prevSamples != null) {
+                samples = prevSamples;
+            }
+        }
+        return samples;
+    }
+
+    @TruffleBoundary
+    private void capture(ThreadSamples samples) {
+        samples.requested = false;
+        long timestamp = System.currentTimeMillis();
+        StackVisitor visitor = new StackVisitor();
+        Truffle.getRuntime().iterateFrames(visitor);
+        if (visitor.overflowed) {
+            stackOverflowed = true;
+            return;
+        }
+        if (visitor.length == 0) {
+            return;
+        }
+        // frames are visited from the top of the stack, samples are recorded from the bottom
+        int length = visitor.length;
+        SourceLocation[] stack = new SourceLocation[length];
+        boolean[] compiledStack = new boolean[length];
+        for (int i = 0; i < length; i++) {
+            stack[i] = visitor.stack[length - 1 - i];
+            compiledStack[i] = visitor.compiledStack[length - 1 - i];
+        }
+        samples.pending.add(new StackSample(stack, compiledStack, timestamp));
+    }
+
+    private final class StackVisitor implements FrameInstanceVisitor<FrameInstance> {
+
+        SourceLocation[] stack = new SourceLocation[16];
+        boolean[] compiledStack = new boolean[16];
+        int length;
+        boolean overflowed;
+
+        @Override
+        public FrameInstance visitFrame(FrameInstance frameInstance) {
+            CallTarget target = frameInstance.getCallTarget();
+            if (!(target instanceof RootCallTarget)) {
+                return null;
+            }
+            RootState root = roots.get(((RootCallTarget) target).getRootNode());
+            if (root == null) {
+                return null;
+            }
+            if (length == stackLimit) {
+                overflowed = true;
+                return frameInstance;
+            }
+            if (length == stack.length) {
+                stack = Arrays.copyOf(stack, length * 2);
+                compiledStack = Arrays.copyOf(compiledStack, length * 2);
+            }
+            stack[length] = root.location;
+            compiledStack[length] = root.compiled;
+            length++;
+            return null;
+        }
+    }
+
+    private static class SamplePollNode extends ExecutionEventNode {
+
+        private final FrameSampler sampler;
+        private final RootState root;
+
+        private final Thread cachedThread;
+        private final ThreadSamples cachedSamples;
+
+        @CompilationFinal private boolean seenOtherThreads;
+
+        SamplePollNode(FrameSampler sampler, RootState root) {
+            this.sampler = sampler;
+            this.root = root;
+            this.cachedThread = Thread.currentThread();
+            this.cachedSamples = sampler.getSamples();
+        }
+
+        @Override
+        protected void onEnter(VirtualFrame frame) {
+            boolean compiled = CompilerDirectives.inCompiledCode();
+            if (root != null && root.compiled != compiled) {
+                // only written on a change, so a stable root costs a single read
+                root.compiled = compiled;
+            }
+            if (compiled && !CompilerDirectives.inCompilationRoot()) {
+                // the enclosing compilation root polls already
+                return;
+            }
+            if (seenOtherThreads) {
+                pollSlow();
+            } else if (cachedThread == Thread.currentThread()) {
+                if (cachedSamples.requested) {
+                    sampler.capture(cachedSamples);
+                }
+            } else {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                seenOtherThreads = true;
+                pollSlow();
+            }
+        }
+
+        @TruffleBoundary
+        private void pollSlow() {
+            ThreadSamples samples = sampler.getSamples();
+            if (samples.requested) {
+                sampler.capture(samples);
+            }
+        }
+
+        @Override
+        public NodeCost getCost() {
+            return NodeCost.NONE;
+        }
+    }
+
+    /**
+     * The location of a sampled root and whether it was last entered in compiled code, including
+     * code it was inlined into. Frame instances do not tell whether they belong to compiled code.
+     */
+    private static final class RootState {
+
+        final SourceLocation location;
+        boolean compiled;
+
+        RootState(SourceLocation location) {
+            this.location = location;
+        }
+    }
+
+    static final class ThreadSamples {
+
+        private final Thread thread;
+        private final Queue<StackSample> pending = new ConcurrentLinkedQueue<>();
+
+        volatile boolean requested;
+
+        ThreadSamples(Thread thread) {
+            this.thread = thread;
+        }
+
+        Thread getThread() {
+            return thread;
+        }
+
+        /**
+         * @return the oldest captured sample not yet consumed by the sampling thread or
+         *         <code>null</code>
+         */
+        StackSample poll() {
+            return pending.poll();
+        }
+    }
+
+    static final class StackSample {
+
+        final SourceLocation[] stack;
+        final boolean[] compiledStack;
+        final long timestamp;
+
+        StackSample(SourceLocation[] stack, boolean[] compiledStack, long timestamp) {
+            this.stack = stack;
+            this.compiledStack = compiledStack;
+            this.timestamp = timestamp;
+        }
+    }
+}
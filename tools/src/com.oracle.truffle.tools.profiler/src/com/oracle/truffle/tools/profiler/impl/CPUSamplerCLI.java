@@ -50,7 +50,8 @@ class CPUSamplerCLI extends ProfilerCLI {
 
     enum Output {
         HISTOGRAM,
-        CALLTREE
+        CALLTREE,
+        COLLAPSED
     }
 
     static final OptionType<Output> CLI_OUTPUT_TYPE = new OptionType<>("Output",
@@ -61,7 +62,7 @@ class CPUSamplerCLI extends ProfilerCLI {
                             try {
                                 return Output.valueOf(s.toUpperCase());
                             } catch (IllegalArgumentException e) {
-                                throw new IllegalArgumentException("Output can be: histogram or calltree");
+                                throw new IllegalArgumentException("Output can be: histogram, calltree or collapsed");
                             }
                         }
                     });
@@ -74,7 +75,7 @@ class CPUSamplerCLI extends ProfilerCLI {
                             try {
                                 return CPUSampler.Mode.valueOf(s.toUpperCase());
                             } catch (IllegalArgumentException e) {
-                                throw new IllegalArgumentException("Mode can be: compiled, roots or statements.");
+                                throw new IllegalArgumentException("Mode can be: exclude_inlined_roots, roots, statements or async_roots.");
                             }
                         }
                     });
@@ -84,7 +85,8 @@ class CPUSamplerCLI extends ProfilerCLI {
     // @formatter:off
     @Option(name = "Mode",
             help = "Describes level of sampling detail. NOTE: Increased detail can lead to reduced accuracy. Modes: 'exclude_inlined_roots' - samples roots excluding inlined functions (default), " +
-                    "'roots' - samples roots including inlined functions, 'statements' - samples all statements.", category = OptionCategory.USER)
+                    "'roots' - samples roots including inlined functions, 'statements' - samples all statements, " +
+                    "'async_roots' - samples roots including inlined functions by walking the guest stack instead of keeping a shadow stack.", category = OptionCategory.USER)
     static final OptionKey<CPUSampler.Mode> MODE = new OptionKey<>(CPUSampler.Mode.EXCLUDE_INLINED_ROOTS, CLI_MODE_TYPE);
     // @formatter:om
     @Option(name = "Period", help = "Period in milliseconds to sample the stack.", category = OptionCategory.USER) static final OptionKey<Long> SAMPLE_PERIOD = new OptionKey<>(1L);
@@ -93,7 +95,7 @@ class CPUSamplerCLI extends ProfilerCLI {
 
     @Option(name = "StackLimit", help = "Maximum number of maximum stack elements.", category = OptionCategory.USER) static final OptionKey<Integer> STACK_LIMIT = new OptionKey<>(10000);
 
-    @Option(name = "Output", help = "Print a 'histogram' or 'calltree' as output (default:HISTOGRAM).", category = OptionCategory.USER) static final OptionKey<Output> OUTPUT = new OptionKey<>(
+    @Option(name = "Output", help = "Print a 'histogram', 'calltree' or 'collapsed' stacks for flame graphs as output (default:HISTOGRAM).", category = OptionCategory.USER) static final OptionKey<Output> OUTPUT = new OptionKey<>(
                     Output.HISTOGRAM, CLI_OUTPUT_TYPE);
 
     @Option(name = "FilterRootName", help = "Wildcard filter for program roots. (eg. Math.*, default:*).", category = OptionCategory.USER) static final OptionKey<Object[]> FILTER_ROOT = new OptionKey<>(
@@ -124,7 +126,41 @@ class CPUSamplerCLI extends ProfilerCLI {
             case CALLTREE:
                 printSamplingCallTree(out, sampler);
                 break;
+            case COLLAPSED:
+                printCollapsedStacks(out, sampler);
+                break;
+        }
+    }
+
+    /**
+     * Prints one line per sampled stack with the frames separated by semicolons followed by the
+     * self hit count, the input format of common flame graph tools.
+     */
+    private static void printCollapsedStacks(PrintStream out, CPUSampler sampler) {
+        for (ProfilerNode<CPUSampler.Payload> treeNode : sampler.getRootNodes()) {
+            printCollapsedStacksRec(out, "", treeNode);
+        }
+    }
+
+    private static void printCollapsedStacksRec(PrintStream out, String prefix, ProfilerNode<CPUSampler.Payload> treeNode) {
+        String stack = prefix + getCollapsedFrameName(treeNode);
+        int selfHitCount = treeNode.getPayload().getSelfHitCount();
+        if (selfHitCount > 0) {
+            out.println(stack + " " + selfHitCount);
+        }
+        for (ProfilerNode<CPUSampler.Payload> child : treeNode.getChildren()) {
+            printCollapsedStacksRec(out, stack + ";", child);
+        }
+    }
+
+    private static String getCollapsedFrameName(ProfilerNode<CPUSampler.Payload> treeNode) {
+        String rootName = treeNode.getRootName();
+        if (rootName == null || rootName.isEmpty()) {
+            rootName = "<unnamed>";
         }
+        String frame = rootName + " (" + getShortDescription(treeNode.getSourceSection()) + ")";
+        // semicolons separate the frames
+        return frame.replace(';', ',');
     }
 
     private static Map<SourceLocation, List<ProfilerNode<CPUSampler.Payload>>> computeHistogram(CPUSampler sampler) {
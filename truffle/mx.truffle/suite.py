@@ -152,6 +152,7 @@ suite = {
       "sourceDirs" : ["src"],
       "dependencies" : [
         "TRUFFLE_API",
+        "TRUFFLE_NFI",
         "TRUFFLE_INSTRUMENT_TEST",
         "mx:JMH_1_21",
       ],
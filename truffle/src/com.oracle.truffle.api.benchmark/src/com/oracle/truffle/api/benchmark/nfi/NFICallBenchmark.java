@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.benchmark.nfi;
+
+import org.graalvm.polyglot.Context;
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.TruffleLanguage;
+import com.oracle.truffle.api.benchmark.TruffleBenchmark;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.source.Source;
+
+/**
+ * Measures the throughput of native calls through the NFI for different signature shapes. Integer
+ * and pointer signatures with up to six arguments are called directly, all other signatures go
+ * through libffi. Run with <code>directCalls=false</code> to compare against the libffi path for
+ * every shape.
+ */
+@State(Scope.Thread)
+public class NFICallBenchmark extends TruffleBenchmark {
+
+    private static final String TEST_LANGUAGE = "benchmark-nfi-language";
+    private static final int CALLS = 1000;
+
+    @Param({"true", "false"}) public boolean directCalls;
+
+    private Context context;
+    private Value noArgs;
+    private Value intArg;
+    private Value longArg;
+    private Value doubleArg;
+
+    @Setup
+    public void setup() {
+        // must be set before the first signature is created
+        System.setProperty("truffle.nfi.disableDirectCalls", String.valueOf(!directCalls));
+        context = Context.newBuilder(TEST_LANGUAGE).allowNativeAccess(true).build();
+        noArgs = context.eval(TEST_LANGUAGE, "getpid ():sint32");
+        intArg = context.eval(TEST_LANGUAGE, "abs (sint32):sint32");
+        longArg = context.eval(TEST_LANGUAGE, "labs (sint64):sint64");
+        doubleArg = context.eval(TEST_LANGUAGE, "fabs (double):double");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public Value callNoArgs() {
+        return noArgs.execute();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public Value callSint32() {
+        return intArg.execute(-42);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public Value callSint64() {
+        return longArg.execute(-42L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CALLS)
+    public Value callDouble() {
+        return doubleArg.execute(-42.0);
+    }
+
+    /**
+     * Binds a function of the default library. Executing the parsed source calls the function
+     * {@link #CALLS} times with the given arguments.
+     */
+    @TruffleLanguage.Registration(id = TEST_LANGUAGE, name = "", version = "", mimeType = TEST_LANGUAGE)
+    public static class NFIBenchmarkLanguage extends TruffleLanguage<Env> {
+
+        @Override
+        protected Env createContext(Env env) {
+            return env;
+        }
+
+        @Override
+        protected boolean isObjectOfLanguage(Object object) {
+            return false;
+        }
+
+        @Override
+        protected CallTarget parse(ParsingRequest request) throws Exception {
+            String code = request.getSource().getCharacters().toString();
+            int separator = code.indexOf(' ');
+            String symbol = code.substring(0, separator);
+            String signature = code.substring(separator + 1);
+
+            Env env = getContextReference().get();
+            Source source = Source.newBuilder("default").name("default library").mimeType("application/x-native").build();
+            TruffleObject library = (TruffleObject) env.parse(source).call();
+            TruffleObject function = (TruffleObject) ForeignAccess.sendRead(Message.READ.createNode(), library, symbol);
+            TruffleObject bound = (TruffleObject) ForeignAccess.sendInvoke(Message.createInvoke(1).createNode(), function, "bind", signature);
+            return Truffle.getRuntime().createCallTarget(new CallLoopNode(this, bound));
+        }
+    }
+
+    static final class CallLoopNode extends RootNode {
+
+        private final TruffleObject function;
+        @Child private Node execute = Message.createExecute(0).createNode();
+
+        CallLoopNode(TruffleLanguage<?> language, TruffleObject function) {
+            super(language);
+            this.function = function;
+        }
+
+        @Override
+        public Object execute(VirtualFrame frame) {
+            Object[] arguments = frame.getArguments();
+            Object result = null;
+            try {
+                for (int i = 0; i < CALLS; i++) {
+                    result = ForeignAccess.sendExecute(execute, function, arguments);
+                }
+            } catch (InteropException e) {
+                CompilerDirectives.transferToInterpreter();
+                throw new AssertionError(e);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.interop.java.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.graalvm.polyglot.Context;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
+import com.oracle.truffle.api.interop.Message;
+import com.oracle.truffle.api.interop.MessageResolution;
+import com.oracle.truffle.api.interop.Resolve;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.interop.UnknownIdentifierException;
+import com.oracle.truffle.api.interop.UnsupportedTypeException;
+import com.oracle.truffle.api.interop.java.JavaInterop;
+import com.oracle.truffle.api.nodes.Node;
+
+@SuppressWarnings("deprecation")
+public class RangeMessageTest {
+
+    private Context context;
+
+    @Before
+    public void enterContext() {
+        context = Context.create();
+        context.enter();
+    }
+
+    @After
+    public void leaveContext() {
+        context.leave();
+        context.close();
+    }
+
+    @Test
+    public void testReadRangeHostArray() throws InteropException {
+        TruffleObject array = JavaInterop.asTruffleObject(new int[]{1, 2, 3, 4, 5});
+        int[] buffer = new int[4];
+        ForeignAccess.sendReadRange(Message.READ_RANGE.createNode(), array, 1, buffer, 1, 3);
+        assertArrayEquals(new int[]{0, 2, 3, 4}, buffer);
+    }
+
+    @Test
+    public void testWriteRangeHostArray() throws InteropException {
+        double[] values = new double[4];
+        TruffleObject array = JavaInterop.asTruffleObject(values);
+        ForeignAccess.sendWriteRange(Message.WRITE_RANGE.createNode(), array, 2, new double[]{1.5, 2.5, 3.5}, 1, 2);
+        assertArrayEquals(new double[]{0, 0, 2.5, 3.5}, values, 0);
+    }
+
+    @Test
+    public void testReadRangeConvertsHostArray() throws InteropException {
+        TruffleObject array = JavaInterop.asTruffleObject(new int[]{1, 2, 3});
+        long[] buffer = new long[3];
+        ForeignAccess.sendReadRange(Message.READ_RANGE.createNode(), array, 0, buffer, 0, 3);
+        assertArrayEquals(new long[]{1, 2, 3}, buffer);
+    }
+
+    @Test
+    public void testReadRangeFallback() throws InteropException {
+        TruffleObject list = new ReadWriteTO(Arrays.<Object> asList(1, 2, 3, 4));
+        long[] buffer = new long[4];
+        ForeignAccess.sendReadRange(Message.READ_RANGE.createNode(), list, 0, buffer, 0, 4);
+        assertArrayEquals(new long[]{1, 2, 3, 4}, buffer);
+
+        Object[] objects = new Object[2];
+        ForeignAccess.sendReadRange(Message.READ_RANGE.createNode(), list, 2, objects, 0, 2);
+        assertArrayEquals(new Object[]{3, 4}, objects);
+    }
+
+    @Test
+    public void testWriteRangeFallback() throws InteropException {
+        List<Object> values = Arrays.<Object> asList(0, 0, 0);
+        TruffleObject list = new ReadWriteTO(values);
+        ForeignAccess.sendWriteRange(Message.WRITE_RANGE.createNode(), list, 1, new int[]{7, 8}, 0, 2);
+        assertEquals(Arrays.<Object> asList(0, 7, 8), values);
+    }
+
+    @Test
+    public void testReadRangeOutOfBounds() throws InteropException {
+        TruffleObject array = JavaInterop.asTruffleObject(new int[]{1, 2});
+        try {
+            ForeignAccess.sendReadRange(Message.READ_RANGE.createNode(), array, 1, new int[2], 0, 2);
+            fail();
+        } catch (UnknownIdentifierException e) {
+        }
+        try {
+            ForeignAccess.sendReadRange(Message.READ_RANGE.createNode(), new ReadWriteTO(Arrays.<Object> asList(1)), 0, new int[2], 0, 2);
+            fail();
+        } catch (UnknownIdentifierException e) {
+        }
+    }
+
+    @Test
+    public void testReadRangeLossyConversion() throws InteropException {
+        TruffleObject list = new ReadWriteTO(Arrays.<Object> asList(1, 1L << 40));
+        try {
+            ForeignAccess.sendReadRange(Message.READ_RANGE.createNode(), list, 0, new int[2], 0, 2);
+            fail();
+        } catch (UnsupportedTypeException e) {
+        }
+    }
+
+    @Test
+    public void testReadRangeNaNIntoFloats() throws InteropException {
+        TruffleObject list = new ReadWriteTO(Arrays.<Object> asList(0.5d, Double.NaN));
+        float[] buffer = new float[2];
+        ForeignAccess.sendReadRange(Message.READ_RANGE.createNode(), list, 0, buffer, 0, 2);
+        assertArrayEquals(new float[]{0.5f, Float.NaN}, buffer, 0);
+    }
+
+    @Test
+    public void testReadRangeIntegersIntoFloats() throws InteropException {
+        TruffleObject list = new ReadWriteTO(Arrays.<Object> asList(3, 1L << 20, (short) -7));
+        float[] buffer = new float[3];
+        ForeignAccess.sendReadRange(Message.READ_RANGE.createNode(), list, 0, buffer, 0, 3);
+        assertArrayEquals(new float[]{3f, 1 << 20, -7f}, buffer, 0);
+    }
+
+    @Test
+    public void testReadRangeConvertsLikeJavaInterop() throws InteropException {
+        List<Object> values = Arrays.<Object> asList("x", 'y');
+        char[] buffer = new char[2];
+        ForeignAccess.sendReadRange(Message.READ_RANGE.createNode(), new ReadWriteTO(values), 0, buffer, 0, 2);
+        assertArrayEquals(new char[]{'x', 'y'}, buffer);
+    }
+
+    @Test
+    public void testAsPrimitiveArray() {
+        TruffleObject list = new ReadWriteTO(Arrays.<Object> asList(1, 2, 3));
+        assertArrayEquals(new int[]{1, 2, 3}, JavaInterop.asJavaObject(int[].class, list));
+        assertArrayEquals(new double[]{1, 2, 3}, JavaInterop.asJavaObject(double[].class, list), 0);
+        assertArrayEquals(new int[]{4, 5}, JavaInterop.asJavaObject(int[].class, JavaInterop.asTruffleObject(new int[]{4, 5})));
+    }
+
+    static final class ReadWriteTO implements TruffleObject {
+
+        final List<Object> list;
+
+        ReadWriteTO(List<Object> list) {
+            this.list = list;
+        }
+
+        @Override
+        public ForeignAccess getForeignAccess() {
+            return ReadWriteMessageResolutionForeign.ACCESS;
+        }
+
+        public static boolean isInstance(TruffleObject obj) {
+            return obj instanceof ReadWriteTO;
+        }
+
+        @MessageResolution(receiverType = ReadWriteTO.class)
+        static class ReadWriteMessageResolution {
+
+            @Resolve(message = "HAS_SIZE")
+            abstract static class HasSizeNode extends Node {
+
+                @SuppressWarnings("unused")
+                public Object access(ReadWriteTO receiver) {
+                    return true;
+                }
+            }
+
+            @Resolve(message = "GET_SIZE")
+            abstract static class GetSizeNode extends Node {
+
+                public Object access(ReadWriteTO receiver) {
+                    return receiver.list.size();
+                }
+            }
+
+            @Resolve(message = "READ")
+            abstract static class ReadNode extends Node {
+
+                @TruffleBoundary
+                public Object access(ReadWriteTO receiver, int index) {
+                    if (index < 0 || index >= receiver.list.size()) {
+                        throw UnknownIdentifierException.raise(Integer.toString(index));
+                    }
+                    return receiver.list.get(index);
+                }
+            }
+
+            @Resolve(message = "WRITE")
+            abstract static class WriteNode extends Node {
+
+                @TruffleBoundary
+                public Object access(ReadWriteTO receiver, int index, Object value) {
+                    if (index < 0 || index >= receiver.list.size()) {
+                        throw UnknownIdentifierException.raise(Integer.toString(index));
+                    }
+                    receiver.list.set(index, value);
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -67,6 +67,17 @@ final class JavaInteropAccessor extends Accessor {
                 return toJavaNode.execute(value, rawType, genericType, polyglotContext);
             }
 
+            @Override
+            public Node createToPrimitiveNode() {
+                return ToPrimitiveNode.create();
+            }
+
+            @Override
+            public Object toPrimitive(Node primitiveNode, Object value, Class<?> primitiveType) {
+                ToPrimitiveNode toPrimitiveNode = (ToPrimitiveNode) primitiveNode;
+                return toPrimitiveNode.toPrimitive(toPrimitiveNode.unbox(value), primitiveType);
+            }
+
             @Override
             public boolean isHostObject(Object object) {
                 return object instanceof JavaObject;
@@ -427,6 +427,43 @@ class JavaObjectMessageResolution {
         }
     }
 
+    @Resolve(message = "READ_RANGE")
+    abstract static class ReadRangeNode extends Node {
+
+        public Object access(JavaObject receiver, long index, Object buffer, int offset, int length) {
+            Object array = receiver.obj;
+            if (array == null || array.getClass() != buffer.getClass() || !buffer.getClass().getComponentType().isPrimitive()) {
+                // element-wise transfer with conversions
+                throw UnsupportedMessageException.raise(Message.READ_RANGE);
+            }
+            checkRange(array, index, length);
+            System.arraycopy(array, (int) index, buffer, offset, length);
+            return receiver;
+        }
+    }
+
+    @Resolve(message = "WRITE_RANGE")
+    abstract static class WriteRangeNode extends Node {
+
+        public Object access(JavaObject receiver, long index, Object buffer, int offset, int length) {
+            Object array = receiver.obj;
+            if (array == null || array.getClass() != buffer.getClass() || !buffer.getClass().getComponentType().isPrimitive()) {
+                // element-wise transfer with conversions
+                throw UnsupportedMessageException.raise(Message.WRITE_RANGE);
+            }
+            checkRange(array, index, length);
+            System.arraycopy(buffer, offset, array, (int) index, length);
+            return receiver;
+        }
+    }
+
+    static void checkRange(Object array, long index, int length) {
+        if (index < 0 || index + length > Array.getLength(array)) {
+            CompilerDirectives.transferToInterpreter();
+            throw UnknownIdentifierException.raise(String.valueOf(index < 0 ? index : index + length - 1));
+        }
+    }
+
     @Resolve(message = "HAS_KEYS")
     abstract static class HasKeysNode extends Node {
 
@@ -42,6 +42,7 @@ import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.impl.Accessor.EngineSupport;
 import com.oracle.truffle.api.interop.ForeignAccess;
+import com.oracle.truffle.api.interop.InteropException;
 import com.oracle.truffle.api.interop.Message;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.api.nodes.Node;
@@ -63,6 +64,8 @@ abstract class ToJavaNode extends Node {
     @Child private Node isNull = Message.IS_NULL.createNode();
     @Child private Node hasKeysNode = Message.HAS_KEYS.createNode();
     @Child private ToPrimitiveNode primitive = ToPrimitiveNode.create();
+    @Child private Node getSizeNode;
+    @Child private Node readRangeNode;
 
     public abstract Object execute(Object value, Class<?> targetType, Type genericType, Object languageContext);
 
@@ -375,8 +378,14 @@ abstract class ToJavaNode extends Node {
         return genericComponentType;
     }
 
-    private static Object truffleObjectToArray(TruffleObject foreignObject, Class<?> arrayType, Type genericArrayType, Object languageContext) {
+    private Object truffleObjectToArray(TruffleObject foreignObject, Class<?> arrayType, Type genericArrayType, Object languageContext) {
         Class<?> componentType = arrayType.getComponentType();
+        if (componentType.isPrimitive()) {
+            Object array = readPrimitiveArray(foreignObject, componentType);
+            if (array != null) {
+                return array;
+            }
+        }
         List<?> list = TruffleList.create(languageContext, foreignObject, false, componentType, getGenericArrayComponentType(genericArrayType));
         Object array = Array.newInstance(componentType, list.size());
         for (int i = 0; i < list.size(); i++) {
@@ -385,6 +394,31 @@ abstract class ToJavaNode extends Node {
         return array;
     }
 
+    /**
+     * Transfers all elements with a single {@link Message#READ_RANGE} message. Returns
+     * <code>null</code> if the elements cannot be transferred in bulk, in which case the caller
+     * converts them one by one to produce the appropriate error.
+     */
+    private Object readPrimitiveArray(TruffleObject foreignObject, Class<?> componentType) {
+        if (readRangeNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            getSizeNode = insert(Message.GET_SIZE.createNode());
+            readRangeNode = insert(Message.READ_RANGE.createNode());
+        }
+        try {
+            Object size = ForeignAccess.sendGetSize(getSizeNode, foreignObject);
+            if (!(size instanceof Integer)) {
+                return null;
+            }
+            int length = (int) size;
+            Object array = Array.newInstance(componentType, length);
+            ForeignAccess.sendReadRange(readRangeNode, foreignObject, 0, array, 0, length);
+            return array;
+        } catch (InteropException e) {
+            return null;
+        }
+    }
+
     @TruffleBoundary
     private static String convertToString(Object value) {
         return value.toString();
@@ -297,6 +297,76 @@ public final class ForeignAccess {
         }
     }
 
+    /**
+     * Sends a {@link Message#READ_RANGE READ_RANGE message} to the foreign receiver object by
+     * executing the <code> readRangeNode </code>. If the receiver does not support the message, the
+     * elements are read one by one using {@link Message#READ} and, if necessary,
+     * {@link Message#UNBOX}.
+     *
+     * @param readRangeNode the node created by {@link Message#createNode()}
+     * @param receiver foreign object to receive the message passed to {@link Message#createNode()}
+     *            method
+     * @param index index of the first element to read
+     * @param destination a primitive Java array or an {@code Object[]} to read the elements into
+     * @param destinationOffset index of the first element to write in <code>destination</code>
+     * @param length number of elements to read
+     * @throws ClassCastException if the createNode has not been created by
+     *             {@link Message#createNode()} method.
+     * @throws UnsupportedMessageException if the <code>receiver</code> supports neither
+     *             {@link Message#READ_RANGE} nor {@link Message#READ}
+     * @throws UnknownIdentifierException if the <code>receiver</code> does not allow reading one
+     *             of the elements in the range
+     * @throws UnsupportedTypeException if an element cannot be stored in <code>destination</code>
+     *             without loss of precision
+     * @since 1.0
+     */
+    public static void sendReadRange(Node readRangeNode, TruffleObject receiver, long index, Object destination, int destinationOffset, int length)
+                    throws UnknownIdentifierException, UnsupportedTypeException, UnsupportedMessageException {
+        try {
+            ((InteropAccessNode) readRangeNode).executeRange(receiver, index, destination, destinationOffset, length);
+        } catch (UnknownIdentifierException | UnsupportedTypeException | UnsupportedMessageException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw e;
+        } catch (InteropException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw new AssertionError("Unexpected exception caught.", e);
+        }
+    }
+
+    /**
+     * Sends a {@link Message#WRITE_RANGE WRITE_RANGE message} to the foreign receiver object by
+     * executing the <code> writeRangeNode </code>. If the receiver does not support the message,
+     * the elements are written one by one using {@link Message#WRITE}.
+     *
+     * @param writeRangeNode the node created by {@link Message#createNode()}
+     * @param receiver foreign object to receive the message passed to {@link Message#createNode()}
+     *            method
+     * @param index index of the first element to write
+     * @param source a primitive Java array or an {@code Object[]} of interop values to write
+     * @param sourceOffset index of the first element to read from <code>source</code>
+     * @param length number of elements to write
+     * @throws ClassCastException if the createNode has not been created by
+     *             {@link Message#createNode()} method.
+     * @throws UnsupportedMessageException if the <code>receiver</code> supports neither
+     *             {@link Message#WRITE_RANGE} nor {@link Message#WRITE}
+     * @throws UnknownIdentifierException if the <code>receiver</code> does not allow writing one
+     *             of the elements in the range
+     * @throws UnsupportedTypeException if an element cannot be written to the receiver
+     * @since 1.0
+     */
+    public static void sendWriteRange(Node writeRangeNode, TruffleObject receiver, long index, Object source, int sourceOffset, int length)
+                    throws UnknownIdentifierException, UnsupportedTypeException, UnsupportedMessageException {
+        try {
+            ((InteropAccessNode) writeRangeNode).executeRange(receiver, index, source, sourceOffset, length);
+        } catch (UnknownIdentifierException | UnsupportedTypeException | UnsupportedMessageException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw e;
+        } catch (InteropException e) {
+            CompilerDirectives.transferToInterpreter();
+            throw new AssertionError("Unexpected exception caught.", e);
+        }
+    }
+
     /**
      * Sends an {@link Message#UNBOX UNBOX message} to the foreign receiver object by executing the
      * <code> unboxNode </code>.
@@ -971,6 +1041,28 @@ public final class ForeignAccess {
             return null;
         }
 
+        /**
+         * Handles {@link Message#READ_RANGE} message.
+         *
+         * @return call target to handle the message or <code>null</code> if this message is not
+         *         supported
+         * @since 1.0
+         */
+        default CallTarget accessReadRange() {
+            return null;
+        }
+
+        /**
+         * Handles {@link Message#WRITE_RANGE} message.
+         *
+         * @return call target to handle the message or <code>null</code> if this message is not
+         *         supported
+         * @since 1.0
+         */
+        default CallTarget accessWriteRange() {
+            return null;
+        }
+
         /**
          * Handles {@link Message#createExecute(int)} messages.
          *
@@ -1321,6 +1413,10 @@ public final class ForeignAccess {
                         return factory.accessWrite();
                     case Remove.HASH:
                         return factory.accessRemove();
+                    case ReadRange.HASH:
+                        return factory.accessReadRange();
+                    case WriteRange.HASH:
+                        return factory.accessWriteRange();
                     case Keys.HASH:
                         return factory.accessKeys();
                     case KeyInfoMsg.HASH:
@@ -1400,5 +1496,5 @@ public final class ForeignAccess {
         }
     }
 
-    @SuppressWarnings("unused") private static final InteropAccessor ACCESSOR = new InteropAccessor();
+    static final InteropAccessor ACCESSOR = new InteropAccessor();
 }
@@ -43,6 +43,7 @@ abstract class InteropAccessNode extends Node {
     protected final Message message;
     @CompilationFinal private int previousLength = -2;
     private final BranchProfile profileDefaultUnsupported = BranchProfile.create();
+    @Child private DirectCallNode rangeFallbackCall;
 
     protected InteropAccessNode(Message message) {
         this.message = message;
@@ -82,6 +83,29 @@ abstract class InteropAccessNode extends Node {
         return checkInteropType(executeImpl(receiver, insertArg2(arguments, receiver, arg0)));
     }
 
+    /**
+     * Executes a range message. The buffer is a host array and therefore deliberately not checked
+     * to be an interop value. If the receiver explicitly refuses the range message, the range is
+     * transferred element-wise.
+     */
+    public final void executeRange(TruffleObject receiver, long index, Object buffer, int offset, int length) throws InteropException {
+        assert message instanceof ReadRange || message instanceof WriteRange;
+        assert RangeAccessRootNode.checkBuffer(buffer, offset, length);
+        Object[] arguments = new Object[]{receiver, index, buffer, offset, length};
+        try {
+            executeImplInterop(receiver, arguments);
+        } catch (UnsupportedMessageException e) {
+            if (e.getUnsupportedMessage() != message) {
+                throw e;
+            }
+            if (rangeFallbackCall == null) {
+                CompilerDirectives.transferToInterpreterAndInvalidate();
+                rangeFallbackCall = insert(DirectCallNode.create(RangeAccessRootNode.getTarget(message)));
+            }
+            rangeFallbackCall.call(arguments);
+        }
+    }
+
     @Deprecated
     public final Object executeOld(TruffleObject receiver, Object[] arguments) {
         return checkInteropType(executeImpl(receiver, insertArg1(arguments, receiver)));
@@ -225,6 +249,9 @@ abstract class InteropAccessNode extends Node {
         if (fa != null) {
             ct = fa.access(message);
         }
+        if (ct == null && (message instanceof ReadRange || message instanceof WriteRange)) {
+            ct = RangeAccessRootNode.getTarget(message);
+        }
         if (ct == null) {
             throw UnsupportedMessageException.raise(message);
         }
@@ -33,6 +33,10 @@ import com.oracle.truffle.api.nodes.RootNode;
 
 class InteropAccessor extends Accessor {
 
+    static JavaInteropSupport javaInteropAccess() {
+        return ForeignAccess.ACCESSOR.javaInteropSupport();
+    }
+
     @Override
     protected InteropSupport interopSupport() {
         return new InteropSupport() {
@@ -185,6 +185,77 @@ public abstract class Message {
      */
     public static final Message REMOVE = Remove.INSTANCE;
 
+    /**
+     * Message to read a contiguous range of array elements into a host buffer. The
+     * {@link Factory#accessMessage(com.oracle.truffle.api.interop.Message) target} created for this
+     * message accepts (in addition to a
+     * {@link ForeignAccess#getReceiver(com.oracle.truffle.api.frame.Frame) receiver}) four
+     * {@link ForeignAccess#getArguments(com.oracle.truffle.api.frame.Frame) arguments}: the
+     * {@link Long} index of the first element to read, the destination buffer, the {@link Integer}
+     * offset into the destination buffer and the {@link Integer} number of elements to read. The
+     * destination buffer is a Java array of a primitive type or an {@code Object[]}; it is the
+     * only argument of an interop message that is not an interop value and it must not be
+     * retained or exposed by the receiver. The return value of the target is ignored.
+     * <p>
+     * Languages with contiguous array storage should implement this message by copying their
+     * elements directly into the buffer. If the object does not support the {@link #READ_RANGE}
+     * message, or does not support the given buffer type, an {@link UnsupportedMessageException}
+     * has to be thrown. Senders then transparently fall back to one {@link #READ} message per
+     * element.
+     *
+     * If the range is not fully contained in the array, an {@link UnknownIdentifierException}
+     * has to be thrown. If an element cannot be stored in the destination buffer without loss of
+     * precision, an {@link UnsupportedTypeException} has to be thrown.
+     * <p>
+     * The code that wants to send this message should use:
+     *
+     * <pre>
+     * {@link ForeignAccess}.{@link ForeignAccess#sendReadRange(com.oracle.truffle.api.nodes.Node, com.oracle.truffle.api.interop.TruffleObject, long, java.lang.Object, int, int) sendReadRange}(
+     *   {@link Message#READ_RANGE}.{@link Message#createNode()},  receiver, index, destination, destinationOffset, length
+     * );
+     * </pre>
+     *
+     * To achieve good performance it is essential to cache/keep reference to the
+     * {@link Message#createNode() created node}.
+     *
+     * @since 1.0
+     */
+    public static final Message READ_RANGE = ReadRange.INSTANCE;
+
+    /**
+     * Message to write a contiguous range of array elements from a host buffer. The
+     * {@link Factory#accessMessage(com.oracle.truffle.api.interop.Message) target} created for this
+     * message accepts (in addition to a
+     * {@link ForeignAccess#getReceiver(com.oracle.truffle.api.frame.Frame) receiver}) four
+     * {@link ForeignAccess#getArguments(com.oracle.truffle.api.frame.Frame) arguments}: the
+     * {@link Long} index of the first element to write, the source buffer, the {@link Integer}
+     * offset into the source buffer and the {@link Integer} number of elements to write. The source
+     * buffer is a Java array of a primitive type or an {@code Object[]} of interop values; it must
+     * not be retained or exposed by the receiver. The return value of the target is ignored.
+     * <p>
+     * If the object does not support the {@link #WRITE_RANGE} message, or does not support the
+     * given buffer type, an {@link UnsupportedMessageException} has to be thrown. Senders then
+     * transparently fall back to one {@link #WRITE} message per element.
+     *
+     * If the range cannot be written, an {@link UnknownIdentifierException} has to be thrown. If an
+     * element of the buffer cannot be stored in the array, an {@link UnsupportedTypeException} has
+     * to be thrown.
+     * <p>
+     * The code that wants to send this message should use:
+     *
+     * <pre>
+     * {@link ForeignAccess}.{@link ForeignAccess#sendWriteRange(com.oracle.truffle.api.nodes.Node, com.oracle.truffle.api.interop.TruffleObject, long, java.lang.Object, int, int) sendWriteRange}(
+     *   {@link Message#WRITE_RANGE}.{@link Message#createNode()},  receiver, index, source, sourceOffset, length
+     * );
+     * </pre>
+     *
+     * To achieve good performance it is essential to cache/keep reference to the
+     * {@link Message#createNode() created node}.
+     *
+     * @since 1.0
+     */
+    public static final Message WRITE_RANGE = WriteRange.INSTANCE;
+
     /**
      * Creates a non-object oriented execution message. In contrast to {@link #createInvoke(int)}
      * messages, which are more suitable for dealing with object oriented style of programming,
@@ -691,6 +762,12 @@ public abstract class Message {
         if (Message.REMOVE == message) {
             return "REMOVE"; // NOI18N
         }
+        if (Message.READ_RANGE == message) {
+            return "READ_RANGE"; // NOI18N
+        }
+        if (Message.WRITE_RANGE == message) {
+            return "WRITE_RANGE"; // NOI18N
+        }
         if (Message.UNBOX == message) {
             return "UNBOX"; // NOI18N
         }
@@ -754,6 +831,10 @@ public abstract class Message {
                 return Message.WRITE;
             case "REMOVE":
                 return Message.REMOVE;
+            case "READ_RANGE":
+                return Message.READ_RANGE;
+            case "WRITE_RANGE":
+                return Message.WRITE_RANGE;
             case "UNBOX":
                 return Message.UNBOX;
             case "GET_SIZE":
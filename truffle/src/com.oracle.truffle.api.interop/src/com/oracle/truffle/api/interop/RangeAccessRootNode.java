@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.api.interop;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.nodes.Node;
+import com.oracle.truffle.api.nodes.RootNode;
+import com.oracle.truffle.api.profiles.ValueProfile;
+
+/**
+ * Implements {@link Message#READ_RANGE} and {@link Message#WRITE_RANGE} for receivers that do not
+ * support them by sending one {@link Message#READ} or {@link Message#WRITE} per element.
+ */
+final class RangeAccessRootNode extends RootNode {
+
+    private final boolean read;
+    private final ValueProfile bufferClassProfile = ValueProfile.createClassProfile();
+    @Child private InteropAccessNode elementNode;
+    @Child private Node toPrimitiveNode;
+
+    private RangeAccessRootNode(Message message) {
+        super(null);
+        this.read = message instanceof ReadRange;
+        this.elementNode = InteropAccessNode.create(read ? Message.READ : Message.WRITE);
+    }
+
+    private static volatile CallTarget readRangeTarget;
+    private static volatile CallTarget writeRangeTarget;
+
+    /**
+     * Returns the fallback call target for {@code message}. There is one target per message, shared
+     * by all receivers, so that generic sends reach a stable target.
+     */
+    static CallTarget getTarget(Message message) {
+        boolean read = message instanceof ReadRange;
+        CallTarget target = read ? readRangeTarget : writeRangeTarget;
+        if (target == null) {
+            target = createTarget(read);
+        }
+        return target;
+    }
+
+    @TruffleBoundary
+    private static synchronized CallTarget createTarget(boolean read) {
+        CallTarget target = read ? readRangeTarget : writeRangeTarget;
+        if (target == null) {
+            target = Truffle.getRuntime().createCallTarget(new RangeAccessRootNode(read ? Message.READ_RANGE : Message.WRITE_RANGE));
+            if (read) {
+                readRangeTarget = target;
+            } else {
+                writeRangeTarget = target;
+            }
+        }
+        return target;
+    }
+
+    @Override
+    public String getName() {
+        return read ? "READ_RANGE" : "WRITE_RANGE";
+    }
+
+    @Override
+    public Object execute(VirtualFrame frame) {
+        Object[] args = frame.getArguments();
+        TruffleObject receiver = (TruffleObject) args[InteropAccessNode.ARG0_RECEIVER];
+        long index = (long) args[1];
+        Object buffer = bufferClassProfile.profile(args[2]);
+        int offset = (int) args[3];
+        int length = (int) args[4];
+        try {
+            if (read) {
+                for (int i = 0; i < length; i++) {
+                    Object value = elementNode.execute(receiver, toIndex(index + i));
+                    store(buffer, offset + i, value);
+                }
+            } else {
+                for (int i = 0; i < length; i++) {
+                    elementNode.execute(receiver, toIndex(index + i), load(buffer, offset + i));
+                }
+            }
+        } catch (InteropException e) {
+            throw e.raise();
+        }
+        return receiver;
+    }
+
+    /*
+     * Most receivers resolve READ and WRITE with int indices, as sent by the java interop lists.
+     */
+    private static Object toIndex(long index) {
+        if ((int) index == index) {
+            return (int) index;
+        }
+        return index;
+    }
+
+    private void store(Object buffer, int position, Object value) throws InteropException {
+        if (buffer instanceof Object[]) {
+            ((Object[]) buffer)[position] = value;
+            return;
+        }
+        if (toPrimitiveNode == null) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            toPrimitiveNode = insert(InteropAccessor.javaInteropAccess().createToPrimitiveNode());
+        }
+        // same conversion rules as for the elements of arrays converted by java interop
+        Object primitive = InteropAccessor.javaInteropAccess().toPrimitive(toPrimitiveNode, value, componentType(buffer));
+        if (primitive == null) {
+            CompilerDirectives.transferToInterpreter();
+            throw UnsupportedTypeException.raise(new Object[]{value});
+        }
+        storePrimitive(buffer, position, primitive);
+    }
+
+    private static Class<?> componentType(Object buffer) {
+        if (buffer instanceof long[]) {
+            return long.class;
+        } else if (buffer instanceof double[]) {
+            return double.class;
+        } else if (buffer instanceof int[]) {
+            return int.class;
+        } else if (buffer instanceof float[]) {
+            return float.class;
+        } else if (buffer instanceof byte[]) {
+            return byte.class;
+        } else if (buffer instanceof short[]) {
+            return short.class;
+        } else if (buffer instanceof boolean[]) {
+            return boolean.class;
+        } else {
+            return char.class;
+        }
+    }
+
+    private static void storePrimitive(Object buffer, int position, Object value) {
+        if (buffer instanceof long[]) {
+            ((long[]) buffer)[position] = (long) value;
+        } else if (buffer instanceof double[]) {
+            ((double[]) buffer)[position] = (double) value;
+        } else if (buffer instanceof int[]) {
+            ((int[]) buffer)[position] = (int) value;
+        } else if (buffer instanceof float[]) {
+            ((float[]) buffer)[position] = (float) value;
+        } else if (buffer instanceof byte[]) {
+            ((byte[]) buffer)[position] = (byte) value;
+        } else if (buffer instanceof short[]) {
+            ((short[]) buffer)[position] = (short) value;
+        } else if (buffer instanceof boolean[]) {
+            ((boolean[]) buffer)[position] = (boolean) value;
+        } else {
+            ((char[]) buffer)[position] = (char) value;
+        }
+    }
+
+    private static Object load(Object buffer, int position) {
+        if (buffer instanceof Object[]) {
+            return ((Object[]) buffer)[position];
+        } else if (buffer instanceof long[]) {
+            return ((long[]) buffer)[position];
+        } else if (buffer instanceof double[]) {
+            return ((double[]) buffer)[position];
+        } else if (buffer instanceof int[]) {
+            return ((int[]) buffer)[position];
+        } else if (buffer instanceof float[]) {
+            return ((float[]) buffer)[position];
+        } else if (buffer instanceof byte[]) {
+            return ((byte[]) buffer)[position];
+        } else if (buffer instanceof short[]) {
+            return ((short[]) buffer)[position];
+        } else if (buffer instanceof boolean[]) {
+            return ((boolean[]) buffer)[position];
+        } else {
+            return ((char[]) buffer)[position];
+        }
+    }
+
+    static boolean checkBuffer(Object buffer, int offset, int length) {
+        assert buffer != null && buffer.getClass().isArray() : "buffer must be an array";
+        assert buffer instanceof Object[] || buffer.getClass().getComponentType().isPrimitive() : "buffer must be an Object[] or a primitive array";
+        assert offset >= 0 && length >= 0 && offset + length <= java.lang.reflect.Array.getLength(buffer) : "range out of buffer bounds";
+        return true;
+    }
+}
@@ -887,6 +887,32 @@ public class LanguageSPITest {
         assertEquals(1, lang.initializeContextCalled.size());
     }
 
+    @Test
+    public void testMultiContextExplicitEngineDisabledCodeSharing() {
+        MultiContextLanguage lang = ProxyLanguage.setDelegate(new MultiContextLanguage());
+        lang.contextCachingEnabled = true;
+
+        org.graalvm.polyglot.Source source1 = org.graalvm.polyglot.Source.create(ProxyLanguage.ID, "foo");
+
+        Engine engine = Engine.newBuilder().option("engine.DisableCodeSharing", "true").build();
+        Context context1 = Context.newBuilder().engine(engine).build();
+        context1.eval(source1);
+        context1.eval(source1);
+        assertEquals(1, lang.parseCalled.size());
+        assertEquals(1, lang.initializeContextCalled.size());
+
+        Context context2 = Context.newBuilder().engine(engine).build();
+        context2.eval(source1);
+        assertEquals(2, lang.parseCalled.size());
+        context2.eval(source1);
+        assertEquals(2, lang.parseCalled.size());
+
+        engine.close();
+
+        assertEquals(2, lang.createContextCalled.size());
+        assertEquals(1, lang.initializeContextCalled.size());
+    }
+
     @Test
     public void testErrorInCreateContext() {
         ProxyLanguage.setDelegate(new ProxyLanguage() {
@@ -34,6 +34,7 @@ import org.graalvm.options.OptionType;
 final class PolyglotEngineOptions {
     static final String PREINITIALIZE_CONTEXT_NAME = "PreinitializeContexts";
     private static final String INSTRUMENT_EXCEPTIONS_ARE_THROWN_NAME = "InstrumentExceptionsAreThrown";
+    private static final String DISABLE_CODE_SHARING_NAME = "DisableCodeSharing";
     @Option(name = PREINITIALIZE_CONTEXT_NAME, category = OptionCategory.EXPERT, help = "Preinitialize language contexts for given languages.") static final OptionKey<String> PreinitializeContexts = new OptionKey<>(
                     null, OptionType.defaultType(String.class));
     /**
@@ -42,4 +43,10 @@ final class PolyglotEngineOptions {
      */
     @Option(name = INSTRUMENT_EXCEPTIONS_ARE_THROWN_NAME, category = OptionCategory.DEBUG, help = "Propagates exceptions thrown by instruments.") static final OptionKey<Boolean> InstrumentExceptionsAreThrown = new OptionKey<>(
                     false);
+    /**
+     * When the option is set each context parses its sources separately, even if the language
+     * supports sharing code between multiple contexts of an engine.
+     */
+    @Option(name = DISABLE_CODE_SHARING_NAME, category = OptionCategory.EXPERT, help = "Disables sharing of parsed and compiled code between the contexts of an engine.") static final OptionKey<Boolean> DisableCodeSharing = new OptionKey<>(
+                    false);
 }
@@ -94,7 +94,7 @@ final class PolyglotLanguage extends AbstractLanguageImpl implements com.oracle.
         assert Thread.holdsLock(engine);
         if (initialized) {
             boolean allowsCaching = LANGUAGE.initializeMultiContext(info);
-            if (allowsCaching) {
+            if (allowsCaching && !engine.engineOptionValues.get(PolyglotEngineOptions.DisableCodeSharing)) {
                 if (languageContext != null && languageContext.isInitialized()) {
                     this.sourceCache = languageContext.sourceCache;
                 } else {
@@ -143,6 +143,10 @@ public abstract class Accessor {
 
         public abstract Object toJava(Node toJavaNode, Class<?> rawType, Type genericType, Object guestObject, Object polyglotContext);
 
+        public abstract Node createToPrimitiveNode();
+
+        public abstract Object toPrimitive(Node toPrimitiveNode, Object guestObject, Class<?> primitiveType);
+
         public abstract Object asHostObject(Object guestObject);
 
         public abstract Object toGuestObject(Object hostObject, Object languageContext);
@@ -104,6 +104,8 @@ final class ForeignAccessFactoryGenerator {
         appendFactoryAccessRead(w);
         appendFactoryAccessWrite(w);
         appendFactoryAccessRemove(w);
+        appendFactoryAccessReadRange(w);
+        appendFactoryAccessWriteRange(w);
         appendFactoryAccessExecute(w);
         appendFactoryAccessInvoke(w);
         appendFactoryAccessNew(w);
@@ -327,6 +329,20 @@ final class ForeignAccessFactoryGenerator {
         w.append("    }").append("\n");
     }
 
+    private void appendFactoryAccessReadRange(Writer w) throws IOException {
+        w.append("    @Override").append("\n");
+        w.append("    public CallTarget accessReadRange() {").append("\n");
+        appendOptionalHandlerBody(w, Message.READ_RANGE);
+        w.append("    }").append("\n");
+    }
+
+    private void appendFactoryAccessWriteRange(Writer w) throws IOException {
+        w.append("    @Override").append("\n");
+        w.append("    public CallTarget accessWriteRange() {").append("\n");
+        appendOptionalHandlerBody(w, Message.WRITE_RANGE);
+        w.append("    }").append("\n");
+    }
+
     private void appendFactoryAccessExecute(Writer w) throws IOException {
         w.append("    @Override").append("\n");
         w.append("    public CallTarget accessExecute(int argumentsLength) {").append("\n");
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.dsl.processor.interop;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+
+import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.interop.MessageResolution;
+import com.oracle.truffle.api.interop.Resolve;
+import com.oracle.truffle.dsl.processor.java.ElementUtils;
+
+final class RangeGenerator extends MessageGenerator {
+
+    private static final int NUMBER_OF_RANGE = 5; // TruffleObject receiver, Object index,
+                                                  // Object buffer, Object offset, Object length
+    private static final String TARGETABLE_RANGE_NODE = "TargetableRangeNode";
+
+    RangeGenerator(ProcessingEnvironment processingEnv, Resolve resolveAnnotation, MessageResolution messageResolutionAnnotation, TypeElement element,
+                    ForeignAccessFactoryGenerator containingForeignAccessFactory) {
+        super(processingEnv, resolveAnnotation, messageResolutionAnnotation, element, containingForeignAccessFactory);
+    }
+
+    @Override
+    void appendRootNode(Writer w) throws IOException {
+        w.append(indent).append("    private static final class ").append(rootNodeName).append(" extends RootNode {\n");
+        w.append(indent).append("        protected ").append(rootNodeName).append("() {\n");
+        w.append(indent).append("            super(null);\n");
+        w.append(indent).append("        }\n");
+        w.append("\n");
+        w.append(indent).append("        @Child private ").append(clazzName).append(" node = ").append(getGeneratedDSLNodeQualifiedName()).append(".create();");
+        w.append("\n");
+        appendGetName(w);
+        w.append(indent).append("        @Override\n");
+        w.append(indent).append("        public Object execute(VirtualFrame frame) {\n");
+        w.append(indent).append("            Object receiver = ForeignAccess.getReceiver(frame);\n");
+        w.append(indent).append("            Object index = ForeignAccess.getArguments(frame).get(0);\n");
+        w.append(indent).append("            Object buffer = ForeignAccess.getArguments(frame).get(1);\n");
+        w.append(indent).append("            Object offset = ForeignAccess.getArguments(frame).get(2);\n");
+        w.append(indent).append("            Object length = ForeignAccess.getArguments(frame).get(3);\n");
+        w.append(indent).append("            try {\n");
+        w.append(indent).append("                return node.executeWithTarget(frame, receiver, index, buffer, offset, length);\n");
+        w.append(indent).append("            } catch (UnsupportedSpecializationException e) {\n");
+        appendHandleUnsupportedTypeException(w);
+        w.append(indent).append("            }\n");
+        w.append(indent).append("        }\n");
+        w.append("\n");
+        w.append(indent).append("    }\n");
+    }
+
+    @Override
+    int getParameterCount() {
+        return NUMBER_OF_RANGE;
+    }
+
+    @Override
+    String getTargetableNodeName() {
+        return TARGETABLE_RANGE_NODE;
+    }
+
+    @Override
+    public String checkSignature(ExecutableElement method) {
+        final List<? extends VariableElement> params = method.getParameters();
+        boolean hasFrameArgument = false;
+        if (params.size() >= 1) {
+            hasFrameArgument = ElementUtils.areTypesCompatible(params.get(0).asType(), Utils.getTypeMirror(processingEnv, VirtualFrame.class));
+        }
+        int expectedNumberOfArguments = hasFrameArgument ? getParameterCount() + 1 : getParameterCount();
+
+        if (params.size() != expectedNumberOfArguments) {
+            return "Wrong number of arguments. Expected signature: ([frame: VirtualFrame], receiverObject: TruffleObject, index: long, buffer: Object, offset: int, length: int)";
+        }
+        return super.checkSignature(method);
+    }
+
+}
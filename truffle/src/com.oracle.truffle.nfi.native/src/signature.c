@@ -208,6 +208,55 @@ JNIEXPORT jobject JNICALL Java_com_oracle_truffle_nfi_impl_NFIContext_executeObj
 }
 
 
+/*
+ * Fast path for signatures that consist only of integer and pointer arguments. The Java side has
+ * already sign or zero extended every argument to 64 bit, so the arguments can be passed in the
+ * integer argument registers without going through ffi_call. Narrow return values are truncated
+ * on the Java side.
+ */
+typedef jlong (*direct0)(void);
+typedef jlong (*direct1)(jlong);
+typedef jlong (*direct2)(jlong, jlong);
+typedef jlong (*direct3)(jlong, jlong, jlong);
+typedef jlong (*direct4)(jlong, jlong, jlong, jlong);
+typedef jlong (*direct5)(jlong, jlong, jlong, jlong, jlong);
+typedef jlong (*direct6)(jlong, jlong, jlong, jlong, jlong, jlong);
+
+JNIEXPORT jlong JNICALL Java_com_oracle_truffle_nfi_impl_NFIContext_executeDirect(JNIEnv *env, jclass self, jlong truffleContext, jlong address, jint argCount,
+        jlong arg0, jlong arg1, jlong arg2, jlong arg3, jlong arg4, jlong arg5) {
+    jlong ret;
+
+    errno = errnoMirror;
+
+    switch (argCount) {
+        case 0:
+            ret = ((direct0) address)();
+            break;
+        case 1:
+            ret = ((direct1) address)(arg0);
+            break;
+        case 2:
+            ret = ((direct2) address)(arg0, arg1);
+            break;
+        case 3:
+            ret = ((direct3) address)(arg0, arg1, arg2);
+            break;
+        case 4:
+            ret = ((direct4) address)(arg0, arg1, arg2, arg3);
+            break;
+        case 5:
+            ret = ((direct5) address)(arg0, arg1, arg2, arg3, arg4);
+            break;
+        default:
+            ret = ((direct6) address)(arg0, arg1, arg2, arg3, arg4, arg5);
+            break;
+    }
+
+    errnoMirror = errno;
+
+    return ret;
+}
+
 static struct cif_data *prepareArgs(JNIEnv *env, struct __TruffleContextInternal *ctx, int nargs, jobjectArray argTypes) {
     struct cif_data *data = (struct cif_data *) malloc(sizeof(struct cif_data) + nargs * sizeof(ffi_type*));
     int i;
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.nfi.test;
+
+import com.oracle.truffle.api.CallTarget;
+import com.oracle.truffle.tck.TruffleRunner;
+import com.oracle.truffle.tck.TruffleRunner.Inject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Signatures that consist only of integers and pointers are called without libffi. These tests
+ * check that narrow arguments are extended and narrow return values are truncated correctly, and
+ * that signatures with too many arguments for the direct path still work.
+ */
+@RunWith(TruffleRunner.class)
+public class DirectCallNFITest extends NFITest {
+
+    public static class TestSumMixed extends SendExecuteNode {
+
+        public TestSumMixed() {
+            super("sum_mixed", "(sint8, uint8, sint16, uint16, sint32, uint32):sint64", 6);
+        }
+    }
+
+    @Test
+    public void testSumMixed(@Inject(TestSumMixed.class) CallTarget target) {
+        Object ret = target.call(-1, 255, -1, 65535, -1, 4294967295L);
+        Assert.assertEquals(-1L + 255L - 1L + 65535L - 1L + 4294967295L, ret);
+    }
+
+    public static class TestSumSeven extends SendExecuteNode {
+
+        public TestSumSeven() {
+            super("sum_seven", "(sint64, sint64, sint64, sint64, sint64, sint64, sint64):sint64", 7);
+        }
+    }
+
+    @Test
+    public void testSumSeven(@Inject(TestSumSeven.class) CallTarget target) {
+        Object ret = target.call(1L, 2L, 3L, 4L, 5L, 6L, 1L << 40);
+        Assert.assertEquals(21L + (1L << 40), ret);
+    }
+
+    public static class TestNarrowSINT8 extends SendExecuteNode {
+
+        public TestNarrowSINT8() {
+            super("narrow_SINT8", "(sint64):sint8", 1);
+        }
+    }
+
+    @Test
+    public void testNarrowSINT8(@Inject(TestNarrowSINT8.class) CallTarget target) {
+        Assert.assertEquals((byte) -1, target.call(0x1FFL));
+    }
+
+    public static class TestNarrowUINT16 extends SendExecuteNode {
+
+        public TestNarrowUINT16() {
+            super("narrow_UINT16", "(sint64):uint16", 1);
+        }
+    }
+
+    @Test
+    public void testNarrowUINT16(@Inject(TestNarrowUINT16.class) CallTarget target) {
+        Assert.assertEquals((short) 0xFFFF, target.call(0x1FFFFL));
+    }
+}
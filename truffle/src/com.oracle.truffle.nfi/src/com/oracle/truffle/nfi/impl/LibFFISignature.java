@@ -25,10 +25,13 @@
 package com.oracle.truffle.nfi.impl;
 
 import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.api.nodes.ExplodeLoop;
 import com.oracle.truffle.nfi.impl.LibFFIType.Direction;
 import com.oracle.truffle.nfi.types.NativeSignature;
 import com.oracle.truffle.nfi.impl.NativeAllocation.FreeDestructor;
 import com.oracle.truffle.nfi.types.NativeArrayTypeMirror;
+import com.oracle.truffle.nfi.types.NativeSimpleType;
 import com.oracle.truffle.nfi.types.NativeTypeMirror;
 import java.util.List;
 
@@ -40,9 +43,24 @@ final class LibFFISignature {
         return ret;
     }
 
+    /**
+     * Maximum number of arguments of a function that is called without going through libffi. All of
+     * them are passed in registers on the supported 64-bit platforms.
+     */
+    static final int MAX_DIRECT_ARGS = 6;
+
+    private static final boolean DISABLE_DIRECT_CALLS = Boolean.getBoolean("truffle.nfi.disableDirectCalls");
+
     private final LibFFIType retType;
     private final LibFFIType[] argTypes;
 
+    /*
+     * Argument types and buffer offsets of signatures that consist only of integers and pointers, or
+     * null if the call has to go through libffi.
+     */
+    @CompilationFinal(dimensions = 1) private final NativeSimpleType[] directArgTypes;
+    @CompilationFinal(dimensions = 1) private final int[] directArgOffsets;
+
     private final int primitiveSize;
     private final int objectCount;
 
@@ -133,6 +151,57 @@ final class LibFFISignature {
         this.primitiveSize = primSize;
         this.objectCount = objCount;
         this.realArgCount = argCount;
+
+        if (!signature.isVarargs() && isDirectSignature(context, retType, argTypes)) {
+            this.directArgTypes = new NativeSimpleType[argTypes.length];
+            this.directArgOffsets = new int[argTypes.length];
+            int offset = 0;
+            for (int i = 0; i < argTypes.length; i++) {
+                LibFFIType type = argTypes[i];
+                if (offset % type.alignment != 0) {
+                    offset += type.alignment - (offset % type.alignment);
+                }
+                this.directArgTypes[i] = ((LibFFIType.SimpleType) type).simpleType;
+                this.directArgOffsets[i] = offset;
+                offset += type.size;
+            }
+        } else {
+            this.directArgTypes = null;
+            this.directArgOffsets = null;
+        }
+    }
+
+    private static boolean isDirectSignature(NFIContext context, LibFFIType retType, LibFFIType[] argTypes) {
+        if (DISABLE_DIRECT_CALLS || argTypes.length > MAX_DIRECT_ARGS || context.lookupSimpleType(NativeSimpleType.POINTER).size != Long.BYTES) {
+            return false;
+        }
+        if (!(retType instanceof LibFFIType.VoidType) && !isDirectType(retType)) {
+            return false;
+        }
+        for (LibFFIType argType : argTypes) {
+            if (!isDirectType(argType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDirectType(LibFFIType type) {
+        if (type instanceof LibFFIType.SimpleType) {
+            switch (((LibFFIType.SimpleType) type).simpleType) {
+                case UINT8:
+                case SINT8:
+                case UINT16:
+                case SINT16:
+                case UINT32:
+                case SINT32:
+                case UINT64:
+                case SINT64:
+                case POINTER:
+                    return true;
+            }
+        }
+        return false;
     }
 
     public NativeArgumentBuffer.Array prepareBuffer() {
@@ -157,7 +226,10 @@ final class LibFFISignature {
 
     public Object execute(NFIContext ctx, long functionPointer, NativeArgumentBuffer.Array argBuffer) {
         CompilerAsserts.partialEvaluationConstant(retType);
-        if (retType instanceof LibFFIType.ObjectType) {
+        if (directArgTypes != null) {
+            long ret = executeDirect(ctx, functionPointer, argBuffer);
+            return ((LibFFIType.SimpleType) retType).fromPrimitive(ret);
+        } else if (retType instanceof LibFFIType.ObjectType) {
             Object ret = ctx.executeObject(cif, functionPointer, argBuffer.prim, argBuffer.getPatchCount(), argBuffer.patches, argBuffer.objects);
             if (ret == null) {
                 return new NativePointer(0);
@@ -174,4 +246,13 @@ final class LibFFISignature {
             return retType.deserialize(retBuffer);
         }
     }
+
+    @ExplodeLoop
+    private long executeDirect(NFIContext ctx, long functionPointer, NativeArgumentBuffer.Array argBuffer) {
+        long[] args = new long[MAX_DIRECT_ARGS];
+        for (int i = 0; i < directArgTypes.length; i++) {
+            args[i] = argBuffer.getDirectArgument(directArgOffsets[i], directArgTypes[i]);
+        }
+        return ctx.executeDirect(functionPointer, directArgTypes.length, args[0], args[1], args[2], args[3], args[4], args[5]);
+    }
 }
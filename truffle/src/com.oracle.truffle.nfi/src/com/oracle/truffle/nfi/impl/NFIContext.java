@@ -268,6 +268,10 @@ class NFIContext {
         return executeObject(nativeContext, cif, functionPointer, primArgs, patchCount, patchOffsets, objArgs);
     }
 
+    long executeDirect(long functionPointer, int argCount, long arg0, long arg1, long arg2, long arg3, long arg4, long arg5) {
+        return executeDirect(nativeContext, functionPointer, argCount, arg0, arg1, arg2, arg3, arg4, arg5);
+    }
+
     @TruffleBoundary
     private static native void executeNative(long nativeContext, long cif, long functionPointer, byte[] primArgs, int patchCount, int[] patchOffsets, Object[] objArgs, byte[] ret);
 
@@ -277,6 +281,13 @@ class NFIContext {
     @TruffleBoundary
     private static native TruffleObject executeObject(long nativeContext, long cif, long functionPointer, byte[] primArgs, int patchCount, int[] patchOffsets, Object[] objArgs);
 
+    /**
+     * Calls a function taking up to {@link LibFFISignature#MAX_DIRECT_ARGS} integer or pointer
+     * arguments directly, without going through libffi.
+     */
+    @TruffleBoundary
+    private static native long executeDirect(long nativeContext, long functionPointer, int argCount, long arg0, long arg1, long arg2, long arg3, long arg4, long arg5);
+
     private static native long loadLibrary(long nativeContext, String name, int flags);
 
     private static native long lookup(long nativeContext, long library, String name);
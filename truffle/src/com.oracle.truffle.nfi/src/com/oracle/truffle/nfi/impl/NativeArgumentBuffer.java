@@ -25,6 +25,7 @@
 package com.oracle.truffle.nfi.impl;
 
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.nfi.types.NativeSimpleType;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 
@@ -83,6 +84,35 @@ abstract class NativeArgumentBuffer {
         protected ByteBuffer getPrimBuffer() {
             return CompilerDirectives.castExact(primBuffer, heapByteBuffer);
         }
+
+        /**
+         * Reads back an already serialized integer or pointer argument, sign or zero extended to a
+         * full register according to its type.
+         */
+        long getDirectArgument(int offset, NativeSimpleType type) {
+            ByteBuffer buffer = getPrimBuffer();
+            switch (type) {
+                case SINT8:
+                    return buffer.get(offset);
+                case UINT8:
+                    return buffer.get(offset) & 0xFFL;
+                case SINT16:
+                    return buffer.getShort(offset);
+                case UINT16:
+                    return buffer.getShort(offset) & 0xFFFFL;
+                case SINT32:
+                    return buffer.getInt(offset);
+                case UINT32:
+                    return buffer.getInt(offset) & 0xFFFFFFFFL;
+                case SINT64:
+                case UINT64:
+                case POINTER:
+                    return buffer.getLong(offset);
+                default:
+                    CompilerDirectives.transferToInterpreter();
+                    throw new AssertionError(type.name());
+            }
+        }
     }
 
     static final class Direct extends NativeArgumentBuffer {
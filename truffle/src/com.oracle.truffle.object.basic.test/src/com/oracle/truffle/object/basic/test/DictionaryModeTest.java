@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.object.basic.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.api.object.DynamicObject;
+import com.oracle.truffle.api.object.Layout;
+import com.oracle.truffle.api.object.ObjectType;
+import com.oracle.truffle.api.object.Shape;
+import com.oracle.truffle.object.ShapeImpl;
+import com.oracle.truffle.object.basic.DefaultLayoutFactory;
+
+public class DictionaryModeTest {
+
+    private static final int PROPERTIES = 1000;
+
+    final Layout layout = new DefaultLayoutFactory().createLayout(Layout.newLayout());
+    final Shape rootShape = layout.createShape(new ObjectType());
+
+    private static Object valueFor(int i) {
+        switch (i % 3) {
+            case 0:
+                return i;
+            case 1:
+                return (double) i;
+            default:
+                return "v" + i;
+        }
+    }
+
+    private DynamicObject newDictionary() {
+        DynamicObject object = rootShape.newInstance();
+        for (int i = 0; i < PROPERTIES; i++) {
+            object.define("k" + i, valueFor(i));
+        }
+        return object;
+    }
+
+    @Test
+    public void testDictionaryShapesAreShared() {
+        DynamicObject object1 = newDictionary();
+        DynamicObject object2 = newDictionary();
+
+        ShapeImpl shape1 = (ShapeImpl) object1.getShape();
+        Assert.assertTrue(shape1.isDictionary());
+        Assert.assertSame(shape1, object2.getShape());
+        Assert.assertEquals(PROPERTIES, object1.size());
+        Assert.assertEquals(PROPERTIES, object2.size());
+
+        // dictionary shapes are not part of the strongly referenced tree
+        ShapeImpl lastShared = shape1;
+        while (lastShared.isDictionary()) {
+            lastShared = lastShared.getParent();
+        }
+        Assert.assertEquals(0, lastShared.getTransitionCount());
+        Assert.assertFalse(lastShared.isLeaf());
+    }
+
+    @Test
+    public void testDictionaryShapeCount() {
+        List<DynamicObject> objects = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            objects.add(newDictionary());
+        }
+        Set<Shape> shapes = Collections.newSetFromMap(new IdentityHashMap<Shape, Boolean>());
+        for (DynamicObject object : objects) {
+            for (Shape shape = object.getShape(); shape != null; shape = shape.getParent()) {
+                shapes.add(shape);
+            }
+        }
+        // all objects share a single chain of shapes
+        int chainLength = ((ShapeImpl) objects.get(0).getShape()).getDepth() + 1;
+        Assert.assertEquals(chainLength, shapes.size());
+    }
+
+    @Test
+    public void testDictionaryValues() {
+        DynamicObject object = newDictionary();
+        for (int i = 0; i < PROPERTIES; i++) {
+            Assert.assertEquals(valueFor(i), object.get("k" + i));
+        }
+
+        object.set("k1", "changed");
+        object.define("k2", 42);
+        Assert.assertTrue(object.delete("k0"));
+        Assert.assertEquals(PROPERTIES - 1, object.size());
+        Assert.assertNull(object.get("k0"));
+        Assert.assertEquals("changed", object.get("k1"));
+        Assert.assertEquals(42, object.get("k2"));
+        for (int i = 3; i < PROPERTIES; i++) {
+            Assert.assertEquals(valueFor(i), object.get("k" + i));
+        }
+
+        DynamicObject copy = object.copy(object.getShape());
+        Assert.assertEquals(object.size(), copy.size());
+        Assert.assertEquals(valueFor(PROPERTIES - 1), copy.get("k" + (PROPERTIES - 1)));
+    }
+
+    @Test
+    public void testPresizedExtensionArrays() {
+        DynamicObject object1 = rootShape.newInstance();
+        for (int i = 0; i < 20; i++) {
+            object1.define("p" + i, "v" + i);
+        }
+        ShapeImpl finalShape = (ShapeImpl) object1.getShape();
+        Assert.assertFalse(finalShape.isDictionary());
+
+        // the transition history of the root now predicts the final capacity
+        ShapeImpl initialShape = (ShapeImpl) rootShape;
+        Assert.assertTrue(initialShape.getObjectArrayAllocationCapacity(0) >= finalShape.getObjectArrayCapacity());
+
+        DynamicObject object2 = rootShape.newInstance();
+        for (int i = 0; i < 20; i++) {
+            object2.define("p" + i, "v" + i);
+        }
+        Assert.assertSame(finalShape, object2.getShape());
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals("v" + i, object2.get("p" + i));
+        }
+    }
+}
@@ -26,6 +26,7 @@ package com.oracle.truffle.object.basic;
 
 import java.io.PrintStream;
 
+import com.oracle.truffle.api.CompilerDirectives;
 import com.oracle.truffle.api.object.DynamicObject;
 import com.oracle.truffle.api.object.Shape;
 import com.oracle.truffle.object.DynamicObjectImpl;
@@ -54,64 +55,76 @@ public class DynamicObjectBasic extends DynamicObjectImpl {
     @Override
     protected final void initialize(Shape shape) {
         assert getObjectStore(shape) == null;
-        int capacity = ((ShapeImpl) shape).getObjectArrayCapacity();
+        int capacity = ((ShapeImpl) shape).getObjectArrayAllocationCapacity(0);
         if (capacity != 0) {
             this.setObjectStore(new Object[capacity], shape);
         }
         if (((ShapeImpl) shape).getPrimitiveArrayCapacity() != 0) {
-            this.setPrimitiveStore(new long[((ShapeImpl) shape).getPrimitiveArrayCapacity()], shape);
+            this.setPrimitiveStore(new long[((ShapeImpl) shape).getPrimitiveArrayAllocationCapacity(0)], shape);
         }
     }
 
     /**
      * Simpler version of {@link #resizeObjectStore} when the object is only increasing in size.
+     * The extension array may already be larger than required if it was pre-sized.
      */
     @Override
     protected final void growObjectStore(Shape oldShape, Shape newShape) {
-        int oldObjectArrayCapacity = ((ShapeImpl) oldShape).getObjectArrayCapacity();
+        Object[] oldObjectStore = getObjectStore(oldShape);
+        int oldObjectArrayLength = oldObjectStore == null ? 0 : oldObjectStore.length;
         int newObjectArrayCapacity = ((ShapeImpl) newShape).getObjectArrayCapacity();
-        if (oldObjectArrayCapacity != newObjectArrayCapacity) {
-            growObjectStoreIntl(oldObjectArrayCapacity, newObjectArrayCapacity, oldShape);
+        if (oldObjectArrayLength < newObjectArrayCapacity) {
+            growObjectStoreIntl(oldObjectArrayLength, ((ShapeImpl) newShape).getObjectArrayAllocationCapacity(oldObjectArrayLength), oldShape);
+            recordExtensionArrayGrowth(oldShape, newShape);
         }
     }
 
-    private void growObjectStoreIntl(int oldObjectArrayCapacity, int newObjectArrayCapacity, Shape newShape) {
-        Object[] newObjectStore = new Object[newObjectArrayCapacity];
-        if (oldObjectArrayCapacity != 0) {
+    /**
+     * Records the growth on the shape so that later objects are pre-sized. The capacity hints are
+     * folded into compiled code, so a hint that is about to be raised invalidates it.
+     */
+    private static void recordExtensionArrayGrowth(Shape oldShape, Shape newShape) {
+        if (!((ShapeImpl) oldShape).isExtensionArrayGrowthRecorded((ShapeImpl) newShape)) {
+            CompilerDirectives.transferToInterpreterAndInvalidate();
+            ((ShapeImpl) oldShape).recordExtensionArrayGrowth((ShapeImpl) newShape);
+        }
+    }
+
+    private void growObjectStoreIntl(int oldObjectArrayLength, int newObjectArrayLength, Shape newShape) {
+        Object[] newObjectStore = new Object[newObjectArrayLength];
+        if (oldObjectArrayLength != 0) {
             // monotonic growth assumption
-            assert oldObjectArrayCapacity < newObjectArrayCapacity;
+            assert oldObjectArrayLength < newObjectArrayLength;
             Object[] oldObjectStore = this.getObjectStore(newShape);
-            for (int i = 0; i < oldObjectArrayCapacity; ++i) {
-                newObjectStore[i] = oldObjectStore[i];
-            }
+            System.arraycopy(oldObjectStore, 0, newObjectStore, 0, oldObjectArrayLength);
         }
         this.setObjectStore(newObjectStore, newShape);
     }
 
     /**
      * Simpler version of {@link #resizePrimitiveStore} when the object is only increasing in size.
+     * The extension array may already be larger than required if it was pre-sized.
      */
     @Override
     protected final void growPrimitiveStore(Shape oldShape, Shape newShape) {
         assert ((ShapeImpl) newShape).hasPrimitiveArray();
-        int oldPrimitiveCapacity = ((ShapeImpl) oldShape).getPrimitiveArrayCapacity();
+        long[] oldPrimitiveStore = getPrimitiveStore(oldShape);
+        int oldPrimitiveLength = oldPrimitiveStore == null ? 0 : oldPrimitiveStore.length;
         int newPrimitiveCapacity = ((ShapeImpl) newShape).getPrimitiveArrayCapacity();
         if (newPrimitiveCapacity == 0) {
             // due to obsolescence, we might have to reserve an empty primitive array slot
             this.setPrimitiveStore(null, newShape);
-        } else if (oldPrimitiveCapacity != newPrimitiveCapacity) {
-            growPrimitiveStoreIntl(oldPrimitiveCapacity, newPrimitiveCapacity, oldShape);
+        } else if (oldPrimitiveLength < newPrimitiveCapacity) {
+            growPrimitiveStoreIntl(oldPrimitiveLength, ((ShapeImpl) newShape).getPrimitiveArrayAllocationCapacity(oldPrimitiveLength), oldShape);
+            recordExtensionArrayGrowth(oldShape, newShape);
         }
     }
 
-    private void growPrimitiveStoreIntl(int oldPrimitiveCapacity, int newPrimitiveCapacity, Shape newShape) {
-        long[] newPrimitiveArray = new long[newPrimitiveCapacity];
-        if (oldPrimitiveCapacity != 0) {
-            // primitive array can shrink due to type changes
+    private void growPrimitiveStoreIntl(int oldPrimitiveLength, int newPrimitiveLength, Shape newShape) {
+        long[] newPrimitiveArray = new long[newPrimitiveLength];
+        if (oldPrimitiveLength != 0) {
             long[] oldPrimitiveArray = this.getPrimitiveStore(newShape);
-            for (int i = 0; i < Math.min(oldPrimitiveCapacity, newPrimitiveCapacity); ++i) {
-                newPrimitiveArray[i] = oldPrimitiveArray[i];
-            }
+            System.arraycopy(oldPrimitiveArray, 0, newPrimitiveArray, 0, Math.min(oldPrimitiveLength, newPrimitiveLength));
         }
         this.setPrimitiveStore(newPrimitiveArray, newShape);
     }
@@ -183,15 +196,16 @@ public class DynamicObjectBasic extends DynamicObjectImpl {
 
     /**
      * Check whether the extension arrays are in accordance with the description in the shape.
+     * Pre-sized extension arrays may be larger than the capacity of the shape.
      */
     @Override
     protected final boolean checkExtensionArrayInvariants(Shape newShape) {
         assert getShape() == newShape;
         assert (getObjectStore(newShape) == null && ((ShapeImpl) newShape).getObjectArrayCapacity() == 0) ||
-                        (getObjectStore(newShape) != null && getObjectStore(newShape).length == ((ShapeImpl) newShape).getObjectArrayCapacity());
+                        (getObjectStore(newShape) != null && getObjectStore(newShape).length >= ((ShapeImpl) newShape).getObjectArrayCapacity());
         if (((ShapeImpl) newShape).hasPrimitiveArray()) {
             assert (getPrimitiveStore(newShape) == null && ((ShapeImpl) newShape).getPrimitiveArrayCapacity() == 0) ||
-                            (getPrimitiveStore(newShape) != null && getPrimitiveStore(newShape).length == ((ShapeImpl) newShape).getPrimitiveArrayCapacity());
+                            (getPrimitiveStore(newShape) != null && getPrimitiveStore(newShape).length >= ((ShapeImpl) newShape).getPrimitiveArrayCapacity());
         }
         return true;
     }
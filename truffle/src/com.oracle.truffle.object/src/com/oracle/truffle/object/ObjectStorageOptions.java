@@ -53,6 +53,19 @@ public final class ObjectStorageOptions {
 
     static final boolean TriePropertyMap = booleanOption(OPTION_PREFIX + "TriePropertyMap", true);
 
+    /**
+     * Number of properties after which a shape switches to dictionary mode, i.e. successor shapes
+     * are only weakly referenced by their parent.
+     */
+    static final int DictionaryModeThreshold = Integer.getInteger(OPTION_PREFIX + "DictionaryModeThreshold", 256);
+    /**
+     * Number of distinct transitions of a shape after which successor shapes switch to dictionary
+     * mode.
+     */
+    static final int DictionaryModeTransitionLimit = Integer.getInteger(OPTION_PREFIX + "DictionaryModeTransitionLimit", 128);
+    /** Allocate extension arrays using the capacity observed for successor shapes. */
+    static final boolean PresizeExtensionArrays = booleanOption(OPTION_PREFIX + "PresizeExtensionArrays", true);
+
     // Debug options (should be final)
     /** @since 0.17 or earlier */
     public static final boolean TraceReshape = booleanOption(OPTION_PREFIX + "TraceReshape", false);
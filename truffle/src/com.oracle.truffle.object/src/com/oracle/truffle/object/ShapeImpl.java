@@ -24,6 +24,9 @@
  */
 package com.oracle.truffle.object;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.AbstractMap;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -109,6 +112,12 @@ public abstract class ShapeImpl extends Shape {
 
     /** @since 0.18 */
     protected final boolean shared;
+    /**
+     * Dictionary mode shapes are only weakly referenced by their parent.
+     *
+     * @since 1.0
+     */
+    protected final boolean dictionary;
 
     /** @since 0.17 or earlier */
     protected final int depth;
@@ -133,8 +142,22 @@ public abstract class ShapeImpl extends Shape {
      */
     private volatile Object transitionMap;
 
+    /**
+     * Dictionary mode successors, referenced weakly so that they are shared between objects adding
+     * the same properties but do not grow the shape tree permanently; lazily initialized.
+     */
+    private volatile ConcurrentHashMap<Transition, DictionaryTransitionReference> dictionaryTransitions;
+
     private final Transition transitionFromParent;
 
+    /**
+     * Largest extension array capacities observed for successors of this shape, used to pre-size
+     * the extension arrays of objects reaching this shape. Compiled code treats them as constants;
+     * they are only raised in the interpreter.
+     */
+    @CompilationFinal private volatile int objectArrayCapacityHint;
+    @CompilationFinal private volatile int primitiveArrayCapacityHint;
+
     private static final AtomicReferenceFieldUpdater<ShapeImpl, Object> TRANSITION_MAP_UPDATER = AtomicReferenceFieldUpdater.newUpdater(ShapeImpl.class, Object.class, "transitionMap");
     private static final AtomicReferenceFieldUpdater<ShapeImpl, Assumption> LEAF_ASSUMPTION_UPDATER = AtomicReferenceFieldUpdater.newUpdater(ShapeImpl.class, Assumption.class, "leafAssumption");
 
@@ -171,6 +194,7 @@ public abstract class ShapeImpl extends Shape {
             this.propertyCount = 0;
             this.depth = 0;
         }
+        this.dictionary = !shared && parent != null && (parent.dictionary || isDictionaryTransition(parent, transitionFromParent, propertyCount));
 
         this.validAssumption = createValidAssumption();
 
@@ -199,6 +223,13 @@ public abstract class ShapeImpl extends Shape {
         this(layout, null, operations, sharedData, PropertyMap.empty(), null, layout.createAllocator(), id);
     }
 
+    private static boolean isDictionaryTransition(ShapeImpl parent, Transition transitionFromParent, int propertyCount) {
+        if (transitionFromParent instanceof AddPropertyTransition) {
+            return propertyCount > ObjectStorageOptions.DictionaryModeThreshold || parent.getTransitionCount() >= ObjectStorageOptions.DictionaryModeTransitionLimit;
+        }
+        return false;
+    }
+
     private static int makePropertyCount(ShapeImpl parent, PropertyMap propertyMap) {
         if (propertyMap.size() > parent.propertyMap.size()) {
             Property lastProperty = propertyMap.getLastProperty();
@@ -271,6 +302,89 @@ public abstract class ShapeImpl extends Shape {
         return hasPrimitiveArray;
     }
 
+    /**
+     * Returns the length of the object extension array to allocate for an object that is about to
+     * get this shape, given the length of its current array.
+     *
+     * @since 1.0
+     */
+    public final int getObjectArrayAllocationCapacity(int currentLength) {
+        return allocationCapacity(objectArrayCapacity, objectArrayCapacityHint, currentLength);
+    }
+
+    /**
+     * Returns the length of the primitive extension array to allocate for an object that is about
+     * to get this shape, given the length of its current array.
+     *
+     * @since 1.0
+     */
+    public final int getPrimitiveArrayAllocationCapacity(int currentLength) {
+        return allocationCapacity(primitiveArrayCapacity, primitiveArrayCapacityHint, currentLength);
+    }
+
+    private int allocationCapacity(int capacity, int hint, int currentLength) {
+        if (!ObjectStorageOptions.PresizeExtensionArrays) {
+            return capacity;
+        }
+        int result = Math.max(capacity, hint);
+        if (dictionary && capacity > currentLength) {
+            // grow geometrically to avoid quadratic copying for large dictionaries
+            result = Math.max(result, currentLength + (currentLength >> 1));
+        }
+        return result;
+    }
+
+    private static final int PRESIZE_HISTORY_DEPTH = 32;
+
+    /**
+     * Returns {@code true} if growing the extension arrays of an object of this shape to the
+     * capacities of {@code grownShape} would not raise any capacity hint.
+     *
+     * @see #recordExtensionArrayGrowth(ShapeImpl)
+     * @since 1.0
+     */
+    public final boolean isExtensionArrayGrowthRecorded(ShapeImpl grownShape) {
+        if (!ObjectStorageOptions.PresizeExtensionArrays || grownShape.dictionary || shared) {
+            return true;
+        }
+        return grownShape.objectArrayCapacity <= objectArrayCapacityHint && (!hasPrimitiveArray || grownShape.primitiveArrayCapacity <= primitiveArrayCapacityHint);
+    }
+
+    /**
+     * Records that an object of this shape had to grow its extension arrays to the capacities of
+     * {@code grownShape}. The capacity is propagated to the predecessors that have not branched
+     * since, so that objects following the same sequence of transitions are allocated with
+     * sufficiently large arrays up front.
+     *
+     * @since 1.0
+     */
+    @TruffleBoundary
+    public final void recordExtensionArrayGrowth(ShapeImpl grownShape) {
+        CompilerAsserts.neverPartOfCompilation();
+        if (isExtensionArrayGrowthRecorded(grownShape)) {
+            return;
+        }
+        int objectCapacity = grownShape.objectArrayCapacity;
+        int primitiveCapacity = grownShape.primitiveArrayCapacity;
+        ShapeImpl current = this;
+        for (int i = 0; i < PRESIZE_HISTORY_DEPTH && current != null; i++) {
+            boolean raised = false;
+            if (objectCapacity > current.objectArrayCapacityHint) {
+                current.objectArrayCapacityHint = objectCapacity;
+                raised = true;
+            }
+            if (current.hasPrimitiveArray && primitiveCapacity > current.primitiveArrayCapacityHint) {
+                current.primitiveArrayCapacityHint = primitiveCapacity;
+                raised = true;
+            }
+            ShapeImpl next = current.parent;
+            if (!raised || next == null || next.getTransitionCount() != 1) {
+                break;
+            }
+            current = next;
+        }
+    }
+
     /**
      * Get a property entry by string name.
      *
@@ -292,16 +406,100 @@ public abstract class ShapeImpl extends Shape {
     /** @since 0.17 or earlier */
     public final void addDirectTransition(Transition transition, ShapeImpl next) {
         assert next.getParent() == this && transition.isDirect();
+        if (next.dictionary) {
+            invalidateLeafAssumption();
+            addDictionaryTransition(transition, next);
+            dictionaryShapeCount.inc();
+            return;
+        }
         addTransitionInternal(transition, next);
     }
 
+    private void addDictionaryTransition(Transition transition, ShapeImpl successor) {
+        expungeStaleDictionaryTransitions();
+        ConcurrentHashMap<Transition, DictionaryTransitionReference> map = dictionaryTransitions;
+        if (map == null) {
+            synchronized (this) {
+                map = dictionaryTransitions;
+                if (map == null) {
+                    map = new ConcurrentHashMap<>();
+                    dictionaryTransitions = map;
+                }
+            }
+        }
+        map.put(transition, new DictionaryTransitionReference(this, transition, successor));
+    }
+
+    @TruffleBoundary
+    private ShapeImpl queryDictionaryTransition(Transition transition) {
+        ConcurrentHashMap<Transition, DictionaryTransitionReference> map = dictionaryTransitions;
+        if (map == null) {
+            return null;
+        }
+        DictionaryTransitionReference ref = map.get(transition);
+        return ref == null ? null : ref.get();
+    }
+
+    private static void expungeStaleDictionaryTransitions() {
+        Reference<? extends ShapeImpl> ref;
+        while ((ref = DICTIONARY_REFERENCE_QUEUE.poll()) != null) {
+            DictionaryTransitionReference stale = (DictionaryTransitionReference) ref;
+            stale.owner.dictionaryTransitions.remove(stale.transition, stale);
+        }
+    }
+
+    private static final ReferenceQueue<ShapeImpl> DICTIONARY_REFERENCE_QUEUE = new ReferenceQueue<>();
+
+    private static final class DictionaryTransitionReference extends WeakReference<ShapeImpl> {
+        final ShapeImpl owner;
+        final Transition transition;
+
+        DictionaryTransitionReference(ShapeImpl owner, Transition transition, ShapeImpl successor) {
+            super(successor, DICTIONARY_REFERENCE_QUEUE);
+            this.owner = owner;
+            this.transition = transition;
+        }
+    }
+
     /** @since 0.17 or earlier */
     public final void addIndirectTransition(Transition transition, ShapeImpl next) {
         assert !isShared();
         assert next.getParent() != this && !transition.isDirect();
+        if (dictionary) {
+            return;
+        }
         addTransitionInternal(transition, next);
     }
 
+    /**
+     * Returns the number of cached transitions of this shape.
+     *
+     * @since 1.0
+     */
+    @SuppressWarnings("unchecked")
+    public final int getTransitionCount() {
+        Object trans = transitionMap;
+        if (trans == null) {
+            return 0;
+        } else if (trans instanceof Map.Entry<?, ?>) {
+            return 1;
+        } else {
+            assert trans instanceof Map<?, ?>;
+            return ((Map<Transition, ShapeImpl>) trans).size();
+        }
+    }
+
+    /**
+     * Returns {@code true} if this shape is in dictionary mode. Successors of a dictionary shape
+     * are only weakly cached, so dictionary-like objects with many distinct keys do not grow the
+     * shape tree permanently while objects with the same keys still share their shapes.
+     *
+     * @since 1.0
+     */
+    public final boolean isDictionary() {
+        return dictionary;
+    }
+
     @SuppressWarnings("unchecked")
     private void addTransitionInternal(Transition transition, ShapeImpl successor) {
         Object prev;
@@ -364,6 +562,9 @@ public abstract class ShapeImpl extends Shape {
     /** @since 0.17 or earlier */
     public final ShapeImpl queryTransition(Transition transition) {
         ShapeImpl cachedShape = queryTransitionImpl(transition);
+        if (cachedShape == null && dictionaryTransitions != null) {
+            cachedShape = queryDictionaryTransition(transition);
+        }
         if (cachedShape != null) {
             shapeCacheHitCount.inc();
             return cachedShape;
@@ -1172,6 +1373,7 @@ public abstract class ShapeImpl extends Shape {
     private static final DebugCounter shapeCloneCount = DebugCounter.create("Shapes allocated cloned");
     private static final DebugCounter shapeCacheHitCount = DebugCounter.create("Shape cache hits");
     private static final DebugCounter shapeCacheMissCount = DebugCounter.create("Shape cache misses");
+    private static final DebugCounter dictionaryShapeCount = DebugCounter.create("Shapes allocated in dictionary mode");
 
     /** @since 0.17 or earlier */
     public ForeignAccess getForeignAccessFactory(DynamicObject object) {
@@ -26,11 +26,13 @@ package com.oracle.truffle.object;
 
 import java.io.PrintWriter;
 import java.text.DecimalFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.oracle.truffle.api.object.DynamicObject;
@@ -94,6 +96,27 @@ class ShapeProfiler {
         dump(out);
     }
 
+    /**
+     * Dumps statistics about the shape trees reachable from the roots of all tracked objects'
+     * shapes: tree size, depth, transition fan-out and dictionary mode shapes.
+     */
+    public void dumpShapeTree(PrintWriter out) {
+        Set<ShapeImpl> roots = Collections.newSetFromMap(new IdentityHashMap<ShapeImpl, Boolean>());
+        ShapeTreeStats treeStats = new ShapeTreeStats();
+        for (DynamicObject obj : queue) {
+            ShapeImpl shape = (ShapeImpl) obj.getShape();
+            if (shape.isDictionary()) {
+                // only weakly reachable through transitions
+                treeStats.uncachedDictionaryShapes.add(shape);
+            }
+            roots.add(shape.getRoot());
+        }
+        for (ShapeImpl root : roots) {
+            treeStats.profileTree(root);
+        }
+        treeStats.dump(out);
+    }
+
     private static String createLabel(Shape shape) {
         String label = shape.toString();
         return label.substring(label.indexOf('{') + 1, label.lastIndexOf('}'));
@@ -206,6 +229,71 @@ class ShapeProfiler {
         }
     }
 
+    private static class ShapeTreeStats {
+        private final Set<ShapeImpl> uncachedDictionaryShapes = Collections.newSetFromMap(new IdentityHashMap<ShapeImpl, Boolean>());
+        private long trees;
+        private long shapes;
+        private long leaves;
+        private long transitions;
+        private long dictionaryShapes;
+        private int maxDepth;
+        private int maxFanOut;
+        private long sumTreeSize;
+        private long maxTreeSize;
+
+        public void profileTree(ShapeImpl root) {
+            Set<ShapeImpl> visited = Collections.newSetFromMap(new IdentityHashMap<ShapeImpl, Boolean>());
+            ArrayDeque<ShapeImpl> worklist = new ArrayDeque<>();
+            worklist.add(root);
+            visited.add(root);
+            while (!worklist.isEmpty()) {
+                ShapeImpl shape = worklist.poll();
+                int fanOut = shape.getTransitionCount();
+                transitions += fanOut;
+                maxFanOut = Math.max(maxFanOut, fanOut);
+                maxDepth = Math.max(maxDepth, shape.getDepth());
+                if (fanOut == 0) {
+                    leaves++;
+                }
+                for (ShapeImpl successor : shape.getTransitionMapForRead().values()) {
+                    if (visited.add(successor)) {
+                        worklist.add(successor);
+                    }
+                }
+            }
+            for (ShapeImpl dictionaryShape : uncachedDictionaryShapes) {
+                if (dictionaryShape.getRoot() == root && visited.add(dictionaryShape)) {
+                    dictionaryShapes++;
+                    maxDepth = Math.max(maxDepth, dictionaryShape.getDepth());
+                }
+            }
+            trees++;
+            shapes += visited.size();
+            sumTreeSize += visited.size();
+            maxTreeSize = Math.max(maxTreeSize, visited.size());
+        }
+
+        public void dump(PrintWriter out) {
+            DecimalFormat format = new DecimalFormat("###.####");
+            long inner = shapes - leaves;
+            out.println(LINE_SEPARATOR);
+            out.println(BULLET + "Shape tree statistics");
+            out.println(LINE_SEPARATOR);
+            out.println(BULLET + "Shape trees:\t" + trees);
+            out.println(BULLET + "Total shapes:\t" + shapes);
+            out.println(BULLET + "Average shapes per tree:\t" + format.format(trees == 0 ? 0 : (double) sumTreeSize / trees));
+            out.println(BULLET + "Largest tree:\t" + maxTreeSize);
+            out.println(BULLET + "Maximum depth:\t" + maxDepth);
+            out.println(BULLET + "Leaf shapes:\t" + leaves);
+            out.println(BULLET + "Cached transitions:\t" + transitions);
+            out.println(BULLET + "Average transitions per inner shape:\t" + format.format(inner == 0 ? 0 : (double) transitions / inner));
+            out.println(BULLET + "Maximum transitions per shape:\t" + maxFanOut);
+            out.println(BULLET + "Dictionary mode shapes:\t" + dictionaryShapes);
+            out.println(LINE_SEPARATOR + "\n");
+            out.flush();
+        }
+    }
+
     public static ShapeProfiler getInstance() {
         return shapeProf;
     }
@@ -218,7 +306,9 @@ class ShapeProfiler {
             Runtime.getRuntime().addShutdownHook(new Thread() {
                 @Override
                 public void run() {
-                    getInstance().dump(new PrintWriter(System.out), com.oracle.truffle.object.ObjectStorageOptions.ProfileTopResults);
+                    PrintWriter out = new PrintWriter(System.out);
+                    getInstance().dump(out, com.oracle.truffle.object.ObjectStorageOptions.ProfileTopResults);
+                    getInstance().dumpShapeTree(out);
                 }
             });
         } else {